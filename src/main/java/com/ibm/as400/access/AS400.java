@@ -19,6 +19,7 @@ import java.beans.PropertyVetoException;
 import java.beans.VetoableChangeListener;
 import java.beans.VetoableChangeSupport;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
@@ -1988,6 +1989,105 @@ public class AS400 implements Serializable, AutoCloseable
         }
     }
 
+    /**
+     * Connects to several services at the same time. Security is validated once, and then the
+     * connections to the services are established in parallel, so that the time taken is about
+     * that of the slowest service rather than the sum of all of them.  This can be used to warm
+     * up an AS400 object when an application starts.
+     *
+     * @param services The services. Valid services are the ones listed for {@link #connectService(int) connectService()}.
+     * @exception AS400SecurityException If a security or authority error occurs.
+     * @exception ExtendedIllegalArgumentException If a service is not valid.
+     * @exception IOException            If an error occurs while communicating with the system.
+     **/
+    public void connectServices(int... services) throws AS400SecurityException, IOException
+    {
+        if (services == null)
+            throw new NullPointerException("services");
+
+        // Validate parameters before connecting anything.
+        boolean keepSignonConnection = false;
+        for (int i = 0; i < services.length; ++i)
+        {
+            if (services[i] < 0 || services[i] > 7)
+                throw new ExtendedIllegalArgumentException("services[" + i + "] (" + services[i] + ")", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+            if (services[i] == AS400.SIGNON)
+                keepSignonConnection = true;
+        }
+
+        if (services.length == 0)
+            return;
+        if (services.length == 1)
+        {
+            connectService(services[0]);
+            return;
+        }
+
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Connecting " + services.length + " services in parallel.");
+
+        chooseImpl();
+
+        if (credVault_ instanceof ProfileTokenVault)
+            ((ProfileTokenVault) credVault_).preventRefresh();
+
+        try
+        {
+            // Sign on once, before the services race each other to do it.
+            signon(keepSignonConnection);
+
+            final Throwable[] errors = new Throwable[services.length];
+            Thread[] threads = new Thread[services.length];
+            for (int i = 0; i < services.length; ++i)
+            {
+                final int index = i;
+                final int service = services[i];
+                threads[i] = AS400ThreadedServer.newThread(new Runnable() {
+                    public void run()
+                    {
+                        try {
+                            impl_.connect(service, -1, skipSignonServer_);
+                            if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Service connected:", AS400.getServerName(service));
+                        }
+                        catch (Throwable e) {
+                            errors[index] = e;
+                        }
+                    }
+                }, "AS400 connect " + AS400.getServerName(service), virtualThreads_);
+                threads[i].start();
+            }
+
+            for (int i = 0; i < threads.length; ++i)
+            {
+                try {
+                    threads[i].join();
+                }
+                catch (InterruptedException e) {
+                    Trace.log(Trace.ERROR, "Interrupted while connecting services.");
+                    InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+                    throwException.initCause(e);
+                    throw throwException;
+                }
+            }
+
+            // Report the first failure.  Services that connected successfully stay connected.
+            for (int i = 0; i < errors.length; ++i)
+            {
+                Throwable e = errors[i];
+                if (e == null) continue;
+                if (e instanceof AS400SecurityException) throw (AS400SecurityException) e;
+                if (e instanceof IOException) throw (IOException) e;
+                if (e instanceof RuntimeException) throw (RuntimeException) e;
+                if (e instanceof Error) throw (Error) e;
+                throw new ServerStartupException(ServerStartupException.CONNECTION_NOT_ESTABLISHED, e);
+            }
+        }
+        finally
+        {
+            if (credVault_ instanceof ProfileTokenVault)
+                ((ProfileTokenVault) credVault_).allowRefresh();
+        }
+    }
+
     // Common code for all the constuctors and readObject.
     private void construct()
     {
@@ -1098,6 +1098,19 @@ public class AS400FTP
 
 
 
+// ---------------------------------------------------------------------------
+   //
+   // A segment connection of a parallel transfer signs on with the AS400 object.
+   //
+
+    FTP newSegmentClient()
+    {
+       return initSegmentClient(new AS400FTP(system_));
+    }
+
+
+
+
 // ---------------------------------------------------------------------------
    /**
     * Calling setServer() is valid only for FTP objects.  An
@@ -949,6 +949,7 @@ abstract public class AS400File implements Serializable, AutoCloseable
 
         // Delete the current record.
         doIt("deleteCurrentRecord");
+        recordsModified();
 
         // Fire the FILE_MODIFIED FileEvent
         fireEvent(FileEvent.FILE_MODIFIED);
@@ -1049,6 +1050,13 @@ abstract public class AS400File implements Serializable, AutoCloseable
         return r;
     }
 
+    // Called after records in the file have been written, updated, deleted or
+    // rolled back through this object.  KeyedFile overrides this to clear its
+    // keyed record cache.
+    void recordsModified()
+    {
+    }
+
     /**
      *Closes the file when this object is garbage collected.
      *@exception Throwable If an exception is thrown while cleaning up.
@@ -2119,6 +2127,7 @@ abstract public class AS400File implements Serializable, AutoCloseable
         if (isCommitmentControlStarted()) // if returns true, then impl has been chosen.
         {
             doIt("rollback");
+            recordsModified();
         }
     }
 
@@ -2556,6 +2565,7 @@ abstract public class AS400File implements Serializable, AutoCloseable
             throw new NullPointerException("record");
         }
         impl_.doIt("update", new Class[] { Record.class }, new Object[] { record });
+        recordsModified();
 
         // Fire the FILE_MODIFIED FileEvent
         fireEvent(FileEvent.FILE_MODIFIED);
@@ -2633,6 +2643,7 @@ abstract public class AS400File implements Serializable, AutoCloseable
             throw new ExtendedIllegalArgumentException("records", ExtendedIllegalArgumentException.LENGTH_NOT_VALID);
         }
         impl_.doIt("write", new Class[] { Record[].class }, new Object[] { records });
+        recordsModified();
 
         // Fire the FILE_MODIFIED FileEvent
         fireEvent(FileEvent.FILE_MODIFIED);
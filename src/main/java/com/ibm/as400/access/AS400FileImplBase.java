@@ -2959,6 +2959,41 @@ throws AS400Exception, AS400SecurityException, InterruptedException,   IOExcepti
       int searchType)
 throws AS400Exception, AS400SecurityException, InterruptedException,   IOException;
 
+  /**
+   *Reads the first record with each of the specified keys based on the specified search type.
+   *This implementation reads the records one at a time; subclasses may send the
+   *requests together.
+   *@param keys The keys with which to find the records.
+   *@param searchType The type of read.  This value is one of the TYPE_GETKEY_* constants.
+   *@return The records read, in the order of <i>keys</i>.  An element is null if
+   *no record was found for the corresponding key.
+   *@exception AS400Exception If the server returns an error message.
+   *@exception AS400SecurityException If a security or authority error occurs.
+   *@exception InterruptedException If this thread is interrupted.
+   *@exception IOException If an error occurs while communicating with the server.
+   **/
+  public Record[] readKeys(Object[][] keys, int searchType)
+  throws AS400Exception, AS400SecurityException, InterruptedException,   IOException
+  {
+    Record[] records = new Record[keys.length];
+    for (int i = 0; i < keys.length; ++i)
+    {
+      records[i] = read(keys[i], searchType);
+    }
+    return records;
+  }
+
+  public Record[] readKeysLong(Object[][] keys, int searchType)
+  throws AS400Exception, AS400SecurityException, InterruptedException,   IOException
+  {
+    Record[] records = new Record[keys.length];
+    for (int i = 0; i < keys.length; ++i)
+    {
+      records[i] = readLong(keys[i], searchType);
+    }
+    return records;
+  }
+
 
   // @A2A
   /**
@@ -59,6 +59,9 @@ class AS400FileImplRemote extends AS400FileImplBase implements Serializable //@C
   private static int lastCorrelationId_ = 0; //@B6C
   private static Object correlationIdLock_ = new Object(); //@B6A
 
+  // The maximum number of S38GETK requests sent in one chain by readKeys().
+  private static final int KEYS_PER_CHAIN = 64;
+
   // Identify the DDM reply data streams to the AS400Server class.
   static
   {
@@ -1432,7 +1435,9 @@ class AS400FileImplRemote extends AS400FileImplBase implements Serializable //@C
       // the S38BUF data.  We need to special handle these instances, so we use largeBuffer
       // to indicate when such a case has occurred.
       largeBuffer = (reply.get16bit(6) <= 0x7FFF)? false : true;
-      if (reply.isChained())
+      // A reply in the middle of a chain of requests is chained even when the
+      // S38IOFB is in the same reply, so also check that there is a next reply.
+      if (reply.isChained() && replys.size() > 1)
       { // The IO feedback is in the next reply.  The S38IOFB data starts at offset
         // 10 in the next reply.
         ioFeedback = new DDMS38IOFB(((DDMDataStream)replys.elementAt(1)).data_, 10);
@@ -1574,7 +1579,9 @@ class AS400FileImplRemote extends AS400FileImplBase implements Serializable //@C
           // the S38BUF data.  We need to special handle these instances, so we use largeBuffer
           // to indicate when such a case has occurred.
           largeBuffer = (reply.get16bit(6) <= 0x7FFF)? false : true;
-          if (reply.isChained())
+          // A reply in the middle of a chain of requests is chained even when the
+      // S38IOFB is in the same reply, so also check that there is a next reply.
+      if (reply.isChained() && replys.size() > 1)
           { // The IO feedback is in the next reply.  The S38IOFB data starts at offset
             // 10 in the next reply.
             ioFeedback = new DDMS38IOFB(((DDMDataStream)replys.elementAt(1)).data_, 10);
@@ -2119,6 +2126,90 @@ class AS400FileImplRemote extends AS400FileImplBase implements Serializable //@C
         return(returned == null)? null : returned[0];
       }
 
+  /**
+   *Reads the first record with each of the specified keys based on the specified type of read.
+   *The S38GETK requests for up to KEYS_PER_CHAIN keys are sent as one chain,
+   *with continue on error set so that a key that is not found does not end the chain,
+   *and then all of the replies for the chain are received.
+   *@param keys The keys with which to find the records.
+   *@param searchType The type of read.  This value is one of the TYPE_GETKEY_* constants.
+   *@return The records read, in the order of <i>keys</i>.  An element is null if
+   *no record was found for the corresponding key.
+   *@exception AS400Exception If the server returns an error message.
+   *@exception AS400SecurityException If a security or authority error occurs.
+   *@exception ConnectionDroppedException If the connection is dropped unexpectedly.
+   *@exception InterruptedException If this thread is interrupted.
+   *@exception IOException If an error occurs while communicating with the server.
+  **/
+  public Record[] readKeys(Object[][] keys, int searchType)
+  throws AS400Exception,
+  AS400SecurityException,
+  InterruptedException,
+  IOException
+  {
+    return readKeys(keys, searchType, false);
+  }
+
+  public Record[] readKeysLong(Object[][] keys, int searchType)
+  throws AS400Exception,
+  AS400SecurityException,
+  InterruptedException,
+  IOException
+  {
+    return readKeys(keys, searchType, true);
+  }
+
+  private Record[] readKeys(Object[][] keys, int searchType, boolean longRecordNumber)
+  throws AS400Exception,
+  AS400SecurityException,
+  InterruptedException,
+  IOException
+  {
+    int shr;  // Type of locking for the record
+    if ((openType_ == AS400File.READ_ONLY) ||
+        ((openType_ == AS400File.READ_WRITE) && readNoUpdate_))
+    {
+      // Read only
+      shr = SHR_READ_NORM;
+    }
+    else
+    { // READ_WRITE
+      shr = SHR_UPD_NORM;
+    }
+
+    Record[] records = new Record[keys.length];
+    for (int start = 0; start < keys.length; start += KEYS_PER_CHAIN)
+    {
+      int count = Math.min(KEYS_PER_CHAIN, keys.length - start);
+      DDMRequestDataStream[] reqs = new DDMRequestDataStream[count];
+      for (int i = 0; i < count; ++i)
+      {
+        reqs[i] = DDMRequestDataStream.getRequestS38GETK(dclName_, recordFormat_, recordFormatCTLLName_, searchType, shr, DATA_DTA_DTARCD, keys[start + i], system_);
+        if (i < count - 1)
+        {
+          reqs[i].setIsChained(true);
+          reqs[i].setContinueOnError(true);
+        }
+      }
+      Vector[] replys = sendRequestsAndReceiveReplies(reqs);
+
+      // All of the replies for the chain have been received, so an exception
+      // for one key leaves the conversation in a known state.
+      for (int i = 0; i < count; ++i)
+      {
+        Record[] returned = longRecordNumber ? processReadReplyLong(replys[i], false) : processReadReply(replys[i], false);
+        records[start + i] = (returned == null) ? null : returned[0];
+      }
+    }
+
+    if (cacheRecords_)
+    {
+      cache_.setIsEmpty();
+    }
+
+    return records;
+  }
+
   // @A1A
   /**
    *Reads the first record with the specified key based on the specified type of read.
@@ -2425,6 +2516,58 @@ class AS400FileImplRemote extends AS400FileImplBase implements Serializable //@C
   }
 
 
+  /**
+   *Sends a chain of requests and receives all the replies to each of them.
+   *@param reqs The requests to be sent.  Each request except the last must be chained.
+   *@return The replies to each request, in the order of <i>reqs</i>.
+   *@exception ConnectionDroppedException If the connection is dropped unexpectedly.
+   *@exception InterruptedException If this thread is interrupted.
+   *@exception IOException If an error occurs while communicating with the server.
+  **/
+  private Vector[] sendRequestsAndReceiveReplies(DDMDataStream[] reqs)
+  throws InterruptedException, IOException, AS400SecurityException
+  {
+    connect();
+
+    Vector[] replys = new Vector[reqs.length];
+    try
+    {
+      synchronized(server_) // The chain must be written atomically.
+      {
+        int[] ids = new int[reqs.length];
+        for (int i = 0; i < reqs.length; ++i)
+        {
+          ids[i] = newCorrelationId();
+          server_.send(reqs[i], ids[i]);
+        }
+        for (int i = 0; i < reqs.length; ++i)
+        {
+          replys[i] = new Vector();
+          DDMDataStream reply = (DDMDataStream)server_.receive(ids[i]);
+          // The chain bit is set on every reply but the last one of the whole chain,
+          // so the replies to one request end at the first reply that does not have
+          // the same correlator bit set.
+          while (reply.hasSameRequestCorrelation())
+          {
+            replys[i].addElement(reply);
+            reply = (DDMDataStream)server_.receive(ids[i]);
+          }
+          replys[i].addElement(reply);
+        }
+      }
+    }
+    catch (ConnectionDroppedException e)
+    {
+      // Connection dropped.  Disconnect server and rethrow.
+      Trace.log(Trace.ERROR, "ConnectionDroppedException:", e);
+      system_.disconnectServer(server_);
+      resetState();
+      throw e;
+    }
+    return replys;
+  }
+
+
   /**
    *Sets the declared file name (DCLNAM). The declared file name for each
    *file object must be unique.  This method will generate a unique declared file
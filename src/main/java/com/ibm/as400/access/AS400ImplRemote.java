@@ -86,6 +86,13 @@ public class AS400ImplRemote implements AS400Impl
                                  // AS400.HOSTCNN (8) - SLOT NOT USED
   };
 
+  // Held while a shared connection to a service is being established, so that two threads
+  // do not both connect the same service.  There is one lock per service, so connecting
+  // one service does not hold up requests for the others.
+  private final Object[] connectLocks_ = {
+      new Object(), new Object(), new Object(), new Object(), new Object(), new Object(), new Object()
+  };
+
   // System name.
   private String systemName_ = "";
   // User ID.
@@ -144,7 +151,7 @@ public class AS400ImplRemote implements AS400Impl
   // Password level 
   private int passwordLevel_ = 0; // 0-1  == DES, 2-3 == SHA-1.
   // Flag indicating if we have determined the password type yet.
-  private boolean isPasswordTypeSet_ = false;
+  private volatile boolean isPasswordTypeSet_ = false;
   // Sign-on information retrieved on sign-on information request.
   private SignonInfo signonInfo_;
   // Additional authentication factor indicator
@@ -1452,7 +1459,10 @@ public class AS400ImplRemote implements AS400Impl
       return getConnection(service, -1, forceNewConnection, skipSignonServer);
   }
   
-  synchronized AS400Server getConnection(int service, int overridePort, boolean forceNewConnection, boolean skipSignonServer) throws AS400SecurityException, IOException
+  // Not synchronized on this object:  the sign-on exchange (hostcnnConnect(), signonConnect())
+  // is synchronized, while the connection to each service is only serialized with other
+  // requests for the same service.
+  AS400Server getConnection(int service, int overridePort, boolean forceNewConnection, boolean skipSignonServer) throws AS400SecurityException, IOException
   {
       if (Trace.traceOn_)
           Trace.log(Trace.DIAGNOSTIC, "Handling request for host server job connection: " + AS400.getServerName(service));
@@ -1472,12 +1482,18 @@ public class AS400ImplRemote implements AS400Impl
       // Skip this test if not using the signon server.
       if (!isPasswordTypeSet_ && !skipSignonServer)
       {
-          hostcnnConnect(true);
-
-          if (hostcnnServer_ == null)
+          synchronized (this)
           {
-              signonConnect();
-              signonDisconnect();
+              if (!isPasswordTypeSet_)
+              {
+                  hostcnnConnect(true);
+
+                  if (hostcnnServer_ == null)
+                  {
+                      signonConnect();
+                      signonDisconnect();
+                  }
+              }
           }
       }
 
@@ -1485,21 +1501,47 @@ public class AS400ImplRemote implements AS400Impl
       // See if we have a server available to reuse
       // -------
       
-      AS400Server server = null;
       Vector<AS400Server> serverList = (Vector<AS400Server>) serverPool_[service];
 
+      // A forced new connection is never shared, so it doesn't need to wait for anybody.
+      if (forceNewConnection)
+          return connectService(service, overridePort, skipSignonServer, serverList);
+
+      AS400Server server = getPooledServer(serverList);
+      if (server != null)
+          return server;
+
+      synchronized (connectLocks_[service])
+      {
+          // Another thread may have connected the service while we waited.
+          server = getPooledServer(serverList);
+          if (server != null)
+              return server;
+
+          return connectService(service, overridePort, skipSignonServer, serverList);
+      }
+  }
+
+  // Returns the first server in the pool for a service, or null if there is none.
+  private static AS400Server getPooledServer(Vector<AS400Server> serverList)
+  {
       synchronized (serverList)
       {
-          if (!forceNewConnection && !serverList.isEmpty())
+          if (!serverList.isEmpty())
           {
-              server = serverList.firstElement();
-
               if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Reusing previous server object...");
 
-              return server;
+              return serverList.firstElement();
           }
       }
-    
+      return null;
+  }
+
+  // Establishes a new connection to a service and adds it to the pool for the service.
+  private AS400Server connectService(int service, int overridePort, boolean skipSignonServer, Vector<AS400Server> serverList) throws AS400SecurityException, IOException
+  {
+      AS400Server server = null;
+
       // -------
       // Setup communications with the IBM i server, either through the HOSTCNN server
       // or directly to the host server.
@@ -1507,6 +1549,7 @@ public class AS400ImplRemote implements AS400Impl
       
       // Ensure we have an authenticated connection to hostcnn, if possible
       hostcnnConnect(true);
+      AS400NoThreadServer hostcnnServer = hostcnnServer_;
       
       SocketContainer socketContainer = null;
       int connectionID;
@@ -1515,7 +1558,7 @@ public class AS400ImplRemote implements AS400Impl
       OutputStream outStream = null;
 
       // DDM (AS400.RECORDACCESS) does not fall under the HOSTCNN umbrella, it is a separate server. 
-      if ((hostcnnServer_ == null) || (service == AS400.RECORDACCESS))
+      if ((hostcnnServer == null) || (service == AS400.RECORDACCESS))
       {
           try
           {
@@ -1703,7 +1746,7 @@ public class AS400ImplRemote implements AS400Impl
                                  : new AS400NoThreadServer(this, service, socketContainer, jobString);
       }
       else 
-          server = getConnectionViaHOSTCNN(service, overridePort, forceNewConnection, skipSignonServer);
+          server = getConnectionViaHOSTCNN(hostcnnServer, service);
 
     if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Server started successfully. Job: " + server.jobString_);
 
@@ -1715,7 +1758,8 @@ public class AS400ImplRemote implements AS400Impl
     return server;
   }
   
-  private  AS400Server getConnectionViaHOSTCNN(int service, int overridePort, boolean forceNewConnection, boolean skipSignonServer) throws AS400SecurityException, IOException
+  // The hostcnn server is passed in, since other threads may connect other services through it at the same time.
+  private  AS400Server getConnectionViaHOSTCNN(AS400NoThreadServer hostcnnServer, int service) throws AS400SecurityException, IOException
   {
       if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Attempting to create connection to " + AS400.getServerName(service) + " via as-hostcnn");
 
@@ -1735,10 +1779,10 @@ public class AS400ImplRemote implements AS400Impl
           int requestedServerID = AS400Server.getServerId(service);
     
           HCSPrepareNewConnDS HCSPrepDS = new HCSPrepareNewConnDS(requestedServerID);
-          if (Trace.traceOn_) HCSPrepDS.setConnectionID(hostcnnServer_.getConnectionID());
+          if (Trace.traceOn_) HCSPrepDS.setConnectionID(hostcnnServer.getConnectionID());
           
           usingAuthenticatedHostcnnConnection = true;         
-          HCSPrepareNewConnReplyDS HCSPrepReply = (HCSPrepareNewConnReplyDS) hostcnnServer_.sendAndReceive(HCSPrepDS);
+          HCSPrepareNewConnReplyDS HCSPrepReply = (HCSPrepareNewConnReplyDS) hostcnnServer.sendAndReceive(HCSPrepDS);
           usingAuthenticatedHostcnnConnection = false;         
     
           if (HCSPrepReply.getRC() != 0)
@@ -1796,7 +1840,7 @@ public class AS400ImplRemote implements AS400Impl
           if (Trace.traceOn_) HCSRouteDS.setConnectionID(connectionID);
         
           usingAuthenticatedHostcnnConnection = true;
-          HCSRouteNewConnReplyDS HCSRouteReply = (HCSRouteNewConnReplyDS) hostcnnServer_.sendAndReceive(HCSRouteDS);
+          HCSRouteNewConnReplyDS HCSRouteReply = (HCSRouteNewConnReplyDS) hostcnnServer.sendAndReceive(HCSRouteDS);
           usingAuthenticatedHostcnnConnection = false;
     
           if (HCSRouteReply.getRC() != 0)
@@ -1820,8 +1864,12 @@ public class AS400ImplRemote implements AS400Impl
               // If error happened when communicating with hostcnn, close the socket.
               if (usingAuthenticatedHostcnnConnection)
               {
-                  hostcnnServer_.forceDisconnect();
-                  hostcnnServer_ = null;
+                  synchronized (this)
+                  {
+                      hostcnnServer.forceDisconnect();
+                      if (hostcnnServer_ == hostcnnServer)
+                          hostcnnServer_ = null;
+                  }
               }
               
               // If we have host server connection, close it as well. 
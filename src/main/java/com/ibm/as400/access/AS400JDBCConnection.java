@@ -564,6 +564,27 @@ implements Connection
 
 
 
+    /**
+    Returns the number of prepared statements that were taken from the
+    statement cache instead of being prepared on the system.  The statement
+    cache is enabled with the "statement cache size" property.
+
+    @return The number of statement cache hits.
+    **/
+     abstract public long getStatementCacheHitCount();
+
+
+    /**
+    Returns the number of prepared statements that could not be taken from
+    the statement cache and were prepared on the system.  This is always 0
+    when the statement cache is not enabled.
+
+    @return The number of statement cache misses.
+    **/
+     abstract public long getStatementCacheMissCount();
+
+
+
 
      abstract int getServerFunctionalLevel();                                                                   // @EEA
 
@@ -798,6 +819,26 @@ implements Connection
     throws SQLException;
 
 
+
+    /**
+    Offers a closed prepared statement to the connection's statement cache.
+
+    @param   statement   The statement.
+    @return              true if the statement was cached and must not
+                         be closed, false otherwise.
+    **/
+     abstract     boolean returnToStatementCache (AS400JDBCPreparedStatementImpl statement);
+
+
+
+    /**
+    Closes the statements kept in the connection's statement cache.  This
+    is done when the current schema or path changes, since unqualified names
+    in the cached statements were resolved using the old value.
+    **/
+     abstract     void clearStatementCache ();
+
+
     // @A3D - Moved this logic up into AS400JDBCDriver:
     //    private void open ()
     //        throws SQLException
@@ -1314,6 +1355,31 @@ implements Connection
     abstract DBReplyRequestedDS receiveMoreData()
     throws SQLException;
 
+    /**
+    Sends a request data stream to the system without waiting
+    for the reply.  The reply must later be collected with
+    receiveDeferred().  Used to overlap a fetch with the
+    processing of the previous block of rows.
+
+    @param   request     The request.
+    @return              The correlation id of the request.
+
+    @exception           SQLException   If an error occurs.
+    **/
+    abstract int sendAndDeferReceive (DBBaseRequestDS request)
+    throws SQLException;
+
+    /**
+    Returns the reply to a request sent with sendAndDeferReceive().
+
+    @param   correlationId  The correlation id returned by sendAndDeferReceive().
+    @return                 The reply.
+
+    @exception              SQLException   If an error occurs.
+    **/
+    abstract DBReplyRequestedDS receiveDeferred (int correlationId)
+    throws SQLException;
+
 
     // @E4C
     /**
@@ -607,6 +607,32 @@ implements Connection //@A5A
       validateConnection();
       return connection_.getServerJobIdentifier();
   }
+
+  /**
+  *  Returns the number of prepared statements that were taken from the
+  *  statement cache of the underlying connection.
+  *
+  *  @return The number of statement cache hits.
+  *  @exception  SQLException  If the connection is not open.
+  **/
+  public long getStatementCacheHitCount() throws SQLException
+  {
+      validateConnection();
+      return connection_.getStatementCacheHitCount();
+  }
+
+  /**
+  *  Returns the number of prepared statements that could not be taken from
+  *  the statement cache of the underlying connection.
+  *
+  *  @return The number of statement cache misses.
+  *  @exception  SQLException  If the connection is not open.
+  **/
+  public long getStatementCacheMissCount() throws SQLException
+  {
+      validateConnection();
+      return connection_.getStatementCacheMissCount();
+  }
   
   //@pda
   /**
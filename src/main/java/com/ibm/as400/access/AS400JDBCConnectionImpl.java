@@ -46,6 +46,7 @@ import java.util.Enumeration;               // @DAA
 /* ifdef JDBC40 */
 import java.util.HashMap;
 /* endif */ 
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Vector;
@@ -229,6 +230,10 @@ extends AS400JDBCConnection
     private int statementCount_ = 0;                                    //@K1A
     private boolean thousandStatements_ = false;                        //@K1A
 
+    // Prepared statements kept open after the application closed them, or
+    // null if the "statement cache size" property is 0.
+    private JDStatementCache statementCache_ = null;
+
     private String qaqqiniLibrary_ = null;                              //@K2A
 
     //@KBA Specifies level of autocommit support to use.
@@ -566,6 +571,11 @@ extends AS400JDBCConnection
         if (isClosed ())
             return;
 
+        // Close the statements kept in the statement cache.  Since closing_
+        // is set, statements closed from here on are not cached again.
+        if (statementCache_ != null)
+            statementCache_.clear();
+
         // partial close (moved rollback and closing of all the statements).     @E1
         pseudoClose();
 
@@ -1837,7 +1847,7 @@ throws SQLException
     public String nativeSQL (AS400JDBCConnection con, String sql)
     throws SQLException
     {
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), con); // @A2A @G4A
         return sqlStatement.toString ();
@@ -1845,6 +1855,59 @@ throws SQLException
 
 
 
+    /**
+    Offers a closed prepared statement to the statement cache.
+
+    @param   statement   The statement.
+    @return              true if the statement was cached and must not
+                         be closed, false otherwise.
+    **/
+    public boolean returnToStatementCache (AS400JDBCPreparedStatementImpl statement)
+    {
+        if (statementCache_ == null || closing_)
+            return false;
+        return statementCache_.put (statement.cacheKey_, statement);
+    }
+
+
+
+    /**
+    Closes the statements kept in the statement cache.
+    **/
+    void clearStatementCache ()
+    {
+        if (statementCache_ != null)
+            statementCache_.clear ();
+    }
+
+
+
+    /**
+    Returns the number of prepared statements that were taken from the
+    statement cache.
+
+    @return The number of statement cache hits.
+    **/
+    public long getStatementCacheHitCount ()
+    {
+        return (statementCache_ == null) ? 0 : statementCache_.getHits ();
+    }
+
+
+
+    /**
+    Returns the number of prepared statements that could not be taken from
+    the statement cache.
+
+    @return The number of statement cache misses.
+    **/
+    public long getStatementCacheMissCount ()
+    {
+        return (statementCache_ == null) ? 0 : statementCache_.getMisses ();
+    }
+
+
+
     /**
     Notifies the connection that a statement in its context has
     been closed.
@@ -2040,7 +2103,7 @@ throws SQLException
             JDError.throwSQLException (this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);    //@F3A
 
         // Create the statement.
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), this); // @A2A @G4A
         int statementId = getUnusedId (resultSetType); // @B1C
@@ -2153,7 +2216,7 @@ throws SQLException
         checkOpen ();
 
         // Create the statement.
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), con);  // @A2A @G4A
 
@@ -2167,7 +2230,7 @@ throws SQLException
             {
                 //wrapper the statement
                 String selectStatement = makeGeneratedKeySelectStatement(sql);
-                sqlStatement = new JDSQLStatement (selectStatement, properties_.getString(JDProperties.DECIMAL_SEPARATOR), true,
+                sqlStatement = JDSQLStatementCache.getStatement (selectStatement, properties_.getString(JDProperties.DECIMAL_SEPARATOR), true,
                                                    properties_.getString(JDProperties.PACKAGE_CRITERIA), con);
                 wrappedInsert_ = true;
 
@@ -2319,8 +2382,27 @@ throws SQLException
         if (!checkHoldabilityConstants(resultSetHoldability))                   //@F3A
             JDError.throwSQLException (this, JDError.EXC_ATTRIBUTE_VALUE_INVALID);    //@F3A
 
+        // Use a statement from the statement cache, if there is one.
+        String cacheKey = null;
+        if (statementCache_ != null && sql != null)
+        {
+            cacheKey = JDStatementCache.makeKey (sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+            AS400JDBCPreparedStatementImpl cached = statementCache_.get (cacheKey);
+            if (cached != null)
+            {
+                if (cached.connection_ == con)
+                {
+                    cached.reopenFromCache ();
+                    if (JDTrace.isTraceOn())
+                        JDTrace.logInformation (this, "Statement " + cached.id_ + " taken from the statement cache");
+                    return cached;
+                }
+                cached.closeUncached ();
+            }
+        }
+
         // Create the statement.
-        JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+        JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                           properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                           properties_.getString (JDProperties.PACKAGE_CRITERIA), con);  // @A2A @G4A
         int statementId = getUnusedId (resultSetType); // @B1C
@@ -2333,6 +2415,7 @@ throws SQLException
                                                                                properties_.getString (JDProperties.PACKAGE_CRITERIA),
                                                                                resultSetType, resultSetConcurrency, resultSetHoldability, //@G4A
                                                                                AS400JDBCStatement.GENERATED_KEYS_NOT_SPECIFIED);                        //@G4A
+        statement.cacheKey_ = cacheKey;
         statements_.addElement(statement);                      // @DAC
         statementCount_++;                           //@K1A
         if(thousandStatements_ == false && statementCount_ == 1000)              //@K1A
@@ -2386,7 +2469,7 @@ throws SQLException
             checkOpen();
 
             //Create a JDSQLStatement
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                               properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                               properties_.getString (JDProperties.PACKAGE_CRITERIA), con);
             //Check if the statement is an insert
@@ -2437,7 +2520,7 @@ throws SQLException
             checkOpen();
 
             //Create a JDSQLStatement
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                               properties_.getString (JDProperties.DECIMAL_SEPARATOR), true,
                                                               properties_.getString (JDProperties.PACKAGE_CRITERIA), con);
             //Check if the statement is an insert
@@ -3291,6 +3374,117 @@ throws SQLException
     }
 
 
+    /**
+    Sends a request data stream to the system without waiting
+    for the reply.  The reply must later be collected with
+    receiveDeferred().
+
+    @param   request     The request.
+    @return              The correlation id of the request.
+
+    @exception           SQLException   If an error occurs.
+    **/
+    //
+    // See implementation notes for sendAndReceive().
+    //
+    public int sendAndDeferReceive (DBBaseRequestDS request)
+    throws SQLException
+    {
+        checkCancel();
+        checkOpen();
+
+        int correlationId = 0;
+        try
+        {
+            request.setBasedOnORSHandle (0);
+
+            if (dataCompression_ == DATA_COMPRESSION_RLE_ && !disableCompression_)
+            {
+                request.addOperationResultBitmap(DBBaseRequestDS.ORS_BITMAP_REQUEST_RLE_COMPRESSION);
+                request.addOperationResultBitmap(DBBaseRequestDS.ORS_BITMAP_REPLY_RLE_COMPRESSION);
+                request.compress();
+            }
+
+            DataStream actualRequest;
+            try {
+                heldRequestsLock.lock();
+                if (heldRequests_ != null)
+                    actualRequest = new DBConcatenatedRequestDS(heldRequests_, request);
+                else
+                    actualRequest = request;
+                heldRequests_ = null;
+
+                correlationId = server_.send(actualRequest);
+            } finally {
+                heldRequestsLock.unlock();
+            }
+
+            if (DEBUG_COMM_TRACE_ > 0)
+            {
+                debug (request);
+            }
+        }
+        catch (IOException e)
+        {
+            // Make sure the underlying socket is closed.
+            as400_.disconnectServer (server_);
+            server_ = null;
+            JDError.throwSQLException (this, JDError.EXC_COMMUNICATION_LINK_FAILURE, e);
+        }
+        catch (Exception e)
+        {
+            JDError.throwSQLException (this, JDError.EXC_INTERNAL, e);
+        }
+        return correlationId;
+    }
+
+
+
+    /**
+    Returns the reply to a request sent with sendAndDeferReceive().
+
+    @param   correlationId  The correlation id returned by sendAndDeferReceive().
+    @return                 The reply.
+
+    @exception              SQLException   If an error occurs.
+    **/
+    public DBReplyRequestedDS receiveDeferred (int correlationId)
+    throws SQLException
+    {
+        DBReplyRequestedDS reply = null;
+        try
+        {
+            // The server was already checked when the request was sent.  If the
+            // connection has since dropped, the receive reports it.
+            AS400Server server = server_;
+            if (server == null)
+                JDError.throwSQLException (this, JDError.EXC_CONNECTION_NONE);
+            reply = (DBReplyRequestedDS) server.receive(correlationId);
+            reply.parse(dataCompression_);
+
+            if (DEBUG_COMM_TRACE_ > 0)
+            {
+                debug (reply);
+            }
+        }
+        catch (IOException e)
+        {
+            as400_.disconnectServer (server_);
+            server_ = null;
+            JDError.throwSQLException (this, JDError.EXC_COMMUNICATION_LINK_FAILURE, e);
+        }
+        catch (SQLException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            JDError.throwSQLException (this, JDError.EXC_INTERNAL, e);
+        }
+        return reply;
+    }
+
+
     // @E4C
     /**
     Sets the auto-commit mode.   If the connection is in auto-commit
@@ -3662,6 +3856,10 @@ throws SQLException
         if ( maximumBlockedInputRows_ > 32000 ) maximumBlockedInputRows_ = 32000;                     // @A6A
         if ( maximumBlockedInputRows_ < 1 ) maximumBlockedInputRows_ = 1;                             // @A6A
 
+        int statementCacheSize = properties_.getInt(JDProperties.STATEMENT_CACHE_SIZE);
+        if (statementCacheSize > 0)
+            statementCache_ = new JDStatementCache(statementCacheSize);
+
         // Issue any warnings.
         if (dataSourceUrl_.isExtraPathSpecified ())
             postWarningSQLState (JDError.WARN_URL_EXTRA_IGNORED);
@@ -6026,6 +6224,8 @@ throws SQLException
     }
     ps.executeUpdate();
     ps.close();
+    // Cached statements were prepared against the old schema.
+    clearStatementCache();
   }
 
   /**
@@ -6272,6 +6472,18 @@ throws SQLException
    * @param newConnection
    */
   void transferObjects(AS400JDBCConnectionImpl newConnection) {
+    // Statements in the statement cache are closed, so they are not moved.
+    if (statementCache_ != null) {
+      List cached = statementCache_.removeAll();
+      for (int i = 0; i < cached.size(); i++) {
+        AS400JDBCStatement statement = (AS400JDBCStatement) cached.get(i);
+        statements_.removeElement(statement);
+        statementCount_--;
+        synchronized (assigned_) {
+          assigned_[statement.id_] = false;
+        }
+      }
+    }
     System.arraycopy(assigned_, 0, newConnection.assigned_, 0, MAX_STATEMENTS_);
     newConnection.statements_ = statements_; 
     statements_ = new Vector(); 
@@ -1088,6 +1088,14 @@ extends AS400JDBCConnection {
 
   }
 
+  public long getStatementCacheHitCount() {
+    return currentConnection_.getStatementCacheHitCount();
+  }
+
+  public long getStatementCacheMissCount() {
+    return currentConnection_.getStatementCacheMissCount();
+  }
+
   // Do not synchronize, just use the current information with whatever the currentConnection_ happens to be. 
   public int getServerFunctionalLevel() {
     return currentConnection_.getServerFunctionalLevel();
@@ -1325,6 +1333,15 @@ extends AS400JDBCConnection {
 
   }
 
+  // Do not synchronize, the statement cache does its own locking.
+  boolean returnToStatementCache(AS400JDBCPreparedStatementImpl statement) {
+    return currentConnection_.returnToStatementCache(statement);
+  }
+
+  void clearStatementCache() {
+    currentConnection_.clearStatementCache();
+  }
+
   public synchronized void postWarningSQLState(String sqlState) throws SQLException {
     boolean retryOperation = true;
     while (retryOperation) {
@@ -1819,6 +1836,18 @@ extends AS400JDBCConnection {
 
   }
 
+  // A deferred reply belongs to the connection that sent the request, so it
+  // cannot be retried on another connection.
+  public synchronized int sendAndDeferReceive(DBBaseRequestDS request)
+      throws SQLException {
+    return currentConnection_.sendAndDeferReceive(request);
+  }
+
+  public synchronized DBReplyRequestedDS receiveDeferred(int correlationId)
+      throws SQLException {
+    return currentConnection_.receiveDeferred(correlationId);
+  }
+
   public synchronized void setAutoCommit(boolean autoCommit) throws SQLException {
     boolean retryOperation = true;
     while (retryOperation) {
@@ -1463,6 +1463,17 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
         return properties_.getString(JDProperties.SORT_WEIGHT);
     }
 
+    /**
+    *  Returns the number of closed prepared statements that each connection
+    *  keeps prepared for reuse.
+    *  @return The statement cache size.
+    *  The default value is 0 (no statement cache).
+    **/
+    public int getStatementCacheSize()
+    {
+        return properties_.getInt(JDProperties.STATEMENT_CACHE_SIZE);
+    }
+
     /**
     *  Returns the time format used in time literals with SQL statements.
     *  @return The time format.
@@ -2020,6 +2031,18 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
         return properties_.getBoolean(JDProperties.PREFETCH);
     }
 
+    /**
+    *  Indicates whether the next block of a forward-only result set is requested
+    *  from the system as soon as the current block arrives.  This overlaps the
+    *  network round trip with the processing of the current block.
+    *  @return true if fetch ahead is used; false otherwise.
+    *  The default value is false.
+    **/
+    public boolean isFetchAhead()
+    {
+        return properties_.getBoolean(JDProperties.FETCH_AHEAD);
+    }
+
     /**
     *  Indicates whether the user is prompted if a user name or password is
     *  needed to connect to the IBM i system.  If a connection can not be made
@@ -3686,6 +3709,29 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
             JDTrace.logInformation (this, "prefetch: " + prefetch);      //@A8C
     }
 
+    /**
+    *  Sets whether the next block of a forward-only result set is requested
+    *  from the system as soon as the current block arrives.  This overlaps the
+    *  network round trip with the processing of the current block.
+    *  @param fetchAhead true if fetch ahead is used; false otherwise.
+    *  The default value is false.
+    **/
+    public void setFetchAhead(boolean fetchAhead)
+    {
+        Boolean oldValue = Boolean.valueOf(isFetchAhead());
+        Boolean newValue = Boolean.valueOf(fetchAhead);
+
+        if (fetchAhead)
+            properties_.setString(JDProperties.FETCH_AHEAD, TRUE_);
+        else
+            properties_.setString(JDProperties.FETCH_AHEAD, FALSE_);
+
+        changes_.firePropertyChange("fetchAhead", oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, "fetchAhead: " + fetchAhead);
+    }
+
     /**
     *  Sets whether the user should be prompted if a user name or password is
     *  needed to connect to the IBM i system.  If a connection can not be made
@@ -4396,6 +4442,35 @@ implements DataSource, Referenceable, Serializable, Cloneable //@PDC 550
             JDTrace.logInformation (this, property + ": " + sortWeight);  //@A8C
     }
 
+    /**
+    *  Sets the number of closed prepared statements that each connection
+    *  keeps prepared for reuse.  When a statement prepared with
+    *  Connection.prepareStatement() is closed, it is kept in the connection's
+    *  statement cache instead of being deleted on the system, and a later
+    *  prepareStatement() with the same SQL text, result set type, concurrency
+    *  and holdability returns it without a prepare request.  Statements whose
+    *  settings were changed by the application are not cached.  The least
+    *  recently used statement is closed when the cache is full.
+    *  @param size The statement cache size.
+    *  The default value is 0 (no statement cache).
+    **/
+    public void setStatementCacheSize(int size)
+    {
+        String property = "statementCacheSize";
+        if (size < 0)
+            throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+        Integer oldValue = Integer.valueOf(getStatementCacheSize());
+        Integer newValue = Integer.valueOf(size);
+
+        properties_.setString(JDProperties.STATEMENT_CACHE_SIZE, Integer.toString(size));
+
+        changes_.firePropertyChange(property, oldValue, newValue);
+
+        if (JDTrace.isTraceOn())
+            JDTrace.logInformation (this, property + ": " + size);
+    }
+
     /**
     *  Sets whether a thread is used.
     *  @param threadUsed true if a thread is used; false otherwise.
@@ -332,6 +332,18 @@ public class AS400JDBCDataSourceBeanInfo extends SimpleBeanInfo {
 			prefetch.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_PREFETCH", null));
 			prefetch.setShortDescription(AS400JDBCDriver.getResource("PREFETCH_DESC", null));
 
+			PropertyDescriptor fetchAhead = new PropertyDescriptor("fetchAhead", beanClass, "isFetchAhead", "setFetchAhead");
+			fetchAhead.setBound(true);
+			fetchAhead.setConstrained(false);
+			fetchAhead.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_FETCH_AHEAD", null));
+			fetchAhead.setShortDescription(AS400JDBCDriver.getResource("FETCH_AHEAD_DESC", null));
+
+			PropertyDescriptor statementCacheSize = new PropertyDescriptor("statementCacheSize", beanClass, "getStatementCacheSize", "setStatementCacheSize");
+			statementCacheSize.setBound(true);
+			statementCacheSize.setConstrained(false);
+			statementCacheSize.setDisplayName(AS400JDBCDriver.getResource("PROP_NAME_STATEMENT_CACHE_SIZE", null));
+			statementCacheSize.setShortDescription(AS400JDBCDriver.getResource("STATEMENT_CACHE_SIZE_DESC", null));
+
 			PropertyDescriptor prompt = new PropertyDescriptor("prompt", beanClass, "isPrompt", "setPrompt");
 			prompt.setBound(true);
 			prompt.setConstrained(false);
@@ -974,7 +986,7 @@ public class AS400JDBCDataSourceBeanInfo extends SimpleBeanInfo {
 					portNumber, enableClientAffinitiesList, clientRerouteAlternateServerName,
 					clientRerouteAlternatePortNumber, affinityFailbackInterval, maxRetriesForClientReroute,
 					retryIntervalForClientReroute, enableSeamlessFailover, additionalAuthenticationFactor, stayAlive,tlsTruststore,tlsTruststorePassword,
-					useSock5, virtualThreads, trimCharFields, authenticationVerificationId };
+					useSock5, virtualThreads, trimCharFields, authenticationVerificationId, fetchAhead, statementCacheSize };
 
 		} catch (Exception e) {
 			throw new Error(e);
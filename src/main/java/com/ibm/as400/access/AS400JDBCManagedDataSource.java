@@ -1703,6 +1703,17 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
     return properties_.getString(JDProperties.SORT_WEIGHT);
   }
 
+  /**
+   * Returns the number of closed prepared statements that each connection keeps
+   * prepared for reuse.
+   * 
+   * @return The statement cache size. The default value is 0 (no statement
+   *         cache).
+   **/
+  public int getStatementCacheSize() {
+    return properties_.getInt(JDProperties.STATEMENT_CACHE_SIZE);
+  }
+
   /**
    * Returns the time format used in time literals with SQL statements.
    * 
@@ -2399,6 +2410,18 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
     return properties_.getBoolean(JDProperties.PREFETCH);
   }
 
+  /**
+   * Indicates whether the next block of a forward-only result set is requested
+   * from the system as soon as the current block arrives. This overlaps the
+   * network round trip with the processing of the current block.
+   * 
+   * @return true if fetch ahead is used; false otherwise. The default value is
+   *         false.
+   **/
+  public boolean isFetchAhead() {
+    return properties_.getBoolean(JDProperties.FETCH_AHEAD);
+  }
+
   /**
    * Indicates whether the user is prompted if a user name or password is needed
    * to connect to the IBM i system. If a connection can not be made without
@@ -3766,6 +3789,21 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
       properties_.setString(JDProperties.PREFETCH, FALSE_);
   }
 
+  /**
+   * Sets whether the next block of a forward-only result set is requested from
+   * the system as soon as the current block arrives. This overlaps the network
+   * round trip with the processing of the current block.
+   * 
+   * @param fetchAhead true if fetch ahead is used; false otherwise. The default
+   *                   value is false.
+   **/
+  public void setFetchAhead(boolean fetchAhead) {
+    if (fetchAhead)
+      properties_.setString(JDProperties.FETCH_AHEAD, TRUE_);
+    else
+      properties_.setString(JDProperties.FETCH_AHEAD, FALSE_);
+  }
+
   /**
    * Sets whether the user should be prompted if a user name or password is needed
    * to connect to the IBM i system. If a connection can not be made without
@@ -4397,6 +4435,23 @@ public class AS400JDBCManagedDataSource extends ToolboxWrapper
     properties_.setString(JDProperties.SORT_WEIGHT, sortWeight);
   }
 
+  /**
+   * Sets the number of closed prepared statements that each connection keeps
+   * prepared for reuse. A closed statement is kept in the connection's
+   * statement cache and returned by a later prepareStatement() with the same
+   * SQL text, result set type, concurrency and holdability.
+   * 
+   * @param size The statement cache size. The default value is 0 (no statement
+   *             cache).
+   **/
+  public void setStatementCacheSize(int size) {
+    final String property = "statementCacheSize";
+    if (size < 0)
+      throw new ExtendedIllegalArgumentException(property, ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+
+    properties_.setString(JDProperties.STATEMENT_CACHE_SIZE, Integer.toString(size));
+  }
+
   /**
    * Sets the stay alive setting. If non-zero, then this is the number of seconds
    * before a host server ping request is sent to keep the connection from being
@@ -140,6 +140,8 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
   private boolean preserveParameters_ = false; 
   private boolean saveParameterValues_ = false;   // save the parameters so that can be
                                              // reset in a Client Affinities environment
+  String cacheKey_;                          // key in the connection's statement cache, or null
+                                             // if the statement is not to be cached
   
   private int containsLocator_ = LOCATOR_UNKNOWN;
   private static final int LOCATOR_UNKNOWN = -1;
@@ -659,6 +661,12 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
       if (isClosed())
         return;
 
+      // If the connection has a statement cache, keep the statement
+      // prepared so that it can be used again.
+      if (cacheKey_ != null && isCacheable() && !connection_.isClosed()
+          && connection_.returnToStatementCache(this))
+        return;
+
       // If a descriptor was created somewhere along
       // the lines, then delete it now.
       if (descriptorHandle_ != 0) {
@@ -701,6 +709,32 @@ public class AS400JDBCPreparedStatementImpl extends AS400JDBCPreparedStatement
       }
   }
 
+  /**
+   * Resets the statement before it is put in the connection's statement
+   * cache. The parameters and batch are cleared and the statement is marked
+   * as closed, but the RPB, ORS and descriptor are kept.
+   * 
+   * @exception SQLException
+   *              If an error occurs.
+   **/
+  void resetForCache() throws SQLException {
+    clearParameters();
+    closeForCache();
+  }
+
+  /**
+   * Closes a statement that was kept in the connection's statement cache.
+   * 
+   * @exception SQLException
+   *              If an error occurs.
+   **/
+  void closeUncached() throws SQLException {
+    cacheKey_ = null;
+    reopenFromCache();
+    close();
+  }
+
+
   /**
    * Performs common operations needed after an execute.
    * 
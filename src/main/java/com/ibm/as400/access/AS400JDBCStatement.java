@@ -135,6 +135,7 @@ implements Statement
     boolean     useVariableFieldCompression_ = false;    //@K54  does connection allow compression
     boolean     useVariableFieldInsertCompression_ = false;    //@K54 does connection allow compressions
     private boolean     isPoolable_ = false;         //@PDA  jdbc40
+    private boolean     poolableSet_ = false;        // setPoolable() was called, so isPoolable_ is the application's choice
     JDServerRow         parameterRow_;          // private protected //@re-prep moved from preparedStatement so that it has visibility here
     private boolean     threadInterrupted = false;
     private DBReplyRequestedDS commonExecuteReply = null; // reply from commonExecute.  Note:  This cannot be returned to the pool until it is
@@ -321,7 +322,7 @@ implements Statement
         {
             internalLock.lock();
             checkOpen ();
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);    //@G4C
             currentJDSQLStatement_ = sqlStatement; 
@@ -1159,11 +1160,11 @@ implements Statement
                             rowCache = new JDServerRowCache (resultRow,
                                                              connection_, id_,
                                                              getBlockingFactor (cursorSensitivity, sqlStatement, rowLength), resultData,
-                                                             lastBlock, resultSetType_, cursor_); //@pdc perf2 - fetch/close
+                                                             lastBlock, resultSetType_, resultSetConcurrency_, cursor_); //@pdc perf2 - fetch/close
                         else
                             rowCache = new JDServerRowCache (resultRow,
                                                              connection_, id_,
-                                                             getBlockingFactor (cursorSensitivity, sqlStatement, rowLength), lastBlock, resultSetType_, cursor_); //@PDC perf //@pdc perf2 - fetch/close
+                                                             getBlockingFactor (cursorSensitivity, sqlStatement, rowLength), lastBlock, resultSetType_, resultSetConcurrency_, cursor_); //@PDC perf //@pdc perf2 - fetch/close
 
                         // If the result set concurrency is updatable, check to                            @E1C
                         // see if the system overrode the cursor type to read only.                        @E1C
@@ -1255,7 +1256,7 @@ implements Statement
                             JDServerRowCache rowCache = new JDServerRowCache (row,
                                                                               connection_, id_, 
                                                                               getBlockingFactor (cursorSensitivity, sqlStatement,
-                                                                                                                   row.getRowLength()), false, (preV5R3 ? ResultSet.TYPE_FORWARD_ONLY : resultSetType_), cursor_);  //@PDC perf //@pda perf2 - fetch/close
+                                                                                                                   row.getRowLength()), false, (preV5R3 ? ResultSet.TYPE_FORWARD_ONLY : resultSetType_), resultSetConcurrency_, cursor_);  //@PDC perf //@pda perf2 - fetch/close
 
                             
                             /*@K3A@P6M*/
@@ -1329,6 +1330,9 @@ implements Statement
                 JDError.throwSQLException (JDError.EXC_OPERATION_CANCELLED);
  
         if (sqlStatement.isSetSpecialRegister()) {
+          // A new schema or path changes how unqualified names in the
+          // cached statements resolve.
+          connection_.clearStatementCache();
           if (connection_ instanceof AS400JDBCConnectionRedirect) {
             ((AS400JDBCConnectionRedirect) connection_)
                 .addSetCommand(sqlStatement.toString());
@@ -1575,7 +1579,7 @@ implements Statement
                     boolean extended = false;                                                         //@540
                     if(connection_.getVRM() >= JDUtilities.vrm540) extended = true;                   //@540
                     //Bidi-HCG request.setStatementText(sqlStatement.toString(), connection_.unicodeConverter_, extended); //@E3C @P0C @540C
-                    request.setStatementText(sqlStatement.toString(), connection_.getPackageCCSID_Converter(), extended);//Bidi-HCG
+                    request.setStatementText(sqlStatement, connection_.getPackageCCSID_Converter(), extended);//Bidi-HCG
                     request.setStatementType (sqlStatement.getNativeType ());
 
                     int openAttributes = cursor_.getOpenAttributes (sqlStatement, blockCriteria_);
@@ -1698,7 +1702,7 @@ implements Statement
                         String cursorSensitivity = connection_.getProperties().getString(JDProperties.CURSOR_SENSITIVITY);    //@F8A
                         
                         JDServerRowCache rowCache = new JDServerRowCache (row, connection_, id_, getBlockingFactor (cursorSensitivity, 
-                                                                                                                   sqlStatement, row.getRowLength()), false, (preV5R3 ? ResultSet.TYPE_FORWARD_ONLY : resultSetType_), cursor_); //@PDC perf //@pda perf2 - fetch/close
+                                                                                                                   sqlStatement, row.getRowLength()), false, (preV5R3 ? ResultSet.TYPE_FORWARD_ONLY : resultSetType_), resultSetConcurrency_, cursor_); //@PDC perf //@pda perf2 - fetch/close
 
                         //if pre-v5r3 create a FORWARD_ONLY RESULT SET
                             if(preV5R3)                                                           //@KBA
@@ -1742,6 +1746,7 @@ implements Statement
                 transactionManager_.statementExecuted ();
 
                 if (sqlStatement.isSetSpecialRegister()) {
+                  connection_.clearStatementCache();
                   if (connection_ instanceof AS400JDBCConnectionRedirect) {
                     ((AS400JDBCConnectionRedirect) connection_)
                         .addSetCommand(sqlStatement.toString());
@@ -1798,7 +1803,7 @@ implements Statement
                     boolean extended = false;                                                         //@540
                     if(connection_.getVRM() >= JDUtilities.vrm540) extended = true;                   //@540
                     //Bidi-HCG request.setStatementText(sqlStatement.toString(), connection_.unicodeConverter_, extended); //@E3C @P0C @540C
-                    request.setStatementText(sqlStatement.toString(), connection_.getPackageCCSID_Converter(), extended);//Bidi-HCG
+                    request.setStatementText(sqlStatement, connection_.getPackageCCSID_Converter(), extended);//Bidi-HCG
                     request.setStatementType (sqlStatement.getNativeType ());
 
                     if(packageManager_.isEnabled())
@@ -1944,7 +1949,7 @@ implements Statement
           boolean extended = false;                                                         //@540
           if(connection_.getVRM() >= JDUtilities.vrm540) extended = true;                   //@540
           //Bidi-HCG request.setStatementText(sqlStatement.toString(), connection_.unicodeConverter_, extended); //@E3C @P0C @540C
-          request.setStatementText(sqlStatement.toString(), connection_.getPackageCCSID_Converter(), extended);//Bidi-HCG
+          request.setStatementText(sqlStatement, connection_.getPackageCCSID_Converter(), extended);//Bidi-HCG
           request.setStatementType (sqlStatement.getNativeType ());
 
           ConvTable converter = connection_.getConverter(); 
@@ -2128,7 +2133,7 @@ implements Statement
       {
           internalLock.lock();
           checkOpen();
-          JDSQLStatement sqlStatement = new JDSQLStatement(sql,
+          JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
               settings_.getDecimalSeparator(), escapeProcessing_,
               packageCriteria_, connection_); // @A1A @G4C
           currentJDSQLStatement_ = sqlStatement;
@@ -2219,7 +2224,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                                   settings_.getDecimalSeparator (), escapeProcessing_,
                                                                   packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2243,7 +2248,7 @@ implements Statement
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql);
                     //Construct the new JDSQLStatement object
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatementCache.getStatement (selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
                     sqlStatement.setSelectFromInsert(true);
@@ -2311,7 +2316,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2335,7 +2340,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, columnIndexes, null);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatementCache.getStatement (selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
@@ -2406,7 +2411,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2430,7 +2435,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, null, columnNames);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatementCache.getStatement (selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
 
                     if(JDTrace.isTraceOn())
@@ -2589,7 +2594,7 @@ implements Statement
         {
             internalLock.lock();
             checkOpen ();
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);    // @A1A @G4C
             currentJDSQLStatement_ = sqlStatement; 
@@ -2655,7 +2660,7 @@ implements Statement
         {
             internalLock.lock();
             checkOpen ();
-            JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+            JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                               settings_.getDecimalSeparator (), escapeProcessing_,
                                                               packageCriteria_, connection_);    // @A1A @G4A
             currentJDSQLStatement_ = sqlStatement; 
@@ -2744,7 +2749,7 @@ implements Statement
             {
                 internalLock.lock();
                 checkOpen ();
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql,
+                JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql,
                                                                   settings_.getDecimalSeparator (), escapeProcessing_,
                                                                   packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
@@ -2768,7 +2773,7 @@ implements Statement
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql);
                     //Create a new JDSQLStatement
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatementCache.getStatement (selectStatement, settings_.getDecimalSeparator(), escapeProcessing_, packageCriteria_, connection_);
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
                     currentJDSQLStatement_ = sqlStatement; 
@@ -2847,7 +2852,7 @@ implements Statement
                 checkOpen ();
 
                 //create the sql statement object.
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
 
                 if(JDTrace.isTraceOn())
@@ -2870,7 +2875,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, columnIndexes, null);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatementCache.getStatement (selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
@@ -2955,7 +2960,7 @@ implements Statement
                 checkOpen ();
 
                 //create the sql statement object.
-                JDSQLStatement sqlStatement = new JDSQLStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                JDSQLStatement sqlStatement = JDSQLStatementCache.getStatement (sql, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                 currentJDSQLStatement_ = sqlStatement; 
 
                 if(JDTrace.isTraceOn())
@@ -2978,7 +2983,7 @@ implements Statement
                 if(sqlStatement.isInsert_)
                 {
                     String selectStatement = connection_.makeGeneratedKeySelectStatement(sql, null, columnNames);
-                    sqlStatement = new JDSQLStatement(selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
+                    sqlStatement = JDSQLStatementCache.getStatement (selectStatement, settings_.getDecimalSeparator (), escapeProcessing_, packageCriteria_, connection_);
                     currentJDSQLStatement_ = sqlStatement; 
                     if(JDTrace.isTraceOn())
                         JDTrace.logInformation(this, "Generated keys, SQL Statement -->[" + sqlStatement + "]");
@@ -3527,6 +3532,7 @@ implements Statement
                                                                                         row.getRowLength()), 
                                                                      false, 
                                                                      resultSetType_, 
+                                                                     resultSetConcurrency_, 
                                                                      cursor_); //@PDC perf //@pda perf2 - fetch/close
 
                     // If the result set concurrency is updatable, check to                            @E1C
@@ -3851,6 +3857,53 @@ implements Statement
         return associatedWithLocators_;
     }
 
+    /*
+    Returns whether the statement can be kept open in the connection's
+    statement cache when it is closed.  Statements whose settings were
+    changed by the application are closed for real, so that a statement
+    taken from the cache always looks like a newly prepared statement.
+    A statement for which setPoolable(false) was called is never cached.
+    */
+    boolean isCacheable()
+    {
+        return !closed_ && !holdStatement_ && !associatedWithLocators_
+            && !closeOnCompletion_ && !queryTimeoutSet_
+            && generatedKeys_ == null && numberOfResults_ <= 1
+            && escapeProcessing_ && fetchDirection_ == ResultSet.FETCH_FORWARD
+            && fetchSize_ == 0 && maxFieldSize_ == 0 && maxRows_ == 0 && longMaxRows_ == 0
+            && cursorDefaultName_.equals(cursor_.getName())
+            && (isPoolable_ || !poolableSet_);
+    }
+
+    /*
+    Closes the current result set and marks the statement as closed,
+    but keeps the RPB and ORS so that the statement can be taken from the
+    connection's statement cache later.  The connection is not notified.
+    */
+    void closeForCache()
+    throws SQLException
+    {
+        try
+        {
+            internalLock.lock();
+            closeResultSet (JDCursor.REUSE_YES);
+            if(batch_ != null) batch_.removeAllElements ();
+            sqlWarning_ = null;
+            cancelled_ = false;
+            closed_ = true;
+        }finally {
+            internalLock.unlock();
+        }
+    }
+
+    /*
+    Marks a statement taken from the connection's statement cache as open.
+    */
+    void reopenFromCache()
+    {
+        closed_ = false;
+    }
+
     /**
     Indicates if the statement is closed.
 
@@ -4589,6 +4642,7 @@ implements Statement
     {
         checkOpen();//@pda do same as native
         isPoolable_ = poolable;
+        poolableSet_ = true;
     }
 
     //@PDA jdbc40
@@ -16,6 +16,7 @@ package com.ibm.as400.access;
 import java.io.IOException;
 import java.util.Hashtable;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -111,13 +112,13 @@ class AS400NoThreadServer extends AS400Server
     }
 
     @Override
-    void addInstanceReplyStream(DataStream replyStream) {
-        instanceReplyStreams_.put(replyStream, replyStream);
+    void addInstanceReplyStream(int correlation, DataStream replyStream) {
+        instanceReplyStreams_.put(Integer.valueOf(correlation), replyStream);
     }
 
     @Override
-    void clearInstanceReplyStreams() {
-        instanceReplyStreams_.clear();
+    void removeInstanceReplyStream(int correlation) {
+        instanceReplyStreams_.remove(Integer.valueOf(correlation));
     }
 
     @Override
@@ -136,6 +137,13 @@ class AS400NoThreadServer extends AS400Server
         }
     }
 
+    // There is no read daemon, so the reply is read on the calling thread and the future is already complete when returned.
+    @Override
+    public CompletableFuture<DataStream> sendAsync(DataStream requestStream) throws IOException
+    {
+        return CompletableFuture.completedFuture(sendAndReceive(requestStream));
+    }
+
     @Override
     void sendAndDiscardReply(DataStream requestStream) throws IOException
     {
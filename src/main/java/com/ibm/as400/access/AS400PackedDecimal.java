@@ -486,6 +486,83 @@ public class AS400PackedDecimal implements AS400DataType
         return doubleValue;
     }
 
+    /**
+     * Converts the specified IBM i data type to a Java long value, without
+     * creating a BigDecimal.  The decimal part of the value is truncated
+     * (rounded towards zero), as with BigDecimal.longValue().
+     * @param as400Value The array containing the data type in IBM i format.  The entire data type must be represented and the data type must have valid packed decimal format.
+     * @param offset The offset into the byte array for the start of the IBM i value.  It must be greater than or equal to zero.
+     * @return The Java long value corresponding to the data type.
+     * @exception ExtendedIllegalArgumentException If the integral part of the value does not fit in a long.  This cannot happen when the number of digits is eighteen or less.
+     **/
+    public long toLong(byte[] as400Value, int offset)
+    {
+      return toLong(as400Value, offset, scale_);
+    }
+
+    /**
+     * Converts the specified IBM i data type to the unscaled value of the
+     * decimal number, without creating a BigDecimal.  For example, 123.45
+     * in a field with two decimal positions is returned as 12345.
+     * @param as400Value The array containing the data type in IBM i format.  The entire data type must be represented and the data type must have valid packed decimal format.
+     * @param offset The offset into the byte array for the start of the IBM i value.  It must be greater than or equal to zero.
+     * @return The unscaled value corresponding to the data type.
+     * @exception ExtendedIllegalArgumentException If the value does not fit in a long.  This cannot happen when the number of digits is eighteen or less.
+     **/
+    public long toUnscaledLong(byte[] as400Value, int offset)
+    {
+      return toLong(as400Value, offset, 0);
+    }
+
+    // Converts the value, leaving out the last dropDigits digits.  The digits
+    // left out are still checked, so that a bad value is always reported.
+    private long toLong(byte[] as400Value, int offset, int dropDigits)
+    {
+      // Check offset to prevent bogus NumberFormatException message
+      if (offset < 0)
+        throw new ArrayIndexOutOfBoundsException(String.valueOf(offset));
+
+      int rightMostOffset = offset + digits_/2;
+      boolean negative = false;
+      switch (as400Value[rightMostOffset] & 0x0F)
+      {
+        case 0x0B: // valid negative sign bits
+        case 0x0D:
+          negative = true;
+          break;
+        case 0x0A: // valid positive sign bits
+        case 0x0C:
+        case 0x0E:
+        case 0x0F:
+          break;
+        default: // others invalid
+          throwNumberFormatException(LOW_NIBBLE, rightMostOffset,
+                                     as400Value[rightMostOffset] & 0xFF,
+                                     as400Value);
+      }
+
+      // An even number of digits has a leading zero nibble.
+      int nibbles = (digits_/2)*2 + 1;
+      int keep = nibbles - dropDigits;
+      boolean checkOverflow = (keep > 18);
+      long value = 0;
+      for (int i = 0; i < nibbles; ++i)
+      {
+        int byteValue = as400Value[offset + (i >> 1)] & 0xFF;
+        boolean highNibble = ((i & 1) == 0);
+        int nibble = highNibble ? byteValue >>> 4 : byteValue & 0x0F;
+        if (nibble > 0x09)
+          throwNumberFormatException(highNibble, offset + (i >> 1), byteValue, as400Value);
+        if (i < keep)
+        {
+          if (checkOverflow && value > (Long.MAX_VALUE - nibble) / 10)
+            throw new ExtendedIllegalArgumentException("as400Value", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+          value = value * 10 + nibble;
+        }
+      }
+      return negative ? -value : value;
+    }
+
     /**
      * Converts the specified IBM i data type to a Java object.
      * @param as400Value The array containing the data type in IBM i format.  The entire data type must be represented.
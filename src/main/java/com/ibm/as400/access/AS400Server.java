@@ -18,6 +18,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.SocketException;
 import java.util.Hashtable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /** Abstract class representing an IBM i server job.
@@ -59,9 +60,16 @@ public abstract class AS400Server
     public abstract DataStream getExchangeAttrReply();
     public abstract void setExchangeAttrReply(DataStream xChgAttrReply);
     public abstract DataStream sendExchangeAttrRequest(DataStream req) throws IOException, InterruptedException;
-    abstract void addInstanceReplyStream(DataStream replyStream);
-    abstract void clearInstanceReplyStreams();
+    // Registers the data stream into which the reply with the given correlation ID is read.  Registrations for
+    // different correlation IDs are independent, so many requests can wait for their replies at the same time.
+    abstract void addInstanceReplyStream(int correlation, DataStream replyStream);
+    // Removes the registration for a reply that will not be received, such as after a failed send.
+    abstract void removeInstanceReplyStream(int correlation);
     public abstract DataStream sendAndReceive(DataStream requestStream) throws IOException, InterruptedException;
+    // Sends a request without waiting for its reply.  The returned future is completed with the reply, or completed
+    // exceptionally if the connection ends first.  Only one reply is delivered per request, so requests that produce
+    // chained replies must use send() and receive() instead.
+    public abstract CompletableFuture<DataStream> sendAsync(DataStream requestStream) throws IOException;
     abstract void sendAndDiscardReply(DataStream requestStream) throws IOException;
     abstract void sendAndDiscardReply(DataStream requestStream,int correlationId) throws IOException;//@M8A
     abstract int send(DataStream requestStream) throws IOException;
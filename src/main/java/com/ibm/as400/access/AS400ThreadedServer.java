@@ -17,6 +17,9 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 import java.net.SocketException;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 final class AS400ThreadedServer extends AS400Server implements Runnable
 {
@@ -34,8 +37,8 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
     private Hashtable instanceReplyStreams_ = new Hashtable();
 
     private Thread readDaemon_ = null;
-    private IOException readDaemonException_ = null;
-    private RuntimeException unlikelyException_ = null;
+    private volatile IOException readDaemonException_ = null;
+    private volatile RuntimeException unlikelyException_ = null;
 
     private DataStream exchangeAttrReply_ = null;
 
@@ -183,12 +186,31 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
         }
     }
 
+    // Threads blocked in receive(), keyed by the correlation ID they are waiting for.  The read daemon only wakes the
+    // threads waiting for the correlation ID of the reply it just read, instead of every thread waiting on this server.
+    private final ConcurrentHashMap<Integer, ReplyWaiter> replyWaiters_ = new ConcurrentHashMap<Integer, ReplyWaiter>();
+
+    // Completion slot for one correlation ID.  Normally there is exactly one user, but more than one thread may wait for
+    // the same correlation ID, so the slot is reference counted and only unregistered when the last user leaves.
+    private static final class ReplyWaiter
+    {
+        final Integer correlation_;
+        int users_ = 1;  // Guarded by this.
+
+        ReplyWaiter(Integer correlation)
+        {
+            correlation_ = correlation;
+        }
+    }
+
+    // Replies requested through sendAsync(), keyed by correlation ID.  The read daemon completes these directly instead of
+    // adding the reply to the reply list.
+    private final ConcurrentHashMap<Integer, CompletableFuture<DataStream>> pendingReplies_ = new ConcurrentHashMap<Integer, CompletableFuture<DataStream>>();
+
     private int lastCorrelationId_ = 0;
     private class CorrelationIdLock extends Object {}
-    private class ReceiveLock extends Object {}
 
     private final CorrelationIdLock correlationIdLock_ = new CorrelationIdLock();
-    private final ReceiveLock receiveLock_ = new ReceiveLock();
 
 	static {
 		boolean available = false;
@@ -260,16 +282,16 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
 
     // Print is the only service that uses this method.
     @Override
-    final void addInstanceReplyStream(DataStream replyStream)
+    final void addInstanceReplyStream(int correlation, DataStream replyStream)
     {
-        instanceReplyStreams_.put(replyStream, replyStream);
+        instanceReplyStreams_.put(Integer.valueOf(correlation), replyStream);
     }
 
     // Print is the only service that uses this method.
     @Override
-    final void clearInstanceReplyStreams()
+    final void removeInstanceReplyStream(int correlation)
     {
-        instanceReplyStreams_.clear();
+        instanceReplyStreams_.remove(Integer.valueOf(correlation));
     }
 
     @Override
@@ -339,38 +361,115 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
     final DataStream receive(int correlationId) throws IOException, InterruptedException
     {
         if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "AS400Server.receive from job " + getJobString());
-        
-        synchronized (receiveLock_)
+
+        // Register before looking in the reply list, so that a reply added after the lookup always finds this waiter.
+        ReplyWaiter waiter = registerWaiter(correlationId);
+        try
         {
-            while (true)
+            synchronized (waiter)
             {
-                // Changed March 2018 to give priority to exceptions.. 
-                // Otherwise exceptions are being lost. 
-                if (readDaemonException_ != null) {
-                    Trace.log(Trace.ERROR, "receive(): Read daemon exception:", readDaemonException_);
-                    throw readDaemonException_;
-                }
-                
-                if (unlikelyException_ != null) {
-                    Trace.log(Trace.ERROR, "receive(): Read daemon exception:", unlikelyException_);
-                    throw unlikelyException_;
-                } 
-  
-                DataStream ds = replyList_.remove(correlationId);
-                if (ds != null)
+                while (true)
                 {
-                    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "receive(): Valid reply found:", correlationId);
+                    // Changed March 2018 to give priority to exceptions.. 
+                    // Otherwise exceptions are being lost. 
+                    if (readDaemonException_ != null) {
+                        Trace.log(Trace.ERROR, "receive(): Read daemon exception:", readDaemonException_);
+                        throw readDaemonException_;
+                    }
+                    
+                    if (unlikelyException_ != null) {
+                        Trace.log(Trace.ERROR, "receive(): Read daemon exception:", unlikelyException_);
+                        throw unlikelyException_;
+                    } 
+      
+                    DataStream ds = replyList_.remove(correlationId);
+                    if (ds != null)
+                    {
+                        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "receive(): Valid reply found:", correlationId);
 
-                    if (DBDSPool.monitor) {
-                        if (ds instanceof DBReplyRequestedDS)
-                            ((DBReplyRequestedDS) ds).setAllocatedLocation();
+                        if (DBDSPool.monitor) {
+                            if (ds instanceof DBReplyRequestedDS)
+                                ((DBReplyRequestedDS) ds).setAllocatedLocation();
+                        }
+
+                        return ds;
                     }
 
-                    return ds;
+                    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "receive(): Reply not found. Waiting...");
+                    waiter.wait();
                 }
+            }
+        }
+        finally
+        {
+            releaseWaiter(waiter);
+        }
+    }
+
+    // Returns the completion slot for the given correlation ID, creating and registering it if needed.
+    private final ReplyWaiter registerWaiter(int correlationId)
+    {
+        Integer key = Integer.valueOf(correlationId);
+        while (true)
+        {
+            ReplyWaiter waiter = replyWaiters_.get(key);
+            if (waiter == null)
+            {
+                waiter = new ReplyWaiter(key);
+                if (replyWaiters_.putIfAbsent(key, waiter) == null) return waiter;
+                continue;
+            }
+            synchronized (waiter)
+            {
+                // A slot with no users is being unregistered, so retry with a new one.
+                if (waiter.users_ > 0)
+                {
+                    ++waiter.users_;
+                    return waiter;
+                }
+            }
+        }
+    }
+
+    private final void releaseWaiter(ReplyWaiter waiter)
+    {
+        synchronized (waiter)
+        {
+            if (--waiter.users_ == 0) replyWaiters_.remove(waiter.correlation_, waiter);
+        }
+    }
 
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "receive(): Reply not found. Waiting...");
-                receiveLock_.wait();
+    // Wakes the threads waiting for the given correlation ID, if any.
+    private final void notifyWaiter(int correlationId)
+    {
+        ReplyWaiter waiter = replyWaiters_.get(Integer.valueOf(correlationId));
+        if (waiter != null)
+        {
+            synchronized (waiter)
+            {
+                waiter.notifyAll();
+            }
+        }
+    }
+
+    // Wakes every waiting thread and fails every pending asynchronous reply.  Used when the connection ends, since no
+    // further replies will arrive.
+    private final void notifyAllWaiters()
+    {
+        Throwable cause = readDaemonException_ != null ? (Throwable)readDaemonException_ : unlikelyException_;
+        for (Iterator<CompletableFuture<DataStream>> it = pendingReplies_.values().iterator(); it.hasNext();)
+        {
+            CompletableFuture<DataStream> future = it.next();
+            it.remove();
+            future.completeExceptionally(cause);
+        }
+
+        for (Iterator<ReplyWaiter> it = replyWaiters_.values().iterator(); it.hasNext();)
+        {
+            ReplyWaiter waiter = it.next();
+            synchronized (waiter)
+            {
+                waiter.notifyAll();
             }
         }
     }
@@ -396,14 +495,22 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
 
                 int correlation = reply.getCorrelation();
 
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Adding reply:", correlation);
-                replyList_.add(reply);
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads.");
-                synchronized (receiveLock_)
+                CompletableFuture<DataStream> future = pendingReplies_.remove(Integer.valueOf(correlation));
+                if (future != null)
                 {
-                    receiveLock_.notifyAll();  // Notify all waiting threads.
+                    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Completing asynchronous reply:", correlation);
+                    if (DBDSPool.monitor) {
+                        if (reply instanceof DBReplyRequestedDS)
+                            ((DBReplyRequestedDS) reply).setAllocatedLocation();
+                    }
+                    future.complete(reply);
+                    continue;
                 }
-                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified.");
+
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Adding reply:", correlation);
+                replyList_.add(reply);
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying waiting thread:", correlation);
+                notifyWaiter(correlation);  // Only the threads waiting for this correlation ID.
             }
             catch (IOException e)
             {
@@ -421,10 +528,7 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
                     readDaemonException_ = e;
 
                 if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads after IOException.");
-                synchronized (receiveLock_)
-                {
-                    receiveLock_.notifyAll();  // Notify all waiting threads.
-                }
+                notifyAllWaiters();  // Notify all waiting threads.
                 if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified after IOException.");
             }
             catch (RuntimeException e)
@@ -435,10 +539,7 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
                     unlikelyException_ = e;
 
                 if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Notifying threads after RuntimeException.");
-                synchronized (receiveLock_)
-                {
-                    receiveLock_.notifyAll();
-                }
+                notifyAllWaiters();
                 if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "run(): Threads notified after RuntimeException.");
             }
             //@socket2 removed finally close because we were doing double closes. 
@@ -521,6 +622,34 @@ final class AS400ThreadedServer extends AS400Server implements Runnable
         return receive(correlationID);
     }
 
+    // The future is completed on the read daemon thread, so callers doing any real work with the reply should chain
+    // asynchronous stages (for example, thenApplyAsync) rather than blocking the read daemon.
+    @Override
+    public final CompletableFuture<DataStream> sendAsync(DataStream requestStream) throws IOException
+    {
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "send async(): ...");
+        int correlationID = newCorrelationId();
+        Integer key = Integer.valueOf(correlationID);
+        CompletableFuture<DataStream> future = new CompletableFuture<DataStream>();
+        // Register before sending so the read daemon cannot see the reply first.
+        pendingReplies_.put(key, future);
+        try
+        {
+            send(requestStream, correlationID);
+        }
+        catch (IOException e)
+        {
+            pendingReplies_.remove(key);
+            throw e;
+        }
+        catch (RuntimeException e)
+        {
+            pendingReplies_.remove(key);
+            throw e;
+        }
+        return future;
+    }
+
     @Override
     public final synchronized DataStream sendExchangeAttrRequest(DataStream req) throws IOException, InterruptedException
     {
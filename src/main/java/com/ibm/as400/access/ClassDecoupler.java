@@ -54,7 +54,7 @@ public class ClassDecoupler
     static void freeDBReplyStream(DataStream ds)
     {
         if (ds instanceof DBReplyRequestedDS)
-            ((DBReplyRequestedDS)ds).returnToPool();
+            ((DBReplyRequestedDS)ds).returnToPoolAndReleaseBuffer();
     }
 
     // TODO so much duplication in this method!!
@@ -124,21 +124,15 @@ public class ClientAccessDataStream extends DataStream
         throw new InternalErrorException(InternalErrorException.DATA_STREAM_UNKNOWN);
       }
 
-      // First look for an instance data stream.
+      // First look for an instance data stream registered for the correlation ID of this reply.
       // If we found it remove it since instance datastreams are only used once.
       // Print is the only thing that uses this.
-      ClientAccessDataStream newDataStream = (ClientAccessDataStream)dataStreams.get(baseDataStream);
-      if(newDataStream != null && newDataStream instanceof NPDataStream)
+      ClientAccessDataStream newDataStream = null;
+      if (!dataStreams.isEmpty())
       {
-          NPDataStream npds = (NPDataStream)newDataStream;
-          if(baseDataStream.getCorrelation() == npds.getCorrelationID())
-              dataStreams.remove(baseDataStream);              
+          newDataStream = (ClientAccessDataStream)dataStreams.remove(Integer.valueOf(baseDataStream.getCorrelation()));
       }
-      if(newDataStream != null && !(newDataStream instanceof NPDataStream))
-      {
-         newDataStream = (ClientAccessDataStream)dataStreams.remove(baseDataStream);
-      }
-      
+
       if (newDataStream == null) //@P0C
       {
         // If we couldn't find an instance datastream to receive into, look for a prototype data stream to generate one with.
@@ -197,16 +191,24 @@ public class ClientAccessDataStream extends DataStream
       //}
       
       // 
-      // TODO:   Restructure this code so that a new byte array is not always allocated.
+      // Database replies take their buffer from the reply buffer pool.  A pooled buffer may be
+      // longer than the reply, so the reply length comes from the header rather than data_.length.
       // 
-      newDataStream.data_ = new byte[nowLength];
+      if (newDataStream instanceof DBBaseReplyDS)
+      {
+        newDataStream.data_ = ((DBBaseReplyDS)newDataStream).getReplyBuffer(nowLength);
+      }
+      else
+      {
+        newDataStream.data_ = new byte[nowLength];
+      }
       System.arraycopy(baseDataStream.data_, 0, newDataStream.data_, 0, HEADER_LENGTH);
 
       
-      if (newDataStream.data_.length - HEADER_LENGTH > 0)
+      if (nowLength - HEADER_LENGTH > 0)
       {
         // Receive any remaining bytes.
-    	// The number of bytes to read is calculated from newDataStream.data_.length - HEADER_LENGTH 
+    	// The number of bytes to read is calculated from the length in the header. 
         newDataStream.readAfterHeader(is);
       }
       return newDataStream;
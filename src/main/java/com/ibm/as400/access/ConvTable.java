@@ -15,6 +15,7 @@ package com.ibm.as400.access;
 
 import java.io.CharConversionException;
 import java.io.UnsupportedEncodingException;
+import java.nio.CharBuffer;
 import java.util.Hashtable;
 
 /** Internal class representing a character set conversion table.
@@ -97,6 +98,26 @@ public abstract class ConvTable
     abstract char[] byteArrayToCharArray(byte[] source, int offset, int length, BidiConversionProperties properties);
     //@AI5A End
 
+    // Perform an OS/400 CCSID to Unicode conversion into a caller-supplied array.
+    // Returns the number of chars stored.  This method can be overridden by subclasses
+    // to avoid allocating an intermediate array.
+    public int byteArrayToCharArray(byte[] source, int offset, int length, char[] dest, int destOffset)
+    {
+        char[] chars = byteArrayToCharArray(source, offset, length);
+        System.arraycopy(chars, 0, dest, destOffset, chars.length);
+        return chars.length;
+    }
+
+    // Perform an OS/400 CCSID to Unicode conversion into a caller-supplied buffer,
+    // starting at its current position.  Returns the number of chars stored.
+    // This method can be overridden by subclasses to avoid allocating an intermediate array.
+    public int byteArrayToCharBuffer(byte[] source, int offset, int length, CharBuffer dest)
+    {
+        char[] chars = byteArrayToCharArray(source, offset, length);
+        dest.put(chars);
+        return chars.length;
+    }
+
     // Helper method used to decompress conversion tables when they are initialized.  Note that this method also converts the char[] into a byte[] since these are single-byte tables.
     byte[] decompressSB(char[] arr, byte subPad)
     {
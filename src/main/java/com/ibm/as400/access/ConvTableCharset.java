@@ -0,0 +1,456 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: ConvTableCharset.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.UnsupportedCharsetException;
+
+/**
+ A Charset backed by a Toolbox conversion table.  The decoders and encoders
+ convert incrementally, so data can be streamed through them.  For mixed-byte
+ tables the shift-out/shift-in state is carried from one buffer to the next.
+ Instances are created by ConvTableCharsetProvider.
+ **/
+class ConvTableCharset extends Charset
+{
+  private final int ccsid_;
+  private volatile ConvTable table_;  // Loaded when the first coder is created.
+
+  ConvTableCharset(int ccsid, String canonicalName, String[] aliases)
+  {
+    super(canonicalName, aliases);
+    ccsid_ = ccsid;
+  }
+
+  int getCcsid()
+  {
+    return ccsid_;
+  }
+
+  public boolean contains(Charset cs)
+  {
+    return cs == this;
+  }
+
+  public CharsetDecoder newDecoder()
+  {
+    ConvTable table = getTable();
+    if (table instanceof ConvTableSingleMap)
+      return new SingleByteDecoder(this, ((ConvTableSingleMap)table).toUnicode_);
+    if (table instanceof ConvTableAsciiMap)
+      return new SingleByteDecoder(this, ((ConvTableAsciiMap)table).toUnicode_);
+    if (table instanceof ConvTableMixedMap)
+      return new MixedByteDecoder(this, (ConvTableMixedMap)table);
+    return new DoubleByteDecoder(this, (ConvTableDoubleMap)table);
+  }
+
+  public CharsetEncoder newEncoder()
+  {
+    ConvTable table = getTable();
+    if (table instanceof ConvTableSingleMap)
+    {
+      ConvTableSingleMap map = (ConvTableSingleMap)table;
+      return new SingleByteEncoder(this, map.fromUnicode_, map.toUnicode_, ConvTable.sbSubChar_);
+    }
+    if (table instanceof ConvTableAsciiMap)
+    {
+      ConvTableAsciiMap map = (ConvTableAsciiMap)table;
+      return new SingleByteEncoder(this, map.fromUnicode_, map.toUnicode_, (byte)0x1A);
+    }
+    if (table instanceof ConvTableMixedMap)
+      return new MixedByteEncoder(this, (ConvTableMixedMap)table);
+    return new DoubleByteEncoder(this, (ConvTableDoubleMap)table);
+  }
+
+  private ConvTable getTable()
+  {
+    ConvTable table = table_;
+    if (table == null)
+    {
+      try
+      {
+        table = ConvTable.getTable(ccsid_, null);
+      }
+      catch (UnsupportedEncodingException e)
+      {
+        if (Trace.traceOn_) Trace.log(Trace.ERROR, "Unable to load conversion table for ccsid: " + ccsid_, e);
+        throw new UnsupportedCharsetException(name());
+      }
+      table_ = table;
+    }
+    return table;
+  }
+
+  // Checks the surrogate at the start of the input.  Returns null if the char
+  // is not a surrogate or is a complete pair, UNDERFLOW if the low surrogate
+  // has not arrived yet, or a malformed-input result.
+  static CoderResult checkSurrogate(CharBuffer in, char c)
+  {
+    if (Character.isHighSurrogate(c))
+    {
+      if (in.remaining() < 2) return CoderResult.UNDERFLOW;
+      if (Character.isLowSurrogate(in.get(in.position() + 1))) return null;
+      return CoderResult.malformedForLength(1);
+    }
+    if (Character.isLowSurrogate(c)) return CoderResult.malformedForLength(1);
+    return null;
+  }
+
+
+
+  // Decoder for single-byte tables.  Every byte maps to one char.
+  static final class SingleByteDecoder extends CharsetDecoder
+  {
+    private final char[] toUnicode_;
+
+    SingleByteDecoder(Charset charset, char[] toUnicode)
+    {
+      super(charset, 1.0f, 1.0f);
+      toUnicode_ = toUnicode;
+    }
+
+    protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out)
+    {
+      char[] toUnicode = toUnicode_;
+      int length = Math.min(in.remaining(), out.remaining());
+      if (in.hasArray() && out.hasArray())
+      {
+        byte[] src = in.array();
+        int srcPos = in.arrayOffset() + in.position();
+        char[] dest = out.array();
+        int destPos = out.arrayOffset() + out.position();
+        // The 0x00FF is so we don't get any negative indices.
+        for (int i = 0; i < length; ++i) dest[destPos + i] = toUnicode[0x00FF & src[srcPos + i]];
+        in.position(in.position() + length);
+        out.position(out.position() + length);
+      }
+      else
+      {
+        for (int i = 0; i < length; ++i) out.put(toUnicode[0x00FF & in.get()]);
+      }
+      return in.hasRemaining() ? CoderResult.OVERFLOW : CoderResult.UNDERFLOW;
+    }
+  }
+
+
+
+  // Encoder for single-byte tables.  Characters not in the table are reported
+  // as unmappable; the replacement is the table's substitution character.
+  static final class SingleByteEncoder extends CharsetEncoder
+  {
+    private final byte[] fromUnicode_;
+    private final char[] toUnicode_;
+    private final byte subChar_;
+
+    SingleByteEncoder(Charset charset, byte[] fromUnicode, char[] toUnicode, byte subChar)
+    {
+      super(charset, 1.0f, 1.0f, new byte[] { subChar });
+      fromUnicode_ = fromUnicode;
+      toUnicode_ = toUnicode;
+      subChar_ = subChar;
+    }
+
+    protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out)
+    {
+      byte[] fromUnicode = fromUnicode_;
+      while (in.hasRemaining())
+      {
+        char c = in.get(in.position());
+        byte b = fromUnicode[c];
+        if (b == subChar_ && toUnicode_[0x00FF & b] != c)
+        {
+          CoderResult result = checkSurrogate(in, c);
+          return (result != null) ? result : CoderResult.unmappableForLength(Character.isHighSurrogate(c) ? 2 : 1);
+        }
+        if (!out.hasRemaining()) return CoderResult.OVERFLOW;
+        out.put(b);
+        in.position(in.position() + 1);
+      }
+      return CoderResult.UNDERFLOW;
+    }
+
+    public boolean canEncode(char c)
+    {
+      byte b = fromUnicode_[c];
+      return b != subChar_ || toUnicode_[0x00FF & b] == c;
+    }
+  }
+
+
+
+  // Decoder for double-byte tables.  Every pair of bytes maps to one or more chars.
+  static final class DoubleByteDecoder extends CharsetDecoder
+  {
+    private final ConvTableDoubleMap table_;
+    private final char[] chars_ = new char[4];
+
+    DoubleByteDecoder(Charset charset, ConvTableDoubleMap table)
+    {
+      super(charset, 0.5f, 2.0f);
+      table_ = table;
+    }
+
+    protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out)
+    {
+      while (in.remaining() >= 2)
+      {
+        int position = in.position();
+        int fromIndex = ((0x00FF & in.get(position)) << 8) + (0x00FF & in.get(position + 1));
+        int count = table_.toUnicode(chars_, 0, fromIndex);
+        if (out.remaining() < count) return CoderResult.OVERFLOW;
+        out.put(chars_, 0, count);
+        in.position(position + 2);
+      }
+      // A single byte left over is kept until more input arrives.
+      return CoderResult.UNDERFLOW;
+    }
+  }
+
+
+
+  // Encoder for double-byte tables.
+  static final class DoubleByteEncoder extends CharsetEncoder
+  {
+    private final ConvTableDoubleMap table_;
+    private final char[][] windows_ = new char[][] { null, new char[1], new char[2], new char[3], new char[4] };
+    private final int[] increment_ = new int[1];
+
+    DoubleByteEncoder(Charset charset, ConvTableDoubleMap table)
+    {
+      super(charset, 2.0f, 2.0f, new byte[] { (byte)(ConvTable.dbSubChar_ >>> 8), (byte)ConvTable.dbSubChar_ });
+      table_ = table;
+    }
+
+    protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out)
+    {
+      while (in.hasRemaining())
+      {
+        int position = in.position();
+        char c = in.get(position);
+        CoderResult result = checkSurrogate(in, c);
+        if (result != null) return result;
+
+        char[] window = fillWindow(in, windows_);
+        char db = table_.fromUnicode(window, 0, increment_);
+        if (db == ConvTable.dbSubChar_ && c != ConvTable.dbSubUnic_)
+          return CoderResult.unmappableForLength(Character.isHighSurrogate(c) ? 2 : 1);
+        if (out.remaining() < 2) return CoderResult.OVERFLOW;
+        out.put((byte)(db >>> 8));
+        out.put((byte)db);
+        in.position(position + increment_[0]);
+      }
+      return CoderResult.UNDERFLOW;
+    }
+  }
+
+
+
+  // Decoder for mixed-byte tables.  Bytes are single-byte characters until a
+  // shift-out, and pairs of bytes are double-byte characters until a shift-in.
+  // The mode is kept between calls.
+  static final class MixedByteDecoder extends CharsetDecoder
+  {
+    private final char[] sbToUnicode_;
+    private final ConvTableDoubleMap dbTable_;
+    private final char[] chars_ = new char[4];
+    private boolean inSBMode_ = true;
+
+    MixedByteDecoder(Charset charset, ConvTableMixedMap table)
+    {
+      super(charset, 1.0f, 2.0f);
+      sbToUnicode_ = table.sbTable_.toUnicode_;
+      dbTable_ = table.dbTable_;
+    }
+
+    protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out)
+    {
+      while (in.hasRemaining())
+      {
+        int position = in.position();
+        byte curByte = in.get(position);
+        if (inSBMode_)
+        {
+          if (curByte == ConvTableMixedMap.shiftOut_)
+          {
+            inSBMode_ = false;
+          }
+          else
+          {
+            if (!out.hasRemaining()) return CoderResult.OVERFLOW;
+            out.put(sbToUnicode_[0x00FF & curByte]);
+          }
+          in.position(position + 1);
+        }
+        else if (curByte == ConvTableMixedMap.shiftIn_)
+        {
+          inSBMode_ = true;
+          in.position(position + 1);
+        }
+        else
+        {
+          // A single byte left over is kept until more input arrives.
+          if (in.remaining() < 2) return CoderResult.UNDERFLOW;
+          int fromIndex = ((0x00FF & curByte) << 8) + (0x00FF & in.get(position + 1));
+          int count = dbTable_.toUnicode(chars_, 0, fromIndex);
+          if (out.remaining() < count) return CoderResult.OVERFLOW;
+          out.put(chars_, 0, count);
+          in.position(position + 2);
+        }
+      }
+      return CoderResult.UNDERFLOW;
+    }
+
+    protected void implReset()
+    {
+      inSBMode_ = true;
+    }
+  }
+
+
+
+  // Encoder for mixed-byte tables.  A character is looked up in the same order
+  // as ConvTableMixedMap.charArrayToByteArray(), and shift-out/shift-in bytes
+  // are written when the mode changes.  The mode is kept between calls, and a
+  // final shift-in is written when the encoder is flushed.
+  static final class MixedByteEncoder extends CharsetEncoder
+  {
+    private final int ccsid_;
+    private final byte[] sbFromUnicode_;
+    private final ConvTableDoubleMap dbTable_;
+    private final char[][] windows_ = new char[][] { null, new char[1], new char[2], new char[3], new char[4] };
+    private final int[] increment_ = new int[1];
+    private boolean inSBMode_ = true;
+
+    MixedByteEncoder(Charset charset, ConvTableMixedMap table)
+    {
+      super(charset, 1.0f, 3.0f, new byte[] { ConvTable.sbSubChar_ });
+      ccsid_ = table.getCcsid();
+      sbFromUnicode_ = table.sbTable_.fromUnicode_;
+      dbTable_ = table.dbTable_;
+    }
+
+    protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out)
+    {
+      while (in.hasRemaining())
+      {
+        int position = in.position();
+        char c = in.get(position);
+        CoderResult result = checkSurrogate(in, c);
+        if (result != null) return (result.isUnderflow()) ? result : shiftInAndReport(out, result);
+
+        char[] window = fillWindow(in, windows_);
+        boolean singleByte;
+        byte sbLookup = 0;
+        char dbLookup = 0;
+        int consumed = 1;
+        if (((c & 0xFF00) == 0x0000) || (c == ConvTable.euro_) || (c == 0x203e && (ccsid_ == 935 || ccsid_ == 1388)))
+        {
+          // Use single-byte table first.
+          sbLookup = sbFromUnicode_[c];
+          singleByte = !(sbLookup == ConvTable.sbSubChar_ && c != ConvTable.sbSubUnic_);
+          if (!singleByte)
+          {
+            dbLookup = dbTable_.fromUnicode(window, 0, increment_);
+            if (dbLookup == ConvTable.dbSubChar_)
+              return shiftInAndReport(out, CoderResult.unmappableForLength(Character.isHighSurrogate(c) ? 2 : 1));
+            consumed = increment_[0];
+          }
+        }
+        else
+        {
+          // Use double-byte table first.
+          dbLookup = dbTable_.fromUnicode(window, 0, increment_);
+          consumed = increment_[0];
+          singleByte = (dbLookup == ConvTable.dbSubChar_ && c != ConvTable.dbSubUnic_);
+          if (singleByte)
+          {
+            sbLookup = sbFromUnicode_[c];
+            if (sbLookup == ConvTable.sbSubChar_)
+              return shiftInAndReport(out, CoderResult.unmappableForLength(Character.isHighSurrogate(c) ? 2 : 1));
+          }
+        }
+
+        if (singleByte)
+        {
+          if (out.remaining() < (inSBMode_ ? 1 : 2)) return CoderResult.OVERFLOW;
+          if (!inSBMode_)
+          {
+            out.put(ConvTableMixedMap.shiftIn_);
+            inSBMode_ = true;
+          }
+          out.put(sbLookup);
+        }
+        else
+        {
+          if (out.remaining() < (inSBMode_ ? 3 : 2)) return CoderResult.OVERFLOW;
+          if (inSBMode_)
+          {
+            out.put(ConvTableMixedMap.shiftOut_);
+            inSBMode_ = false;
+          }
+          out.put((byte)(dbLookup >>> 8));
+          out.put((byte)dbLookup);
+        }
+        in.position(position + consumed);
+      }
+      return CoderResult.UNDERFLOW;
+    }
+
+    // The replacement is a single-byte character, so shift in before an error is reported.
+    private CoderResult shiftInAndReport(ByteBuffer out, CoderResult result)
+    {
+      if (!inSBMode_)
+      {
+        if (!out.hasRemaining()) return CoderResult.OVERFLOW;
+        out.put(ConvTableMixedMap.shiftIn_);
+        inSBMode_ = true;
+      }
+      return result;
+    }
+
+    protected CoderResult implFlush(ByteBuffer out)
+    {
+      if (!inSBMode_)
+      {
+        if (!out.hasRemaining()) return CoderResult.OVERFLOW;
+        out.put(ConvTableMixedMap.shiftIn_);
+        inSBMode_ = true;
+      }
+      return CoderResult.UNDERFLOW;
+    }
+
+    protected void implReset()
+    {
+      inSBMode_ = true;
+    }
+  }
+
+  // Copies up to four chars from the start of the input, which is as far as the
+  // double-byte tables look ahead for combining sequences.  Sequences split across
+  // two input buffers are converted separately.
+  static char[] fillWindow(CharBuffer in, char[][] windows)
+  {
+    int length = Math.min(in.remaining(), 4);
+    char[] window = windows[length];
+    int position = in.position();
+    for (int i = 0; i < length; ++i) window[i] = in.get(position + i);
+    return window;
+  }
+}
@@ -0,0 +1,142 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: ConvTableCharsetProvider.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.nio.charset.Charset;
+import java.nio.charset.spi.CharsetProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ Makes the Toolbox conversion tables available as java.nio.charset.Charset
+ objects, so that IBM i data can be converted by streams and channels
+ without first collecting it into a byte array.
+ <p>The charset for a CCSID is named <code>x-IBMi-CCSID-</code><i>ccsid</i>
+ (for example, <code>x-IBMi-CCSID-37</code>), with the alias
+ <code>IBMi-CCSID-</code><i>ccsid</i>.  Single-byte, double-byte and mixed-byte
+ (SO/SI) tables are available.  The provider is registered in
+ META-INF/services, so the charsets can be found with Charset.forName().
+ **/
+public class ConvTableCharsetProvider extends CharsetProvider
+{
+  static final String NAME_PREFIX = "x-IBMi-CCSID-";
+  static final String ALIAS_PREFIX = "IBMi-CCSID-";
+
+  private static final ConcurrentHashMap<Integer, Charset> charsets_ = new ConcurrentHashMap<Integer, Charset>();
+
+  /**
+   Constructs a ConvTableCharsetProvider object.  This is called by the
+   Java runtime when it looks up charsets.
+   **/
+  public ConvTableCharsetProvider()
+  {
+  }
+
+  /**
+   Returns the charset for the given name, or null if the name
+   does not refer to a Toolbox conversion table.
+   @param charsetName The charset name.
+   @return The charset, or null.
+   **/
+  public Charset charsetForName(String charsetName)
+  {
+    int ccsid = nameToCcsid(charsetName);
+    return (ccsid < 0) ? null : charsetForCcsid(ccsid);
+  }
+
+  /**
+   Returns the charsets for all CCSIDs known to the Toolbox that have
+   a conversion table.
+   @return An iterator over the charsets.
+   **/
+  public Iterator<Charset> charsets()
+  {
+    List<Integer> ccsids = new ArrayList<Integer>();
+    for (Enumeration<String> e = ConversionMaps.ccsidEncoding_.keys(); e.hasMoreElements(); )
+    {
+      try
+      {
+        ccsids.add(Integer.valueOf(e.nextElement()));
+      }
+      catch (NumberFormatException nfe) { }  // not a CCSID
+    }
+    Collections.sort(ccsids);
+
+    List<Charset> charsets = new ArrayList<Charset>();
+    for (Integer ccsid : ccsids)
+    {
+      Charset charset = charsetForCcsid(ccsid.intValue());
+      if (charset != null) charsets.add(charset);
+    }
+    return charsets.iterator();
+  }
+
+  // Returns the charset for a CCSID, or null if the Toolbox has no table for it
+  // that can be used for streaming.
+  static Charset charsetForCcsid(int ccsid)
+  {
+    Integer key = Integer.valueOf(ccsid);
+    Charset charset = charsets_.get(key);
+    if (charset == null)
+    {
+      if (!isSupported(ccsid)) return null;
+      charset = new ConvTableCharset(ccsid, NAME_PREFIX + ccsid, new String[] { ALIAS_PREFIX + ccsid });
+      Charset old = charsets_.putIfAbsent(key, charset);
+      if (old != null) charset = old;
+    }
+    return charset;
+  }
+
+  // Returns the CCSID from a charset name, or -1 if the name is not one of ours.
+  private static int nameToCcsid(String charsetName)
+  {
+    if (charsetName == null) return -1;
+    String number;
+    if (charsetName.regionMatches(true, 0, NAME_PREFIX, 0, NAME_PREFIX.length()))
+      number = charsetName.substring(NAME_PREFIX.length());
+    else if (charsetName.regionMatches(true, 0, ALIAS_PREFIX, 0, ALIAS_PREFIX.length()))
+      number = charsetName.substring(ALIAS_PREFIX.length());
+    else
+      return -1;
+    if (number.length() == 0 || number.length() > 5) return -1;
+    for (int i = 0; i < number.length(); ++i)
+    {
+      if (number.charAt(i) < '0' || number.charAt(i) > '9') return -1;
+    }
+    int ccsid = Integer.parseInt(number);
+    return (ccsid > 0 && ccsid <= 65535) ? ccsid : -1;
+  }
+
+  // Checks whether there is a table class of a kind that has a streaming coder,
+  // without loading the table itself.
+  private static boolean isSupported(int ccsid)
+  {
+    try
+    {
+      Class<?> c = Class.forName("com.ibm.as400.access.ConvTable" + ccsid, false, ConvTableCharsetProvider.class.getClassLoader());
+      return ConvTableSingleMap.class.isAssignableFrom(c) ||
+             ConvTableAsciiMap.class.isAssignableFrom(c) ||
+             ConvTableMixedMap.class.isAssignableFrom(c) ||
+             ConvTableDoubleMap.class.isAssignableFrom(c);
+    }
+    catch (Throwable e)
+    {
+      return false;
+    }
+  }
+}
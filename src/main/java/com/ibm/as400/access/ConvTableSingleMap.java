@@ -14,6 +14,9 @@
 package com.ibm.as400.access;
 
 import java.io.CharConversionException;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**  This is the parent class for all ConvTableXXX classes that represent single-byte ccsids.
@@ -44,11 +47,28 @@ public abstract class ConvTableSingleMap extends ConvTable
         if (Trace.traceConversion_) Trace.log(Trace.CONVERSION, 
               "Converting byte array to string for ccsid: " + ccsid_+" offset:"+offset+" len:"+length, 
               buf, offset, length);
-        char[] dest = new char[length];
-        // The 0x00FF is so we don't get any negative indices.
-        for (int i = 0; i < length; dest[i] = toUnicode_[0x00FF & buf[offset + (i++)]]);
-        if (Trace.traceConversion_) Trace.log(Trace.CONVERSION, "Destination string for ccsid: " + ccsid_, ConvTable.dumpCharArray(dest));
-        return String.copyValueOf(dest);
+        char[] toUnicode = toUnicode_;
+        // Most data maps to Latin-1 characters.  Build the Latin-1 bytes of the
+        // string directly, so that a compact string is made with a single copy.
+        byte[] latin1 = new byte[length];
+        for (int i = 0; i < length; ++i)
+        {
+            // The 0x00FF is so we don't get any negative indices.
+            char c = toUnicode[0x00FF & buf[offset + i]];
+            if (c > 0x00FF)
+            {
+                // Not Latin-1, so finish the conversion with a char[].
+                char[] dest = new char[length];
+                for (int j = 0; j < i; ++j) dest[j] = (char)(0x00FF & latin1[j]);
+                for (; i < length; dest[i] = toUnicode[0x00FF & buf[offset + (i++)]]);
+                if (Trace.traceConversion_) Trace.log(Trace.CONVERSION, "Destination string for ccsid: " + ccsid_, ConvTable.dumpCharArray(dest));
+                return String.copyValueOf(dest);
+            }
+            latin1[i] = (byte)c;
+        }
+        String result = new String(latin1, 0, length, StandardCharsets.ISO_8859_1);
+        if (Trace.traceConversion_) Trace.log(Trace.CONVERSION, "Destination string for ccsid: " + ccsid_, ConvTable.dumpCharArray(result.toCharArray()));
+        return result;
     }
 
     // Perform a Unicode to OS/400 CCSID conversion.
@@ -111,6 +131,38 @@ public abstract class ConvTableSingleMap extends ConvTable
         if (Trace.traceConversion_) Trace.log(Trace.CONVERSION, "Destination string for ccsid: " + ccsid_, ConvTable.dumpCharArray(dest));
         return dest;
     }
+
+    // Perform an OS/400 CCSID to Unicode conversion into a caller-supplied array.
+    public final int byteArrayToCharArray(byte[] buf, int offset, int length, char[] dest, int destOffset)
+    {
+        if (Trace.traceConversion_) Trace.log(Trace.CONVERSION, 
+              "Converting byte array to char array for ccsid: " + ccsid_+" offset:"+offset+" len:"+length, 
+              buf, offset, length);
+        if (destOffset < 0 || length > dest.length - destOffset) throw new ArrayIndexOutOfBoundsException(destOffset + length);
+        char[] toUnicode = toUnicode_;
+        // The 0x00FF is so we don't get any negative indices.
+        for (int i = 0; i < length; ++i) dest[destOffset + i] = toUnicode[0x00FF & buf[offset + i]];
+        if (Trace.traceConversion_) Trace.log(Trace.CONVERSION, "Destination chars for ccsid: " + ccsid_, ConvTable.dumpCharArray(dest, destOffset, length));
+        return length;
+    }
+
+    // Perform an OS/400 CCSID to Unicode conversion into a caller-supplied buffer.
+    public final int byteArrayToCharBuffer(byte[] buf, int offset, int length, CharBuffer dest)
+    {
+        if (length > dest.remaining()) throw new BufferOverflowException();
+        if (dest.hasArray())
+        {
+            int position = dest.position();
+            byteArrayToCharArray(buf, offset, length, dest.array(), dest.arrayOffset() + position);
+            dest.position(position + length);
+        }
+        else
+        {
+            char[] toUnicode = toUnicode_;
+            for (int i = 0; i < length; ++i) dest.put(toUnicode[0x00FF & buf[offset + i]]);
+        }
+        return length;
+    }
     
     // Perform a Unicode to OS/400 CCSID conversion.
     final byte[] charArrayToByteArray(char[] src, BidiConversionProperties properties)
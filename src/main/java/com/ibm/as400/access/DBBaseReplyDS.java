@@ -226,6 +226,7 @@ extends ClientAccessDataStream
   // Don't pool this objects, but rely on the pooling of DBReplayRequestedDS objects 
   DBStorage storage_ = DBDSPool.storagePool_.getUnpooledStorage(); //@P0A @B5C
   private boolean inPool_ = false;                                       // Is this reply part of a pool? @B5A
+  private byte[] replyBuffer_ = null;                                    // Buffer from DBReplyBufferPool, if any
   
   private int holdable = -1;      //@cur
   private int scrollable = -1;    //@cur
@@ -276,7 +277,7 @@ four bytes, and sixteen bytes per line.
 **/
   void dump(PrintStream ps)
   {
-    DBBaseRequestDS.dump(ps, data_, data_.length);        
+    DBBaseRequestDS.dump(ps, data_, Math.min(getLength(), data_.length));        
 
     // Report whether or not the datastream was compressed.                    @E3A
     if (rleCompressed_)                                                     // @E3A
@@ -577,9 +578,48 @@ Parses the datastream.
   public int readAfterHeader(InputStream in)
   throws IOException
   {
-    byteCount_ = super.readAfterHeader(in);                                    // @E2C
+    // A pooled buffer may be longer than the datastream, so read the length from the header.
+    int length = getLength() - HEADER_LENGTH;
+    byteCount_ = readFromStream(in, data_, HEADER_LENGTH, length, connectionID_); // @E2C
+    if (byteCount_ < length)
+    {
+      if (Trace.traceOn_) Trace.log(Trace.ERROR, "Failed to read all of the data stream.");
+      throw new ConnectionDroppedException(ConnectionDroppedException.CONNECTION_DROPPED);
+    }
     return byteCount_;                                                          // @E2C
-  }                                                                               
+  }
+
+
+
+/**
+Gets a buffer from the reply buffer pool to receive this datastream.
+A buffer this reply already had is not given back to the pool, since
+data parsed from it may still be in use.
+
+@param  length  The length of the datastream.
+@return The buffer.
+**/
+  final byte[] getReplyBuffer(int length)
+  {
+    replyBuffer_ = DBReplyBufferPool.getBuffer(length);
+    return replyBuffer_;
+  }
+
+
+
+/**
+Takes ownership of the pooled buffer that holds the data of this reply.
+The caller gives it back with DBReplyBufferPool.returnBuffer() once the
+data parsed from this reply, such as the result data, is no longer used.
+
+@return The buffer, or null if the data of this reply is not in a pooled buffer.
+**/
+  final byte[] takeReplyBuffer()
+  {
+    byte[] buffer = replyBuffer_;
+    replyBuffer_ = null;
+    return buffer;
+  }
 
 
 
@@ -630,6 +670,9 @@ Parses the datastream.
                                           newData, 40, DataStreamCompression.DEFAULT_ESCAPE, true);                 // @E2A
       data_ = newData;                                                        // @E2A
       byteCount_ = data_.length - 20;                                         // @E2A
+
+      // Nothing refers to the compressed data, so its buffer can be reused now.
+      DBReplyBufferPool.returnBuffer(takeReplyBuffer());
     }                                                                           // @E2A
 
     // Read the template portion of data stream.
@@ -986,6 +1029,9 @@ Parses the datastream.
 	  // 
 	  // 
 	  data_ = storage_.getData();
+	  // For the same reason the buffer is not given back to DBReplyBufferPool here.
+	  // See returnToPoolAndReleaseBuffer().
+	  replyBuffer_ = null;
 	  
 	  super.returnToPool();
 	  // In this is not in the pool, go ahead and free the storage
@@ -1000,6 +1046,17 @@ Parses the datastream.
 	  }
   } /*@B5A*/ 
 
+  /**
+  Returns this reply to its pool and gives its buffer back to the reply
+  buffer pool.  Only use this for a reply whose data is not referenced
+  anywhere else, such as a reply that is discarded.
+  **/
+  void returnToPoolAndReleaseBuffer() {
+	  byte[] buffer = takeReplyBuffer();
+	  returnToPool();
+	  DBReplyBufferPool.returnBuffer(buffer);
+  }
+
   
   // Make sure the storage is freed before going away. @B5A
   synchronized protected void finalize()
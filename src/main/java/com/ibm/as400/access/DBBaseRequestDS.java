@@ -473,8 +473,17 @@ Adds a variable length string parameter.
     // Changed code to use the converter to find out the exact
     // number of bytes the string needs to occupy so that it works
     // for both single-byte and double-byte strings.
-    byte[] rawBytes = converter.stringToByteArray(value);
+    addParameter(codePoint, converter, converter.stringToByteArray(value));
+  }
 
+/**
+Adds a variable length string parameter that is already converted.
+**/
+  protected void addParameter(int codePoint,
+                              ConvTable converter,
+                              byte[] rawBytes)
+  throws DBDataStreamException, SQLException
+  {
     if (rawBytes.length > 65535)                                            // @E9a
       JDError.throwSQLException (JDError.EXC_SQL_STATEMENT_TOO_LONG);      // @E9a 
 
@@ -507,8 +516,17 @@ Adds a variable length string parameter with a four byte length.
                               String value)
   throws DBDataStreamException, SQLException                              
   {
-    byte[] rawBytes = converter.stringToByteArray(value);
+    addParameter(codePoint, v5r4, converter, converter.stringToByteArray(value));
+  }
 
+/**
+Adds a variable length string parameter with a four byte length that is already converted.
+**/
+  protected void addParameter(int codePoint, boolean v5r4,
+                              ConvTable converter,
+                              byte[] rawBytes)
+  throws DBDataStreamException, SQLException
+  {
     if (rawBytes.length > 2097152)             //CHECK TO SEE IF GREATER THAN 2MB                                
       JDError.throwSQLException (JDError.EXC_SQL_STATEMENT_TOO_LONG);      
 
@@ -1065,14 +1083,9 @@ Overrides the superclass to write the datastream.
             BinaryConverter.shortToByteArray((short)AS400JDBCConnectionImpl.DATA_COMPRESSION_RLE_, compressedBytes, 44);       // @E5A
             BinaryConverter.intToByteArray(dataLength, compressedBytes, 46);            // @E3A @E5C
 
-            // Synchronization is added around the socket                                  @E3A
-            // write so that requests from multiple threads                                @E3A
+            // The request is written so that requests from multiple threads              @E3A
             // that use the same socket won't be garbled.                                  @E3A
-            synchronized(out)
-            {                                                         // @E3A
-              out.write(compressedBytes, 0, compressedSizeWithHeader);                // @E3A
-              out.flush();                                                            // @W1A
-            }
+            writeRequest(out, compressedBytes, 0, compressedSizeWithHeader);             // @E3A
             if (Trace.traceOn_) Trace.log(Trace.DATASTREAM, "Data stream sent (connID="+connectionID_+") ...", compressedBytes, 0, compressedSizeWithHeader); //@E6A @P0C
           }                                                                               // @E3A
           else
@@ -1102,11 +1115,7 @@ Overrides the superclass to write the datastream.
       // Synchronization is added around the socket
       // write so that requests from multiple threads
       // that use the same socket won't be garbled.
-      synchronized(out)
-      {
-        out.write(data_, 0, currentOffset_);
-        out.flush();                                         //@W1a
-      }
+      writeRequest(out, data_, 0, currentOffset_);           //@W1a
       //@PDA only trace if stream is actually being sent now. (no trace on lazy close here)
       if (Trace.traceOn_ && !(out instanceof ByteArrayOutputStream)) Trace.log(Trace.DATASTREAM, "Data stream sent (connID="+connectionID_+") ...", data_, 0, currentOffset_);  //@E6A @P0C
     }                                                                                       // @E3A
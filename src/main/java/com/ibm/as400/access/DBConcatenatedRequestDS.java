@@ -121,12 +121,9 @@ Write the datastream.
         }
         requests_[countMinusOne_].write(concatenated); //@P1A - ...the caller will mark it free, we just write it.
                                                 
-        synchronized(out)                                     // @W1a
-        {                                                     // @W1a
-           out.write(concatenated.toByteArray());
-           out.flush();       
-        }                                                     // @W1a
-        if (Trace.traceOn_) Trace.log(Trace.DATASTREAM, "Data stream sent (connID="+connectionID_+") ...", concatenated.toByteArray()); //@A1A @P0C
+        byte[] data = concatenated.toByteArray();
+        writeRequest(out, data, 0, data.length);              // @W1a
+        if (Trace.traceOn_) Trace.log(Trace.DATASTREAM, "Data stream sent (connID="+connectionID_+") ...", data); //@A1A @P0C
 	}
 
 
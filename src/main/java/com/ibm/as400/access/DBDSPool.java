@@ -23,43 +23,97 @@ final class DBDSPool
 
   private DBDSPool() {}
 
+  // Each pool is split into stripes, each with its own lock.  A thread always uses the
+  // same stripe, so threads on different stripes never contend for a pool lock.  The
+  // number of stripes is a power of two so the stripe can be found with a mask.  Setting
+  // com.ibm.as400.access.DBDSPool.stripes to 1 gives the old single-lock behavior.
+  static final int STRIPES = computeStripes();
+  private static final int STRIPE_MASK = STRIPES - 1;
+  private static final int STRIPE_SHIFT = Integer.numberOfTrailingZeros(STRIPES);
+
+  private static int computeStripes() {
+    int stripes = Runtime.getRuntime().availableProcessors();
+    String stripesProperty = SystemProperties.getProperty("com.ibm.as400.access.DBDSPool.stripes");
+    if (stripesProperty != null) {
+      try {
+        stripes = Integer.parseInt(stripesProperty.trim());
+      } catch (NumberFormatException e) {
+        if (JDTrace.isTraceOn()) JDTrace.logInformation(DBDSPool.class, "Ignoring DBDSPool.stripes value " + stripesProperty);
+      }
+    }
+    if (stripes < 1) stripes = 1;
+    if (stripes > 64) stripes = 64;
+    // Round up to a power of two.
+    return (stripes == 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+  }
+
+  private static Object[] newLocks() {
+    Object[] locks = new Object[STRIPES];
+    for (int i = 0; i < STRIPES; ++i) locks[i] = new Object();
+    return locks;
+  }
+
+  // Returns the stripe used by the current thread.
+  static int stripe() {
+    return (STRIPES == 1) ? 0 : ((int) Thread.currentThread().getId()) & STRIPE_MASK;
+  }
+
+  // Pool statistics, kept only when the monitor is on.  Each counter is only updated while
+  // holding the lock for its pool and stripe.
+  private static final int STAT_REQUESTS = 0;
+  private static final int STAT_EXPANSIONS = 1;
+  private static final int STAT_SQLRPBDS = 0;
+  private static final int STAT_SQLDESCRIPTORDS = 2;
+  private static final int STAT_SQLRESULTSETDS = 4;
+  private static final int STAT_SQLREQUESTDS = 6;
+  private static final int STAT_NATIVEDATABASEREQUESTDS = 8;
+  private static final int STAT_RETURNOBJECTINFORMATIONREQUESTDS = 10;
+  private static final int STAT_SQLATTRIBUTESDS = 12;
+  private static final int STAT_XAREQUESTDS = 14;
+  private static final int STAT_REPLYREQUESTEDDS = 16;
+  private static final int STAT_COUNT = 18;
+  private static final String[] STAT_NAMES = { "DBSQLRPBDS", "DBSQLDescriptorDS", "DBSQLResultSetDS", "DBSQLRequestDS",
+      "DBNativeDatabaseRequestDS", "DBReturnObjectInformationRequestDS", "DBSQLAttributesDS", "DBXARequestDS", "DBReplyRequestedDS" };
+  private static final long[][] statistics_ = new long[STRIPES][STAT_COUNT];
+
   // Request streams.
-  private static DBSQLRPBDS[] dbsqlrpbdsPool_ = new DBSQLRPBDS[4];
-  private static final Object dbsqlrpbdsPoolLock_ = new Object(); //@P1A
+  private static final DBSQLRPBDS[][] dbsqlrpbdsPool_ = new DBSQLRPBDS[STRIPES][4];
+  private static final Object[] dbsqlrpbdsPoolLock_ = newLocks();
   
-  private static DBSQLDescriptorDS[] dbsqldescriptordsPool_ = new DBSQLDescriptorDS[4];
-  private static final Object dbsqldescriptordsPoolLock_ = new Object(); //@P1A
+  private static final DBSQLDescriptorDS[][] dbsqldescriptordsPool_ = new DBSQLDescriptorDS[STRIPES][4];
+  private static final Object[] dbsqldescriptordsPoolLock_ = newLocks();
   
-  private static DBSQLResultSetDS[] dbsqlresultsetdsPool_ = new DBSQLResultSetDS[4];
-  private static final Object dbsqlresultsetdsPoolLock_ = new Object(); //@P1A
+  private static final DBSQLResultSetDS[][] dbsqlresultsetdsPool_ = new DBSQLResultSetDS[STRIPES][4];
+  private static final Object[] dbsqlresultsetdsPoolLock_ = newLocks();
   
-  private static DBSQLRequestDS[] dbsqlrequestdsPool_ = new DBSQLRequestDS[4];
-  private static final Object dbsqlrequestdsPoolLock_ = new Object(); //@P1A
-  private static int          dbsqlrequestdsPoolHighMark_ = 0;        // @A8A
-  private static int          dbsqlrequestdsPoolAllocations_ = 0; 
+  private static final DBSQLRequestDS[][] dbsqlrequestdsPool_ = new DBSQLRequestDS[STRIPES][4];
+  private static final Object[] dbsqlrequestdsPoolLock_ = newLocks();
+  private static final int[]  dbsqlrequestdsPoolHighMark_ = new int[STRIPES];        // @A8A
+  private static final int[]  dbsqlrequestdsPoolAllocations_ = new int[STRIPES]; 
   private static int          dbsqlrequestdsPoolReclaimThreshold = 1000;  
    
-  private static DBNativeDatabaseRequestDS[] dbnativedatabaserequestdsPool_ = new DBNativeDatabaseRequestDS[4];
-  private static final Object dbnativedatabaserequestdsPoolLock_ = new Object(); //@P1A
+  private static final DBNativeDatabaseRequestDS[][] dbnativedatabaserequestdsPool_ = new DBNativeDatabaseRequestDS[STRIPES][4];
+  private static final Object[] dbnativedatabaserequestdsPoolLock_ = newLocks();
   
-  private static DBReturnObjectInformationRequestDS[] dbreturnobjectinformationrequestdsPool_ = new DBReturnObjectInformationRequestDS[4];
-  private static final Object dbreturnobjectinformationrequestdsPoolLock_ = new Object(); //@P1A
+  private static final DBReturnObjectInformationRequestDS[][] dbreturnobjectinformationrequestdsPool_ = new DBReturnObjectInformationRequestDS[STRIPES][4];
+  private static final Object[] dbreturnobjectinformationrequestdsPoolLock_ = newLocks();
   
-  private static DBSQLAttributesDS[] dbsqlattributesdsPool_ = new DBSQLAttributesDS[4];
-  private static final Object dbsqlattributesdsPoolLock_ = new Object(); //@P1A
+  private static final DBSQLAttributesDS[][] dbsqlattributesdsPool_ = new DBSQLAttributesDS[STRIPES][4];
+  private static final Object[] dbsqlattributesdsPoolLock_ = newLocks();
   
-  private static DBXARequestDS[] dbxarequestdsPool_ = new DBXARequestDS[4];
-  private static final Object dbxarequestdsPoolLock_ = new Object(); //@P1A
+  private static final DBXARequestDS[][] dbxarequestdsPool_ = new DBXARequestDS[STRIPES][4];
+  private static final Object[] dbxarequestdsPoolLock_ = newLocks();
 
   // Reply streams.
-  /* private  */ 
-  static SoftReference[] dbreplyrequesteddsPool_ = new SoftReference[4];
-  private static final Object dbreplyrequesteddsPoolLock_ = new Object(); //@P1A
-  private static int dbReplyRequestedPoolSearchStart_=0;                                         //@B5A
+  // The pool index of a DBReplyRequestedDS is (index * STRIPES + stripe).
+  private static final SoftReference[][] dbreplyrequesteddsPool_ = new SoftReference[STRIPES][4];
+  private static final Object[] dbreplyrequesteddsPoolLock_ = newLocks(); //@P1A
+  private static final int[] dbReplyRequestedPoolSearchStart_ = new int[STRIPES];                //@B5A
   private static final int DB_REPLY_REQUEST_POOL_SEARCH_RESET = 4096;         // @B5A
   private static final int DB_REPLY_REQUEST_LOCALITY = 256; 
-  private static int       dbReplyRequestedPoolSearchCount_ = 0;                                    // @B5A
-  private static boolean   dbReplyRequestedPoolFull_ = false; 
+  private static final int DB_REPLY_REQUEST_POOL_MAX = Math.max(16384 / STRIPES, 256); 
+  private static final int[] dbReplyRequestedPoolSearchCount_ = new int[STRIPES];                   // @B5A
+  private static final boolean[] dbReplyRequestedPoolFull_ = new boolean[STRIPES]; 
 
   static final DBStoragePool storagePool_ = new DBStoragePool();
   
@@ -81,25 +135,79 @@ final class DBDSPool
     String monitorProperty = SystemProperties.getProperty("com.ibm.as400.access.DBDSPool.monitor");    //@B5A@D8C
   	  if (monitorProperty != null) { 
   		  monitor = true; 
+  		  // Trace the pool statistics at exit so the pools can be sized.
+  		  try {
+  			  Runtime.getRuntime().addShutdownHook(new Thread("DBDSPool monitor") {
+  				  public void run() {
+  					  if (JDTrace.isTraceOn()) JDTrace.logInformation(getPoolStatistics());
+  				  }
+  			  });
+  		  } catch (SecurityException e) {
+  			  // Statistics are still available from getPoolStatistics().
+  		  }
   	  }
   }
   
   static void returnToDBReplyRequestedPool(int poolIndex) {                                        //@B5A
 	  if (poolIndex >= 0) {
-	  if (dbReplyRequestedPoolFull_) {
-		  dbReplyRequestedPoolFull_ = false;
-	      dbReplyRequestedPoolSearchStart_ = poolIndex; 
+	  int stripe = poolIndex & STRIPE_MASK;
+	  poolIndex = poolIndex >>> STRIPE_SHIFT;
+	  if (dbReplyRequestedPoolFull_[stripe]) {
+		  dbReplyRequestedPoolFull_[stripe] = false;
+	      dbReplyRequestedPoolSearchStart_[stripe] = poolIndex; 
 	  } else { 
-	    if (poolIndex < dbReplyRequestedPoolSearchStart_ &&
-		  poolIndex >= (dbReplyRequestedPoolSearchStart_ - DB_REPLY_REQUEST_LOCALITY )) {
-	      dbReplyRequestedPoolSearchStart_ = poolIndex; 
+	    if (poolIndex < dbReplyRequestedPoolSearchStart_[stripe] &&
+		  poolIndex >= (dbReplyRequestedPoolSearchStart_[stripe] - DB_REPLY_REQUEST_LOCALITY )) {
+	      dbReplyRequestedPoolSearchStart_[stripe] = poolIndex; 
 	    }
 	  }
 	  }
   }
   
   public static int getDBReplyRequestedDSPoolSize() {
-	  return dbreplyrequesteddsPool_.length; 
+	  int size = 0;
+	  for (int i = 0; i < STRIPES; ++i) {
+		  synchronized (dbreplyrequesteddsPoolLock_[i]) {
+			  size += dbreplyrequesteddsPool_[i].length;
+		  }
+	  }
+	  return size; 
+  }
+
+  /**
+   * Returns a summary of the pool sizes and, when the monitor is on, the number of requests
+   * and expansions for each pool.  Used to size the pools.
+   */
+  static String getPoolStatistics() {
+	  int[] sizes = new int[STAT_NAMES.length];
+	  for (int i = 0; i < STRIPES; ++i) {
+		  synchronized (dbsqlrpbdsPoolLock_[i]) { sizes[0] += dbsqlrpbdsPool_[i].length; }
+		  synchronized (dbsqldescriptordsPoolLock_[i]) { sizes[1] += dbsqldescriptordsPool_[i].length; }
+		  synchronized (dbsqlresultsetdsPoolLock_[i]) { sizes[2] += dbsqlresultsetdsPool_[i].length; }
+		  synchronized (dbsqlrequestdsPoolLock_[i]) { sizes[3] += dbsqlrequestdsPool_[i].length; }
+		  synchronized (dbnativedatabaserequestdsPoolLock_[i]) { sizes[4] += dbnativedatabaserequestdsPool_[i].length; }
+		  synchronized (dbreturnobjectinformationrequestdsPoolLock_[i]) { sizes[5] += dbreturnobjectinformationrequestdsPool_[i].length; }
+		  synchronized (dbsqlattributesdsPoolLock_[i]) { sizes[6] += dbsqlattributesdsPool_[i].length; }
+		  synchronized (dbxarequestdsPoolLock_[i]) { sizes[7] += dbxarequestdsPool_[i].length; }
+		  synchronized (dbreplyrequesteddsPoolLock_[i]) { sizes[8] += dbreplyrequesteddsPool_[i].length; }
+	  }
+	  StringBuffer buffer = new StringBuffer("DBDSPool stripes=" + STRIPES);
+	  for (int type = 0; type < STAT_NAMES.length; ++type) {
+		  buffer.append(' ').append(STAT_NAMES[type]).append("[size=").append(sizes[type]);
+		  if (monitor) {
+			  long requests = 0;
+			  long expansions = 0;
+			  for (int i = 0; i < STRIPES; ++i) {
+				  requests += statistics_[i][type * 2 + STAT_REQUESTS];
+				  expansions += statistics_[i][type * 2 + STAT_EXPANSIONS];
+			  }
+			  buffer.append(" requests=").append(requests).append(" expansions=").append(expansions);
+		  }
+		  buffer.append(']');
+	  }
+	  buffer.append(' ').append(storagePool_.getStatistics());
+	  buffer.append(' ').append(DBReplyBufferPool.getStatistics());
+	  return buffer.toString();
   }
   
   static final DBReplyRequestedDS getDBReplyRequestedDS() {
@@ -109,34 +217,36 @@ final class DBDSPool
       unpooledDS.setInPool(false); // @B5A
       return unpooledDS;
     } else {
-      synchronized (dbreplyrequesteddsPoolLock_) // @P1C
+      int stripe = stripe();
+      synchronized (dbreplyrequesteddsPoolLock_[stripe]) // @P1C
       {
         // This pools is maintained as weak references to
         // all the garbage collector to free up as needed.
         // DBReplyRequestedDS[] pool = dbreplyrequesteddsPool_; //@P1M
-        SoftReference[] pool = dbreplyrequesteddsPool_; // @P1M
+        SoftReference[] pool = dbreplyrequesteddsPool_[stripe]; // @P1M
+        if (monitor) statistics_[stripe][STAT_REPLYREQUESTEDDS + STAT_REQUESTS]++;
         int max = pool.length;
 
         // Periodically begin the search for free items at the beginning of the
         // pool @B5A
-        int searchStart = dbReplyRequestedPoolSearchStart_;
-        if (dbReplyRequestedPoolFull_) {
+        int searchStart = dbReplyRequestedPoolSearchStart_[stripe];
+        if (dbReplyRequestedPoolFull_[stripe]) {
           searchStart = pool.length;
         }
-        if (dbReplyRequestedPoolSearchCount_ > DB_REPLY_REQUEST_POOL_SEARCH_RESET) {
-          dbReplyRequestedPoolFull_ = false;
+        if (dbReplyRequestedPoolSearchCount_[stripe] > DB_REPLY_REQUEST_POOL_SEARCH_RESET) {
+          dbReplyRequestedPoolFull_[stripe] = false;
           searchStart = 0;
-          dbReplyRequestedPoolSearchCount_ = 0;
+          dbReplyRequestedPoolSearchCount_[stripe] = 0;
         }
-        dbReplyRequestedPoolSearchCount_++;
+        dbReplyRequestedPoolSearchCount_[stripe]++;
 
         for (int i = searchStart; i < pool.length; ++i) {
           if (pool[i] == null) {
-            DBReplyRequestedDS pooledDs = new DBReplyRequestedDS(monitor, i);
+            DBReplyRequestedDS pooledDs = new DBReplyRequestedDS(monitor, i * STRIPES + stripe);
             pooledDs.canUse();
             pooledDs.setInPool(true);
             pool[i] = new SoftReference(pooledDs);
-            dbReplyRequestedPoolSearchStart_ = i + 1;
+            dbReplyRequestedPoolSearchStart_[stripe] = i + 1;
             return pooledDs;
 
           } else {
@@ -146,11 +256,11 @@ final class DBDSPool
             // Sometimes ds.storage_ can be null because of a
             // GC bug.  If so, do not use it. 
             if (ds == null || ds.storage_ == null   ) {
-              ds = new DBReplyRequestedDS(monitor, i);
+              ds = new DBReplyRequestedDS(monitor, i * STRIPES + stripe);
               ds.canUse();
               ds.setInPool(true);
               pool[i] = new SoftReference(ds);
-              dbReplyRequestedPoolSearchStart_ = i + 1;
+              dbReplyRequestedPoolSearchStart_[stripe] = i + 1;
               // pool[i].setPoolIndex(i);
               return ds;
 
@@ -166,7 +276,7 @@ final class DBDSPool
                 } else {
                   ds.initialize();
                   // pool[i].setPoolIndex(i);
-                  dbReplyRequestedPoolSearchStart_ = i + 1;
+                  dbReplyRequestedPoolSearchStart_[stripe] = i + 1;
                   return ds;
                 }
               }
@@ -174,10 +284,10 @@ final class DBDSPool
           }
         }
         // All are in use, so expand the pool but keep the pool less than 16384
-        if (max * 2 < 16385) {
+        if (max * 2 <= DB_REPLY_REQUEST_POOL_MAX) {
           // Have a monitor so we can see the usage of these items @B5A
           if (monitor) {
-            System.out.println("Expanding DBDSPool to size " + (max * 2));
+            System.out.println("Expanding DBDSPool stripe " + stripe + " to size " + (max * 2));
             for (int i = 0; i < max; i++) {
               DBReplyRequestedDS ds = (DBReplyRequestedDS) pool[i].get();
               if (ds == null) {
@@ -190,22 +300,23 @@ final class DBDSPool
           }
           SoftReference[] temp = new SoftReference[max * 2];
           System.arraycopy(pool, 0, temp, 0, max);
-          DBReplyRequestedDS pooledDs = new DBReplyRequestedDS(monitor, max);
+          DBReplyRequestedDS pooledDs = new DBReplyRequestedDS(monitor, max * STRIPES + stripe);
           pooledDs.canUse(); 
           pooledDs.setInPool(true); // @B5A
           temp[max] = new SoftReference(pooledDs);
           // temp[max].setPoolIndex(max);
 
-          dbreplyrequesteddsPool_ = temp;
+          dbreplyrequesteddsPool_[stripe] = temp;
+          if (monitor) statistics_[stripe][STAT_REPLYREQUESTEDDS + STAT_EXPANSIONS]++;
           // Start the search at zero after expanding
-          dbReplyRequestedPoolSearchStart_ = 0; // @B5A
+          dbReplyRequestedPoolSearchStart_[stripe] = 0; // @B5A
           return pooledDs;
         } else {
           DBReplyRequestedDS nonpooledDS = new DBReplyRequestedDS(monitor, -1);
           nonpooledDS.canUse();
           nonpooledDS.setInPool(false);
-          if (!dbReplyRequestedPoolFull_) {
-            dbReplyRequestedPoolFull_ = true;
+          if (!dbReplyRequestedPoolFull_[stripe]) {
+            dbReplyRequestedPoolFull_[stripe] = true;
           }
           return nonpooledDS;
         }
@@ -215,9 +326,11 @@ final class DBDSPool
   
   static final DBXARequestDS getDBXARequestDS(int a, int b, int c, int d)
   {
-    synchronized(dbxarequestdsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbxarequestdsPoolLock_[stripe]) //@P1C
     {
-      DBXARequestDS[] pool = dbxarequestdsPool_; //@P1M
+      DBXARequestDS[] pool = dbxarequestdsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_XAREQUESTDS + STAT_REQUESTS]++;
       int max = pool.length;
       for (int i=0; i<pool.length; ++i)
       {
@@ -240,16 +353,19 @@ final class DBDSPool
       DBXARequestDS request = new DBXARequestDS(a,b,c,d);
       request.canUse();
       temp[max] = request; 
-      dbxarequestdsPool_ = temp;
+      dbxarequestdsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_XAREQUESTDS + STAT_EXPANSIONS]++;
       return request;
     }
   }
 
   static final DBSQLAttributesDS getDBSQLAttributesDS(int a, int b, int c, int d)
   {
-    synchronized(dbsqlattributesdsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbsqlattributesdsPoolLock_[stripe]) //@P1C
     {
-      DBSQLAttributesDS[] pool = dbsqlattributesdsPool_; //@P1M
+      DBSQLAttributesDS[] pool = dbsqlattributesdsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_SQLATTRIBUTESDS + STAT_REQUESTS]++;
       int max = pool.length;
       for (int i=0; i<pool.length; ++i)
       {
@@ -273,16 +389,19 @@ final class DBDSPool
       DBSQLAttributesDS ds = new DBSQLAttributesDS(a,b,c,d);
       ds.canUse();
       temp[max]= ds;
-      dbsqlattributesdsPool_ = temp;
+      dbsqlattributesdsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_SQLATTRIBUTESDS + STAT_EXPANSIONS]++;
       return ds;
     }
   }
 
   static final DBNativeDatabaseRequestDS getDBNativeDatabaseRequestDS(int a, int b, int c, int d)
   {
-    synchronized(dbnativedatabaserequestdsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbnativedatabaserequestdsPoolLock_[stripe]) //@P1C
     {
-      DBNativeDatabaseRequestDS[] pool = dbnativedatabaserequestdsPool_; //@P1M
+      DBNativeDatabaseRequestDS[] pool = dbnativedatabaserequestdsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_NATIVEDATABASEREQUESTDS + STAT_REQUESTS]++;
       int max = pool.length;
       for (int i=0; i<pool.length; ++i)
       {
@@ -308,16 +427,19 @@ final class DBDSPool
       newRequest.canUse(); 
       temp[max] = newRequest; 
   
-      dbnativedatabaserequestdsPool_ = temp;
+      dbnativedatabaserequestdsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_NATIVEDATABASEREQUESTDS + STAT_EXPANSIONS]++;
       return newRequest;
     }
   }
 
   static final DBReturnObjectInformationRequestDS getDBReturnObjectInformationRequestDS(int a, int b, int c, int d)
   {
-    synchronized(dbreturnobjectinformationrequestdsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbreturnobjectinformationrequestdsPoolLock_[stripe]) //@P1C
     {
-      DBReturnObjectInformationRequestDS[] pool = dbreturnobjectinformationrequestdsPool_; //@P1M
+      DBReturnObjectInformationRequestDS[] pool = dbreturnobjectinformationrequestdsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_RETURNOBJECTINFORMATIONREQUESTDS + STAT_REQUESTS]++;
       int max = pool.length;
       for (int i=0; i<pool.length; ++i)
       {
@@ -344,16 +466,19 @@ final class DBDSPool
       DBReturnObjectInformationRequestDS newRequest = new DBReturnObjectInformationRequestDS(a,b,c,d);
       newRequest.canUse(); 
       temp[max] = newRequest; 
-      dbreturnobjectinformationrequestdsPool_ = temp;
+      dbreturnobjectinformationrequestdsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_RETURNOBJECTINFORMATIONREQUESTDS + STAT_EXPANSIONS]++;
       return newRequest;
     }
   }
 
   static final DBSQLDescriptorDS getDBSQLDescriptorDS(int a, int b, int c, int d)
   {
-    synchronized(dbsqldescriptordsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbsqldescriptordsPoolLock_[stripe]) //@P1C
     {
-      DBSQLDescriptorDS[] pool = dbsqldescriptordsPool_; //@P1M
+      DBSQLDescriptorDS[] pool = dbsqldescriptordsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_SQLDESCRIPTORDS + STAT_REQUESTS]++;
       int max = pool.length;
       for (int i=0; i<max; ++i)
       {
@@ -379,25 +504,28 @@ final class DBDSPool
       DBSQLDescriptorDS ds = new DBSQLDescriptorDS(a,b,c,d);
       ds.canUse();
       temp[max] = ds; 
-      dbsqldescriptordsPool_ = temp;
+      dbsqldescriptordsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_SQLDESCRIPTORDS + STAT_EXPANSIONS]++;
       return ds;
     }
   }
 
   static final DBSQLRequestDS getDBSQLRequestDS(int a, int b, int c, int d)
   {
-    synchronized(dbsqlrequestdsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbsqlrequestdsPoolLock_[stripe]) //@P1C
     {
-      DBSQLRequestDS[] pool = dbsqlrequestdsPool_; //@P1M
+      DBSQLRequestDS[] pool = dbsqlrequestdsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_SQLREQUESTDS + STAT_REQUESTS]++;
 
       int max = pool.length;
 
       //  @A8A  
-      dbsqlrequestdsPoolAllocations_++; 
-      if (dbsqlrequestdsPoolAllocations_ > dbsqlrequestdsPoolReclaimThreshold) {
+      dbsqlrequestdsPoolAllocations_[stripe]++; 
+      if (dbsqlrequestdsPoolAllocations_[stripe] > dbsqlrequestdsPoolReclaimThreshold) {
     	  // System.out.println("Running cleanup in getDBSQLRequestDS"); 
-    	  dbsqlrequestdsPoolAllocations_ = 0; 
-    	  for (int i = dbsqlrequestdsPoolHighMark_+1; i < max; i++) {
+    	  dbsqlrequestdsPoolAllocations_[stripe] = 0; 
+    	  for (int i = dbsqlrequestdsPoolHighMark_[stripe]+1; i < max; i++) {
    	        if (pool[i] != null) {
    	        	if (( pool[i].inUse_ == false) && pool[i].canUse()) {
      	          pool[i].reclaim(); 
@@ -405,7 +533,7 @@ final class DBDSPool
    	            }
    	        }
     	  }
-    	  dbsqlrequestdsPoolHighMark_ = 0; 
+    	  dbsqlrequestdsPoolHighMark_[stripe] = 0; 
     	  // System.out.println("Finished cleanup in getDBSQLRequestDS"); 
       }
       
@@ -416,13 +544,13 @@ final class DBDSPool
           DBSQLRequestDS ds = new DBSQLRequestDS(a,b,c,d);
           ds.canUse();
           pool[i] = ds; 
-          if (i > dbsqlrequestdsPoolHighMark_) dbsqlrequestdsPoolHighMark_ = i;   // @A8A
+          if (i > dbsqlrequestdsPoolHighMark_[stripe]) dbsqlrequestdsPoolHighMark_[stripe] = i;   // @A8A
           return ds;
         }
           if (( pool[i].inUse_ == false) && pool[i].canUse())
           {
             pool[i].initialize(a,b,c,d);
-            if (i > dbsqlrequestdsPoolHighMark_) dbsqlrequestdsPoolHighMark_ = i; 
+            if (i > dbsqlrequestdsPoolHighMark_[stripe]) dbsqlrequestdsPoolHighMark_[stripe] = i; 
             return pool[i];
           }
       }
@@ -432,17 +560,20 @@ final class DBDSPool
       DBSQLRequestDS ds = new DBSQLRequestDS(a,b,c,d);
       ds.canUse();
       temp[max]=ds; 
-      dbsqlrequestdsPool_ = temp;
-      if (max > dbsqlrequestdsPoolHighMark_) dbsqlrequestdsPoolHighMark_ = max;   // @A8A
+      dbsqlrequestdsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_SQLREQUESTDS + STAT_EXPANSIONS]++;
+      if (max > dbsqlrequestdsPoolHighMark_[stripe]) dbsqlrequestdsPoolHighMark_[stripe] = max;   // @A8A
       return ds;
     }
   }
 
   static final DBSQLResultSetDS getDBSQLResultSetDS(int a, int b, int c, int d)
   {
-    synchronized(dbsqlresultsetdsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbsqlresultsetdsPoolLock_[stripe]) //@P1C
     {
-      DBSQLResultSetDS[] pool = dbsqlresultsetdsPool_; //@P1M
+      DBSQLResultSetDS[] pool = dbsqlresultsetdsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_SQLRESULTSETDS + STAT_REQUESTS]++;
       int max = pool.length;
       for (int i=0; i<max; ++i)
       {
@@ -465,16 +596,19 @@ final class DBDSPool
       DBSQLResultSetDS ds = new DBSQLResultSetDS(a,b,c,d);
       ds.canUse();
       temp[max] = ds; 
-      dbsqlresultsetdsPool_ = temp;
+      dbsqlresultsetdsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_SQLRESULTSETDS + STAT_EXPANSIONS]++;
       return ds;
     }
   }
 
   static final DBSQLRPBDS getDBSQLRPBDS(int a, int b, int c, int d)
   {
-    synchronized(dbsqlrpbdsPoolLock_) //@P1C
+    int stripe = stripe();
+    synchronized(dbsqlrpbdsPoolLock_[stripe]) //@P1C
     {
-      DBSQLRPBDS[] pool = dbsqlrpbdsPool_; //@P1M
+      DBSQLRPBDS[] pool = dbsqlrpbdsPool_[stripe]; //@P1M
+      if (monitor) statistics_[stripe][STAT_SQLRPBDS + STAT_REQUESTS]++;
       int max = pool.length;
       for (int i=0; i<max; ++i)
       {
@@ -497,7 +631,8 @@ final class DBDSPool
       DBSQLRPBDS ds = new DBSQLRPBDS(a,b,c,d);
       ds.canUse();
       temp[max] = ds; 
-      dbsqlrpbdsPool_ = temp;
+      dbsqlrpbdsPool_[stripe] = temp;
+      if (monitor) statistics_[stripe][STAT_SQLRPBDS + STAT_EXPANSIONS]++;
       return ds;
     }
   }
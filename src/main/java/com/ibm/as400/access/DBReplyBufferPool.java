@@ -0,0 +1,159 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: DBReplyBufferPool.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+
+/**
+<p>This class manages a pool of byte arrays used to receive large
+database reply datastreams.  Buffers are grouped into size classes
+(powers of two), each with its own lock, so that replies of different
+sizes do not contend with each other.
+
+<p>ClientAccessDataStream.construct() takes the buffer for a database
+reply from this pool.  The data parsed from a reply, such as its result
+data, refers to the buffer, so a buffer is only given back by the code
+that last uses that data.  A buffer that is never given back is simply
+garbage collected.
+
+<p>The pool is not used when the com.ibm.as400.access.noDBReplyPooling
+system property is set.
+**/
+final class DBReplyBufferPool
+{
+  // Replies smaller than this are cheap to allocate and are not pooled.
+  static final int MIN_POOLED_SIZE = 32 * 1024;
+  // Replies larger than this are rare enough that they are not pooled.
+  static final int MAX_POOLED_SIZE = 16 * 1024 * 1024;
+
+  private static final int MIN_SHIFT = 15;                    // 2^15 == MIN_POOLED_SIZE
+  private static final int SIZE_CLASSES = 24 - MIN_SHIFT + 1; // 2^24 == MAX_POOLED_SIZE
+  private static final int BUFFERS_PER_CLASS = 16;
+
+  private static final boolean enabled_ = !DBDSPool.noDBReplyPooling;
+
+  // Use soft references to avoid running the JVM out of memory.
+  // The buffers in a size class are at least 2^(sizeClass + MIN_SHIFT) bytes long.
+  private static final SoftReference[][] pool_ = new SoftReference[SIZE_CLASSES][BUFFERS_PER_CLASS];
+  private static final int[] count_ = new int[SIZE_CLASSES];
+  private static final Object[] locks_ = new Object[SIZE_CLASSES];
+
+  static {
+    for (int i = 0; i < SIZE_CLASSES; ++i) locks_[i] = new Object();
+  }
+
+  private static final AtomicLong hits_ = new AtomicLong();
+  private static final AtomicLong misses_ = new AtomicLong();
+  private static final AtomicLong unpooled_ = new AtomicLong();
+  private static final AtomicLong returns_ = new AtomicLong();
+  private static final AtomicLong discards_ = new AtomicLong();
+
+  private DBReplyBufferPool() {}
+
+  /**
+  Returns a buffer of at least the given size.  The buffer may be
+  larger than requested and may contain data from an earlier reply.
+
+  @param  size  The number of bytes needed.
+  @return A byte array of at least size bytes.
+  **/
+  static byte[] getBuffer(int size)
+  {
+    if (!enabled_ || size < MIN_POOLED_SIZE || size > MAX_POOLED_SIZE)
+    {
+      unpooled_.incrementAndGet();
+      return new byte[size];
+    }
+    // The smallest size class whose buffers are all long enough.
+    int sizeClass = 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    synchronized (locks_[sizeClass])
+    {
+      SoftReference[] buffers = pool_[sizeClass];
+      while (count_[sizeClass] > 0)
+      {
+        int i = --count_[sizeClass];
+        byte[] buffer = (byte[])buffers[i].get();
+        buffers[i] = null;
+        if (buffer != null)
+        {
+          hits_.incrementAndGet();
+          return buffer;
+        }
+      }
+    }
+    // Allocate the full size of the class so that the buffer can be reused for any reply in it.
+    misses_.incrementAndGet();
+    return new byte[1 << (sizeClass + MIN_SHIFT)];
+  }
+
+  /**
+  Gives a buffer obtained from getBuffer() back to the pool.
+  The caller must be the last user of the buffer.
+
+  @param  buffer  The buffer.  May be null.
+  **/
+  static void returnBuffer(byte[] buffer)
+  {
+    if (!enabled_ || buffer == null) return;
+    int length = buffer.length;
+    if (length < MIN_POOLED_SIZE || length > MAX_POOLED_SIZE) return;
+    // The largest size class that this buffer is long enough for.
+    int sizeClass = 31 - Integer.numberOfLeadingZeros(length) - MIN_SHIFT;
+    synchronized (locks_[sizeClass])
+    {
+      if (count_[sizeClass] < BUFFERS_PER_CLASS)
+      {
+        pool_[sizeClass][count_[sizeClass]++] = new SoftReference(buffer);
+        returns_.incrementAndGet();
+        return;
+      }
+    }
+    discards_.incrementAndGet();
+  }
+
+  /**
+  Returns the number of requests satisfied from the pool.
+  **/
+  static long getHitCount() { return hits_.get(); }
+
+  /**
+  Returns the number of requests of a pooled size that allocated a new buffer.
+  **/
+  static long getMissCount() { return misses_.get(); }
+
+  /**
+  Returns the number of requests that were not pooled because of their size.
+  **/
+  static long getUnpooledCount() { return unpooled_.get(); }
+
+  /**
+  Returns the number of buffers given back to the pool.
+  **/
+  static long getReturnCount() { return returns_.get(); }
+
+  /**
+  Returns the number of buffers dropped because their size class was full.
+  **/
+  static long getDiscardCount() { return discards_.get(); }
+
+  // Returns a one line summary of the pool, for DBDSPool.getPoolStatistics().
+  static String getStatistics()
+  {
+    return "DBReplyBufferPool[hits=" + hits_.get() + " misses=" + misses_.get() + " unpooled=" + unpooled_.get()
+        + " returns=" + returns_.get() + " discards=" + discards_.get() + "]";
+  }
+}
@@ -521,6 +521,26 @@ extends DBBaseRequestDS
 	}
 
 
+/**
+   Sets the Statement Text parameter in the data stream from a parsed
+   statement, which keeps the converted text for the next request.
+   @param statement the SQL statement.
+   @param converter the converter.
+   @param extended true to set the Extended Statement Text parameter.
+   @exception DBDataStreamException If there is not enough space left in the data byte array.
+   @exception SQLException If the SQL statement is too long.
+**/
+   	void setStatementText (JDSQLStatement statement, ConvTable converter, boolean extended)
+		throws DBDataStreamException, SQLException
+	{
+            byte[] rawBytes = statement.getTextBytes(converter);
+            if(!extended)
+                addParameter (0x3807, converter, rawBytes);
+            else
+                addParameter (0x3831, true, converter, rawBytes);
+	}
+
+
 //@540 
 /**
    Sets the Extended Statement Text parameter in the data stream.
@@ -29,7 +29,7 @@ final class DBStorage //@P0C
   public final static int DEFAULT_SIZE = 1024;
   private byte[] data_ = new byte[DEFAULT_SIZE]; //@P0C
   private int     id_;                                 // @B5A
-  private DBStoragePool pool_;              // @B5A
+  private DBStoragePool.Stripe pool_;       // @B5A
 
   private boolean inUse_ = false; //@P0A
   private Exception allocatedLocation;   // @B5A
@@ -39,10 +39,10 @@ final class DBStorage //@P0C
   Constructs a DBStorage object.
 
   @param     id   an id assigned by the pool.  This is -1 if the storage does not belong to the pool.
-  @param     pool  pool that this object belongs to
+  @param     pool  pool stripe that this object belongs to.  This is null if the storage does not belong to the pool.
   **/
   // @B5A
-  DBStorage(int id, DBStoragePool pool) {
+  DBStorage(int id, DBStoragePool.Stripe pool) {
 	  id_ = id;
 	  pool_ = pool;
   }
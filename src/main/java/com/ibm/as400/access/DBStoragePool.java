@@ -39,12 +39,16 @@ class DBStoragePool
   //@P0D private BitSet  lockState_;
   //@P0D private Vector  pool_;
 
-  // 
-  // Use soft references to avoid running the JVM out of memory
-  // 
-  private SoftReference[] pool_ = new SoftReference[16]; //@P0A
-  private int lastReturned_;                                                   // @B5A
-  private int searches_ = 0;                                                  // @B5A
+  // The pool is split into DBDSPool.STRIPES independent pools, each with its own lock,
+  // so that threads on different stripes do not contend.  Each DBStorage refers back to
+  // the stripe it came from.
+  private final Stripe[] stripes_;
+
+  DBStoragePool()
+  {
+    stripes_ = new Stripe[DBDSPool.STRIPES];
+    for (int i = 0; i < stripes_.length; ++i) stripes_[i] = new Stripe();
+  }
   
 /**
 Constructs a DBStoragePool object.
@@ -63,7 +67,18 @@ Constructs a DBStoragePool object.
 //@P0D	    pool_ = new Vector (128, 128);
 //@P0D    }
 
-  int getSize() { return pool_.length; }                 // @B5A
+  int getSize()                                          // @B5A
+  {
+    int size = 0;
+    for (int i = 0; i < stripes_.length; ++i) size += stripes_[i].getSize();
+    return size;
+  }
+
+  // Returns a one line summary of the pool, for DBDSPool.getPoolStatistics().
+  String getStatistics()
+  {
+    return "DBStoragePool[size=" + getSize() + "]";
+  }
 
 /**
 Frees a DBStorage object for reuse.
@@ -83,8 +98,9 @@ Frees a DBStorage object for reuse.
   **/
   
 
-  final synchronized DBStorage getUnpooledStorage() {
-	  DBStorage storage = new DBStorage(-1, this); 
+  // No pool state is touched, so this does not need to be synchronized.
+  final DBStorage getUnpooledStorage() {
+	  DBStorage storage = new DBStorage(-1, null); 
       storage.canUse(); 
 	  return storage; 
   } //@B5A
@@ -95,92 +111,112 @@ are available, a brand new one will be allocated.
 
 @return     a DBStorage object.
 **/
-//
-// Note: This method must be synchronized to make it
-//       threadsafe.
-//
-  final synchronized DBStorage getUnusedStorage() // @B0C @B1C @P0C
+  final DBStorage getUnusedStorage() // @B0C @B1C @P0C
   {
-//@P0D        DBStorage storage;
-    int max = pool_.length; //@P0A
-    
-    // Start the search at the last returned location @B5A
-    int searchStart = lastReturned_;
-    searches_++; 
-    if (searches_ > MAX_POOL_INCREMENT) {
-    	searchStart = 0; 
-    	searches_ = 0; 
-    }
-    // Find an unused storage object.
-    for (int i=searchStart; i<max; ++i) //@P0C
-    {
-      /*@P0D
-        if (lockState_.get (i) == false) {
-            lockState_.set (i);
-            storage = (DBStorage) pool_.elementAt (i);
-            storage.clear ();
-            return storage;
-        }
-      *///@P0D
+    return stripes_[DBDSPool.stripe()].getUnusedStorage();
+  }
 
-      	
-      DBStorage storage;  //@P0A  Local variables are faster.
-      if (pool_[i] == null) {
-    	  storage=null; 
-      } else {
-    	  storage= (DBStorage) pool_[i].get(); 
+
+
+  // One stripe of the pool.
+  static final class Stripe
+  {
+    // 
+    // Use soft references to avoid running the JVM out of memory
+    // 
+    private SoftReference[] pool_ = new SoftReference[16]; //@P0A
+    private int lastReturned_;                                                   // @B5A
+    private int searches_ = 0;                                                  // @B5A
+
+    synchronized int getSize() { return pool_.length; }
+
+  //
+  // Note: This method must be synchronized to make it
+  //       threadsafe.
+  //
+    synchronized DBStorage getUnusedStorage()
+    {
+  //@P0D        DBStorage storage;
+      int max = pool_.length; //@P0A
+    
+      // Start the search at the last returned location @B5A
+      int searchStart = lastReturned_;
+      searches_++; 
+      if (searches_ > MAX_POOL_INCREMENT) {
+      	searchStart = 0; 
+      	searches_ = 0; 
       }
-      if (storage == null) //@P0A
+      // Find an unused storage object.
+      for (int i=searchStart; i<max; ++i) //@P0C
       {
-        storage = new DBStorage(i, this); //@P0A
-        storage.canUse(); //@P0A
-        pool_[i] = new SoftReference(storage); //@P0A
-        lastReturned_ = i+1; 
-        return storage; //@P0A
-      }
-      else {
-    	  if (storage.canUse()) //@P0A
-            {
-              lastReturned_ = i+1; 
-             return storage; //@P0A
+        /*@P0D
+          if (lockState_.get (i) == false) {
+              lockState_.set (i);
+              storage = (DBStorage) pool_.elementAt (i);
+              storage.clear ();
+              return storage;
+          }
+        *///@P0D
+
+      	
+        DBStorage storage;  //@P0A  Local variables are faster.
+        if (pool_[i] == null) {
+      	  storage=null; 
+        } else {
+      	  storage= (DBStorage) pool_[i].get(); 
+        }
+        if (storage == null) //@P0A
+        {
+          storage = new DBStorage(i, this); //@P0A
+          storage.canUse(); //@P0A
+          pool_[i] = new SoftReference(storage); //@P0A
+          lastReturned_ = i+1; 
+          return storage; //@P0A
+        }
+        else {
+      	  if (storage.canUse()) //@P0A
+              {
+                lastReturned_ = i+1; 
+               return storage; //@P0A
 
-            }
+              }
+        }
       }
-    }
 
-    // If all are being used, then allocate a new one.
-    if (JDTrace.isTraceOn())                                                     // @B2C
-      JDTrace.logInformation(this, "Creating new DBStoragePool of size "+max*2); // @P0A @B2C
+      // If all are being used, then allocate a new one.
+      if (JDTrace.isTraceOn())                                                     // @B2C
+        JDTrace.logInformation(this, "Creating new DBStoragePool of size "+max*2); // @P0A @B2C
 
-    int increment = max;                                                                                                  //@B5A
-    if (max > MAX_POOL_INCREMENT) increment = MAX_POOL_INCREMENT;             // @B5A
+      int increment = max;                                                                                                  //@B5A
+      if (max > MAX_POOL_INCREMENT) increment = MAX_POOL_INCREMENT;             // @B5A
     
-    SoftReference[] tempPool = new SoftReference[max+increment]; //@P0A@B5C
+      SoftReference[] tempPool = new SoftReference[max+increment]; //@P0A@B5C
 
-    for (int i=0; i<max; ++i) //@P0A
-    {
-      tempPool[i] = pool_[i]; //@P0A
-    }
-    DBStorage storage = new DBStorage(max, this); //@P0A
-    storage.canUse(); //@P0A
-    tempPool[max] = new SoftReference(storage); //@P0A
-    pool_ = tempPool; //@P0A
+      for (int i=0; i<max; ++i) //@P0A
+      {
+        tempPool[i] = pool_[i]; //@P0A
+      }
+      DBStorage storage = new DBStorage(max, this); //@P0A
+      storage.canUse(); //@P0A
+      tempPool[max] = new SoftReference(storage); //@P0A
+      pool_ = tempPool; //@P0A
                       
-    lastReturned_ = 0; // Always start the search at zero when expanding 
-    /*@P0D
-    storage = new DBStorage (count_);
-    pool_.addElement (storage);
-    lockState_.set (count_);
-    ++count_;
-    *///@P0D
+      lastReturned_ = 0; // Always start the search at zero when expanding 
+      /*@P0D
+      storage = new DBStorage (count_);
+      pool_.addElement (storage);
+      lockState_.set (count_);
+      ++count_;
+      *///@P0D
     
-    return storage;
-  }
+      return storage;
+    }
 
-  public synchronized void returned(int id_) {
-	if (id_ < lastReturned_ && (id_ >= (lastReturned_ - STORAGE_POOL_LOCALITY))) { 
-	   lastReturned_ = id_; 
-	}
+    synchronized void returned(int id_) {
+      if (id_ < lastReturned_ && (id_ >= (lastReturned_ - STORAGE_POOL_LOCALITY))) { 
+         lastReturned_ = id_; 
+      }
+    }
   }
 }
 
@@ -0,0 +1,196 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: DDMKeyedRecordCache.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.beans.PropertyVetoException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ *Class providing a cache of records by key to the KeyedFile class.
+ *Unlike DDMRecordCache, which holds a block of records around the cursor,
+ *this cache holds the records most recently read by key, up to a maximum
+ *number of records and for a maximum time.  The least recently used record
+ *is removed when the cache is full.  The cache holds its own copies of
+ *the records, and returns a new copy each time a record is found.
+**/
+class DDMKeyedRecordCache
+{
+  // The maximum number of records in the cache
+  private final int maximumSize_;
+  // The number of milliseconds for which a record is kept
+  private final long timeToLive_;
+  // The cached entries, in access order
+  private final LinkedHashMap<Key, Entry> entries_ = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+  // The number of reads satisfied by the cache
+  private long hits_;
+  // The number of reads not satisfied by the cache
+  private long misses_;
+
+  /**
+   *Constructs a DDMKeyedRecordCache object.
+   *@param maximumSize the maximum number of records to cache.
+   *@param timeToLive the number of milliseconds for which a record is kept.
+  **/
+  DDMKeyedRecordCache(int maximumSize, long timeToLive)
+  {
+    maximumSize_ = maximumSize;
+    timeToLive_ = timeToLive;
+  }
+
+  /**
+   *Removes all records from the cache.
+  **/
+  synchronized void clear()
+  {
+    entries_.clear();
+  }
+
+  /**
+   *Returns a copy of the cached record for a key.
+   *@param key the key.
+   *@return a copy of the record, or null if there is no record cached for the key,
+   *or the cached record has expired.
+  **/
+  synchronized Record get(Object[] key)
+  {
+    Key k = new Key(key);
+    Entry entry = entries_.get(k);
+    if (entry != null && System.currentTimeMillis() - entry.time_ > timeToLive_)
+    {
+      entries_.remove(k);
+      entry = null;
+    }
+    if (entry == null)
+    {
+      ++misses_;
+      return null;
+    }
+    ++hits_;
+    return copy(entry.record_);
+  }
+
+  /**
+   *Returns the number of reads that were satisfied by the cache.
+  **/
+  synchronized long getHits()
+  {
+    return hits_;
+  }
+
+  /**
+   *Returns the number of reads that were not satisfied by the cache.
+  **/
+  synchronized long getMisses()
+  {
+    return misses_;
+  }
+
+  /**
+   *Adds a copy of a record to the cache.  If the cache is full, the least
+   *recently used record is removed.
+   *@param key the key with which the record was read.
+   *@param record the record.
+  **/
+  void put(Object[] key, Record record)
+  {
+    Record copy = copy(record);
+    if (copy == null) return;
+    Key k = new Key(key.clone());
+    synchronized (this)
+    {
+      entries_.remove(k);
+      if (entries_.size() >= maximumSize_)
+      {
+        Iterator<Entry> it = entries_.values().iterator();
+        it.next();
+        it.remove();
+      }
+      entries_.put(k, new Entry(copy, System.currentTimeMillis()));
+    }
+  }
+
+  /**
+   *Returns the number of records in the cache.
+  **/
+  synchronized int size()
+  {
+    return entries_.size();
+  }
+
+  // Returns a copy of a record, or null if the record cannot be copied.
+  private static Record copy(Record record)
+  {
+    try
+    {
+      RecordFormat recordFormat = record.getRecordFormat();
+      Record copy = new Record(recordFormat, record.getContents());
+      for (int i = 0; i < copy.getNumberOfFields(); ++i)
+      {
+        if (record.isNullField(i)) copy.setField(i, null);
+      }
+      String name = record.getRecordName();
+      if (name != null) copy.setRecordName(name);
+      copy.setRecordNumber(record.getRecordNumber());
+      copy.setRecordNumberLong(record.getRecordNumberLong());
+      return copy;
+    }
+    catch (java.io.IOException e)
+    {
+      Trace.log(Trace.ERROR, "Record could not be copied for the keyed record cache:", e);
+      return null;
+    }
+    catch (PropertyVetoException e)
+    { // The copy has no listeners.
+      return null;
+    }
+  }
+
+  // A cached record and the time at which it was cached.
+  private static final class Entry
+  {
+    final Record record_;
+    final long time_;
+
+    Entry(Record record, long time)
+    {
+      record_ = record;
+      time_ = time;
+    }
+  }
+
+  // A key, compared by the values of its elements.
+  private static final class Key
+  {
+    private final Object[] key_;
+    private final int hashCode_;
+
+    Key(Object[] key)
+    {
+      key_ = key;
+      hashCode_ = Arrays.deepHashCode(key);
+    }
+
+    public boolean equals(Object o)
+    {
+      return (o instanceof Key) && Arrays.deepEquals(key_, ((Key)o).key_);
+    }
+
+    public int hashCode()
+    {
+      return hashCode_;
+    }
+  }
+}
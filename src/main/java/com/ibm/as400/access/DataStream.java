@@ -327,17 +327,34 @@ public abstract class DataStream
       BinaryConverter.longToByteArray(longVal, data_, offset);
     }
 
-    // Write the data in this data stream out to the specified OutputStream.
+    // Write a complete request to the specified OutputStream and flush it.
     // @param  out  OutputStream to which to write the data.
+    // @param  data  The request.
+    // @param  offset  Offset of the request in data.
+    // @param  length  Length of the request.
     // @exception  IOException  Unable to write to the output stream.
-    void write(OutputStream out) throws IOException
+    static final void writeRequest(OutputStream out, byte[] data, int offset, int length) throws IOException
     {
+        if (out instanceof SocketContainerNIO.ChannelOutputStream)
+        {
+            // The stream keeps each request together, and combines the requests of multiple threads into one write.
+            ((SocketContainerNIO.ChannelOutputStream)out).writeRequest(data, offset, length);
+            return;
+        }
         // Synchronization is added around the socket write so that requests from multiple threads that use the same socket won't be garbled.
         synchronized(out)
         {
-            out.write(data_);
+            out.write(data, offset, length);
             out.flush();
         }
+    }
+
+    // Write the data in this data stream out to the specified OutputStream.
+    // @param  out  OutputStream to which to write the data.
+    // @exception  IOException  Unable to write to the output stream.
+    void write(OutputStream out) throws IOException
+    {
+        writeRequest(out, data_, 0, data_.length);
 
         if (Trace.traceOn_) Trace.log(Trace.DATASTREAM, "Data stream sent (connID="+connectionID_+") ...", data_); //@P0C
     }
@@ -141,6 +141,26 @@ public class FTP implements java.io.Serializable
                // amount of data to transfer at one time
     private int bufferSize_ = 4096;
 
+               // grow the buffer up to MAXIMUM_BUFFER_SIZE while a
+               // transfer keeps filling it
+    private boolean adaptiveBufferSize_ = false;
+
+               // number of connections used to transfer a binary file
+    private int parallelSegments_ = 1;
+
+               // type set by setDataTransferType() on this connection
+    transient private int dataTransferType_ = ASCII;
+
+               // largest buffer used when the buffer size is adaptive
+    static final int MAXIMUM_BUFFER_SIZE = 1024 * 1024;
+
+               // smallest number of bytes transferred by a segment of a
+               // parallel transfer
+    static final long MINIMUM_SEGMENT_SIZE = 1024 * 1024;
+
+               // milliseconds between progress events
+    static final long PROGRESS_INTERVAL = 1000;
+
     private int mode_ = PASSIVE_MODE;
 
     /**
@@ -584,7 +604,10 @@ public class FTP implements java.io.Serializable
         login(user_, password_);
 
         if (lastMessage_.startsWith("230"))
+        {
            connectionState_ = ACTIVE;
+           dataTransferType_ = ASCII;
+        }
         else
         {
            ps_.close();
@@ -846,6 +869,7 @@ public class FTP implements java.io.Serializable
         controlSocket_       = socket;
         reader_              = reader;
         ps_                  = writer;
+        dataTransferType_    = ASCII;
      }
 
 
@@ -993,6 +1017,48 @@ public class FTP implements java.io.Serializable
 
 
 
+   //
+   // Fires FTP progress events to the FTPProgressListeners
+   //
+
+   void fireProgressEvent(long bytesTransferred, long totalBytes, long startTime)
+   {
+      if (listeners_ != null && (!listeners_.isEmpty()))
+      {
+         Vector targets = (Vector) listeners_.clone();
+         FTPEvent ftpEvent = new FTPEvent(this, FTPEvent.FTP_PROGRESS, bytesTransferred, totalBytes,
+                                          System.currentTimeMillis() - startTime);
+
+         for (int i = 0; i < targets.size(); i++)
+         {
+            Object listener = targets.elementAt(i);
+
+            if (listener instanceof FTPProgressListener)
+            {
+               ((FTPProgressListener) listener).progress(ftpEvent);
+            }
+         }
+      }
+   }
+
+
+
+   private boolean hasProgressListeners()
+   {
+      if (listeners_ != null)
+      {
+         Vector targets = (Vector) listeners_.clone();
+         for (int i = 0; i < targets.size(); i++)
+         {
+            if (targets.elementAt(i) instanceof FTPProgressListener)
+               return true;
+         }
+      }
+      return false;
+   }
+
+
+
 
 
 
@@ -1153,7 +1219,16 @@ public class FTP implements java.io.Serializable
 
          connect();
 
-         byte[] buffer = new byte[bufferSize_];
+         if (parallelSegments_ > 1 && dataTransferType_ == BINARY && mode_ == PASSIVE_MODE)
+         {
+           long size = getSize(sourceFileName);
+           if (getParallel(sourceFileName, targetFile, size, getSegmentCount(size)))
+           {
+             if (Trace.isTraceOn())
+               Trace.log(Trace.DIAGNOSTIC,"leaving get(String, file");
+             return true;
+           }
+         }
 
          InputStream in = get(sourceFileName);
 
@@ -1164,12 +1239,7 @@ public class FTP implements java.io.Serializable
            {
              f = new FileOutputStream(targetFile);
 
-             int length = in.read(buffer);
-             while (length > 0)
-             {
-               f.write(buffer,0,length);
-               length = in.read(buffer);
-             }
+             copy(in, f, -1);
            }
            finally
            {
@@ -1191,6 +1261,60 @@ public class FTP implements java.io.Serializable
 
 
 
+// ---------------------------------------------------------------------------
+   //
+   // Gets a binary file on segment connections that each retrieve a range of
+   // its bytes.  Returns false if the file cannot be retrieved that way, in
+   // which case the caller retrieves it on this connection.
+   //
+
+    private boolean getParallel(String sourceFileName, java.io.File targetFile, long size, int segments)
+                    throws IOException
+    {
+         if (segments < 2)
+            return false;
+
+         String directory = null;
+         if (!sourceFileName.startsWith("/"))
+         {
+            directory = getCurrentDirectoryName();
+            if (directory == null)
+               return false;
+         }
+
+         long startTime = System.currentTimeMillis();
+
+         RandomAccessFile f = new RandomAccessFile(targetFile, "rw");
+         try
+         {
+            f.setLength(size);
+            new FTPParallelTransfer(this, directory, sourceFileName, f.getChannel(), size, segments).run(startTime);
+         }
+         catch (InterruptedIOException e)
+         {
+            throw e;
+         }
+         catch (IOException e)
+         {
+            Trace.log(Trace.WARNING, "Parallel get failed, getting file on one connection:", e);
+            return false;
+         }
+         finally
+         {
+            f.close();
+         }
+
+         // The event is fired only once the file has been retrieved, since the
+         // caller retrieves it again if the parallel get fails.
+         fireEvent(FTPEvent.FTP_RETRIEVED);
+         fireProgressEvent(size, size, startTime);
+         return true;
+    }
+
+
+
+
+
 // ---------------------------------------------------------------------------
    /**
     * Returns the size of the buffer used when transferring files.
@@ -1263,6 +1387,19 @@ public class FTP implements java.io.Serializable
 
 
 
+   /**
+    * Returns the number of connections used to transfer a binary file.
+    *   @return The number of connections used by get(String, File).
+    *   @see #setParallelSegments
+   **/
+
+    public int getParallelSegments()
+    {
+        return parallelSegments_;
+    }
+
+
+
 // ---------------------------------------------------------------------------
    //
    // Returns the password as a string.  This method should *NEVER*
@@ -1337,6 +1474,20 @@ public class FTP implements java.io.Serializable
 
 
 // ---------------------------------------------------------------------------
+   /**
+    * Indicates whether the buffer used when transferring files grows
+    * while a transfer keeps filling it.
+    *   @return true if the buffer size is adaptive; false otherwise.
+    *   @see #setAdaptiveBufferSize
+   **/
+
+    public boolean isAdaptiveBufferSize()
+    {
+        return adaptiveBufferSize_;
+    }
+
+
+
     /**
      * Indicates whether the socket is reused for multiple file transfers, when in active mode.
      * @return true if the socket is reused; false if a new socket is created.
@@ -1720,8 +1871,6 @@ public class FTP implements java.io.Serializable
 
          connect();
 
-         byte[] buffer = new byte[bufferSize_];
-
          FileInputStream f = null;
          OutputStream out = null;
          try
@@ -1729,13 +1878,7 @@ public class FTP implements java.io.Serializable
            f = new FileInputStream(sourceFileName);
            out = put(targetFileName);
 
-           int length = f.read(buffer);
-
-           while (length > 0)
-           {
-             out.write(buffer,0,length);
-             length = f.read(buffer);
-           }
+           copy(f, out, sourceFileName.length());
          }
          finally
          {
@@ -1864,6 +2007,7 @@ public class FTP implements java.io.Serializable
         listeners_           = null;
         listenerLock_        = new Object();
         externallyConnected_ = false;                              // @D2a
+        dataTransferType_    = ASCII;
     }
 
 
@@ -1936,6 +2080,45 @@ public class FTP implements java.io.Serializable
 
 
 
+// ---------------------------------------------------------------------------
+   /**
+    * Sets whether the buffer used when transferring files grows while a
+    * transfer keeps filling it.  When true, get(String, File) and
+    * put(File, String) start with a buffer of the buffer size, and double it,
+    * up to one megabyte, each time a read fills it.  The default is false.
+    *   @param adaptiveBufferSize true to grow the buffer; false to use a buffer of the buffer size.
+    *   @exception PropertyVetoException If the change is vetoed.
+    *   @see #setBufferSize
+   **/
+
+    public synchronized void setAdaptiveBufferSize(boolean adaptiveBufferSize)
+                             throws PropertyVetoException
+    {
+       if (Trace.isTraceOn())
+           Trace.log(Trace.DIAGNOSTIC,"entering setAdaptiveBufferSize()");
+
+       // Remember the old value.
+       boolean oldValue = adaptiveBufferSize_;
+
+       // Fire a vetoable change event.
+       if (vetos_ != null) {
+         vetos_.fireVetoableChange("adaptiveBufferSize", Boolean.valueOf(oldValue), Boolean.valueOf(adaptiveBufferSize));
+       }
+
+       adaptiveBufferSize_ = adaptiveBufferSize;
+
+       // Fire the property change event.
+       if (changes_ != null) {
+         changes_.firePropertyChange("adaptiveBufferSize", Boolean.valueOf(oldValue), Boolean.valueOf(adaptiveBufferSize));
+       }
+    }
+
+
+
+
+
+
+
 // ---------------------------------------------------------------------------
    /**
     * Sets the buffer size used when transferring files.  The default
@@ -2031,6 +2214,7 @@ public class FTP implements java.io.Serializable
               issueCommand("TYPE A");
            else
               issueCommand("TYPE I");
+           dataTransferType_ = transferType;
         }
         else
            throw new IllegalArgumentException("transferType");
@@ -2063,6 +2247,53 @@ public class FTP implements java.io.Serializable
       mode_ = mode;
     }
 
+// ---------------------------------------------------------------------------
+   /**
+    * Sets the number of connections used to transfer a binary file.  The
+    * default is 1.  When it is more than 1, the data transfer type is binary,
+    * and passive mode is used, get(String, File) splits a file into byte ranges
+    * of at least one megabyte and retrieves the ranges at the same time.  Each
+    * range is retrieved on its own connection to the system, and starts at its
+    * offset in the file with the REST command.  The file is written at those
+    * offsets through a FileChannel.
+    * <P>
+    * The size of the file on the system is read with the SIZE command.  If the
+    * system does not support SIZE or REST, the file is retrieved on this connection.
+    * put(File, String) always stores a file on this connection, since the ranges
+    * stored by concurrent STOR commands can truncate each other on some systems.
+    *   @param segments The number of connections used to transfer a binary file.
+    *   @exception PropertyVetoException If the change is vetoed.
+   **/
+
+    public synchronized void setParallelSegments(int segments)
+                             throws PropertyVetoException
+    {
+       if (Trace.isTraceOn())
+           Trace.log(Trace.DIAGNOSTIC,"entering setParallelSegments()");
+
+       if (segments < 1)
+          throw new IllegalArgumentException("segments");
+
+       // Remember the old value.
+       int oldValue = parallelSegments_;
+
+       // Fire a vetoable change event.
+       if (vetos_ != null) {
+         vetos_.fireVetoableChange("parallelSegments", Integer.valueOf(oldValue), Integer.valueOf(segments));
+       }
+
+       parallelSegments_ = segments;
+
+       // Fire the property change event.
+       if (changes_ != null) {
+         changes_.firePropertyChange("parallelSegments", Integer.valueOf(oldValue), Integer.valueOf(segments));
+       }
+    }
+
+
+
+
+
 // ---------------------------------------------------------------------------
    /**
     * Sets the password.  The password cannot be changed once
@@ -2504,7 +2735,15 @@ public class FTP implements java.io.Serializable
     final Socket getDataSocket()
       throws IOException
     {
-        Socket sc;
+        return getDataSocket(false);
+    }
+
+
+    // If channel is true, and neither a SOCKS server nor a timeout is used, the data connection
+    // is a SocketChannel, so file data can be moved with FileChannel.transferTo() and transferFrom().
+    final Socket getDataSocket(boolean channel)
+      throws IOException
+    {
     	// Try the extended passive command.
         String response = issueCommand("EPSV");
         if (response.startsWith("229"))
@@ -2539,27 +2778,132 @@ public class FTP implements java.io.Serializable
             // Extract the port number from the response.
             int port = Integer.parseInt(response.substring(begin, end));
 
-            // @greenscreens - sock5 support
-            //sc =  new Socket(server_, port);
-            sc = PortMapper.createSocket(server_, port, sock5server_);
-            
-            if (socketTimeOut_ > 0) //@AH8A
-            	sc.setSoTimeout(socketTimeOut_);
-            return sc; //new Socket(server_, port);
+            return openDataSocket(port, channel);
         }
         // System may not support EPSV, fallback to the passive command.
         response = issueCommand("PASV");
         int p = extractPortAddress(response);
         
+        return openDataSocket(p, channel);
+    }
+
+
+    private Socket openDataSocket(int port, boolean channel)
+      throws IOException
+    {
+        // Reads from a SocketChannel do not time out, so a channel is only used without a timeout.
+        if (channel && sock5server_ == null && socketTimeOut_ <= 0)
+        {
+            return java.nio.channels.SocketChannel.open(new InetSocketAddress(server_, port)).socket();
+        }
+
         // @greenscreens - sock5 support
-        //sc = new Socket(server_, p);
-        sc = PortMapper.createSocket(server_, p, sock5server_);
+        //sc =  new Socket(server_, port);
+        Socket sc = PortMapper.createSocket(server_, port, sock5server_);
+        
         if (socketTimeOut_ > 0) //@AH8A
         	sc.setSoTimeout(socketTimeOut_);
-        return sc;//new Socket(server_, p);
+        return sc; //new Socket(server_, port);
     }
  
 
+    // Copies in to out.  With an adaptive buffer size, the buffer doubles each time a read fills it.
+    // Progress events are fired every PROGRESS_INTERVAL and when the copy is complete.
+    private void copy(InputStream in, OutputStream out, long totalBytes)
+      throws IOException
+    {
+        boolean progress = hasProgressListeners();
+        long startTime = System.currentTimeMillis();
+        long lastProgress = startTime;
+        long transferred = 0;
+
+        byte[] buffer = new byte[bufferSize_];
+        int length = in.read(buffer);
+        while (length > 0)
+        {
+            out.write(buffer, 0, length);
+            transferred += length;
+            if (progress)
+            {
+                long now = System.currentTimeMillis();
+                if (now - lastProgress >= PROGRESS_INTERVAL)
+                {
+                    fireProgressEvent(transferred, totalBytes, startTime);
+                    lastProgress = now;
+                }
+            }
+            if (adaptiveBufferSize_ && length == buffer.length && buffer.length < MAXIMUM_BUFFER_SIZE)
+            {
+                buffer = new byte[Math.min(buffer.length * 2, MAXIMUM_BUFFER_SIZE)];
+            }
+            length = in.read(buffer);
+        }
+
+        if (progress)
+            fireProgressEvent(transferred, totalBytes, startTime);
+    }
+
+
+    // Returns the size of a file on the system from the reply to SIZE, or -1 if the system does not report it.
+    private long getSize(String fileName)
+      throws IOException
+    {
+        String reply = issueCommand("SIZE " + fileName);
+        if (reply.startsWith("213 "))
+        {
+            try
+            {
+                return Long.parseLong(reply.substring(4).trim());
+            }
+            catch (NumberFormatException e)
+            {
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Unable to extract size from SIZE response: " + reply);
+            }
+        }
+        return -1;
+    }
+
+
+    // Returns the number of segments in which to transfer a file of the given size.
+    private int getSegmentCount(long size)
+    {
+        if (size < 2 * MINIMUM_SEGMENT_SIZE)
+            return 1;
+        return (int)Math.min(parallelSegments_, size / MINIMUM_SEGMENT_SIZE);
+    }
+
+
+    // Returns the current directory from the reply to PWD, or null if the reply does not contain one.
+    private String getCurrentDirectoryName()
+      throws IOException
+    {
+        String reply = issueCommand("PWD");
+        int begin = reply.indexOf('"');
+        int end = reply.lastIndexOf('"');
+        if (!reply.startsWith("257") || begin == -1 || end <= begin)
+            return null;
+        return reply.substring(begin + 1, end).replace("\"\"", "\"");
+    }
+
+
+    // Returns a new client, not yet connected, for the same system and user as this one.
+    // It is used for a segment connection of a parallel transfer.  AS400FTP overrides it.
+    FTP newSegmentClient()
+    {
+        return initSegmentClient(new FTP(server_, user_, getPassword()));
+    }
+
+
+    // Gives a segment client the connection settings of this client.
+    final FTP initSegmentClient(FTP client)
+    {
+        client.port_          = port_;
+        client.sock5server_   = sock5server_;
+        client.socketTimeOut_ = socketTimeOut_;
+        return client;
+    }
+
+
     // Checks the "FTP.reuseSocket" system property.  If it's set, initializes reuseSocket_ accordingly.
     private void checkSocketProperty()
     {
@@ -89,6 +89,22 @@ public class FTPBeanInfo extends SimpleBeanInfo
       property5a.setShortDescription("Buffer size.");
 
 
+      PropertyDescriptor property5b =
+        new PropertyDescriptor("adaptiveBufferSize", beanClass, "isAdaptiveBufferSize", "setAdaptiveBufferSize");
+      property5b.setBound(true);
+      property5b.setConstrained(true);
+      property5b.setDisplayName("adaptiveBufferSize");
+      property5b.setShortDescription("Grow the buffer while a transfer fills it.");
+
+
+      PropertyDescriptor property5c =
+        new PropertyDescriptor("parallelSegments", beanClass, "getParallelSegments", "setParallelSegments");
+      property5c.setBound(true);
+      property5c.setConstrained(true);
+      property5c.setDisplayName("parallelSegments");
+      property5c.setShortDescription("Number of connections used to transfer a binary file.");
+
+
       PropertyDescriptor property6 =
         new PropertyDescriptor("lastMessage", beanClass, "getLastMessage", null);
 
@@ -96,7 +112,7 @@ public class FTPBeanInfo extends SimpleBeanInfo
 
       PropertyDescriptor[] properties =
       {
-        property1, property2, property3, property5, property5a, property6
+        property1, property2, property3, property5, property5a, property5b, property5c, property6
         // property4
       };
 
@@ -50,10 +50,19 @@ public class FTPEvent extends java.util.EventObject
    Event ID indicating that a list of files on the system has been retrieved.
    **/
   public  static final int FTP_LISTED = 4;
-  private static final int LAST_EVENT = 4;
+
+  /**
+   Event ID indicating the progress of a file transfer.
+   These events are delivered only to FTPProgressListeners.
+   **/
+  public  static final int FTP_PROGRESS = 5;
+  private static final int LAST_EVENT = 5;
 
 
   private int id_ = -1;
+  private long bytesTransferred_ = -1;
+  private long totalBytes_ = -1;
+  private long elapsedTime_ = -1;
 
 
   /**
@@ -75,6 +84,28 @@ public class FTPEvent extends java.util.EventObject
   }
 
 
+  /**
+   Constructs an FTPEvent object that reports the progress of a file transfer.
+   @param source The object where the event originated.
+   @param id The event identifier.
+   @param bytesTransferred The number of bytes transferred so far.
+   @param totalBytes The number of bytes to transfer, or -1 if not known.
+   @param elapsedTime The number of milliseconds since the transfer started.
+   **/
+  public FTPEvent(Object source,
+                  int    id,
+                  long   bytesTransferred,
+                  long   totalBytes,
+                  long   elapsedTime)
+  {
+     this(source, id);
+
+     bytesTransferred_ = bytesTransferred;
+     totalBytes_       = totalBytes;
+     elapsedTime_      = elapsedTime;
+  }
+
+
 
 
 
@@ -91,5 +122,47 @@ public class FTPEvent extends java.util.EventObject
      return id_;
   }
 
+
+  /**
+   * Returns the number of bytes transferred so far.
+   * @return The number of bytes transferred, or -1 if this event does not report progress.
+   **/
+  public long getBytesTransferred()
+  {
+     return bytesTransferred_;
+  }
+
+
+  /**
+   * Returns the number of bytes to transfer.
+   * @return The number of bytes to transfer, or -1 if it is not known.
+   **/
+  public long getTotalBytes()
+  {
+     return totalBytes_;
+  }
+
+
+  /**
+   * Returns the number of milliseconds since the transfer started.
+   * @return The elapsed time, or -1 if this event does not report progress.
+   **/
+  public long getElapsedTime()
+  {
+     return elapsedTime_;
+  }
+
+
+  /**
+   * Returns the average transfer rate since the transfer started.
+   * @return The number of bytes transferred per second, or -1 if this event does not report progress.
+   **/
+  public long getThroughput()
+  {
+     if (bytesTransferred_ < 0 || elapsedTime_ < 0)
+        return -1;
+     return (elapsedTime_ == 0) ? bytesTransferred_ * 1000 : bytesTransferred_ * 1000 / elapsedTime_;
+  }
+
 }
 
@@ -0,0 +1,240 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: FTPParallelTransfer.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Helper class.  Retrieves a binary file as a number of byte ranges at the same time.  Each range
+// is retrieved on its own control and data connection, and starts at its offset in the file on
+// the system by sending REST before RETR.  The local file is written at positions through a
+// FileChannel, so the data goes from the data connections to the file without being copied
+// through a Java buffer when the data connections are socket channels.
+// Files are not stored this way, since a STOR after REST can truncate the file on the system and
+// so lose the ranges already stored by the other connections.
+// This class is used by FTP.
+class FTPParallelTransfer
+{
+    // The most bytes moved between the file and a data connection by one call.
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private final FTP client_;
+    private final String directory_;
+    private final String fileName_;
+    private final FileChannel file_;
+    private final long length_;
+    private final Segment[] segments_;
+    private final AtomicLong transferred_ = new AtomicLong();
+
+    // directory is the current directory of client, in which the segment connections look for fileName; it
+    // is null if fileName is not relative to the current directory.  length is the number of bytes to retrieve.
+    FTPParallelTransfer(FTP client, String directory, String fileName, FileChannel file, long length, int segments)
+    {
+        client_ = client;
+        directory_ = directory;
+        fileName_ = fileName;
+        file_ = file;
+        length_ = length;
+        segments_ = new Segment[segments];
+        long segmentLength = length / segments;
+        for (int i = 0; i < segments; ++i)
+        {
+            long offset = i * segmentLength;
+            segments_[i] = new Segment(offset, (i == segments - 1) ? length - offset : segmentLength);
+        }
+    }
+
+    // Transfers all of the segments.  Progress events are fired on the calling thread while the
+    // segments are transferred.  If a segment fails, the others are stopped and the failure is thrown.
+    void run(long startTime) throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(segments_.length, new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "FTP-segment");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try
+        {
+            Future<?>[] futures = new Future<?>[segments_.length];
+            for (int i = 0; i < segments_.length; ++i)
+            {
+                futures[i] = executor.submit(segments_[i]);
+            }
+            for (int i = 0; i < futures.length; ++i)
+            {
+                for (;;)
+                {
+                    try
+                    {
+                        futures[i].get(FTP.PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+                        break;
+                    }
+                    catch (TimeoutException e)
+                    {
+                        client_.fireProgressEvent(transferred_.get(), length_, startTime);
+                    }
+                }
+            }
+        }
+        catch (ExecutionException e)
+        {
+            abort();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException)cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            throw new IOException(cause);
+        }
+        catch (InterruptedException e)
+        {
+            abort();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    // Closes the data connections of all segments, so that the segments still transferring end.
+    private void abort()
+    {
+        for (int i = 0; i < segments_.length; ++i)
+        {
+            segments_[i].abort();
+        }
+    }
+
+    // One byte range of the file.
+    private final class Segment implements Callable<Object>
+    {
+        private final long offset_;
+        private final long length_;
+        private Socket dataSocket_;  // Guarded by this.
+        private boolean aborted_;    // Guarded by this.
+
+        Segment(long offset, long length)
+        {
+            offset_ = offset;
+            length_ = length;
+        }
+
+        public Object call() throws IOException
+        {
+            FTP ftp = client_.newSegmentClient();
+            try
+            {
+                if (!ftp.connect())
+                    throw new IOException(ftp.getLastMessage());
+                ftp.setDataTransferType(FTP.BINARY);
+                if (directory_ != null && !ftp.cd(directory_))
+                    throw new IOException(ftp.getLastMessage());
+
+                Socket dataSocket = ftp.getDataSocket(true);
+                synchronized (this)
+                {
+                    dataSocket_ = dataSocket;
+                    if (aborted_)
+                    {
+                        dataSocket.close();
+                        throw new IOException("Transfer of segment at offset " + offset_ + " was stopped.");
+                    }
+                }
+                try
+                {
+                    String reply = ftp.issueCommand("REST " + offset_);
+                    if (!reply.startsWith("350"))
+                        throw new IOException(reply);
+                    reply = ftp.issueCommand("RETR " + fileName_);
+                    if (!reply.startsWith("125") && !reply.startsWith("150"))
+                        throw new IOException(reply);
+
+                    receive(dataSocket);
+                }
+                finally
+                {
+                    dataSocket.close();
+                }
+
+                // A retrieve is ended by closing the data connection once the range has been read,
+                // so the system may report that the transfer was ended early.
+                String reply = ftp.readReply();
+                if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "FTP segment at offset " + offset_ + " complete: " + reply);
+            }
+            finally
+            {
+                try
+                {
+                    ftp.disconnect();
+                }
+                catch (IOException e)
+                {
+                    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Error disconnecting FTP segment connection:", e);
+                }
+            }
+            return null;
+        }
+
+        // Writes the data read from the data connection into the file at the position of the segment.
+        private void receive(Socket dataSocket) throws IOException
+        {
+            ReadableByteChannel in = (dataSocket.getChannel() != null) ? dataSocket.getChannel() : Channels.newChannel(dataSocket.getInputStream());
+            long position = offset_;
+            long remaining = length_;
+            while (remaining > 0)
+            {
+                long bytes = file_.transferFrom(in, position, Math.min(remaining, CHUNK_SIZE));
+                if (bytes <= 0)
+                    throw new EOFException("Data connection ended " + remaining + " bytes before the end of the segment at offset " + offset_ + ".");
+                position += bytes;
+                remaining -= bytes;
+                transferred_.addAndGet(bytes);
+            }
+        }
+
+        synchronized void abort()
+        {
+            aborted_ = true;
+            if (dataSocket_ != null)
+            {
+                try
+                {
+                    dataSocket_.close();
+                }
+                catch (IOException e)
+                {
+                    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Error closing FTP segment data connection:", e);
+                }
+            }
+        }
+    }
+}
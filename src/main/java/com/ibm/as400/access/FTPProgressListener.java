@@ -0,0 +1,34 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: FTPProgressListener.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+/**
+   The FTPProgressListener interface provides
+   an interface for receiving FTPEvents that report
+   the progress of a file transfer, in addition to the
+   events of the FTPListener interface.
+   Register it with FTP.addFTPListener().
+**/
+
+public interface FTPProgressListener extends FTPListener
+{
+  /**
+   * Invoked periodically while a file is copied by the get(String, File)
+   * or put(File, String) methods, and once when the copy is complete.
+   * Use the getBytesTransferred(), getTotalBytes(), getElapsedTime() and
+   * getThroughput() methods of the event to monitor the transfer.
+   * @param event The ftp event.
+   **/
+  public void progress( FTPEvent event );
+
+}
@@ -61,6 +61,7 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
     AS400ImplRemote     system_;
     private Object      fileOffsetLock_ = new Object(); // Semaphore for synchronizing access to fileOffset_.
     private int         maxDataBlockSize_ = 1024;
+    private int         requestWindow_ = 1;  // Number of read or write requests that may be outstanding.
     private Integer     systemVRM_;
     transient int       errorRC_;  // error return code from most recent request
     int                 patternMatching_ = IFSFile.PATTERN_DEFAULT;  // pattern-matching semantics
@@ -1075,6 +1076,9 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
       if (length == 0)
           return 0;
 
+      if (requestWindow_ > 1 && length > maxDataBlockSize_)
+          return readPipelined(data, dataOffset, length);
+
       int totalBytesRead = 0;
       int bytesRemainingToRead = length;
       boolean endOfFile = false;
@@ -1191,6 +1195,176 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
       return (endOfFile && totalBytesRead == 0 ? -1 : totalBytesRead);
   }
 
+  // Reads the data using up to requestWindow_ read requests at a time.  The
+  // requests are for consecutive pieces of the file, and their replies are
+  // processed in the order the requests were sent.  Once a piece comes back
+  // short (end of file), the replies for the pieces after it are discarded.
+  private int readPipelined(byte[] data, int dataOffset, int length) throws IOException, AS400SecurityException
+  {
+      int window = requestWindow_;
+      int pieceLength = Math.max(maxDataBlockSize_, (length + window - 1) / window);
+      if (pieceLength > MAX_BYTES_PER_READ) pieceLength = MAX_BYTES_PER_READ;
+
+      int[] correlations = new int[window];
+      int[] pieceLengths = new int[window];
+      int first = 0;        // Index in correlations of the oldest outstanding request.
+      int outstanding = 0;
+      long requestOffset = fileOffset_;
+      int bytesRequested = 0;
+      int totalBytesRead = 0;
+      boolean endOfFile = false;
+
+      try
+      {
+          while (outstanding > 0 || (bytesRequested < length && !endOfFile))
+          {
+              // Keep the window full.
+              while (outstanding < window && bytesRequested < length && !endOfFile)
+              {
+                  int bytesToRead = Math.min(length - bytesRequested, pieceLength);
+                  IFSReadReq req = new IFSReadReq(fileHandle_, requestOffset, bytesToRead, serverDatastreamLevel_);
+                  int next = (first + outstanding) % window;
+                  correlations[next] = sendPipelined(req);
+                  pieceLengths[next] = bytesToRead;
+                  ++outstanding;
+                  requestOffset += bytesToRead;
+                  bytesRequested += bytesToRead;
+              }
+
+              // Process the oldest reply.
+              int correlation = correlations[first];
+              int bytesToRead = pieceLengths[first];
+              first = (first + 1) % window;
+              --outstanding;
+              if (endOfFile)
+              {
+                  discardReplies(correlation);
+                  continue;
+              }
+
+              int bytesReadByThisRequest = receiveReadReplies(correlation, data, dataOffset + totalBytesRead);
+              if (bytesReadByThisRequest > 0)
+              {
+                  incrementFileOffset(bytesReadByThisRequest);
+                  totalBytesRead += bytesReadByThisRequest;
+              }
+              if (bytesReadByThisRequest < bytesToRead)
+                  endOfFile = true;
+          }
+      }
+      finally
+      {
+          // If a reply reported an error, do not leave the other replies behind.
+          while (outstanding > 0 && server_ != null)
+          {
+              try {
+                  discardReplies(correlations[first]);
+              }
+              catch (Exception e) {
+                  Trace.log(Trace.WARNING, "Error discarding read reply", e);
+              }
+              first = (first + 1) % window;
+              --outstanding;
+          }
+      }
+
+      return (endOfFile && totalBytesRead == 0 ? -1 : totalBytesRead);
+  }
+
+  // Receives the chain of replies to one read request and copies the data to the buffer.
+  // Returns the number of bytes read, or -1 at end of file.
+  private int receiveReadReplies(int correlation, byte[] data, int dataOffset) throws IOException, AS400SecurityException
+  {
+      int bytesRead = 0;
+      boolean endOfChain = false;
+      do
+      {
+          ClientAccessDataStream ds = receivePipelined(correlation);
+          if (ds instanceof IFSReadRep)
+          {
+              byte[] buffer = ((IFSReadRep) ds).getData();
+              if (buffer.length > 0)
+              {
+                  System.arraycopy(buffer, 0, data, dataOffset, buffer.length);
+                  bytesRead += buffer.length;
+                  dataOffset += buffer.length;
+              }
+              else // no data returned. This implies end-of-file.
+              {
+                  bytesRead = -1;
+              }
+          }
+          else if (ds instanceof IFSReturnCodeRep)
+          {
+              int rc = ((IFSReturnCodeRep) ds).getReturnCode();
+              if (rc == IFSReturnCodeRep.NO_MORE_DATA)
+              {
+                  bytesRead = -1;
+              }
+              else if (rc != IFSReturnCodeRep.SUCCESS)
+              {
+                  throwSecurityExceptionIfAccessDenied(path_,rc); // check for "access denied"
+                  Trace.log(Trace.ERROR, "IFSReturnCodeRep return code", descriptionForReturnCode(rc));
+                  throw new ExtendedIOException(path_, rc);
+              }
+          }
+          else
+          {
+              Trace.log(Trace.ERROR, "Unknown reply data stream", ds.data_);
+              throw new InternalErrorException(Integer.toHexString(ds.getReqRepID()), InternalErrorException.DATA_STREAM_UNKNOWN);
+          }
+          endOfChain = ((IFSDataStream) ds).isEndOfChain();
+      }
+      while (!endOfChain);
+
+      return bytesRead;
+  }
+
+  // Receives and ignores the chain of replies to a request.
+  private void discardReplies(int correlation) throws IOException
+  {
+      ClientAccessDataStream ds;
+      do {
+          ds = receivePipelined(correlation);
+      }
+      while (!((IFSDataStream) ds).isEndOfChain());
+  }
+
+  // Sends a request without waiting for its reply.  Returns the correlation ID of the request.
+  private int sendPipelined(ClientAccessDataStream req) throws IOException
+  {
+      try {
+          return server_.send(req);
+      }
+      catch(ConnectionDroppedException e)
+      {
+          Trace.log(Trace.ERROR, "Byte stream server connection lost");
+          connectionDropped(e);
+          return 0; // not reached; connectionDropped() rethrows
+      }
+  }
+
+  // Waits for a reply to a request sent by sendPipelined().
+  private ClientAccessDataStream receivePipelined(int correlation) throws IOException
+  {
+      try {
+          return (ClientAccessDataStream) server_.receive(correlation);
+      }
+      catch(ConnectionDroppedException e)
+      {
+          Trace.log(Trace.ERROR, "Byte stream server connection lost");
+          connectionDropped(e);
+          return null; // not reached; connectionDropped() rethrows
+      }
+      catch(InterruptedException e)
+      {
+          Trace.log(Trace.ERROR, "Interrupted", e);
+          InterruptedIOException throwException = new InterruptedIOException(e.getMessage());
+          throwException.initCause(e);
+          throw throwException;
+      }
+  }
+
   void setConverter(ConverterImplRemote converter) {
     converter_ = converter;
   }
@@ -1206,6 +1380,13 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
       }
   }
 
+  // Sets the number of read or write requests that may be outstanding at a time.
+  // 1 means each request waits for its reply before the next one is sent.
+  void setRequestWindow(int window)
+  {
+      requestWindow_ = window;
+  }
+
   boolean setLength(long length) throws IOException, AS400SecurityException
   {
       // Assume that we are connected to the server.
@@ -1402,6 +1583,12 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
   {
       // Assume the arguments have been validated by the caller.
 
+      if (requestWindow_ > 1 && length > maxDataBlockSize_)
+      {
+          writeBytesPipelined(data, dataOffset, length, forceToStorage);
+          return;
+      }
+
       // Send write requests until all data has been written.
       while(length > 0)
       {
@@ -1481,6 +1668,108 @@ class IFSFileDescriptorImplRemote implements IFSFileDescriptorImpl
       }
   }
   
+  // Writes the data using up to requestWindow_ write requests at a time.  The
+  // replies are checked in the order the requests were sent, so an error is
+  // reported for the lowest file offset that failed.
+  private void writeBytesPipelined(byte[] data, int dataOffset, int length, boolean forceToStorage) throws IOException, AS400SecurityException
+  {
+      int window = requestWindow_;
+      int[] correlations = new int[window];
+      int[] writeLengths = new int[window];
+      int first = 0;        // Index in correlations of the oldest outstanding request.
+      int outstanding = 0;
+      long requestOffset = fileOffset_;
+
+      try
+      {
+          while (outstanding > 0 || length > 0)
+          {
+              // Keep the window full.
+              while (outstanding < window && length > 0)
+              {
+                  int writeLength = (length > maxDataBlockSize_ ? maxDataBlockSize_ : length);
+                  IFSWriteReq req = new IFSWriteReq(fileHandle_, requestOffset,
+                                                    data, dataOffset, writeLength,
+                                                    0xffff, forceToStorage, serverDatastreamLevel_);
+                  if (length - writeLength > 0)
+                  {
+                      // Indicate that there is more to write.
+                      req.setChainIndicator(1);
+                  }
+                  int next = (first + outstanding) % window;
+                  correlations[next] = sendPipelined(req);
+                  writeLengths[next] = writeLength;
+                  ++outstanding;
+                  requestOffset += writeLength;
+                  dataOffset += writeLength;
+                  length -= writeLength;
+              }
+
+              // Check the oldest reply.
+              int correlation = correlations[first];
+              int writeLength = writeLengths[first];
+              first = (first + 1) % window;
+              --outstanding;
+
+              ClientAccessDataStream ds = receivePipelined(correlation);
+              if (ds instanceof IFSWriteRep)
+              {
+                  IFSWriteRep rep = (IFSWriteRep) ds;
+                  int rc = rep.getReturnCode();
+                  if (rc != 0)
+                  {
+                      Trace.log(Trace.ERROR, "IFSWriteRep return code", rc);
+                      throw new ExtendedIOException(path_, rc);
+                  }
+
+                  // Advance the file pointer the length of the data written.
+                  int lengthWritten = writeLength - rep.getLengthNotWritten();
+                  incrementFileOffset(lengthWritten);
+
+                  // Ensure that all data requested was written.
+                  if (lengthWritten != writeLength)
+                  {
+                      Trace.log(Trace.ERROR, "Incomplete write.  Only " +
+                                             Integer.toString(lengthWritten) + " bytes of a requested " +
+                                             Integer.toString(writeLength) + " were written.");
+                      throw new ExtendedIOException(path_, ExtendedIOException.UNKNOWN_ERROR);
+                  }
+              }
+              else if (ds instanceof IFSReturnCodeRep)
+              {
+                  int rc = ((IFSReturnCodeRep) ds).getReturnCode();
+                  if (rc != IFSReturnCodeRep.SUCCESS)
+                  {
+                      throwSecurityExceptionIfAccessDenied(path_,rc); // check for "access denied"
+                      Trace.log(Trace.ERROR, "IFSReturnCodeRep return code", descriptionForReturnCode(rc));
+                      throw new ExtendedIOException(path_, rc);
+                  }
+                  incrementFileOffset(writeLength);
+              }
+              else
+              {
+                  Trace.log(Trace.ERROR, "Unknown reply data stream", ds.data_);
+                  throw new InternalErrorException(Integer.toHexString(ds.getReqRepID()), InternalErrorException.DATA_STREAM_UNKNOWN);
+              }
+          }
+      }
+      finally
+      {
+          // If a reply reported an error, do not leave the other replies behind.
+          while (outstanding > 0 && server_ != null)
+          {
+              try {
+                  discardReplies(correlations[first]);
+              }
+              catch (Exception e) {
+                  Trace.log(Trace.WARNING, "Error discarding write reply", e);
+              }
+              first = (first + 1) % window;
+              --outstanding;
+          }
+      }
+  }
+
   public int getServerDatastreamLevel() {
       return serverDatastreamLevel_;
   }
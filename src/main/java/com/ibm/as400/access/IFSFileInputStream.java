@@ -97,6 +97,7 @@ public class IFSFileInputStream extends InputStream
   transient private VetoableChangeSupport vetos_;
   transient IFSFileInputStreamImpl impl_;
              // Design note: impl_ is available for use by subclasses.
+  private int requestWindow_ = 1;  // Number of read requests that may be outstanding.
 
   /**
     Constructs an IFSFileInputStream.
@@ -405,6 +406,8 @@ public class IFSFileInputStream extends InputStream
         ("com.ibm.as400.access.IFSFileInputStreamImplRemote",
          "com.ibm.as400.access.IFSFileInputStreamImplProxy");
       impl_.setFD(fd_.getImpl());
+      if (requestWindow_ > 1)
+        impl_.setRequestWindow(requestWindow_);
     }
   }
 
@@ -517,6 +520,17 @@ public class IFSFileInputStream extends InputStream
   }
 
 
+  /**
+   Returns the number of read requests that may be outstanding at a time.
+   @return The number of requests.
+   @see #setRequestWindow
+   **/
+  public int getRequestWindow()
+  {
+    return requestWindow_;
+  }
+
+
   /**
    Returns the share option for this object.
    @return The share option.
@@ -646,6 +660,7 @@ public class IFSFileInputStream extends InputStream
   {
     // Restore the non-static and non-transient fields.
     ois.defaultReadObject();
+    if (requestWindow_ < 1) requestWindow_ = 1;  // Serialized before the window was added.
 
     // Initialize the transient fields.
     initializeTransient();
@@ -876,6 +891,29 @@ public class IFSFileInputStream extends InputStream
   }
 
 
+  /**
+   Sets the number of read requests that may be outstanding at a time.
+   The default is 1, where each request waits for its reply before the next
+   one is sent.  A read that needs more than one request then sends up to <i>window</i>
+   requests for consecutive parts of the file before waiting for the first reply.
+   A larger window helps when large amounts of data are moved over a
+   connection with high latency.
+   @param window The number of requests.  It must be greater than or equal to one.
+   **/
+  public void setRequestWindow(int window)
+  {
+    if (window < 1)
+    {
+      throw new ExtendedIllegalArgumentException("window (" + window + ")",
+                      ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+
+    requestWindow_ = window;
+    if (impl_ != null)
+      impl_.setRequestWindow(window);
+  }
+
+
   /**
    Sets the share option.
    @param shareOption Indicates how users can access the file. <ul><li>SHARE_ALL Share access with readers and writers<li>SHARE_NONE Share access with none<li>SHARE_READERS Share access with readers<li>SHARE_WRITERS Share access with writers</ul>
@@ -35,6 +35,8 @@ interface IFSFileInputStreamImpl
   // Note: This must be the first method called on a new object:
   void setFD(IFSFileDescriptorImpl fd);
 
+  void setRequestWindow(int window);
+
   long skip(long bytesToSkip)  throws IOException;
   void unlock(IFSKey key)  throws IOException;
 
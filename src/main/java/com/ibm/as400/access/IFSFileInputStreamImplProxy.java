@@ -145,6 +145,18 @@ implements IFSFileInputStreamImpl
     }
   }
 
+  public void setRequestWindow(int window)
+  {
+    try {
+      connection_.callMethod (pxId_, "setRequestWindow",
+                              new Class[] { Integer.TYPE },
+                              new Object[] { Integer.valueOf(window) });
+    }
+    catch (InvocationTargetException e) {
+      throw ProxyClientConnection.rethrow (e);
+    }
+  }
+
 
   public long skip(long bytesToSkip)
     throws IOException
@@ -475,6 +475,17 @@ implements IFSFileInputStreamImpl
   }
 
 
+  /**
+   Sets the number of read or write requests that may be outstanding at a time.
+   @param window The number of requests.
+   **/
+  public void setRequestWindow(int window)
+  {
+    // Assume the argument has been validated by the public class.
+    fd_.setRequestWindow(window);
+  }
+
+
   /**
    Skips over the next <i>bytesToSkip</i> bytes in the file input stream.
    This method may skip less bytes than specified if the end of file is
@@ -91,6 +91,8 @@ public class IFSFileOutputStream extends OutputStream
 
   private int ccsid_ = -1;  // The CCSID for tagging the data in the file.
 
+  private int requestWindow_ = 1;  // Number of write requests that may be outstanding.
+
   /**
      Constructs an IFSFileOutputStream object.
     It is a default file output stream.
@@ -555,6 +557,8 @@ public class IFSFileOutputStream extends OutputStream
         ("com.ibm.as400.access.IFSFileOutputStreamImplRemote",
          "com.ibm.as400.access.IFSFileOutputStreamImplProxy");
       impl_.setFD(fd_.getImpl());
+      if (requestWindow_ > 1)
+        impl_.setRequestWindow(requestWindow_);
       impl_.setAppend(append_);
     }
   }
@@ -694,6 +698,17 @@ public class IFSFileOutputStream extends OutputStream
   }
 
 
+  /**
+   Returns the number of write requests that may be outstanding at a time.
+   @return The number of requests.
+   @see #setRequestWindow
+   **/
+  public int getRequestWindow()
+  {
+    return requestWindow_;
+  }
+
+
   /**
    Returns the share option for this object.
    @return The share option.
@@ -822,6 +837,7 @@ public class IFSFileOutputStream extends OutputStream
   {
     // Restore the non-static and non-transient fields.
     ois.defaultReadObject();
+    if (requestWindow_ < 1) requestWindow_ = 1;  // Serialized before the window was added.
 
     // Initialize the transient fields.
     initializeTransient();
@@ -1012,6 +1028,30 @@ public class IFSFileOutputStream extends OutputStream
   }
 
 
+  /**
+   Sets the number of write requests that may be outstanding at a time.
+   The default is 1, where each request waits for its reply before the next
+   one is sent.  A write that needs more than one request then sends up to <i>window</i>
+   requests before waiting for the first reply.  Replies are still checked in
+   order, so an error is reported for the first part of the data that failed.
+   A larger window helps when large amounts of data are moved over a
+   connection with high latency.
+   @param window The number of requests.  It must be greater than or equal to one.
+   **/
+  public void setRequestWindow(int window)
+  {
+    if (window < 1)
+    {
+      throw new ExtendedIllegalArgumentException("window (" + window + ")",
+                      ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+
+    requestWindow_ = window;
+    if (impl_ != null)
+      impl_.setRequestWindow(window);
+  }
+
+
   /**
    Sets the share option.
    @param shareOption Indicates how users can access the file. <ul><li>SHARE_ALL Share access with readers and writers<li>SHARE_NONE Share access with none<li>SHARE_READERS Share access with readers<li>SHARE_WRITERS Share access with writers</ul>
@@ -32,6 +32,8 @@ interface IFSFileOutputStreamImpl
   // Note: This must be the first method called on a new object:
   void setFD(IFSFileDescriptorImpl fd);
 
+  void setRequestWindow(int window);
+
   void unlock(IFSKey key)  throws IOException;
   void write(byte[] data,
                     int    dataOffset,
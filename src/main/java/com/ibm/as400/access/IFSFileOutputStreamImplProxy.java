@@ -124,6 +124,18 @@ implements IFSFileOutputStreamImpl
     }
   }
 
+  public void setRequestWindow(int window)
+  {
+    try {
+      connection_.callMethod (pxId_, "setRequestWindow",
+                              new Class[] { Integer.TYPE },
+                              new Object[] { Integer.valueOf(window) });
+    }
+    catch (InvocationTargetException e) {
+      throw ProxyClientConnection.rethrow (e);
+    }
+  }
+
   public void unlock(IFSKey key)
     throws IOException
   {
@@ -281,6 +281,17 @@ implements IFSFileOutputStreamImpl
   }
 
 
+  /**
+   Sets the number of read or write requests that may be outstanding at a time.
+   @param window The number of requests.
+   **/
+  public void setRequestWindow(int window)
+  {
+    // Assume the argument has been validated by the public class.
+    fd_.setRequestWindow(window);
+  }
+
+
 
   /**
    Undoes a lock on this file.
@@ -22,6 +22,10 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Stack;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  This is the Toolbox's built-in connection pooling manager.
@@ -161,18 +165,16 @@ implements ConnectionEventListener
 
 
   // The total (cumulative) number of physical connections that have ever been created by this pool manager.
-  private int numConnectionsCreated_;
+  // A connection is counted as soon as getConnection() decides to create it, so that concurrent
+  // requesters cannot together create more than maxPoolSize_ connections.
+  private final AtomicInteger numConnectionsCreated_ = new AtomicInteger();
 
   // The total (cumulative) number of physical connections that have ever been closed (and removed from the pool) by this pool manager.
-  private int numConnectionsDestroyed_;
+  private final AtomicInteger numConnectionsDestroyed_ = new AtomicInteger();
 
   // Note: At any given moment, the total number of connections in the pool is the difference of the above two values.
 
 
-  private final Object connectionsCreatedLock_ = new Object();
-  private final Object connectionsDestroyedLock_ = new Object();
-
-
 
   private boolean poolSizeLimited_;   // Total pool size (number of open connections) is limited.
   private boolean enforceMaxPoolSize_;      // Pool size limitation is enforced.
@@ -197,8 +199,11 @@ implements ConnectionEventListener
   private final Object reaperSleepLock_     = new Object();
   private final Object scavengerSleepLock_  = new Object();
 
-  private boolean poolPaused_ = false;
-  private final Object poolPauseLock_ = new Object();
+  private volatile boolean poolPaused_ = false;
+  // A lock rather than a monitor, so that a virtual thread waiting for the pool
+  // to be unpaused does not pin its carrier thread.
+  private final ReentrantLock poolPauseLock_ = new ReentrantLock();
+  private final Condition poolUnpaused_ = poolPauseLock_.newCondition();
 
   private boolean fillingPool_;  // gets set to 'true' while fillPool() is running
   private boolean poolClosed_;   // gets set to 'true' (and stays true) when closePool() starts
@@ -446,167 +451,163 @@ implements ConnectionEventListener
           {
             synchronized (condemnedConnections_)
             {
-              synchronized (connectionsCreatedLock_)
+              // Count all connections on the 'available' list.
+              int totalAvailConnCount = 0;
+              for (int side = FOREGROUND; side <= BACKGROUND; side++)
               {
-                synchronized (connectionsDestroyedLock_)
+                int availConnCount = 0;
+                // Get list of all connection keys in the 'available' HashMap.
+                JDConnectionPoolKey[] poolKeys = (JDConnectionPoolKey[])availableConnections_[side].keySet().toArray(new JDConnectionPoolKey[0]);
+                for (int i=0; i<poolKeys.length; i++)
                 {
-                  // Count all connections on the 'available' list.
-                  int totalAvailConnCount = 0;
-                  for (int side = FOREGROUND; side <= BACKGROUND; side++)
-                  {
-                    int availConnCount = 0;
-                    // Get list of all connection keys in the 'available' HashMap.
-                    JDConnectionPoolKey[] poolKeys = (JDConnectionPoolKey[])availableConnections_[side].keySet().toArray(new JDConnectionPoolKey[0]);
-                    for (int i=0; i<poolKeys.length; i++)
-                    {
-                      // Count the connections for the specified key.
-                      Stack connStack = (Stack)availableConnections_[side].get(poolKeys[i]);
-                      if (connStack != null) {
-                        availConnCount += connStack.size();
-                      }
-                    }
-                    totalAvailConnCount += availConnCount;
-
-                    // Verify that the associated 'idledSequence' has same number of connections.
-                    if (availableConnectionsIdledSequence_[side].size() != availConnCount)
-                    {
-                      ok = false;
-                      logError("Connection count mismatch for side " + side +": #avail==" + availConnCount + " ; #idled==" + availableConnectionsIdledSequence_[side].size());
-                    }
-
-                    if (poolClosedCompletely_)
-                    {
-                      // Verify that all this 'available' connection list is empty.
-                      if (availConnCount != 0) {
-                        ok = false;
-                        logError("Available connections in list " + side + " ==" + availConnCount + " after pool closed");
-                      }
-                    }
-
-                    if (DEBUG || GATHER_STATS)
-                    {
-                      // Verify that the connections in the 'idledSequence' list are in order of when they were idled.
-                      Iterator idledIter = availableConnectionsIdledSequence_[side].iterator();
-                      long timeWhenPriorConnIdled = 0;
-                      for (int i=0; idledIter.hasNext(); i++)
-                      {
-                        AS400JDBCPooledConnection conn = (AS400JDBCPooledConnection)idledIter.next();
-                        if (conn.timeWhenPoolStatusLastModified_ < timeWhenPriorConnIdled)
-                        {
-                          ok = false;
-                          logError("Idled connection sequence for side " + side + " is not arranged in order of idled-time");
-                        }
-                        timeWhenPriorConnIdled = conn.timeWhenPoolStatusLastModified_;
-                      }
-                    }
+                  // Count the connections for the specified key.
+                  Stack connStack = (Stack)availableConnections_[side].get(poolKeys[i]);
+                  if (connStack != null) {
+                    availConnCount += connStack.size();
+                  }
+                }
+                totalAvailConnCount += availConnCount;
 
-                  }  // for (side ...)
+                // Verify that the associated 'idledSequence' has same number of connections.
+                if (availableConnectionsIdledSequence_[side].size() != availConnCount)
+                {
+                  ok = false;
+                  logError("Connection count mismatch for side " + side +": #avail==" + availConnCount + " ; #idled==" + availableConnectionsIdledSequence_[side].size());
+                }
 
-                  int totalConnCount = totalAvailConnCount + activeConnections_.size() + condemnedConnections_.size();
-                  if (totalConnCount != numConnectionsCreated_ - numConnectionsDestroyed_)
-                  {
-                    // We may have interrupted the pool while a connection was in "limbo".
-                    logWarning("totalConnCount==" + totalConnCount + "; numConnectionsCreated_=="+numConnectionsCreated_ + "; numConnectionsDestroyed_==" + numConnectionsDestroyed_ + " (difference: " + (numConnectionsCreated_ - numConnectionsDestroyed_) + ")");
+                if (poolClosedCompletely_)
+                {
+                  // Verify that all this 'available' connection list is empty.
+                  if (availConnCount != 0) {
+                    ok = false;
+                    logError("Available connections in list " + side + " ==" + availConnCount + " after pool closed");
                   }
+                }
 
-                  if (poolClosedCompletely_)
+                if (DEBUG || GATHER_STATS)
+                {
+                  // Verify that the connections in the 'idledSequence' list are in order of when they were idled.
+                  Iterator idledIter = availableConnectionsIdledSequence_[side].iterator();
+                  long timeWhenPriorConnIdled = 0;
+                  for (int i=0; idledIter.hasNext(); i++)
                   {
-                    // Verify that the 'available' connection lists are empty.
-                    if (availableConnections_[FOREGROUND].size() != 0) {
-                      ok = false;
-                      logError("Available connection list (foreground) is not empty after pool closed");
-                    }
-                    if (availableConnections_[BACKGROUND].size() != 0) {
-                      ok = false;
-                      logError("Available connection list (background) is not empty after pool closed");
-                    }
-                    // Verify that the 'active' connection list is empty.
-                    if (activeConnections_.size() != 0) {
-                      ok = false;
-                      logError("Active connection count is " + activeConnections_.size() + " after pool closed");
-                    }
-                    // Verify that the 'active(error)' connection list is empty.
-                    if (activeConnectionsInError_.size() != 0) {
-                      ok = false;
-                      logError("Active(error) connection count is " + activeConnectionsInError_.size() + " after pool closed");
-                    }
-                    // Verify that the 'condemned' connection list is empty.
-                    if (condemnedConnections_.size() != 0) {
-                      ok = false;
-                      logError("Condemned connection count is " + condemnedConnections_.size() + " after pool closed");
-                    }
-                    // Verify that the total connection count is zero.
-                    if (numConnectionsCreated_ != numConnectionsDestroyed_) {
+                    AS400JDBCPooledConnection conn = (AS400JDBCPooledConnection)idledIter.next();
+                    if (conn.timeWhenPoolStatusLastModified_ < timeWhenPriorConnIdled)
+                    {
                       ok = false;
-                      logError("numConnectionsCreated_ == " + numConnectionsCreated_ + ", numConnectionsDestroyed_ == " + numConnectionsDestroyed_ + " after pool closed");
+                      logError("Idled connection sequence for side " + side + " is not arranged in order of idled-time");
                     }
+                    timeWhenPriorConnIdled = conn.timeWhenPoolStatusLastModified_;
                   }
+                }
 
-                  if (DEBUG)
-                  {
-                    logInformation("Total available connections==" + totalAvailConnCount + "\n activeConnections_.size()=="+activeConnections_.size() + "\n condemnedConnections_.size()==" + condemnedConnections_.size());
-                  }
+              }  // for (side ...)
 
-                  if (DEBUG || GATHER_STATS)
-                  {
-                    // Verify that the connections in the 'active' list are in proper sequence.
-                    Iterator activeIter = activeConnections_.iterator();
-                    long timeWhenPriorConnWasCreated = 0L;
-                    for (int i=0; activeIter.hasNext(); i++)
-                    {
-                      AS400JDBCPooledConnection conn = (AS400JDBCPooledConnection)activeIter.next();
-                      if (conn.timeWhenCreated_ < timeWhenPriorConnWasCreated)
-                      {
-                        ok = false;
-                        logError("Active connection sequence is not arranged in order of creation: conn.timeWhenCreated_=="+conn.timeWhenCreated_+", timeWhenPriorConnWasCreated=="+timeWhenPriorConnWasCreated);
-                      }
-                      timeWhenPriorConnWasCreated = conn.timeWhenCreated_;
-                    }
-                  }
+              int totalConnCount = totalAvailConnCount + activeConnections_.size() + condemnedConnections_.size();
+              int numConnectionsCreated = numConnectionsCreated_.get();
+              int numConnectionsDestroyed = numConnectionsDestroyed_.get();
+              if (totalConnCount != numConnectionsCreated - numConnectionsDestroyed)
+              {
+                // We may have interrupted the pool while a connection was in "limbo".
+                logWarning("totalConnCount==" + totalConnCount + "; numConnectionsCreated_=="+numConnectionsCreated + "; numConnectionsDestroyed_==" + numConnectionsDestroyed + " (difference: " + (numConnectionsCreated - numConnectionsDestroyed) + ")");
+              }
 
-                  if (DEBUG || logStatistics)
+              if (poolClosedCompletely_)
+              {
+                // Verify that the 'available' connection lists are empty.
+                if (availableConnections_[FOREGROUND].size() != 0) {
+                  ok = false;
+                  logError("Available connection list (foreground) is not empty after pool closed");
+                }
+                if (availableConnections_[BACKGROUND].size() != 0) {
+                  ok = false;
+                  logError("Available connection list (background) is not empty after pool closed");
+                }
+                // Verify that the 'active' connection list is empty.
+                if (activeConnections_.size() != 0) {
+                  ok = false;
+                  logError("Active connection count is " + activeConnections_.size() + " after pool closed");
+                }
+                // Verify that the 'active(error)' connection list is empty.
+                if (activeConnectionsInError_.size() != 0) {
+                  ok = false;
+                  logError("Active(error) connection count is " + activeConnectionsInError_.size() + " after pool closed");
+                }
+                // Verify that the 'condemned' connection list is empty.
+                if (condemnedConnections_.size() != 0) {
+                  ok = false;
+                  logError("Condemned connection count is " + condemnedConnections_.size() + " after pool closed");
+                }
+                // Verify that the total connection count is zero.
+                if (numConnectionsCreated != numConnectionsDestroyed) {
+                  ok = false;
+                  logError("numConnectionsCreated_ == " + numConnectionsCreated + ", numConnectionsDestroyed_ == " + numConnectionsDestroyed + " after pool closed");
+                }
+              }
+
+              if (DEBUG)
+              {
+                logInformation("Total available connections==" + totalAvailConnCount + "\n activeConnections_.size()=="+activeConnections_.size() + "\n condemnedConnections_.size()==" + condemnedConnections_.size());
+              }
+
+              if (DEBUG || GATHER_STATS)
+              {
+                // Verify that the connections in the 'active' list are in proper sequence.
+                Iterator activeIter = activeConnections_.iterator();
+                long timeWhenPriorConnWasCreated = 0L;
+                for (int i=0; activeIter.hasNext(); i++)
+                {
+                  AS400JDBCPooledConnection conn = (AS400JDBCPooledConnection)activeIter.next();
+                  if (conn.timeWhenCreated_ < timeWhenPriorConnWasCreated)
                   {
-                    String msg =
-                      "\nswapsAttempted_=="+swapsAttempted_+"\n"+
-                      "swapsSucceeded_=="+swapsSucceeded_+"\n"+
-                      "swapsFailed_=="+swapsFailed_+"\n"+
-                      "swapsFailed_notWorthIt_=="+swapsFailed_notWorthIt_+"\n"+
-                      "swapsSucceeded_foreground_=="+swapsSucceeded_foreground_+"\n"+
-                      "swapsSucceeded_background_=="+swapsSucceeded_background_+"\n"+
-                      "swapsFailed_foreground_=="+swapsFailed_foreground_+"\n"+
-                      "swapsFailed_background_=="+swapsFailed_background_+"\n"+
-                      "swapsFailed_premature_=="+swapsFailed_premature_+"\n"+
-                      "swapsFailed_foreground_inProgress_=="+swapsFailed_foreground_inProgress_+"\n"+
-                      "swapsFailed_background_inProgress_=="+swapsFailed_background_inProgress_+"\n"+
-                      "swapsFailed_foreground_daemonAwake_=="+swapsFailed_foreground_daemonAwake_+"\n"+
-
-                      "maintainerDaemonCycles_=="+maintainerDaemonCycles_+"\n"+
-                      "reaperDaemonCycles_=="+reaperDaemonCycles_+"\n"+
-                      "scavengerDaemonCycles_=="+scavengerDaemonCycles_+"\n"+
-
-                      "numGetConnectionCalls_received_=="+numGetConnectionCalls_received_+"\n"+
-                      "numGetConnectionCalls_succeeded_=="+numGetConnectionCalls_succeeded_+"\n"+
-                      "numGetConnectionCalls_returnedNull_=="+numGetConnectionCalls_returnedNull_+"\n"+
-                      "numGetConnectionCalls_whileClosing_=="+numGetConnectionCalls_whileClosing_+"\n"+
-
-                      "connectionsReturnedToPool_=="+connectionsReturnedToPool_ +"\n"+
-                      "connectionErrorsOccurred_=="+connectionErrorsOccurred_ +"\n"+
-
-                      "staleConnectionsIdentified_: " + staleConnectionsIdentified_ +"\n"+
-                      "expiredConnectionsIdentifiedByReaper_: " + expiredConnectionsIdentifiedByReaper_ +"\n"+
-                      "expiredConnectionsIdentifiedWhenReturned_: " + expiredConnectionsIdentifiedWhenReturned_ +"\n"+
-                      "surplusPrecreatedConnectionsRemoved_: " + surplusPrecreatedConnectionsRemoved_ +"\n"+
-                      "survivingConnectionsRemoved_: " + survivingConnectionsRemoved_ +"\n"+
-                      "condemnedConnectionsRemoved_: " + condemnedConnectionsRemoved_ +"\n"+
-
-                      "numConnectionsCreated_: " + numConnectionsCreated_ +"\n"+
-                      "numConnectionsDestroyed_: " + numConnectionsDestroyed_;
-
-                    logInformation(msg);
+                    ok = false;
+                    logError("Active connection sequence is not arranged in order of creation: conn.timeWhenCreated_=="+conn.timeWhenCreated_+", timeWhenPriorConnWasCreated=="+timeWhenPriorConnWasCreated);
                   }
-
+                  timeWhenPriorConnWasCreated = conn.timeWhenCreated_;
                 }
               }
+
+              if (DEBUG || logStatistics)
+              {
+                String msg =
+                  "\nswapsAttempted_=="+swapsAttempted_+"\n"+
+                  "swapsSucceeded_=="+swapsSucceeded_+"\n"+
+                  "swapsFailed_=="+swapsFailed_+"\n"+
+                  "swapsFailed_notWorthIt_=="+swapsFailed_notWorthIt_+"\n"+
+                  "swapsSucceeded_foreground_=="+swapsSucceeded_foreground_+"\n"+
+                  "swapsSucceeded_background_=="+swapsSucceeded_background_+"\n"+
+                  "swapsFailed_foreground_=="+swapsFailed_foreground_+"\n"+
+                  "swapsFailed_background_=="+swapsFailed_background_+"\n"+
+                  "swapsFailed_premature_=="+swapsFailed_premature_+"\n"+
+                  "swapsFailed_foreground_inProgress_=="+swapsFailed_foreground_inProgress_+"\n"+
+                  "swapsFailed_background_inProgress_=="+swapsFailed_background_inProgress_+"\n"+
+                  "swapsFailed_foreground_daemonAwake_=="+swapsFailed_foreground_daemonAwake_+"\n"+
+
+                  "maintainerDaemonCycles_=="+maintainerDaemonCycles_+"\n"+
+                  "reaperDaemonCycles_=="+reaperDaemonCycles_+"\n"+
+                  "scavengerDaemonCycles_=="+scavengerDaemonCycles_+"\n"+
+
+                  "numGetConnectionCalls_received_=="+numGetConnectionCalls_received_+"\n"+
+                  "numGetConnectionCalls_succeeded_=="+numGetConnectionCalls_succeeded_+"\n"+
+                  "numGetConnectionCalls_returnedNull_=="+numGetConnectionCalls_returnedNull_+"\n"+
+                  "numGetConnectionCalls_whileClosing_=="+numGetConnectionCalls_whileClosing_+"\n"+
+
+                  "connectionsReturnedToPool_=="+connectionsReturnedToPool_ +"\n"+
+                  "connectionErrorsOccurred_=="+connectionErrorsOccurred_ +"\n"+
+
+                  "staleConnectionsIdentified_: " + staleConnectionsIdentified_ +"\n"+
+                  "expiredConnectionsIdentifiedByReaper_: " + expiredConnectionsIdentifiedByReaper_ +"\n"+
+                  "expiredConnectionsIdentifiedWhenReturned_: " + expiredConnectionsIdentifiedWhenReturned_ +"\n"+
+                  "surplusPrecreatedConnectionsRemoved_: " + surplusPrecreatedConnectionsRemoved_ +"\n"+
+                  "survivingConnectionsRemoved_: " + survivingConnectionsRemoved_ +"\n"+
+                  "condemnedConnectionsRemoved_: " + condemnedConnectionsRemoved_ +"\n"+
+
+                  "numConnectionsCreated_: " + numConnectionsCreated +"\n"+
+                  "numConnectionsDestroyed_: " + numConnectionsDestroyed;
+
+                logInformation(msg);
+              }
+
             }
           }
         }
@@ -712,9 +713,7 @@ implements ConnectionEventListener
       if (JDTrace.isTraceOn()) logError(e.getMessage());
     }
     finally {
-      synchronized (connectionsDestroyedLock_) {
-        numConnectionsDestroyed_++;  // increment the 'connections destroyed' counter
-      }
+      numConnectionsDestroyed_.incrementAndGet();  // increment the 'connections destroyed' counter
     }
   }
 
@@ -826,12 +825,6 @@ implements ConnectionEventListener
     synchronized (condemnedConnections_) {
       condemnedConnections_.notifyAll();
     }
-    synchronized (connectionsCreatedLock_) {
-      connectionsCreatedLock_.notifyAll();
-    }
-    synchronized (connectionsDestroyedLock_) {
-      connectionsDestroyedLock_.notifyAll();
-    }
 
     // The pool is being shut down, so we can (and should) go ahead and lock all lists.
     // By now the daemons should have all shut down.
@@ -1069,31 +1062,36 @@ implements ConnectionEventListener
 
     AS400JDBCPooledConnection conn = (AS400JDBCPooledConnection) event.getSource();
 
-    activeConnectionsInError_.add(conn);  // track this connection until it gets closed
+    synchronized (activeConnections_) {  // the 'error' list is guarded by the 'active' list
+      activeConnectionsInError_.add(conn);  // track this connection until it gets closed
+    }
   }
 
 
   /**
-   Attempts to create one new physical connection with the specified key, and add it to the foreground 'available' list.
+   Attempts to create one new physical connection with the specified key, for a requester that found no available connection.
+   The connection is handed straight to the requester rather than being added to the 'available' list, where another requester could take it first.
+   @return The new connection, or null if the pool is full or the connection could not be created.
    **/
-  private final void createNewConnection(JDConnectionPoolKey poolKey, boolean keyIsDefault, char[]  password)
+  private final AS400JDBCPooledConnection createNewConnection(JDConnectionPoolKey poolKey, boolean keyIsDefault, char[]  password)
   {
     if (DEBUG) logInformation("createNewConnection("+poolKey.getUser()+")");
-    if (poolClosed_) return;
-    // Note: Never pause during this method.  It's called from within a sync block.
+    if (poolClosed_) return null;
+    // Note: Never call this method from within a sync block.  Creating a physical connection takes a host round trip.
 
-    // Fail fast if pool is already full.
-    if (isPoolFull())
+    // Reserve a place in the pool before connecting, so that concurrent requesters cannot together exceed the maximum pool size.
+    int connectionCount = numConnectionsCreated_.incrementAndGet() - numConnectionsDestroyed_.get();
+    if (poolSizeLimited_ && connectionCount > maxPoolSize_)
     {
+      numConnectionsCreated_.decrementAndGet();
       if (DEBUG) logWarning("Connection pool is full, so no new connection was added.");
-      return;
+      return null;
     }
 
-    // Prepare to add a new connection to the pool.  Pre-create a new connection, outside of the sync block.
     if (JDTrace.isTraceOn()) logInformation(ResourceBundleLoader.substitute(ResourceBundleLoader.getText("AS400CP_FILLING"), new String[] { (Integer.valueOf(1)).toString(), 
     cpds_.getServerName(), poolKey.getUser()} ));
     AS400JDBCPooledConnection newConn = null;
-    boolean addedConnectionToPool = false;
+    boolean succeeded = false;
     try
     {
       if (keyIsDefault) {
@@ -1102,50 +1100,27 @@ implements ConnectionEventListener
       else {
         newConn = (AS400JDBCPooledConnection)cpds_.getPooledConnection(poolKey.getUser(), password);
       }
-      synchronized (connectionsCreatedLock_) { // increment the 'connections created' counter
-        numConnectionsCreated_++;
-      }
       newConn.addConnectionEventListener(this);
       newConn.setPoolKey(poolKey);
-
-      synchronized (availableConnections_[FOREGROUND])
-      { // Don't leave the newly-created connection in limbo.
-        // Get the stack of connections for the specified key.
-        Stack connStack = (Stack)availableConnections_[FOREGROUND].get(poolKey);
-        if (connStack == null) { // This key doesn't have a stack yet.
-          connStack = new Stack();
-          availableConnections_[FOREGROUND].put(poolKey, connStack);  // Add new stack to the list.
-        }
-
-        // Now that we've got locks, check the totals again.
-        // Note that the newly-created connection has been added to the connection totals.
-        if (!isPoolOverFull())
-        {
-          connStack.push(newConn);
-          availableConnectionsIdledSequence_[FOREGROUND].add(newConn);
-          addedConnectionToPool = true;
-          newConn.timeWhenPoolStatusLastModified_ = System.currentTimeMillis();
-        }
-        else {
-          if (DEBUG) logWarning("Connection pool is full, so new connection not added");
-        }
-      }
+      succeeded = true;
+      return newConn;
     }
     catch (SQLException e)
     {
-      wakeMaintainerDaemon();
       logException(ResourceBundleLoader.getText("AS400CP_FILLEXC"), e);
+      return null;
     }
     finally
     {
-      // If the pre-created connection wasn't added to pool, close it.
-      if (!addedConnectionToPool)
+      if (!succeeded)
       {
+        // Give back the reserved place, whatever the failure was.
+        numConnectionsCreated_.decrementAndGet();
         if (newConn != null) {
-          if (DEBUG) logDiagnostic("Closing pre-created connection");
-          closePhysicalConnection(newConn);
-          if (GATHER_STATS) surplusPrecreatedConnectionsRemoved_++;
+          try { newConn.close(); }
+          catch (Exception e) { logException("Exception while closing connection that could not be added to the pool", e); }
         }
+        wakeMaintainerDaemon();
       }
     }
   }
@@ -1220,9 +1195,7 @@ implements ConnectionEventListener
       finally
       {
         if (numberOfConnsCreatedForThisRequest != 0) {
-          synchronized (connectionsCreatedLock_) { // increment the 'connections created' counter
-            numConnectionsCreated_ += numberOfConnsCreatedForThisRequest;
-          }
+          numConnectionsCreated_.addAndGet(numberOfConnsCreatedForThisRequest); // increment the 'connections created' counter
         }
       }
 
@@ -1306,21 +1279,15 @@ implements ConnectionEventListener
   private final int getConnectionCount(int howToSync)
   {
     // Note: Never pause or terminate early from this method.
+    // The counters are atomic, so both ways of syncing read them the same way.
     switch (howToSync)
     {
       case SYNC_NONE:
-        return numConnectionsCreated_ - numConnectionsDestroyed_;
       case SYNC_ALL:
-        synchronized (connectionsCreatedLock_)
-          {
-            synchronized (connectionsDestroyedLock_)
-            {
-              return numConnectionsCreated_ - numConnectionsDestroyed_;
-            }
-          }
+        return numConnectionsCreated_.get() - numConnectionsDestroyed_.get();
       default:
         logError("Internal error: JDConnectionPoolManager.getConnectionCount("+howToSync+")");
-        return numConnectionsCreated_ - numConnectionsDestroyed_;
+        return numConnectionsCreated_.get() - numConnectionsDestroyed_.get();
     }
   }
 
@@ -1366,22 +1333,33 @@ implements ConnectionEventListener
     boolean done = false;
     for (int ii=0; ii<5 && !done; ii++)
     {
-      synchronized (availableConnections_[FOREGROUND])
+      boolean newlyCreated = false;
+      // Make at most 3 tries to get a connection.
+      // If we're lucky there's a connection available and we'll only need 1 pass to get a connection.
+      // If not, the 2nd pass is after swap attempt.
+      // If still no luck, then the third pass is after we've attempted to create a new physical connection.
+      // The 'available' list is only locked while a connection is taken from it.  The swap attempt and the
+      // creation of a new connection are done outside of the lock, so that other threads can keep allocating
+      // and returning connections in the meantime.
+      for (int jj=0; conn1 == null && jj<3; jj++)
       {
-        if (poolClosed_) {
-          if (DEBUG || GATHER_STATS) numGetConnectionCalls_whileClosing_++;
-          String msg = ResourceBundleLoader.getText("EXC_CONN_POOL_CLOSED");
-          Trace.log(Trace.ERROR, msg);
-          throw new SQLException(msg);
-        }
-        // Make at most 3 tries to get a connection.
-        // If we're lucky there's a connection available and we'll only need 1 pass to get a connection.
-        // If not, the 2nd pass is after swap attempt.
-        // If still no luck, then the third pass is after we've attempted to add a new physical connection to the pool.
-        for (int jj=0; conn1 == null && jj<3; jj++)
+        HashMap foreground = availableConnections_[FOREGROUND];
+        synchronized (foreground)
         {
+          if (poolClosed_) {
+            if (DEBUG || GATHER_STATS) numGetConnectionCalls_whileClosing_++;
+            String msg = ResourceBundleLoader.getText("EXC_CONN_POOL_CLOSED");
+            Trace.log(Trace.ERROR, msg);
+            throw new SQLException(msg);
+          }
+          // The lists may have been swapped while we waited for the lock.  If so, try again with the new foreground list.
+          if (foreground != availableConnections_[FOREGROUND]) {
+            jj--;
+            continue;
+          }
+
           // See if there's an available connection.
-          Stack connStack = (Stack)availableConnections_[FOREGROUND].get(poolKey);
+          Stack connStack = (Stack)foreground.get(poolKey);
           if (connStack != null && !connStack.empty())
           {
             // Retrieve the most recently used connection.
@@ -1393,29 +1371,30 @@ implements ConnectionEventListener
             // While we've got the list locked, see if we've taken the last available connection.
             if (keyIsDefault && connStack.empty()) needMoreDefaultConnections = true;
           }
+        }  // synchronized block
 
-          if (conn1 == null)
+        if (conn1 == null)
+        {
+          if (!triedToSwap)  // We haven't tried swapping lists yet.
           {
-            if (!triedToSwap)  // We haven't tried swapping lists yet.
-            {
-              // Try swapping the foreground and background 'available' lists.
-              // Note that the swap may fail if maintainer daemon is running, or if background list is not longer than foreground list.
-              if (DEBUG) logInformation("getConnection() is requesting a swap");
-              swapConnectionLists(FOREGROUND, poolKey);
-              triedToSwap = true;
-            }
-            else if (!triedToCreateNewConnection && !isPoolFull()) // The swap attempt didn't help.  Go ahead a try creating a new connection now.
-            {
-              createNewConnection(poolKey, keyIsDefault, password);  // create new physical connection and add it to pool
-              triedToCreateNewConnection = true;
-            }
+            // Try swapping the foreground and background 'available' lists.
+            // Note that the swap may fail if maintainer daemon is running, or if background list is not longer than foreground list.
+            if (DEBUG) logInformation("getConnection() is requesting a swap");
+            swapConnectionLists(FOREGROUND, poolKey);
+            triedToSwap = true;
+          }
+          else if (!triedToCreateNewConnection && !isPoolFull()) // The swap attempt didn't help.  Go ahead a try creating a new connection now.
+          {
+            conn1 = createNewConnection(poolKey, keyIsDefault, password);  // create new physical connection
+            newlyCreated = (conn1 != null);
+            triedToCreateNewConnection = true;
           }
-        }  // for jj
-      }  // synchronized block
+        }
+      }  // for jj
 
 
-      // If appropriate, pre-test the connection.
-      if (!pretestConnections_ || conn1 == null)
+      // If appropriate, pre-test the connection.  A connection that was just created doesn't need it.
+      if (!pretestConnections_ || conn1 == null || newlyCreated)
       {
         done = true;  // we're done with loop
       }
@@ -1605,12 +1584,17 @@ implements ConnectionEventListener
   {
     while (poolPaused_) {
       if (DEBUG) logDiagnostic("Pool is paused");
+      poolPauseLock_.lock();
       try {
-        synchronized (poolPauseLock_) {
-          if (poolPaused_) poolPauseLock_.wait(maxTimeToPause);
+        if (poolPaused_) {
+          if (maxTimeToPause == 0) poolUnpaused_.await();
+          else poolUnpaused_.await(maxTimeToPause, TimeUnit.MILLISECONDS);
         }
       }
       catch (InterruptedException ie) {}  // ignore
+      finally {
+        poolPauseLock_.unlock();
+      }
     }
   }
 
@@ -1621,9 +1605,13 @@ implements ConnectionEventListener
   private final void pausePool()
   {
     poolPaused_ = true;
-    synchronized (poolPauseLock_) {
+    poolPauseLock_.lock();
+    try {
       poolPaused_ = true;  // ensure that it ends up 'on'
     }
+    finally {
+      poolPauseLock_.unlock();
+    }
   }
 
 
@@ -1849,9 +1837,13 @@ implements ConnectionEventListener
   private final void unpausePool()
   {
     poolPaused_ = false;
-    synchronized (poolPauseLock_) {
+    poolPauseLock_.lock();
+    try {
       poolPaused_ = false;  // ensure that it stays off
-      poolPauseLock_.notifyAll();
+      poolUnpaused_.signalAll();
+    }
+    finally {
+      poolPauseLock_.unlock();
     }
   }
 
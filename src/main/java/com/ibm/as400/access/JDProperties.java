@@ -196,10 +196,12 @@ public class JDProperties implements Serializable, Cloneable {
   static final int VIRTUAL_THREADS = 106; // @greenscreens
   static final int TRIM_CHAR_FIELDS = 107;
   static final int AUTHENTICATION_VERIFICATION_ID = 108; 
+  static final int FETCH_AHEAD = 109;
+  static final int STATEMENT_CACHE_SIZE = 110;
 
   // always add to the end of the array!
 
-  private static final int NUMBER_OF_ATTRIBUTES_ = 109;
+  private static final int NUMBER_OF_ATTRIBUTES_ = 111;
 
   // Property names.
   static final String ACCESS_ = "access";
@@ -251,6 +253,8 @@ public class JDProperties implements Serializable, Cloneable {
   static final String PASSWORD_ = "password"; // @native
   static final String PORTNUMBER_ = "portNumber"; /* @V1A */
   static final String PREFETCH_ = "prefetch";
+  static final String FETCH_AHEAD_ = "fetch ahead";
+  static final String STATEMENT_CACHE_SIZE_ = "statement cache size";
   static final String PROMPT_ = "prompt";
   static final String PROXY_SERVER_ = "proxy server";
   // nstatic final String PROXY_SERVER_SECURE_ = "proxy server secure";
@@ -1025,6 +1029,24 @@ public class JDProperties implements Serializable, Cloneable {
     dpi_[i].choices[1] = FALSE_;
     defaults_[i] = TRUE_;
 
+    // Fetch ahead.
+    i = FETCH_AHEAD;
+    dpi_[i] = new DriverPropertyInfo(FETCH_AHEAD_, "");
+    dpi_[i].description = "FETCH_AHEAD_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[2];
+    dpi_[i].choices[0] = TRUE_;
+    dpi_[i].choices[1] = FALSE_;
+    defaults_[i] = FALSE_;
+
+    // Statement cache size.
+    i = STATEMENT_CACHE_SIZE;
+    dpi_[i] = new DriverPropertyInfo(STATEMENT_CACHE_SIZE_, "");
+    dpi_[i].description = "STATEMENT_CACHE_SIZE_DESC";
+    dpi_[i].required = false;
+    dpi_[i].choices = new String[0];
+    defaults_[i] = "0";
+
     // Prompt.
     i = PROMPT;
     dpi_[i] = new DriverPropertyInfo(PROMPT_, "");
@@ -17,6 +17,7 @@ import java.sql.Connection;          // @G4A
 import java.sql.SQLException;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 
@@ -36,7 +37,7 @@ import java.util.Vector;
 // most statements, so now all parsing is done at object
 // construction time.
 //
-public class JDSQLStatement
+public class JDSQLStatement implements Cloneable
 {
     // Native statement types.
     //
@@ -122,6 +123,8 @@ public class JDSQLStatement
     private boolean         selectTableNotSet_          = true;     //@K1A boolean to determine if selectTable_ has been set, if so, then selectTableNotSet_ is false
   private boolean         selectFromInsert_           = false;    // @GKA
     private boolean       isMetaDataCall_ = false;                //@K5A
+    // The statement text converted for the system.  Copies of a statement share it.
+    private final AtomicReference<EncodedText> encodedText_ = new AtomicReference<EncodedText>();
 
     // Contains a list of AS400JDBCStatementListener objects to be invoked when events occur
     // related to a JDSQLStatement.
@@ -160,6 +163,12 @@ public class JDSQLStatement
       if (listener != null) statementListeners_.add(listener);
     }
 
+    // Indicates if any AS400JDBCStatementListeners are registered.
+    static boolean hasStatementListeners()
+    {
+      return !statementListeners_.isEmpty();
+    }
+
     /**
      * Removes an AS400JDBCStatementListener.
      * @param listener 
@@ -1003,6 +1012,26 @@ public class JDSQLStatement
 
 
 
+    /**
+    Returns a copy of this statement.  The copy can be changed without
+    changing this statement.  Used by JDSQLStatementCache.
+    
+    @return The copy.
+    **/
+    JDSQLStatement copy()
+    {
+        try
+        {
+            return (JDSQLStatement)clone();
+        }
+        catch (CloneNotSupportedException e)
+        {
+            throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION);
+        }
+    }
+
+
+
     /**
     Returns the correlation name for a SELECT statement.
     
@@ -1292,6 +1321,41 @@ public class JDSQLStatement
       return isMetaDataCall_; 
     } /*@K5A*/
 
+
+    /**
+    Returns the SQL statement converted by a converter.  The bytes
+    are kept, so a statement prepared again on a connection with the
+    same converter is not converted again.  The caller must not change
+    the bytes.
+    
+    @param  converter   The converter.
+    @return The converted statement text.
+    **/
+    byte[] getTextBytes(ConvTable converter)
+    {
+        EncodedText text = encodedText_.get();
+        if (text == null || text.converter_ != converter)
+        {
+            text = new EncodedText(converter, converter.stringToByteArray(value_));
+            encodedText_.set(text);
+        }
+        return text.bytes_;
+    }
+
+
+    // Statement text and the converter that produced it.
+    private static final class EncodedText
+    {
+        final ConvTable converter_;
+        final byte[] bytes_;
+
+        EncodedText(ConvTable converter, byte[] bytes)
+        {
+            converter_ = converter;
+            bytes_ = bytes;
+        }
+    }
+
     public boolean isSetSpecialRegister() {
       return isSetSpecialRegister_; 
     }
@@ -0,0 +1,135 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: JDSQLStatementCache.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+
+
+/**
+This class is a JVM-wide cache of parsed SQL statements.  Parsing a
+statement (escape clause expansion, tokenizing and counting parameter
+markers) depends only on the SQL text and a few connection properties,
+so statements parsed for one connection are reused by all connections
+with the same properties.  The least recently used statement is removed
+when the cache is full.
+<p>
+The cached statements are never handed out.  Each caller gets a copy,
+which shares the converted statement text with the cached statement.
+Statements are not cached while statement listeners are registered,
+since a listener may change the SQL text for each connection.
+**/
+class JDSQLStatementCache
+{
+  private static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+  private static final int maximumSize_ = getMaximumSize();
+  private static final LinkedHashMap<String, JDSQLStatement> statements_ =
+    new LinkedHashMap<String, JDSQLStatement>(16, 0.75f, true);
+
+
+
+/**
+Returns a parsed SQL statement.  The arguments are the same as those
+of the JDSQLStatement constructor.
+
+@return A statement that the caller may change.
+
+@exception  SQLException        If there is a syntax error or
+                                a reference to an unsupported
+                                scalar function.
+**/
+  static JDSQLStatement getStatement(String sql, String decimalSeparator, boolean convert, String packageCriteria,
+                                     AS400JDBCConnection connection)
+  throws SQLException
+  {
+    if (maximumSize_ <= 0 || sql == null || connection == null || JDSQLStatement.hasStatementListeners())
+      return new JDSQLStatement(sql, decimalSeparator, convert, packageCriteria, connection);
+
+    String key = makeKey(sql, decimalSeparator, convert, packageCriteria, connection);
+    JDSQLStatement statement;
+    synchronized (statements_)
+    {
+      statement = statements_.get(key);
+    }
+
+    if (statement == null)
+    {
+      // Parse outside of the lock.  Two threads may parse the same
+      // statement at the same time; the last one is kept.
+      statement = new JDSQLStatement(sql, decimalSeparator, convert, packageCriteria, connection);
+      synchronized (statements_)
+      {
+        statements_.put(key, statement);
+        if (statements_.size() > maximumSize_)
+        {
+          Iterator<JDSQLStatement> it = statements_.values().iterator();
+          it.next();
+          it.remove();
+        }
+      }
+    }
+
+    return statement.copy();
+  }
+
+
+
+/**
+Returns the key under which a statement is cached.  The key contains
+everything that the parse depends on besides the SQL text.
+**/
+  private static String makeKey(String sql, String decimalSeparator, boolean convert, String packageCriteria,
+                                AS400JDBCConnection connection)
+  throws SQLException
+  {
+    JDProperties properties = connection.getProperties();
+    StringBuffer buffer = new StringBuffer(sql.length() + 64);
+    buffer.append(convert).append(',');
+    buffer.append(decimalSeparator).append(',');
+    buffer.append(packageCriteria).append(',');
+    buffer.append(connection.getVRM()).append(',');
+    buffer.append(properties.getString(JDProperties.NAMING)).append(',');
+    buffer.append(connection.doUpdateDeleteBlocking()).append(',');
+    // The bidi transform of the statement text.
+    buffer.append(properties.getInt(JDProperties.BIDI_STRING_TYPE)).append(',');
+    buffer.append(properties.getString(JDProperties.BIDI_IMPLICIT_REORDERING)).append(',');
+    buffer.append(properties.getInt(JDProperties.PACKAGE_CCSID)).append(',');
+    if (connection.getSystem() != null)
+      buffer.append(connection.getSystem().getCcsid());
+    buffer.append(',');
+    buffer.append(sql);
+    return buffer.toString();
+  }
+
+
+
+  private static int getMaximumSize()
+  {
+    int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    String propVal = SystemProperties.getProperty(SystemProperties.JDBC_PARSED_STATEMENT_CACHE_SIZE);
+    if (propVal != null)
+    {
+      try {
+        maximumSize = Integer.parseInt(propVal);
+      }
+      catch (Exception e) {
+        if (Trace.traceOn_) Trace.log(Trace.WARNING, "Error retrieving parsedStatementCacheSize property value:", e);
+      }
+    }
+    return maximumSize;
+  }
+}
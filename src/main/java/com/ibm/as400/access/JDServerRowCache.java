@@ -44,6 +44,15 @@ implements JDRowCache
   private int                     bufferSize_;                                  //@K54  
   private JDCursor                cursor_ = null; //@pda perf2 - fetch/close
   private DBReplyRequestedDS fetchReply = null; //@P0A
+  // The pooled buffer that serverData_ refers to, if this cache owns it.
+  // It is given back to DBReplyBufferPool when the rows no longer use it.
+  private byte[]                  serverDataBuffer_ = null;
+
+  // When fetch ahead is on, the next block of a forward-only cursor is
+  // requested as soon as the current block arrives, and its reply is
+  // collected when the application moves past the current block.
+  private boolean                 fetchAhead_ = false;
+  private int                     fetchAheadCorrelation_ = 0;  // 0 if no block is pending
   
 
   // Index always points to the row within the cache.
@@ -137,6 +146,7 @@ prefetched.
     @param  blockingFactor  The blocking factor (in rows).
     @param  lastBlock       Has the last block been fetched?
     @param  resultSetType   The type of result set.
+    @param  resultSetConcurrency  The concurrency of the result set.
     @param  JDCursor        Cursor associated with rows.
    
     @exception  SQLException    If an error occurs.
@@ -147,11 +157,13 @@ prefetched.
                       int blockingFactor, 
                       boolean lastBlock,  
                       int resultSetType,
+                      int resultSetConcurrency,
                       JDCursor cursor) 
     throws SQLException
     {
         this(row, connection, id, blockingFactor, lastBlock, resultSetType);
         cursor_ = cursor;  
+        setFetchAhead (resultSetType, resultSetConcurrency);
     }
     
 
@@ -235,6 +247,7 @@ prefetched.
     @param  serverData      Prefetched data.
     @param  lastBlock       Has the last block been fetched?
     @param  resultSetType   The type of result set.
+    @param  resultSetConcurrency  The concurrency of the result set.
     @param  JDCursor        Cursor associated with rows.
 
     @exception  SQLException    If an error occurs.
@@ -246,14 +259,37 @@ prefetched.
                       DBData serverData,
                       boolean lastBlock,
                       int resultSetType,
+                      int resultSetConcurrency,
                       JDCursor cursor)
     throws SQLException
     {
         this(row, connection, id, blockingFactor, serverData, lastBlock, resultSetType);
         cursor_ = cursor;  
+        setFetchAhead (resultSetType, resultSetConcurrency);
     }
 
 
+
+/**
+Turns on fetch ahead if the "fetch ahead" property is set and the
+result set is forward-only and read-only.  An updatable result set
+updates the row under the system cursor, so the cursor must not move
+past the rows in the cache.
+
+@param  resultSetType         The type of result set.
+@param  resultSetConcurrency  The concurrency of the result set.
+
+@exception  SQLException    If an error occurs.
+**/
+  private void setFetchAhead (int resultSetType, int resultSetConcurrency)
+  throws SQLException
+  {
+    fetchAhead_ = (resultSetType == java.sql.ResultSet.TYPE_FORWARD_ONLY &&
+                   resultSetConcurrency == java.sql.ResultSet.CONCUR_READ_ONLY &&
+                   connection_.getProperties().getBoolean(JDProperties.FETCH_AHEAD));
+  }
+
+
 /**
 Fetches a block of data from the system.
 
@@ -288,114 +324,183 @@ Fetches a block of data from the system.
   private boolean fetch (int fetchScrollOption, int rows)
   throws SQLException
   {
+    // A block requested ahead of time is the next block, so it can only be
+    // used to satisfy a fetch next.
+    if (fetchAheadCorrelation_ != 0)
+    {
+      if (fetchScrollOption == DBSQLRequestDS.FETCH_NEXT)
+      {
+        boolean endBlock = receiveFetchAhead();
+        if (!endBlock) sendFetchAhead();
+        return endBlock;
+      }
+      cancelFetchAhead();
+    }
+
     boolean endBlock = false;
 
+    DBSQLRequestDS request = null; //@P0A
     try
     {
-      DBSQLRequestDS request = null; //@P0A
-      try
+      request = newFetchRequest(fetchScrollOption, rows);
+
+      if (JDTrace.isTraceOn ())
+        JDTrace.logInformation (connection_, "Fetching a block of data from the system "+fetchScrollOption+","+rows);
+
+      if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; } 
+      fetchReply = connection_.sendAndReceive (request, id_); //@P0C
+    }
+    finally
+    {
+      if (request != null) { request.returnToPool(); request =null; } 
+      // if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; } 
+    }
+
+    endBlock = processFetchReply();
+
+    if (fetchAhead_ && !endBlock && fetchScrollOption == DBSQLRequestDS.FETCH_NEXT)
+      sendFetchAhead();
+
+    return endBlock;
+  }
+
+
+
+/**
+Builds the request to fetch a block of data from the system.
+
+@param  fetchScrollOption   The fetch scroll option.
+@param  rows                The number of rows when
+                            fetchScrollOption is
+                            DBSQLRequestDS.FETCH_RELATIVE.
+@return                     The request.
+
+@exception  SQLException    If an error occurs.
+**/
+  private DBSQLRequestDS newFetchRequest (int fetchScrollOption, int rows)
+  throws SQLException
+  {
+    DBSQLRequestDS request = DBDSPool.getDBSQLRequestDS ( //@P0C
+                                             DBSQLRequestDS.FUNCTIONID_FETCH,
+                                             id_, DBBaseRequestDS.ORS_BITMAP_RETURN_DATA
+                                             + DBBaseRequestDS.ORS_BITMAP_RESULT_DATA, 0);
+    try
+    {
+      request.setFetchScrollOption (fetchScrollOption, rows);
+
+      // If fetching next, then fetch a block.  Otherwise,
+      // just fetch a single row.  The check was altered under @G1
+      // to fetch a block of rows only when we know the cursor
+      // location.  If we don't know the cursor location when we 
+      // get only one row just in case the next request is to
+      // go backward or relative to the current location.  This 
+      // will be slower but it is the only way to assure accurate 
+      // information is returned to the app. 
+      if ((fetchScrollOption == DBSQLRequestDS.FETCH_NEXT) &&       
+          (blockingFactor_ > 0)                            &&
+          (cursorPositionOfFirstRowInCache_ >= 0))                    // @G1a
       {
-        request = DBDSPool.getDBSQLRequestDS ( //@P0C
-                                               DBSQLRequestDS.FUNCTIONID_FETCH,
-                                               id_, DBBaseRequestDS.ORS_BITMAP_RETURN_DATA
-                                               + DBBaseRequestDS.ORS_BITMAP_RESULT_DATA, 0);
-
-        request.setFetchScrollOption (fetchScrollOption, rows);
-
-        // If fetching next, then fetch a block.  Otherwise,
-        // just fetch a single row.  The check was altered under @G1
-        // to fetch a block of rows only when we know the cursor
-        // location.  If we don't know the cursor location when we 
-        // get only one row just in case the next request is to
-        // go backward or relative to the current location.  This 
-        // will be slower but it is the only way to assure accurate 
-        // information is returned to the app. 
-        if ((fetchScrollOption == DBSQLRequestDS.FETCH_NEXT) &&       
-            (blockingFactor_ > 0)                            &&
-            (cursorPositionOfFirstRowInCache_ >= 0))                    // @G1a
-        {
-            if(variableFieldCompressionSupported_)   //@K54
-            {                   
-                //Do not need to set the blocking factor if using variable-length field compression
-                //If both the buffer size and blocking factor were set, the buffer size will override
-                //the blocking factor and the number of rows that will fit in the buffer size will be returned
-                //regardless of the blocking factor value                                                                                                        //@K54
-                request.setVariableFieldCompression(true);                                                                              //@K54
-                request.setBufferSize(bufferSize_ * 1024);                                                                                     //@K54
-            }                                                                                                                           //@K54
-            else                                                                                                                        //@K54
-                request.setBlockingFactor (blockingFactor_);
-        }
-        else
-        {
-          request.setBlockingFactor (1);
-        }   
+          if(variableFieldCompressionSupported_)   //@K54
+          {                   
+              //Do not need to set the blocking factor if using variable-length field compression
+              //If both the buffer size and blocking factor were set, the buffer size will override
+              //the blocking factor and the number of rows that will fit in the buffer size will be returned
+              //regardless of the blocking factor value                                                                                                        //@K54
+              request.setVariableFieldCompression(true);                                                                              //@K54
+              request.setBufferSize(bufferSize_ * 1024);                                                                                     //@K54
+          }                                                                                                                           //@K54
+          else                                                                                                                        //@K54
+              request.setBlockingFactor (blockingFactor_);
+      }
+      else
+      {
+        request.setBlockingFactor (1);
+      }
+    }
+    catch (DBDataStreamException e)
+    {
+      request.returnToPool();
+      JDError.throwSQLException (JDError.EXC_INTERNAL, e);
+    }
+    return request;
+  }
 
-        if (JDTrace.isTraceOn ())
-          JDTrace.logInformation (connection_, "Fetching a block of data from the system "+fetchScrollOption+","+rows);
 
-        if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; } 
-        fetchReply = connection_.sendAndReceive (request, id_); //@P0C
 
-        int errorClass = fetchReply.getErrorClass();
-        int returnCode = fetchReply.getReturnCode();
+/**
+Processes the reply to a fetch request and makes its rows
+the contents of the cache.
+
+@return                     true if the first or last block (in
+                            the appropriate direction) was fetched,
+                            false otherwise.
+
+@exception  SQLException    If an error occurs.
+**/
+  private boolean processFetchReply ()
+  throws SQLException
+  {
+    boolean endBlock = false;
+
+    try
+    {
+      int errorClass = fetchReply.getErrorClass();
+      int returnCode = fetchReply.getReturnCode();
 
-        if (((errorClass == 1) && (returnCode == 100))
-            || ((errorClass == 2) && (returnCode == 701)))
+      if (((errorClass == 1) && (returnCode == 100))
+          || ((errorClass == 2) && (returnCode == 701)))
+        endBlock = true;
+      else if((errorClass == 2) && (returnCode == 700)) //@pda perf2 - fetch/close
+      {
           endBlock = true;
-        else if((errorClass == 2) && (returnCode == 700)) //@pda perf2 - fetch/close
-        {
-            endBlock = true;
-            if(cursor_ != null)
-                cursor_.setState(true); //closed cursor already on system
-            
-        }
-        // As in AS400JDBCStatement, post a warning if the system gives us a warning,
-        // otherwise throw an exception
-        else if (errorClass != 0)
-        {                                                                                // @D1a
-           // JDError.throwSQLException (connection_, id_, errorClass, returnCode);      // @D1d
-           if (returnCode < 0)    {                                                      // @D1a
-              JDError.throwSQLException (this, connection_, id_, errorClass, returnCode);      // @D1a
-           } else  {                                                                     // @D1a
-              // Post the warning to the resultSet, not the connection @D9A
-             if (resultSet_ != null) { 
-               resultSet_.postWarning (connection_, id_, errorClass, returnCode); // @D1a
-             } else {
-               if (JDTrace.isTraceOn ())           {
-                 JDTrace.logInformation(connection_, "posting warning to connection");                
-               }
-               connection_.postWarning ( id_, errorClass, returnCode); // @D1a
+          if(cursor_ != null)
+              cursor_.setState(true); //closed cursor already on system
+          
+      }
+      // As in AS400JDBCStatement, post a warning if the system gives us a warning,
+      // otherwise throw an exception
+      else if (errorClass != 0)
+      {                                                                                // @D1a
+         // JDError.throwSQLException (connection_, id_, errorClass, returnCode);      // @D1d
+         if (returnCode < 0)    {                                                      // @D1a
+            JDError.throwSQLException (this, connection_, id_, errorClass, returnCode);      // @D1a
+         } else  {                                                                     // @D1a
+            // Post the warning to the resultSet, not the connection @D9A
+           if (resultSet_ != null) { 
+             resultSet_.postWarning (connection_, id_, errorClass, returnCode); // @D1a
+           } else {
+             if (JDTrace.isTraceOn ())           {
+               JDTrace.logInformation(connection_, "posting warning to connection");                
              }
-             
+             connection_.postWarning ( id_, errorClass, returnCode); // @D1a
            }
            
-        }                                                                                // @D1a
+         }
+         
+      }                                                                                // @D1a
 
-        // Extract data from the row.
-        serverData_ = fetchReply.getResultData ();
+      // Extract data from the row.
+      serverData_ = fetchReply.getResultData ();
 
-        if (serverData_ == null)
-        {
-          endBlock = true; //@rel4 last block was not returned if null????  //@rel9backtotrue and deal with it after called
-          cached_ = 0;
-        }
-        else
-        {
-          row_.setServerData (serverData_);
-          cached_ = serverData_.getRowCount ();
-        }
+      if (serverData_ == null)
+      {
+        endBlock = true; //@rel4 last block was not returned if null????  //@rel9backtotrue and deal with it after called
+        cached_ = 0;
+      }
+      else
+      {
+        row_.setServerData (serverData_);
+        cached_ = serverData_.getRowCount ();
 
-        if (emptyChecked_ == false) //empty_ is refering to empty resultset, not empty cache_
-        {
-          emptyChecked_ = true;
-          empty_        = (cached_ == 0);
-        }
+        // The rows now refer to the new block, so the buffer of the previous one can be reused.
+        DBReplyBufferPool.returnBuffer(serverDataBuffer_);
+        serverDataBuffer_ = fetchReply.takeReplyBuffer();
       }
-      finally
+
+      if (emptyChecked_ == false) //empty_ is refering to empty resultset, not empty cache_
       {
-        if (request != null) { request.returnToPool(); request =null; } 
-        // if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; } 
+        emptyChecked_ = true;
+        empty_        = (cached_ == 0);
       }
     }
     catch (DBDataStreamException e)
@@ -408,6 +513,98 @@ Fetches a block of data from the system.
 
 
 
+/**
+Requests the next block of data from the system without waiting
+for it.  The reply is collected by receiveFetchAhead().
+
+@exception  SQLException    If an error occurs.
+**/
+  private void sendFetchAhead ()
+  throws SQLException
+  {
+    // Only ahead of block fetches.  Single row fetches mean the cursor
+    // position is not known.
+    if (cursorPositionOfFirstRowInCache_ < 0 ||
+        (blockingFactor_ <= 1 && !variableFieldCompressionSupported_))
+      return;
+
+    DBSQLRequestDS request = null;
+    try
+    {
+      request = newFetchRequest(DBSQLRequestDS.FETCH_NEXT, 0);
+
+      if (JDTrace.isTraceOn ())
+        JDTrace.logInformation (connection_, "Fetching ahead a block of data from the system");
+
+      fetchAheadCorrelation_ = connection_.sendAndDeferReceive (request);
+    }
+    finally
+    {
+      if (request != null) { request.returnToPool(); request = null; }
+    }
+  }
+
+
+
+/**
+Collects the block requested by sendFetchAhead() and makes
+its rows the contents of the cache.
+
+@return                     true if the last block was fetched,
+                            false otherwise.
+
+@exception  SQLException    If an error occurs.
+**/
+  private boolean receiveFetchAhead ()
+  throws SQLException
+  {
+    int correlation = fetchAheadCorrelation_;
+    fetchAheadCorrelation_ = 0;
+
+    if (fetchReply != null) { fetchReply.returnToPool(); fetchReply = null; }
+    fetchReply = connection_.receiveDeferred (correlation);
+
+    return processFetchReply();
+  }
+
+
+
+/**
+Discards the block requested by sendFetchAhead() and turns fetch
+ahead off.  The system cursor has already moved past the discarded
+block, so it is moved back to the last row in the cache if the cursor
+is scrollable.  A cursor that is not scrollable cannot be moved back,
+so the position of the cache is then no longer known.
+
+@exception  SQLException    If an error occurs.
+**/
+  private void cancelFetchAhead ()
+  throws SQLException
+  {
+    fetchAhead_ = false;
+    int correlation = fetchAheadCorrelation_;
+    fetchAheadCorrelation_ = 0;
+
+    DBReplyRequestedDS reply = connection_.receiveDeferred (correlation);
+    if (reply != null) { reply.returnToPoolAndReleaseBuffer(); reply = null; }
+
+    if (JDTrace.isTraceOn ())
+      JDTrace.logInformation (connection_, "Fetch ahead cancelled");
+
+    // FETCH_DIRECT is rejected for a cursor that is not scrollable.
+    boolean scrollable = (cursor_ != null && cursor_.getCursorAttributeScrollable() == 1);
+    if (scrollable && cursorPositionOfFirstRowInCache_ > 0 && cached_ > 0)
+    {
+      fetch (DBSQLRequestDS.FETCH_DIRECT, cursorPositionOfFirstRowInCache_ + cached_ - 1);
+    }
+    else
+    {
+      cursorPositionOfFirstRowInCache_ = NOT_KNOWN;
+    }
+  }
+
+
+
 /**
 Sets the fetch size.
 
@@ -449,10 +646,23 @@ Sets the fetch size.
     // No-op.  It is assumed that the cursor will be closed
     // elsewhere.
     
+      // Collect a block that was fetched ahead, so that its reply is
+      // not held by the connection.
+      if (fetchAheadCorrelation_ != 0) {
+        int correlation = fetchAheadCorrelation_;
+        fetchAheadCorrelation_ = 0;
+        DBReplyRequestedDS reply = connection_.receiveDeferred (correlation);
+        if (reply != null) { reply.returnToPoolAndReleaseBuffer(); reply = null; }
+      }
+
       // Make sure reply is returned to pool 
       if (fetchReply != null) {
         fetchReply.returnToPool();  fetchReply = null; 
       }
+
+      // The rows are not used after the cache is closed.
+      DBReplyBufferPool.returnBuffer(serverDataBuffer_);
+      serverDataBuffer_ = null;
   }
 
 
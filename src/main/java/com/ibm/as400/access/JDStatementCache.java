@@ -0,0 +1,211 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: JDStatementCache.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+
+
+/**
+This class is a per-connection cache of prepared statements that the
+application has closed.  A statement is kept prepared on the system
+(its RPB, ORS and descriptor are not deleted), so that preparing the
+same SQL again does not need a prepare/describe flow.  The least
+recently used statement is closed for real when the cache is full.
+**/
+class JDStatementCache
+{
+  private final int maximumSize_;
+  private final LinkedHashMap<String, AS400JDBCPreparedStatementImpl> statements_;
+  private long hits_;
+  private long misses_;
+
+
+
+/**
+Constructs a JDStatementCache object.
+
+@param  maximumSize  The maximum number of statements to keep.
+**/
+  JDStatementCache(int maximumSize)
+  {
+    maximumSize_ = maximumSize;
+    statements_ = new LinkedHashMap<String, AS400JDBCPreparedStatementImpl>(16, 0.75f, true);
+  }
+
+
+
+/**
+Returns the key under which a statement is cached.
+**/
+  static String makeKey(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+  {
+    StringBuffer buffer = new StringBuffer(sql.length() + 16);
+    buffer.append(resultSetType).append(',');
+    buffer.append(resultSetConcurrency).append(',');
+    buffer.append(resultSetHoldability).append(',');
+    buffer.append(sql);
+    return buffer.toString();
+  }
+
+
+
+/**
+Removes and returns the cached statement for a key.
+
+@param  key  The key.
+@return The statement, or null if there is none.
+**/
+  synchronized AS400JDBCPreparedStatementImpl get(String key)
+  {
+    AS400JDBCPreparedStatementImpl statement = statements_.remove(key);
+    if (statement != null)
+      ++hits_;
+    else
+      ++misses_;
+    return statement;
+  }
+
+
+
+/**
+Adds a statement to the cache.  The statement is reset by calling
+AS400JDBCPreparedStatementImpl.resetForCache() before it is added.
+
+@param  key        The key.
+@param  statement  The statement.
+@return true if the statement was cached, false if it must be closed
+        by the caller.
+**/
+  boolean put(String key, AS400JDBCPreparedStatementImpl statement)
+  {
+    // Two open statements may have been prepared with the same SQL.
+    // Only one of them is kept.
+    synchronized (this)
+    {
+      if (statements_.containsKey(key))
+        return false;
+    }
+
+    // Reset outside of the lock, since this may flow to the system.
+    try
+    {
+      statement.resetForCache();
+    }
+    catch (SQLException e)
+    {
+      if (JDTrace.isTraceOn())
+        JDTrace.logException(this, "Statement could not be returned to the statement cache", e);
+      return false;
+    }
+
+    AS400JDBCPreparedStatementImpl evicted = null;
+    synchronized (this)
+    {
+      if (statements_.containsKey(key))
+      {
+        evicted = statement;
+      }
+      else
+      {
+        if (statements_.size() >= maximumSize_)
+        {
+          Iterator<AS400JDBCPreparedStatementImpl> it = statements_.values().iterator();
+          evicted = it.next();
+          it.remove();
+        }
+        statements_.put(key, statement);
+      }
+    }
+
+    if (evicted != null)
+      closeStatement(evicted);
+    return true;
+  }
+
+
+
+/**
+Removes all statements from the cache without closing them.
+
+@return The statements that were in the cache.
+**/
+  synchronized List<AS400JDBCPreparedStatementImpl> removeAll()
+  {
+    List<AS400JDBCPreparedStatementImpl> statements = new ArrayList<AS400JDBCPreparedStatementImpl>(statements_.values());
+    statements_.clear();
+    return statements;
+  }
+
+
+
+/**
+Closes all cached statements for real.
+**/
+  void clear()
+  {
+    List<AS400JDBCPreparedStatementImpl> statements = removeAll();
+    for (int i = 0; i < statements.size(); ++i)
+      closeStatement(statements.get(i));
+  }
+
+
+
+  private void closeStatement(AS400JDBCPreparedStatementImpl statement)
+  {
+    try
+    {
+      statement.closeUncached();
+    }
+    catch (SQLException e)
+    {
+      if (JDTrace.isTraceOn())
+        JDTrace.logException(this, "Closing cached statement failed", e);
+    }
+  }
+
+
+
+/**
+Returns the number of prepares that were satisfied from the cache.
+**/
+  synchronized long getHits()
+  {
+    return hits_;
+  }
+
+
+
+/**
+Returns the number of prepares that were not satisfied from the cache.
+**/
+  synchronized long getMisses()
+  {
+    return misses_;
+  }
+
+
+
+/**
+Returns the number of statements in the cache.
+**/
+  synchronized int size()
+  {
+    return statements_.size();
+  }
+}
@@ -181,9 +181,7 @@ Logs an information trace message.
       buffer.write(information);
       buffer.write(".");
 
-      e.printStackTrace(buffer);
-
-      log(sw.toString());
+      log(sw, e);
     }
   }
 
@@ -225,9 +223,7 @@ Logs an information trace message.
       buffer.write(information);
       buffer.write(".");
 
-      e.printStackTrace(buffer);
-
-      log(sw.toString());
+      log(sw, e);
     }                                                             
   }
 
@@ -369,6 +365,23 @@ Logs an open trace message.
   }
 
 
+  // Logs the message followed by the stack trace of the exception.
+  private static void log(StringWriter message, Exception e)
+  {
+    // When only the Toolbox trace is logging and it is asynchronous, let its
+    // writer thread format the stack trace.
+    if (Trace.isTraceAsyncOn() && DriverManager.getLogWriter() == null)
+    {
+      Trace.log(Trace.JDBC, message.toString(), e);
+      return;
+    }
+    PrintWriter buffer = new PrintWriter(message);
+    e.printStackTrace(buffer);
+    buffer.flush();
+    log(message.toString());
+  }
+
+
   // Logs the data to the DriverManager and/or Toolbox trace.
   private static void log(String data)
   {
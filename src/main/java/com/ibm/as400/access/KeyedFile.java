@@ -97,6 +97,9 @@ public class KeyedFile extends AS400File implements Serializable
   static public final int KEY_LE = 4;
 
   static protected final int[] TYPE_TABLE = {0x0B, 0x0D, 0x0C, 0x09, 0x0A};
+
+  // Records read by read(Object[][]), by key.  Null if the cache is not enabled.
+  private transient volatile DDMKeyedRecordCache keyedRecordCache_;
   
   /**
    *Constructs a KeyedFile object.
@@ -119,6 +122,40 @@ public class KeyedFile extends AS400File implements Serializable
     super(system, name);
   }
 
+  /**
+   *Enables or disables the keyed record cache used by read(Object[][]).
+   *The cache holds copies of the records most recently read by that method
+   *when the file is open for READ_ONLY, so that keys that are read often do not
+   *need to be read from the system each time.
+   *The cache is cleared when records are written, updated or deleted, or
+   *transactions are rolled back, through this object.
+   *Changes made to the file by other jobs or by other objects are not seen
+   *until the cached records expire.
+   *@param maximumSize The maximum number of records to cache.  If the cache is full,
+   *the least recently used record is removed.  If 0 is specified, the cache is disabled.
+   *@param timeToLive The number of milliseconds for which a cached record is used.
+   *It must be greater than zero if the cache is enabled.
+  **/
+  public void setKeyedRecordCache(int maximumSize, long timeToLive)
+  {
+    if (maximumSize < 0)
+    {
+      throw new ExtendedIllegalArgumentException("maximumSize", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+    if (maximumSize > 0 && timeToLive <= 0)
+    {
+      throw new ExtendedIllegalArgumentException("timeToLive", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+    keyedRecordCache_ = (maximumSize == 0) ? null : new DDMKeyedRecordCache(maximumSize, timeToLive);
+  }
+
+  // Clears the keyed record cache.
+  void recordsModified()
+  {
+    DDMKeyedRecordCache cache = keyedRecordCache_;
+    if (cache != null) cache.clear();
+  }
+
 //@RBA
   /**
    * Set to read records with Record Number in long type. 
@@ -694,6 +731,89 @@ public class KeyedFile extends AS400File implements Serializable
   }
 
 
+  /**
+   *Reads the first record with each of the specified keys.  The file must be open when
+   *invoking this method.  The requests for many keys are sent to the system together,
+   *instead of waiting for the reply to each read before sending the next one, so this
+   *is much faster than calling read(Object[]) for each key.<br>
+   *If the keyed record cache is enabled and the file is open for READ_ONLY, records are
+   *returned from the cache when possible, and the records read from the system are added
+   *to the cache.  See {@link #setKeyedRecordCache setKeyedRecordCache()}.<br>
+   *The position of the cursor after invoking this method is not defined.
+   *@param keys The keys with which to find the records.  Each key must meet the
+   *requirements of the <i>key</i> parameter of read(Object[]).
+   *@return The records read, in the order of <i>keys</i>.  If no record is found for
+   *a key, the corresponding element is null.
+   *@exception AS400Exception If the system returns an error message.
+   *@exception AS400SecurityException If a security or authority error occurs.
+   *@exception ConnectionDroppedException If the connection is dropped unexpectedly.
+   *@exception InterruptedException If this thread is interrupted.
+   *@exception IOException If an error occurs while communicating with the system.
+  **/
+  public Record[] read(Object[][] keys)
+    throws AS400Exception,
+           AS400SecurityException,
+           InterruptedException,
+           IOException
+  {
+    if (keys == null)
+    {
+      throw new NullPointerException("keys");
+    }
+    checkOpen();
+    for (int i = 0; i < keys.length; ++i)
+    {
+      checkParameter(keys[i]);
+    }
+
+    Record[] records = new Record[keys.length];
+    DDMKeyedRecordCache cache = keyedRecordCache_;
+    if (cache != null && !isReadOnly())
+    {
+      cache = null;
+    }
+
+    // Find the keys that are not cached.
+    int[] indexes = new int[keys.length];
+    int count = 0;
+    for (int i = 0; i < keys.length; ++i)
+    {
+      if (cache != null)
+      {
+        records[i] = cache.get(keys[i]);
+      }
+      if (records[i] == null)
+      {
+        indexes[count++] = i;
+      }
+    }
+
+    if (count > 0)
+    {
+      Object[][] readKeys = new Object[count][];
+      for (int i = 0; i < count; ++i)
+      {
+        readKeys[i] = keys[indexes[i]];
+      }
+      Record[] read = impl_.doItRecordArray(longRecordNumber ? "readKeysLong" : "readKeys", new Class[] { Object[][].class, Integer.TYPE }, new Object[] { readKeys, Integer.valueOf(TYPE_TABLE[KEY_EQ]) });
+      for (int i = 0; i < count; ++i)
+      {
+        records[indexes[i]] = read[i];
+        if (cache != null && read[i] != null)
+        {
+          cache.put(readKeys[i], read[i]);
+        }
+      }
+    }
+
+    for (int i = 0; i < records.length; ++i)
+    {
+      fillInRecord(records[i]);
+    }
+    return records;
+  }
+
+
   /**
    *Reads the first record after the record with the specified key.  The file must
    *be open when invoking this method.
@@ -34,6 +34,8 @@ class NPConversation extends Object
     private AS400ImplRemote     system_           = null;
     private AS400Server server_;
     private NPCPAttribute serverAttributes_;
+    private int users_;        // Number of callers using this conversation, guarded by the NPSystem.
+    private long lastUsed_ = System.currentTimeMillis();
 
 
    /**
@@ -65,6 +67,31 @@ class NPConversation extends Object
     }
 
 
+    // Called by NPSystem when a caller starts using this conversation.
+    void addUser()
+    {
+        ++users_;
+        lastUsed_ = System.currentTimeMillis();
+    }
+
+    // Called by NPSystem when a caller returns this conversation.
+    void removeUser()
+    {
+        --users_;
+        lastUsed_ = System.currentTimeMillis();
+    }
+
+    int getUsers()
+    {
+        return users_;
+    }
+
+    long getLastUsed()
+    {
+        return lastUsed_;
+    }
+
+
     /**
      * get a server attribute
      *@parameter attributeID which attribute to retrieve.  Maybe
@@ -110,15 +137,18 @@ class NPConversation extends Object
         reply.setConverter(converter_);
         reply.setCorrelation(correlation);
         DataStream ds;  //@FBA
-        //to fix multi-threads bug; server_ clear reply and add reply should be atomic.
-        //If no this, sometimes server_.receive will get other type reply stream.
-        synchronized (server_) { //@FBA, 
-            server_.clearInstanceReplyStreams();
-            server_.addInstanceReplyStream(reply);
+        // The reply is registered under its correlation ID, so requests from many threads can be
+        // in flight on this conversation at the same time; each thread receives only its own reply.
+        server_.addInstanceReplyStream(correlation, reply);
+        try {
             server_.send(request, correlation);
-            Trace.log(Trace.DIAGNOSTIC, "makeRequest: send request with correlation" + correlation);
+            if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "makeRequest: send request with correlation" + correlation);
             ds = server_.receive(correlation);  //@D5A
-        } //@FBA
+        }
+        finally {
+            // Normally the registration was used by the reply; remove it in case the request failed.
+            server_.removeInstanceReplyStream(correlation);
+        }
         //@D5A begin
         //Unknown data stream
         if (ds != null) {
@@ -15,7 +15,6 @@ package com.ibm.as400.access;
 
 import java.util.Hashtable;
 import java.util.Vector;
-import java.util.Enumeration;
 import java.io.IOException;
 
 /**
@@ -33,11 +32,12 @@ class NPSystem extends Object implements Runnable
 
     // static data members
     private static final int CONVERSATION_TIMEOUT = 300000;         // 5 minutes in milleseconds
+    private static final int MAX_USERS_PER_CONVERSATION = 8;          // callers sharing one conversation before another is started
     private static Hashtable NPSystemTable_ = new Hashtable();
 
     // private members
     private AS400ImplRemote as400System_;
-    private Vector availConversations_, inuseConversations_, deadConversations_;
+    private Vector conversations_ = new Vector();
     private Thread cleanupThread_;
 
     // The cleanup thread is only started if the AS400 object containing
@@ -50,9 +50,6 @@ class NPSystem extends Object implements Runnable
     private NPSystem(AS400ImplRemote aSystem)
     {
         as400System_ = aSystem; 
-        availConversations_ = new Vector();
-        inuseConversations_ = new Vector();
-        deadConversations_  = new Vector();
     }
 
     // protected members & methods
@@ -93,6 +90,10 @@ class NPSystem extends Object implements Runnable
      * are done with it by using returnConversation().  If you just want to make a
      * simple request (1 datastream up and 1 for the reply) then use the makeRequest()
      * method instead.
+     * A conversation can be used by several callers at the same time; their requests
+     * are matched to their replies by correlation ID.  The conversation with the fewest
+     * users is returned, and a new one is started only when every conversation has
+     * MAX_USERS_PER_CONVERSATION users.
      *
      * @exception AS400Exception If the server returns an error message.
      * @exception AS400SecurityException If security violation occurs during connection.
@@ -107,118 +108,103 @@ class NPSystem extends Object implements Runnable
                IOException,
                InterruptedException
 
-    // note - this method needs to be syncrhonized to protect
-    // the 3 vectors of conversations.
+    // note - this method needs to be synchronized to protect
+    // the vector of conversations and the user counts.
 
     {
         NPConversation conversation = null;
         // The loop is here to check if the conversation is connected,
-        // if not we go back and get another one from our available or
-        // dead list.
+        // if not we drop it and look again.
         do
-	{
-            if( availConversations_.isEmpty() )
+        {
+            conversation = null;
+            for (int i = conversations_.size() - 1; i >= 0; --i)
+            {
+                NPConversation c = (NPConversation)conversations_.elementAt(i);
+                if (!c.getServer().isConnected())
+                {
+                    Trace.log(Trace.DIAGNOSTIC, "Conversation was not connected.");
+                    conversations_.removeElementAt(i);
+                    as400System_.disconnectServer(c.getServer());
+                }
+                else if (conversation == null || c.getUsers() < conversation.getUsers())
+                {
+                    conversation = c;
+                }
+            }
+
+            if (conversation == null || conversation.getUsers() >= MAX_USERS_PER_CONVERSATION)
             {
-                // there are no available conversations - see if there
-                // are any in the dead list that can be resurrected.
-                if( !deadConversations_.isEmpty() )
+                AS400Server server;
+                //--------------------------------------------------------
+                // no conversation can take another user, create a new one
+                // If this is the first conversation we are getting we'll
+                // use the connect() method, if we are getting additional
+                // conversations on the same AS400 object we use the
+                // getNewConnection() method
+                //--------------------------------------------------------
+                if (conversations_.isEmpty())
                 {
-                    conversation = (NPConversation)deadConversations_.firstElement();
-                    deadConversations_.removeElement(conversation);
+                    server = as400System_.getConnection(AS400.PRINT,  false /*forceNewConnection*/, false /*skip signon server */);
                 } else {
-                    // none in the dead list either -create a new one
-                    AS400Server server;
-                    //--------------------------------------------------------
-                    // no available conversations, create a new one
-                    // If this is the first conversation we are getting we'll
-                    // use the connect() method, if we are getting additional
-                    // conversations on the same AS400 object we use the
-                    // getNewConnection() method
-                    //--------------------------------------------------------
-                    if (inuseConversations_.isEmpty())
+                    server = as400System_.getConnection(AS400.PRINT, true, false /*skip signong server */ ) ;
+
+                    // Only start the cleanup thread if more than
+                    // one conversation has been started, -AND-
+                    // the system object is configured to start
+                    // threads.
+
+                    if( as400System_.isThreadUsed() )
                     {
-                        server = as400System_.getConnection(AS400.PRINT,  false /*forceNewConnection*/, false /*skip signon server */);
-                       // server = as400System_.connect("as-netprt");
-                    } else {
-                        server = as400System_.getConnection(AS400.PRINT, true, false /*skip signong server */ ) ;
-                       // server = as400System_.getNewConnection("as-netprt");
-
-                        // Only start the cleanup thread if more than       
-                        // one conversation has been started, -AND-          
-                        // the system object is configured to start            
-                        // threads.                                         
-
-                        if( as400System_.isThreadUsed() )
-                        {
-                            startCleanupThread();
-                        }
+                        startCleanupThread();
                     }
-
-                    conversation = new NPConversation(as400System_, server);
                 }
-            } else {
-                conversation = (NPConversation)availConversations_.firstElement();
-                availConversations_.removeElement(conversation);
-            }
 
-            if( !(conversation.getServer().isConnected()) )
-            {
-                 Trace.log(Trace.DIAGNOSTIC, "Conversation was not connected.");
-                 as400System_.disconnectServer(conversation.getServer());
+                conversation = new NPConversation(as400System_, server);
+                conversations_.addElement(conversation);
             }
-
         }
         while( !(conversation.getServer().isConnected()) );
 
-        // add this conversation to the inuse vector.
-        inuseConversations_.addElement(conversation);
+        conversation.addUser();
 
         return conversation;
     }
 
 
    /**
-     * method to return a NPConversation to the available list
+     * method to return a NPConversation when the caller is done with it
      **/
    synchronized void returnConversation(NPConversation conversation)
    {
-      // remove conversation from inuse vector.
+      // If the conversation is still connected, and the AS400 object
+      // allows starting threads, the conversation is kept.  Method
+      // cleanUpDeadConversations() will determine how long idle
+      // conversations are cached.
 
-      // If the conversation is still connected, and the AS400 object       
-      // allows starting threads, add the conversation to the inuse
-      // vector. Method cleanUpDeadConversations() will determine how 
-      // long conversations are cached.
+      // If the conversation is still connected, but the AS400 object
+      // does not allow starting threads, keep at least one conversation.
 
-      // If the conversation is still connected, but the AS400 object       
-      // does not allow starting threads, keep at least one conversation    
-      // in the inuse or available vector.                                  
-
-      int index = inuseConversations_.indexOf(conversation);
+      int index = conversations_.indexOf(conversation);
       if (index != -1)
       {
-         // remove conversation from inuse vector.
-         inuseConversations_.removeElementAt(index);
+         conversation.removeUser();
 
-         // if still connected
-         if( conversation.getServer().isConnected() )
+         if( !conversation.getServer().isConnected() )
          {
-            // does AS400 object allow starting threads?                    
-            if( as400System_.isThreadUsed() )                            
+            if (conversation.getUsers() == 0)
             {
-               // clean up thread is running,
-               // add conversation to available.
-               availConversations_.addElement(conversation);
-            } else {                                                     
-               // clean up thread can not be run,                           
-               // just keep one conversation available.                     
-               if( availConversations_.size() < 1 )                      
-               {                                                         
-                  availConversations_.addElement(conversation);          
-               } else {                                                  
-                  as400System_.disconnectServer(conversation.getServer());
-               }
+               conversations_.removeElementAt(index);
+               as400System_.disconnectServer(conversation.getServer());
             }
          }
+         else if( !as400System_.isThreadUsed() && conversation.getUsers() == 0 && conversations_.size() > 1 )
+         {
+            // clean up thread can not be run,
+            // just keep one conversation.
+            conversations_.removeElementAt(index);
+            as400System_.disconnectServer(conversation.getServer());
+         }
       }
    }
 
@@ -257,48 +243,33 @@ class NPSystem extends Object implements Runnable
     }
 
 
-    // A2A New version of cleanUpDeadConversations (old version appears after)
     /**
       * private method called by background thread to remove any
-      * conversations that we haven't used for while (since the
-      * last time this function was called).
-      * at least one existing conversation (dead, available, or in use) is left
-      * @return true if there is more than 1 active conversations alive;
-      *          false otherwise
+      * conversations that nobody has used for CONVERSATION_TIMEOUT.
+      * at least one existing conversation is left
+      * @return true if there is more than 1 conversation alive;
+      *          false otherwise, in which case the background thread ends
       **/
     private synchronized boolean cleanUpDeadConversations()
     {
-        // temporarily leave a dead conversation around (if one exists)...
-        int numberOfConversationsToDestroy = deadConversations_.size() - 1;
-
-        // determine the number of active conversations
-        int activeConversations = inuseConversations_.size() + availConversations_.size();
-
-        if (activeConversations > 0) {
-            // At least one conversation exists, so destroy ALL dead conversations
-            numberOfConversationsToDestroy++;
-        }
-
-        // Cycle through the deadConversation_ vector, eliminating conversations
-        Enumeration e = deadConversations_.elements();
-        for (int i = 0; i < (numberOfConversationsToDestroy); i++) {
-             NPConversation conv = (NPConversation)e.nextElement();
-             if (conv != null) {
+        long now = System.currentTimeMillis();
+        for (int i = conversations_.size() - 1; i >= 0 && conversations_.size() > 1; --i)
+        {
+            NPConversation conv = (NPConversation)conversations_.elementAt(i);
+            if (conv.getUsers() == 0 && now - conv.getLastUsed() >= CONVERSATION_TIMEOUT)
+            {
+                conversations_.removeElementAt(i);
                 as400System_.disconnectServer(conv.getServer());
-             }
+            }
         }
 
-        if (e.hasMoreElements()) { // we left one dead conversation around
-            availConversations_.addElement((NPConversation)e.nextElement());
+        boolean fMoreConversations = conversations_.size() > 1;
+        if (!fMoreConversations)
+        {
+            // Let the next conversation started restart the thread.
+            cleanupThread_ = null;
         }
-
-        // all available conversations become dead
-        deadConversations_ = availConversations_;
-
-        // start a new vector for available conversations
-        availConversations_ = new Vector();
-
-        return (boolean) (activeConversations > 1);
+        return fMoreConversations;
     }
 
 
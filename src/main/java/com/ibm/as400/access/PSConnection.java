@@ -20,6 +20,10 @@ import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.net.Socket;
 import java.net.SocketException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 
 
@@ -30,6 +34,20 @@ to a client of the proxy server.
 class PSConnection
 extends StoppableThread
 {
+    // The threads that process asynchronous requests.  Virtual threads
+    // are used when they are available.  An asynchronous request can block
+    // until a later request is processed, so requests are never queued:
+    // an idle thread is reused if there is one, otherwise a new thread is
+    // started.  Idle threads end after 60 seconds.
+    private static final ThreadPoolExecutor     requestExecutor_        = new ThreadPoolExecutor (0, Integer.MAX_VALUE,
+                                                                                                  60, TimeUnit.SECONDS,
+                                                                                                  new SynchronousQueue<Runnable> (),
+                                                                                                  new ThreadFactory () {
+        public Thread newThread (Runnable r) {
+            return AS400ThreadedServer.newThread (r, "PSConnection-request", true);
+        }
+    });
+
     // Private data.
     private boolean                             closed_                 = false;
     private long                                connectionId_;
@@ -190,7 +208,14 @@ Processes a request and sends the reply, if any.
 **/
     private void processReq (PxReqSV request)
     {     
-        PxRepSV reply = request.process ();
+        long startTime = load_.requestStarted ();
+        PxRepSV reply;
+        try {
+            reply = request.process ();
+        }
+        finally {
+            load_.requestCompleted (startTime);
+        }
         if (reply != null) {
             reply.setCorrelationId(request.getCorrelationId());
             send (reply);
@@ -221,12 +246,12 @@ Processes requests until the connection is closed.
 
                 // If the request is asychronous, then process it in another thread.
                 // Otherwise, run in in this thread.  Synchronous requests save the
-                // overhead of creating a thread, but asynchronous requests are needed
-                // in some cases to preserve semantics.  This will be most common
-                // for potentially long-running method calls.
+                // overhead of handing off to another thread, but asynchronous requests
+                // are needed in some cases to preserve semantics.  This will be most
+                // common for potentially long-running method calls.
                 if (request.isAsynchronous ()) {
                     final PxReqSV request2 = request;
-                    (new Thread () { public void run () { processReq (request2); }}).start ();
+                    requestExecutor_.execute (new Runnable () { public void run () { processReq (request2); }});
                 }
                 else {
                     processReq (request);
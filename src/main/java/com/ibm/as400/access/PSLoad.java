@@ -32,6 +32,13 @@ class PSLoad
     private int                     effectiveBalanceThreshold_  = -1;
     private int                     effectiveMaxConnections_    = -1;
     private int                     maxConnections_             = -1;
+
+    // Request counters.  These are updated by the threads that
+    // process requests, so they are only accessed while synchronized.
+    private int                     activeRequests_             = 0;
+    private long                    requestCount_               = 0;
+    private long                    requestTime_                = 0;    // Nanoseconds.
+    private long                    peerRequestTime_            = -1;   // Microseconds, for the load of a peer.
   
 
 
@@ -71,6 +78,28 @@ Constructs a PSLoad object.
          
 
     
+/**
+Constructs a PSLoad object.
+
+@param activeConnections    The number of active connections.
+@param balanceThreshold     The balance threshold.
+@param maxConnections       The maximum number of connections.
+@param activeRequests       The number of requests being processed.
+@param averageRequestTime   The average time to process a request, in microseconds.
+**/
+    PSLoad (int activeConnections,
+            int balanceThreshold,
+            int maxConnections,
+            int activeRequests,
+            long averageRequestTime)
+    {
+        this (activeConnections, balanceThreshold, maxConnections);
+        activeRequests_     = activeRequests;
+        peerRequestTime_    = averageRequestTime;
+    }
+
+
+
 /**
 Marks all connections as closed.
 **/
@@ -115,6 +144,33 @@ Marks a connection as opened.
 
 
 
+/**
+Returns the number of requests being processed.
+
+@return The number of requests being processed.
+**/
+    public synchronized int getActiveRequests ()
+    {
+        return activeRequests_;
+    }
+
+
+
+/**
+Returns the average time to process a request.
+
+@return The average time to process a request, in microseconds,
+        or 0 if no requests have been processed.
+**/
+    public synchronized long getAverageRequestTime ()
+    {
+        if (peerRequestTime_ >= 0)
+            return peerRequestTime_;
+        return (requestCount_ == 0) ? 0 : requestTime_ / requestCount_ / 1000;
+    }
+
+
+
 /**
 Returns the number of active connections.
 
@@ -203,6 +259,63 @@ active at any particular time.
 
 
 
+/**
+Returns the number of requests that have been processed.
+This is 0 for the load of a peer.
+
+@return The number of requests that have been processed.
+**/
+    public synchronized long getRequestCount ()
+    {
+        return requestCount_;
+    }
+
+
+
+/**
+Returns an estimate of the work in progress, which is the
+number of requests being processed multiplied by the average
+time to process a request.
+
+@return The estimate of the work in progress, in microseconds.
+**/
+    public synchronized long getRequestLoad ()
+    {
+        return activeRequests_ * Math.max (1, getAverageRequestTime ());
+    }
+
+
+
+/**
+Marks a request as completed.
+
+@param startTime    The value of System.nanoTime() when the
+                    request was started.
+**/
+    public synchronized void requestCompleted (long startTime)
+    {
+        if (activeRequests_ > 0)
+            --activeRequests_;
+        ++requestCount_;
+        requestTime_ += System.nanoTime () - startTime;
+    }
+
+
+
+/**
+Marks a request as started.
+
+@return The value of System.nanoTime() when the request
+        was started.
+**/
+    public synchronized long requestStarted ()
+    {
+        ++activeRequests_;
+        return System.nanoTime ();
+    }
+
+
+
 /**
 Sets the balance threshold.  This is the number of connections 
 that must be active before the peer server starts load balancing 
@@ -108,6 +108,7 @@ peer how busy it is.
     private String getLeastBusyPeer (boolean includeThis)
     {
         double smallestBusyFactor   = Double.MAX_VALUE;
+        long smallestRequestLoad    = Long.MAX_VALUE;
         String leastBusyPeer        = "";
         
         // Ask each peer about its current load.
@@ -131,17 +132,23 @@ peer how busy it is.
                 continue;
             }
 
-            // Determine if it is less busy than the previous. 
+            // Determine if it is less busy than the previous.  If the
+            // connections are equally busy, compare the work in progress.
             double busyFactor = load.getBusyFactor ();
-            if (busyFactor < smallestBusyFactor) {
+            long requestLoad = load.getRequestLoad ();
+            if ((busyFactor < smallestBusyFactor)
+                || ((busyFactor == smallestBusyFactor) && (requestLoad < smallestRequestLoad))) {
                 smallestBusyFactor = busyFactor;
+                smallestRequestLoad = requestLoad;
                 leastBusyPeer = peer;                                               // @A1A
             }
         }
         
         // Check this one if appropriate.
         if (includeThis) {
-            if (load_.getBusyFactor () < smallestBusyFactor)
+            double busyFactor = load_.getBusyFactor ();
+            if ((busyFactor < smallestBusyFactor)
+                || ((busyFactor == smallestBusyFactor) && (load_.getRequestLoad () < smallestRequestLoad)))
                 leastBusyPeer = null;
         }
 
@@ -23,6 +23,7 @@ import java.net.NoRouteToHostException;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
+import java.nio.channels.SocketChannel;
 import java.util.Hashtable;
 
 import com.ibm.as400.socket.Sock5Socket;
@@ -218,7 +219,11 @@ class PortMapper
 
         }
         if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Opening socket for service "+service+" to system..."+systemName+" port:"+srvPort);
-        Socket socket = getSocketConnection(systemName, srvPort, socketProperties);  //@timeout2
+        // A socket channel is only used for connections that are not secure and don't go through a SOCKS5 server.
+        boolean useChannel = socketProperties.socketChannel_ && !socketProperties.sock5ServerSet_
+            && (useSSL == null || useSSL.proxyEncryptionMode_ == SecureAS400.CLIENT_TO_PROXY_SERVER);
+        Socket socket = useChannel ? getSocketChannelConnection(systemName, srvPort, socketProperties) :
+            getSocketConnection(systemName, srvPort, socketProperties);  //@timeout2
         
 
         // We use the port returned in the previous reply to establish a new socket connection to the requested service...
@@ -231,6 +236,12 @@ class PortMapper
                 sc.setProperties(socket, null, systemName, srvPort, useSSL);
             }
         }
+        else if (useChannel)
+        {
+            if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Starting a socket channel to " + serviceName);
+            sc = (SocketContainer)AS400.loadImpl("com.ibm.as400.access.SocketContainerNIO");
+            sc.setProperties(socket, null, null, 0, null);
+        }
         else
         {
             if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Starting an inet socket to " + serviceName);
@@ -240,6 +251,29 @@ class PortMapper
         return sc;
     }
 
+    // Helper method to get a connection for a socket created by a SocketChannel.
+    static Socket getSocketChannelConnection(String systemName, int port, SocketProperties socketProperties) throws IOException
+    {
+        int loginTimeout = socketProperties.isLoginTimeoutSet() ? socketProperties.getLoginTimeout() : 0;
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Connect to socket channel: system '"+systemName+"', port " +port+ ", login timeout " + loginTimeout + " ms.");
+
+        InetSocketAddress hostAddr = systemName != null ? new InetSocketAddress(systemName, port) :
+          new InetSocketAddress(InetAddress.getByName(null), port);
+        SocketChannel channel = SocketChannel.open();
+        Socket socket = channel.socket();
+        try
+        {
+            socket.connect(hostAddr, loginTimeout);
+            PortMapper.setSocketProperties(socket, socketProperties);
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+        return socket;
+    }
+
     /*  Helper method to get connection using the timeout available in jmv 1.4+ 
      *  If running in JVM 1.3 then it defaults to the old connection without a timeout
      */
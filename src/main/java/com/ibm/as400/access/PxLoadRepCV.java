@@ -53,8 +53,14 @@ Processes the reply.
         int maxConnections      = ((PxIntParm) getParm (2)).getIntValue ();
 
         // Return a load object representing the information returned
-        // in the reply.
-        return new PSLoad (activeConnections, balanceThreshold, maxConnections);
+        // in the reply.  Older proxy servers do not return the request
+        // counters.
+        if (getParmCount () < 5)
+            return new PSLoad (activeConnections, balanceThreshold, maxConnections);
+
+        int activeRequests      = ((PxIntParm) getParm (3)).getIntValue ();
+        int averageRequestTime  = ((PxIntParm) getParm (4)).getIntValue ();
+        return new PSLoad (activeConnections, balanceThreshold, maxConnections, activeRequests, averageRequestTime);
     }
       
 
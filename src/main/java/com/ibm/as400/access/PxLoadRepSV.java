@@ -38,6 +38,10 @@ Constructs a PxLoadRepSV object.
         addParm (new PxIntParm (load.getActiveConnections ()));
         addParm (new PxIntParm (load.getBalanceThreshold ()));
         addParm (new PxIntParm (load.getMaxConnections ()));
+        // Only int parameters are sent, since older peers only register
+        // PxIntParm for load replies.
+        addParm (new PxIntParm (load.getActiveRequests ()));
+        addParm (new PxIntParm ((int) Math.min (load.getAverageRequestTime (), Integer.MAX_VALUE)));
     }
 
 
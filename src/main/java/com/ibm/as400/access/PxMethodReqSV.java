@@ -13,8 +13,14 @@
 
 package com.ibm.as400.access;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 
@@ -45,6 +51,31 @@ extends PxReqSV
 
 
 
+    // The method handles that have been resolved for each class, keyed by
+    // method name and argument classes.  Each handle takes the object and
+    // an array of arguments, and returns the (boxed) return value.
+    private static final ClassValue<ConcurrentHashMap<MethodKey, MethodHandle>> handles_ = new ClassValue<ConcurrentHashMap<MethodKey, MethodHandle>>() {
+        protected ConcurrentHashMap<MethodKey, MethodHandle> computeValue(Class<?> clazz) {
+            return new ConcurrentHashMap<MethodKey, MethodHandle>();
+        }
+    };
+
+
+
+    // Wraps an exception thrown by an invoked method in an InvocationTargetException.
+    private static final MethodHandle wrapTargetException_;
+    static {
+        try {
+            wrapTargetException_ = MethodHandles.lookup().findStatic(PxMethodReqSV.class, "wrapTargetException",
+                                                                     MethodType.methodType(Object.class, Throwable.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+
+
     static Object invoke(Object object, 
                          String methodName, 
                          Class[] argumentClasses,
@@ -54,11 +85,6 @@ extends PxReqSV
                InvocationTargetException, 
                NoSuchMethodException
     {      
-        // Resolve the Method object.  First, try Class.getMethod() which 
-        // only looks for public methods.  If that does not work, try 
-        // Class.getDeclaredMethod(), which only looks for declared 
-        // methods (not inherited methods).  Do this up the superclass tree.
-      
         if (Trace.isTraceProxyOn()) {
            Trace.log (Trace.INFORMATION, "PxMethodReqSV calling object="+object);
            Trace.log (Trace.INFORMATION, "                      objectClass="+object.getClass().toString());
@@ -68,8 +94,66 @@ extends PxReqSV
              
            }
         }
+
+        ConcurrentHashMap<MethodKey, MethodHandle> handles = handles_.get(object.getClass());
+        MethodKey key = new MethodKey(methodName, argumentClasses);
+        MethodHandle handle = handles.get(key);
+        if (handle == null) {
+            try {
+                handle = resolve(object.getClass(), methodName, argumentClasses);
+            } catch (IllegalAccessException ex) {
+              if (Trace.isTraceInformationOn()) {
+                for (int i = 0; i < arguments.length; i++) {
+                  String argString = ""+arguments[i];
+                  Trace.log (Trace.INFORMATION, "                      arguments["+i+"]="+ argString);
+                }
+              }
+              throw ex;
+            }
+            handles.put(key, handle);
+        }
+
+        // Call the method.  Exceptions thrown by the method are already
+        // wrapped in an InvocationTargetException by the handle.  Any other
+        // exception means that the arguments could not be passed to the
+        // method, which Method.invoke() reports as an IllegalArgumentException.
+        try { 
+            return handle.invokeExact(object, arguments);
+        } catch (InvocationTargetException ex) { 
+            throw ex;
+        } catch (RuntimeException ex) {
+            IllegalArgumentException e = new IllegalArgumentException(ex.toString());
+            e.initCause(ex);
+            throw e;
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+
+
+    // Wraps an exception thrown by an invoked method.
+    private static Object wrapTargetException(Throwable t)
+        throws InvocationTargetException
+    {
+        throw new InvocationTargetException(t);
+    }
+
+
+
+/**
+Resolves the method handle for a method.  First, try Class.getMethod() which 
+only looks for public methods.  If that does not work, try 
+Class.getDeclaredMethod(), which only looks for declared 
+methods (not inherited methods).  Do this up the superclass tree.
+**/
+    private static MethodHandle resolve(Class clazz, String methodName, Class[] argumentClasses)
+        throws IllegalAccessException,
+               NoSuchMethodException
+    {
         Method method = null;
-        Class clazz = object.getClass();
         NoSuchMethodException e = null;
         while ((clazz != null) && (method == null)) {
             try {
@@ -88,26 +172,22 @@ extends PxReqSV
         if (method == null)
             throw e;
 
-        // Call the method.
-        Object o = null; 
-        try { 
-            o = method.invoke (object, arguments);
-        } catch (IllegalAccessException ex) {
-          if (Trace.isTraceInformationOn()) {
-            for (int i = 0; i < arguments.length; i++) {
-              String argString = ""+arguments[i];
-              Trace.log (Trace.INFORMATION, "                      arguments["+i+"]="+ argString);
-            }
-          }
-          throw ex; 
-        } catch (InvocationTargetException ex) { 
-          throw ex; 
-        }
-        
-        return o; 
+        // Wrap only what the method itself throws, then adapt the handle to
+        // (Object, Object[])Object, so that it can be called the same way for
+        // every method.  Failures to convert the arguments happen outside of
+        // the wrapping.
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (Modifier.isStatic(method.getModifiers()))
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        MethodHandle wrapper = wrapTargetException_.asType(MethodType.methodType(handle.type().returnType(), Throwable.class));
+        wrapper = MethodHandles.dropArguments(wrapper, 1, handle.type().parameterList());
+        handle = MethodHandles.catchException(handle, Throwable.class, wrapper);
+        handle = handle.asType(handle.type().generic());
+        return handle.asSpreader(Object[].class, argumentClasses.length);
     }
 
 
+
     public PxRepSV process()
     {      
         try {        
@@ -167,5 +247,34 @@ extends PxReqSV
 
 
 
+    // The key for a resolved method handle.
+    private static final class MethodKey
+    {
+        private final String    methodName_;
+        private final Class[]   argumentClasses_;
+        private final int       hashCode_;
+
+        MethodKey(String methodName, Class[] argumentClasses)
+        {
+            methodName_         = methodName;
+            argumentClasses_    = argumentClasses;
+            hashCode_           = methodName.hashCode() * 31 + Arrays.hashCode(argumentClasses);
+        }
+
+        public boolean equals(Object other)
+        {
+            if (! (other instanceof MethodKey))
+                return false;
+            MethodKey key = (MethodKey) other;
+            return methodName_.equals(key.methodName_) && Arrays.equals(argumentClasses_, key.argumentClasses_);
+        }
+
+        public int hashCode()
+        {
+            return hashCode_;
+        }
+    }
+
+
 
 }
@@ -0,0 +1,521 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: RecordView.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ *The RecordView class reads the fields of records in IBM i format without
+ *converting the records to Java objects.
+ *A view is created from a RecordFormat or an AS400Structure.  The offset and data
+ *type of each field are worked out once, when the view is created.  The view is then
+ *positioned on each record in turn with one of the <i>wrap()</i> methods, and the
+ *fields that are needed are read straight from the record as primitive values.
+ *Unlike {@link Record#getField(int) Record.getField()} and
+ *{@link AS400Structure#toObject(byte[], int) AS400Structure.toObject()}, reading a
+ *field does not create an object, with the exception of the {@link #getString(int) getString(int)}
+ *method and of text in CCSIDs that are not single-byte.
+ *<p>
+ *Fields are identified by their index in the record format, or by the index of the
+ *member in the structure.  The following field types can be read:
+ *<ul>
+ *<li>Binary and unsigned binary fields, with getInt(), getLong(), getDecimalUnscaled() and getDouble().
+ *An unsigned 8-byte binary field cannot be read as a primitive.
+ *<li>Packed and zoned decimal fields, with getDecimalUnscaled() and getScale(), and also
+ *with getInt(), getLong() (which truncate the decimal part) and getDouble().
+ *<li>Floating point fields, with getDouble().
+ *<li>Text fields, including variable-length fields, with getString().
+ *</ul>
+ *The position of any field in the wrapped data is returned by getOffset(), so that other
+ *fields can be converted with their data type.
+ *<p>
+ *A RecordView object is not thread-safe.  Use {@link #duplicate duplicate()} to get a view
+ *for another thread; the views share the field layout.
+ *<p>
+ *The following example totals a packed decimal field of the records in a buffer:
+ *<pre>
+ *  RecordView view = new RecordView(recordFormat);
+ *  int recordLength = view.getRecordLength();
+ *  long total = 0;
+ *  for (int offset = 0; offset + recordLength <= data.length; offset += recordLength)
+ *  {
+ *    view.wrap(data, offset);
+ *    total += view.getDecimalUnscaled(3);
+ *  }
+ *  BigDecimal result = BigDecimal.valueOf(total, view.getScale(3));
+ *</pre>
+ *Records with fields whose offset or length depends on another field cannot be viewed.
+**/
+public class RecordView
+{
+  // The kind of each field, from which the conversion is chosen.
+  private static final int OTHER = 0;
+  private static final int BIN1 = 1;
+  private static final int UBIN1 = 2;
+  private static final int BIN2 = 3;
+  private static final int UBIN2 = 4;
+  private static final int BIN4 = 5;
+  private static final int UBIN4 = 6;
+  private static final int BIN8 = 7;
+  private static final int FLOAT4 = 8;
+  private static final int FLOAT8 = 9;
+  private static final int PACKED = 10;
+  private static final int ZONED = 11;
+  private static final int TEXT = 12;
+
+  // The layout, shared by duplicates.
+  private final int[] offsets_;        // Offset of each field in the record.  For a variable-length field, the offset of its length.
+  private final int[] kinds_;
+  private final int[] lengths_;        // Length of the data of each field, without the length of a variable-length field.
+  private final int[] lengthFactors_;  // For a variable-length field, the number of bytes for each unit of its length; otherwise 0.
+  private final AS400DataType[] types_;
+  private final ConvTableSingleMap[] tables_;  // For a text field in a single-byte CCSID, the table that converts it.
+  private final int recordLength_;
+
+  // The record viewed.
+  private byte[] data_;
+  private int offset_;
+  private byte[] copy_;  // Holds the record when it is in a buffer without an accessible array.
+
+  /**
+   *Constructs a RecordView object for records described by a record format.
+   *@param recordFormat The record format.  It must have at least one field, and no fields whose
+   *offset or length depends on another field.  Fields added to the record format later are not in the view.
+  **/
+  public RecordView(RecordFormat recordFormat)
+  {
+    if (recordFormat == null)
+    {
+      throw new NullPointerException("recordFormat");
+    }
+    if (recordFormat.getNumberOfFields() == 0 || recordFormat.getHasDependentFields())
+    {
+      Trace.log(Trace.ERROR, "Record format has no fields or has dependent fields.");
+      throw new ExtendedIllegalArgumentException("recordFormat", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+    FieldDescription[] fields = recordFormat.getFieldDescriptions();
+    int count = fields.length;
+    offsets_ = new int[count];
+    kinds_ = new int[count];
+    lengths_ = new int[count];
+    lengthFactors_ = new int[count];
+    types_ = new AS400DataType[count];
+    tables_ = new ConvTableSingleMap[count];
+    int offset = 0;
+    for (int i = 0; i < count; ++i)
+    {
+      FieldDescription fd = fields[i];
+      offsets_[i] = offset;
+      if (fd instanceof VariableLengthFieldDescription && ((VariableLengthFieldDescription)fd).isVariableLength())
+      {
+        // The 2-byte length of a VARGRAPHIC field is a number of 2-byte characters.
+        lengthFactors_[i] = (fd instanceof DBCSGraphicFieldDescription) ? 2 : 1;
+        offset += 2;
+      }
+      offset += compile(i, fd.getDataType());
+    }
+    recordLength_ = offset;
+  }
+
+  /**
+   *Constructs a RecordView object for data described by a structure.
+   *@param structure The structure.  Its members must be set.  Members set later are not in the view.
+  **/
+  public RecordView(AS400Structure structure)
+  {
+    if (structure == null)
+    {
+      throw new NullPointerException("structure");
+    }
+    AS400DataType[] members = structure.getMembers();
+    if (members == null || members.length == 0)
+    {
+      Trace.log(Trace.ERROR, "Structure has no members.");
+      throw new ExtendedIllegalArgumentException("structure", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+    int count = members.length;
+    offsets_ = new int[count];
+    kinds_ = new int[count];
+    lengths_ = new int[count];
+    lengthFactors_ = new int[count];
+    types_ = new AS400DataType[count];
+    tables_ = new ConvTableSingleMap[count];
+    int offset = 0;
+    for (int i = 0; i < count; ++i)
+    {
+      offsets_[i] = offset;
+      offset += compile(i, members[i]);
+    }
+    recordLength_ = offset;
+  }
+
+  // Constructs a view that shares the layout of another view.
+  private RecordView(RecordView view)
+  {
+    offsets_ = view.offsets_;
+    kinds_ = view.kinds_;
+    lengths_ = view.lengths_;
+    lengthFactors_ = view.lengthFactors_;
+    types_ = view.types_;
+    tables_ = view.tables_;
+    recordLength_ = view.recordLength_;
+  }
+
+  // Sets the kind, length and conversion of a field, and returns its length.
+  private int compile(int index, AS400DataType type)
+  {
+    types_[index] = type;
+    int kind;
+    switch (type.getInstanceType())
+    {
+      case AS400DataType.TYPE_BIN1:    kind = BIN1; break;
+      case AS400DataType.TYPE_UBIN1:   kind = UBIN1; break;
+      case AS400DataType.TYPE_BIN2:    kind = BIN2; break;
+      case AS400DataType.TYPE_UBIN2:   kind = UBIN2; break;
+      case AS400DataType.TYPE_BIN4:    kind = BIN4; break;
+      case AS400DataType.TYPE_UBIN4:   kind = UBIN4; break;
+      case AS400DataType.TYPE_BIN8:    kind = BIN8; break;
+      case AS400DataType.TYPE_FLOAT4:  kind = FLOAT4; break;
+      case AS400DataType.TYPE_FLOAT8:  kind = FLOAT8; break;
+      case AS400DataType.TYPE_PACKED:  kind = PACKED; break;
+      case AS400DataType.TYPE_ZONED:   kind = ZONED; break;
+      case AS400DataType.TYPE_TEXT:
+        kind = TEXT;
+        ConverterImpl converter = ((AS400Text)type).getConverter();
+        if (converter instanceof ConverterImplRemote && ((ConverterImplRemote)converter).table_ instanceof ConvTableSingleMap)
+        {
+          tables_[index] = (ConvTableSingleMap)((ConverterImplRemote)converter).table_;
+        }
+        break;
+      default:
+        kind = OTHER;
+    }
+    kinds_[index] = kind;
+    lengths_[index] = type.getByteLength();
+    return lengths_[index];
+  }
+
+  /**
+   *Returns a view of the same records that shares the field layout of this view.
+   *The new view is not positioned on a record.
+   *@return The new view.
+  **/
+  public RecordView duplicate()
+  {
+    return new RecordView(this);
+  }
+
+  /**
+   *Returns the number of fields in the view.
+   *@return The number of fields.
+  **/
+  public int getNumberOfFields()
+  {
+    return offsets_.length;
+  }
+
+  /**
+   *Returns the length of the records, in bytes.  For a record format with variable-length
+   *fields, this includes the two bytes of length and the maximum length of each such field.
+   *@return The record length.
+  **/
+  public int getRecordLength()
+  {
+    return recordLength_;
+  }
+
+  /**
+   *Positions the view on a record in a byte array.  The array is not copied, so changes to it
+   *are seen by the view.
+   *@param data The array that contains the record in IBM i format.
+   *@param offset The offset of the record in the array.
+  **/
+  public void wrap(byte[] data, int offset)
+  {
+    if (data == null)
+    {
+      throw new NullPointerException("data");
+    }
+    if (offset < 0 || offset > data.length - recordLength_)
+    {
+      Trace.log(Trace.ERROR, "Record at offset " + offset + " does not fit in data of length " + data.length + ".");
+      throw new ExtendedIllegalArgumentException("offset", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+    data_ = data;
+    offset_ = offset;
+  }
+
+  /**
+   *Positions the view on a record in a byte buffer.  The position of the buffer is not changed.
+   *If the buffer has an accessible array, the record is read from the array; otherwise, the
+   *record is copied by this method into an array that the view reuses.
+   *@param buffer The buffer that contains the record in IBM i format.
+   *@param index The index of the record in the buffer.
+  **/
+  public void wrap(ByteBuffer buffer, int index)
+  {
+    if (buffer == null)
+    {
+      throw new NullPointerException("buffer");
+    }
+    if (index < 0 || index > buffer.limit() - recordLength_)
+    {
+      Trace.log(Trace.ERROR, "Record at index " + index + " does not fit in buffer with limit " + buffer.limit() + ".");
+      throw new ExtendedIllegalArgumentException("index", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+    if (buffer.hasArray())
+    {
+      data_ = buffer.array();
+      offset_ = buffer.arrayOffset() + index;
+    }
+    else
+    {
+      if (copy_ == null) copy_ = new byte[recordLength_];
+      for (int i = 0; i < recordLength_; ++i)
+      {
+        copy_[i] = buffer.get(index + i);
+      }
+      data_ = copy_;
+      offset_ = 0;
+    }
+  }
+
+  /**
+   *Returns the offset in the wrapped data of a field.  For a variable-length field, this is
+   *the offset of the two bytes that contain the length of the field.
+   *@param index The index of the field.
+   *@return The offset of the field.
+  **/
+  public int getOffset(int index)
+  {
+    checkRecord();
+    return offset_ + offsets_[checkIndex(index)];
+  }
+
+  /**
+   *Returns the value of a binary or decimal field as an int.  The decimal part
+   *of a decimal field is truncated.
+   *@param index The index of the field.
+   *@return The value of the field.
+   *@exception ExtendedIllegalArgumentException If the field cannot be read as a number, or its value does not fit in an int.
+  **/
+  public int getInt(int index)
+  {
+    checkRecord();
+    if (kinds_[checkIndex(index)] == BIN4)
+    {
+      return BinaryConverter.byteArrayToInt(data_, offset_ + offsets_[index]);
+    }
+    long value = getLong(index);
+    if (value != (int)value)
+    {
+      Trace.log(Trace.ERROR, "Value of field " + index + " does not fit in an int: " + value);
+      throw new ExtendedIllegalArgumentException("index", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+    return (int)value;
+  }
+
+  /**
+   *Returns the value of a binary or decimal field as a long.  The decimal part
+   *of a decimal field is truncated.
+   *@param index The index of the field.
+   *@return The value of the field.
+   *@exception ExtendedIllegalArgumentException If the field cannot be read as a number, or its value does not fit in a long.
+  **/
+  public long getLong(int index)
+  {
+    checkRecord();
+    int offset = offset_ + offsets_[checkIndex(index)];
+    switch (kinds_[index])
+    {
+      case BIN1:   return data_[offset];
+      case UBIN1:  return data_[offset] & 0xFF;
+      case BIN2:   return BinaryConverter.byteArrayToShort(data_, offset);
+      case UBIN2:  return BinaryConverter.byteArrayToUnsignedShort(data_, offset);
+      case BIN4:   return BinaryConverter.byteArrayToInt(data_, offset);
+      case UBIN4:  return BinaryConverter.byteArrayToUnsignedInt(data_, offset);
+      case BIN8:   return BinaryConverter.byteArrayToLong(data_, offset);
+      case PACKED: return ((AS400PackedDecimal)types_[index]).toLong(data_, offset);
+      case ZONED:  return ((AS400ZonedDecimal)types_[index]).toLong(data_, offset);
+      default:     throw notValid(index, "a number");
+    }
+  }
+
+  /**
+   *Returns the unscaled value of a decimal field.  For example, 123.45 in a field
+   *with two decimal positions is returned as 12345.  The value of a binary field is
+   *returned as it is, with a scale of zero.
+   *@param index The index of the field.
+   *@return The unscaled value of the field.
+   *@exception ExtendedIllegalArgumentException If the field cannot be read as a number, or its value does not fit in a long.
+   *@see #getScale
+  **/
+  public long getDecimalUnscaled(int index)
+  {
+    checkRecord();
+    int offset = offset_ + offsets_[checkIndex(index)];
+    switch (kinds_[index])
+    {
+      case PACKED: return ((AS400PackedDecimal)types_[index]).toUnscaledLong(data_, offset);
+      case ZONED:  return ((AS400ZonedDecimal)types_[index]).toUnscaledLong(data_, offset);
+      default:     return getLong(index);
+    }
+  }
+
+  /**
+   *Returns the number of decimal positions of a decimal or binary field.  This does
+   *not depend on the record, so the view does not need to be positioned on a record.
+   *@param index The index of the field.
+   *@return The number of decimal positions; 0 for a binary field.
+   *@exception ExtendedIllegalArgumentException If the field is not a decimal or binary field.
+  **/
+  public int getScale(int index)
+  {
+    switch (kinds_[checkIndex(index)])
+    {
+      case PACKED: return ((AS400PackedDecimal)types_[index]).getNumberOfDecimalPositions();
+      case ZONED:  return ((AS400ZonedDecimal)types_[index]).getNumberOfDecimalPositions();
+      case BIN1:
+      case UBIN1:
+      case BIN2:
+      case UBIN2:
+      case BIN4:
+      case UBIN4:
+      case BIN8:   return 0;
+      default:     throw notValid(index, "a decimal");
+    }
+  }
+
+  /**
+   *Returns the value of a floating point, decimal or binary field as a double.
+   *@param index The index of the field.
+   *@return The value of the field.
+   *@exception ExtendedIllegalArgumentException If the field cannot be read as a number.
+  **/
+  public double getDouble(int index)
+  {
+    checkRecord();
+    int offset = offset_ + offsets_[checkIndex(index)];
+    switch (kinds_[index])
+    {
+      case FLOAT4: return BinaryConverter.byteArrayToFloat(data_, offset);
+      case FLOAT8: return BinaryConverter.byteArrayToDouble(data_, offset);
+      case PACKED: return ((AS400PackedDecimal)types_[index]).toDouble(data_, offset);
+      case ZONED:  return ((AS400ZonedDecimal)types_[index]).toDouble(data_, offset);
+      default:     return getLong(index);
+    }
+  }
+
+  /**
+   *Converts a text field into a buffer, starting at the position of the buffer.
+   *The position of the buffer is advanced past the characters stored.
+   *A text field in a single-byte CCSID is converted without creating any objects.
+   *@param index The index of the field.
+   *@param dest The buffer to receive the characters.
+   *@return The number of characters stored.
+   *@exception ExtendedIllegalArgumentException If the field is not a text field.
+   *@exception BufferOverflowException If the buffer does not have room for the characters.
+  **/
+  public int getString(int index, CharBuffer dest)
+  {
+    checkRecord();
+    int offset = offset_ + offsets_[checkIndex(index)];
+    if (kinds_[index] != TEXT) throw notValid(index, "text");
+    int length = lengths_[index];
+    if (lengthFactors_[index] != 0)
+    {
+      length = getVariableLength(index, offset);
+      offset += 2;
+    }
+    ConvTableSingleMap table = tables_[index];
+    if (table != null)
+    {
+      return table.byteArrayToCharBuffer(data_, offset, length, dest);
+    }
+    String value = toString(index, offset, length);
+    if (value.length() > dest.remaining()) throw new BufferOverflowException();
+    dest.put(value);
+    return value.length();
+  }
+
+  /**
+   *Returns the value of a text field as a String.  The value is the same as the value
+   *returned by Record.getField() or AS400Structure.toObject().
+   *@param index The index of the field.
+   *@return The value of the field.
+   *@exception ExtendedIllegalArgumentException If the field is not a text field.
+  **/
+  public String getString(int index)
+  {
+    checkRecord();
+    int offset = offset_ + offsets_[checkIndex(index)];
+    if (kinds_[index] != TEXT) throw notValid(index, "text");
+    int length = lengths_[index];
+    if (lengthFactors_[index] != 0)
+    {
+      length = getVariableLength(index, offset);
+      offset += 2;
+    }
+    return toString(index, offset, length);
+  }
+
+  // Converts text the same way as Record.getField().
+  private String toString(int index, int offset, int length)
+  {
+    AS400Text type = (AS400Text)types_[index];
+    if (lengthFactors_[index] != 0)
+    {
+      return type.getConverter().byteArrayToString(data_, offset, length);
+    }
+    return (String)type.toObject(data_, offset);
+  }
+
+  // Returns the number of bytes of data in a variable-length field.
+  private int getVariableLength(int index, int offset)
+  {
+    int length = BinaryConverter.byteArrayToUnsignedShort(data_, offset) * lengthFactors_[index];
+    if (length > lengths_[index])
+    {
+      Trace.log(Trace.ERROR, "Length of variable-length field " + index + " is not valid: " + length);
+      throw new ExtendedIllegalArgumentException("data", ExtendedIllegalArgumentException.LENGTH_NOT_VALID);
+    }
+    return length;
+  }
+
+  private void checkRecord()
+  {
+    if (data_ == null)
+    {
+      Trace.log(Trace.ERROR, "Record view is not positioned on a record.");
+      throw new ExtendedIllegalStateException("data", ExtendedIllegalStateException.PROPERTY_NOT_SET);
+    }
+  }
+
+  private int checkIndex(int index)
+  {
+    if (index < 0 || index >= offsets_.length)
+    {
+      throw new ExtendedIllegalArgumentException("index", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+    return index;
+  }
+
+  private ExtendedIllegalArgumentException notValid(int index, String what)
+  {
+    Trace.log(Trace.ERROR, "Field " + index + " of type " + types_[index].getClass().getName() + " cannot be read as " + what + ".");
+    return new ExtendedIllegalArgumentException("index", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+  }
+}
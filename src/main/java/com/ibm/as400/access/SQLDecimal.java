@@ -49,10 +49,22 @@ extends SQLDataBase
     static final BigDecimal DOUBLE_MAX_VALUE = new BigDecimal(Double.MAX_VALUE);
     static final BigDecimal DOUBLE_MIN_VALUE = new BigDecimal(Double.MIN_VALUE);
 
+    // Values with up to this many digits are received as a long, and are only
+    // made into a BigDecimal when the application asks for one.
+    static final int MAX_LONG_PRECISION = 18;
+    static final long[] LONG_POWERS_OF_TEN = new long[MAX_LONG_PRECISION + 1];
+    static
+    {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_LONG_PRECISION; ++i)
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i-1] * 10;
+    }
+
     private int                     precision_;
     private int                     scale_;
     private AS400PackedDecimal      typeConverter_;
-    private BigDecimal              value_;
+    private BigDecimal              value_;          // null when the value is in unscaledValue_
+    private long                    unscaledValue_;
     private JDProperties            properties_;   // @M0A - added JDProperties so we can get the scale & precision
     private int                     vrm_;          // @M0A
 
@@ -86,7 +98,12 @@ extends SQLDataBase
     throws SQLException
     {
         try { 
-           value_ = ((BigDecimal)typeConverter_.toObject(rawBytes, offset));
+           if (precision_ <= MAX_LONG_PRECISION) {
+             unscaledValue_ = typeConverter_.toUnscaledLong(rawBytes, offset);
+             value_ = null;
+           } else {
+             value_ = ((BigDecimal)typeConverter_.toObject(rawBytes, offset));
+           }
         } catch (NumberFormatException nfe) { 
           /* Throw and SQLException instead of a NumberFormatException */
           if (!ignoreConversionErrors) {   /*@Q2C*/
@@ -99,7 +116,7 @@ extends SQLDataBase
     throws SQLException
     {
         try{
-            typeConverter_.toBytes(value_, rawBytes, offset);
+            typeConverter_.toBytes(getValue(), rawBytes, offset);
         }
         catch(ExtendedIllegalArgumentException e){
             JDError.throwSQLException(this, JDError.EXC_DATA_TYPE_MISMATCH, e);
@@ -321,24 +338,32 @@ extends SQLDataBase
     //---------------------------------------------------------//
 
 
+    // Returns the value as a BigDecimal, making one if the value was received as a long.
+    private BigDecimal getValue()
+    {
+        if (value_ == null)
+            value_ = BigDecimal.valueOf(unscaledValue_, scale_);
+        return value_;
+    }
+
     public BigDecimal getBigDecimal(int scale)
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
         if(scale >= 0)
         {
-            if(scale >= value_.scale())
+            if(scale >= getValue().scale())
             {
-                return value_.setScale(scale);
+                return getValue().setScale(scale);
             }
             else
             {
-                truncated_ = value_.scale() - scale;
-                return value_.setScale(scale, BigDecimal.ROUND_HALF_UP);
+                truncated_ = getValue().scale() - scale;
+                return getValue().setScale(scale, BigDecimal.ROUND_HALF_UP);
             }
         }
         else
-            return value_;
+            return getValue();
     }
 
     public InputStream getBinaryStream()
@@ -359,21 +384,29 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        return(value_.compareTo(BigDecimal.valueOf(0)) != 0);
+        if (value_ == null)
+            return unscaledValue_ != 0;
+        return(getValue().compareTo(BigDecimal.valueOf(0)) != 0);
     }
 
     public byte getByte()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(BYTE_MAX_VALUE) > 0 || value_.compareTo(BYTE_MIN_VALUE) < 0)
+        if (value_ == null)
+        {
+            long l = unscaledValue_ / LONG_POWERS_OF_TEN[scale_];
+            if (l >= Byte.MIN_VALUE && l <= Byte.MAX_VALUE)
+                return (byte) l;
+        }
+        if(getValue().compareTo(BYTE_MAX_VALUE) > 0 || getValue().compareTo(BYTE_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 1;
             outOfBounds_=true;
         }
-        return(byte) value_.byteValue();
+        return(byte) getValue().byteValue();
     }
 
     public byte[] getBytes()
@@ -396,13 +429,17 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        double d = value_.doubleValue();    //@KBA
+        // Both operands are exact below 2^53, so the quotient is rounded
+        // the same way as BigDecimal.doubleValue().
+        if (value_ == null && precision_ <= 15)
+            return unscaledValue_ / (double) LONG_POWERS_OF_TEN[scale_];
+        double d = getValue().doubleValue();    //@KBA
         //@KBD will never occur with current precision of 63
         //@KBD if(value_.compareTo(DOUBLE_MAX_VALUE) > 0 || value_.compareTo(DOUBLE_MIN_VALUE) < 0)
         if(d == Double.POSITIVE_INFINITY || d == Double.NEGATIVE_INFINITY)  //@KBA
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 8;
             outOfBounds_=true;
         }
@@ -413,13 +450,13 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        float f = value_.floatValue();  //@KBA
+        float f = getValue().floatValue();  //@KBA
         //@KBD changed in order to avoid optimization problem in JRE 1.3
         //@KBD if(value_.compareTo(FLOAT_MAX_VALUE) > 0 || value_.compareTo(FLOAT_MIN_VALUE) < 0)
         if( f == Float.POSITIVE_INFINITY || f == Float.NEGATIVE_INFINITY)   //@KBA
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 4;
             outOfBounds_=true;
         }
@@ -430,56 +467,70 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(INTEGER_MAX_VALUE) > 0 || value_.compareTo(INTEGER_MIN_VALUE) < 0)
+        if (value_ == null)
+        {
+            long l = unscaledValue_ / LONG_POWERS_OF_TEN[scale_];
+            if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE)
+                return (int) l;
+        }
+        if(getValue().compareTo(INTEGER_MAX_VALUE) > 0 || getValue().compareTo(INTEGER_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 4;
             outOfBounds_=true;
         }
-        return value_.intValue();
+        return getValue().intValue();
     }
 
     public long getLong()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(LONG_MAX_VALUE) > 0 || value_.compareTo(LONG_MIN_VALUE) < 0)
+        if (value_ == null)
+            return unscaledValue_ / LONG_POWERS_OF_TEN[scale_];
+        if(getValue().compareTo(LONG_MAX_VALUE) > 0 || getValue().compareTo(LONG_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 8;
             outOfBounds_=true;
         }
-        return value_.longValue();
+        return getValue().longValue();
     }
 
     public Object getObject()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        return value_;
+        return getValue();
     }
 
     public short getShort()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(SHORT_MAX_VALUE) > 0 || value_.compareTo(SHORT_MIN_VALUE) < 0)
+        if (value_ == null)
+        {
+            long l = unscaledValue_ / LONG_POWERS_OF_TEN[scale_];
+            if (l >= Short.MIN_VALUE && l <= Short.MAX_VALUE)
+                return (short) l;
+        }
+        if(getValue().compareTo(SHORT_MAX_VALUE) > 0 || getValue().compareTo(SHORT_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 2;
             outOfBounds_=true;
         }
-        return(short) value_.shortValue();
+        return(short) getValue().shortValue();
     }
 
     public String getString()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        String stringRep = value_.toPlainString();
+        String stringRep = getValue().toPlainString();
         int decimal = stringRep.indexOf('.');
         if(decimal == -1)
             return stringRep;
@@ -508,7 +559,7 @@ extends SQLDataBase
     public String getNString() throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        String stringRep = value_.toString();
+        String stringRep = getValue().toString();
         int decimal = stringRep.indexOf('.');
         if(decimal == -1)
             return stringRep;
@@ -535,6 +586,6 @@ extends SQLDataBase
     
     
     public void saveValue() {
-      savedValue_ = value_; 
+      savedValue_ = getValue(); 
    }
 }
@@ -52,7 +52,8 @@ extends SQLDataBase
     private int                     precision_;
     private int                     scale_;
     private AS400ZonedDecimal       typeConverter_;
-    private BigDecimal              value_;
+    private BigDecimal              value_;          // null when the value is in unscaledValue_
+    private long                    unscaledValue_;
     private JDProperties            properties_;  // @M0A - added JDProperties so we can get the scale & precision
     private int                     vrm_;         // @M0A
 
@@ -85,14 +86,19 @@ extends SQLDataBase
     public void convertFromRawBytes(byte[] rawBytes, int offset, ConvTable ccsidConverter, boolean ignoreConversionErrors) //@P0C
     throws SQLException
     {
-        value_ = ((BigDecimal)typeConverter_.toObject(rawBytes, offset));
+        if (precision_ <= SQLDecimal.MAX_LONG_PRECISION) {
+            unscaledValue_ = typeConverter_.toUnscaledLong(rawBytes, offset);
+            value_ = null;
+        } else {
+            value_ = ((BigDecimal)typeConverter_.toObject(rawBytes, offset));
+        }
     }
 
     public void convertToRawBytes(byte[] rawBytes, int offset, ConvTable ccsidConverter) //@P0C
     throws SQLException
     {
         try{
-            typeConverter_.toBytes(value_, rawBytes, offset);
+            typeConverter_.toBytes(getValue(), rawBytes, offset);
         }
         catch(ExtendedIllegalArgumentException e){
             JDError.throwSQLException(this, JDError.EXC_DATA_TYPE_MISMATCH, e);
@@ -328,25 +334,33 @@ extends SQLDataBase
     //---------------------------------------------------------//
 
 
+    // Returns the value as a BigDecimal, making one if the value was received as a long.
+    private BigDecimal getValue()
+    {
+        if (value_ == null)
+            value_ = BigDecimal.valueOf(unscaledValue_, scale_);
+        return value_;
+    }
+
     public BigDecimal getBigDecimal(int scale)
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
         if(scale >= 0)
         {
-            if(scale >= value_.scale())
+            if(scale >= getValue().scale())
             {
                 truncated_ = 0; outOfBounds_ = false; 
-                return value_.setScale(scale);
+                return getValue().setScale(scale);
             }
             else
             {
-                truncated_ = value_.scale() - scale;
-                return value_.setScale(scale, BigDecimal.ROUND_HALF_UP);
+                truncated_ = getValue().scale() - scale;
+                return getValue().setScale(scale, BigDecimal.ROUND_HALF_UP);
             }
         }
         else
-            return value_;
+            return getValue();
     }
 
     public InputStream getBinaryStream()
@@ -367,21 +381,29 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        return(value_.compareTo(BigDecimal.valueOf(0)) != 0);
+        if (value_ == null)
+            return unscaledValue_ != 0;
+        return(getValue().compareTo(BigDecimal.valueOf(0)) != 0);
     }
 
     public byte getByte()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(BYTE_MAX_VALUE) > 0 || value_.compareTo(BYTE_MIN_VALUE) < 0)
+        if (value_ == null)
+        {
+            long l = unscaledValue_ / SQLDecimal.LONG_POWERS_OF_TEN[scale_];
+            if (l >= Byte.MIN_VALUE && l <= Byte.MAX_VALUE)
+                return (byte) l;
+        }
+        if(getValue().compareTo(BYTE_MAX_VALUE) > 0 || getValue().compareTo(BYTE_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 1;
             outOfBounds_ = true;
         }
-        return(byte) value_.byteValue();
+        return(byte) getValue().byteValue();
     }
 
     public byte[] getBytes()
@@ -403,13 +425,17 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        double d = value_.doubleValue();    //@KBA
+        // Both operands are exact below 2^53, so the quotient is rounded
+        // the same way as BigDecimal.doubleValue().
+        if (value_ == null && precision_ <= 15)
+            return unscaledValue_ / (double) SQLDecimal.LONG_POWERS_OF_TEN[scale_];
+        double d = getValue().doubleValue();    //@KBA
         //@KBD This will never be the case with the current precision
         //@KBD if(value_.compareTo(DOUBLE_MAX_VALUE) > 0 || value_.compareTo(DOUBLE_MIN_VALUE) < 0)
         if( d == Double.POSITIVE_INFINITY || d == Double.NEGATIVE_INFINITY)     //@KBA
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 8;
             outOfBounds_ = true;
         }
@@ -420,13 +446,13 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        float f = value_.floatValue();  //@KBA
+        float f = getValue().floatValue();  //@KBA
         //@KBD Changed to avoid optimization problem with JRE 1.3
         //@KBD if(value_.compareTo(FLOAT_MAX_VALUE) > 0 || value_.compareTo(FLOAT_MIN_VALUE) < 0)
         if(f == Float.POSITIVE_INFINITY || f == Float.NEGATIVE_INFINITY)    //@KBA
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 4;
             outOfBounds_ = true;
         }
@@ -437,56 +463,70 @@ extends SQLDataBase
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(INTEGER_MAX_VALUE) > 0 || value_.compareTo(INTEGER_MIN_VALUE) < 0)
+        if (value_ == null)
+        {
+            long l = unscaledValue_ / SQLDecimal.LONG_POWERS_OF_TEN[scale_];
+            if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE)
+                return (int) l;
+        }
+        if(getValue().compareTo(INTEGER_MAX_VALUE) > 0 || getValue().compareTo(INTEGER_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 4;
             outOfBounds_ = true;
         }
-        return value_.intValue();
+        return getValue().intValue();
     }
 
     public long getLong()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(LONG_MAX_VALUE) > 0 || value_.compareTo(LONG_MIN_VALUE) < 0)
+        if (value_ == null)
+            return unscaledValue_ / SQLDecimal.LONG_POWERS_OF_TEN[scale_];
+        if(getValue().compareTo(LONG_MAX_VALUE) > 0 || getValue().compareTo(LONG_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 8;
             outOfBounds_ = true;
         }
-        return value_.longValue();
+        return getValue().longValue();
     }
 
     public Object getObject()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        return value_;
+        return getValue();
     }
 
     public short getShort()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        if(value_.compareTo(SHORT_MAX_VALUE) > 0 || value_.compareTo(SHORT_MIN_VALUE) < 0)
+        if (value_ == null)
+        {
+            long l = unscaledValue_ / SQLDecimal.LONG_POWERS_OF_TEN[scale_];
+            if (l >= Short.MIN_VALUE && l <= Short.MAX_VALUE)
+                return (short) l;
+        }
+        if(getValue().compareTo(SHORT_MAX_VALUE) > 0 || getValue().compareTo(SHORT_MIN_VALUE) < 0)
         {
             // we don't count the fractional part of the number as truncation
-            int length = value_.toBigInteger().toByteArray().length;
+            int length = getValue().toBigInteger().toByteArray().length;
             truncated_ = length - 2;
             outOfBounds_ = true;
         }
-        return(short) value_.shortValue();
+        return(short) getValue().shortValue();
     }
 
     public String getString()
     throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        String stringRep = value_.toPlainString();
+        String stringRep = getValue().toPlainString();
         int decimal = stringRep.indexOf('.');
         if(decimal == -1)
             return stringRep;
@@ -515,7 +555,7 @@ extends SQLDataBase
     public String getNString() throws SQLException
     {
         truncated_ = 0; outOfBounds_ = false; 
-        String stringRep = value_.toString();
+        String stringRep = getValue().toString();
         int decimal = stringRep.indexOf('.');
         if(decimal == -1)
             return stringRep;
@@ -543,7 +583,7 @@ extends SQLDataBase
 /* endif */ 
     
     public void saveValue() {
-      savedValue_ = value_; 
+      savedValue_ = getValue(); 
    }
 }
 
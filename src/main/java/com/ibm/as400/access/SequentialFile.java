@@ -13,10 +13,16 @@
 
 package com.ibm.as400.access;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.net.UnknownHostException;
 import java.io.Serializable;
+import java.beans.PropertyVetoException;
+import java.util.ArrayList;
+import java.util.Enumeration;
 
 /**
  *The SequentialFile class represents a physical or logical file on the system.
@@ -358,9 +364,7 @@ public class SequentialFile extends AS400File implements Serializable
     // its text objects initialized.
     recordFormat_.initializeTextObjects(system_); //@D0A
 
-    // Use a calculated blocking factor, else use a large blocking factor
-    int bf = 2048/(recordFormat_.getNewRecord().getRecordLength() + 16); //@D0M
-    if (bf <= 1) bf = 100; //@D0M
+    int bf = getReadAllBlockingFactor();
 
     Record[] recs = impl_.doItRecordArray("readAll", new Class[] { String.class, Integer.TYPE }, new Object[] { "seq", Integer.valueOf(bf) }); //@D0C
     //@D0A
@@ -376,6 +380,306 @@ public class SequentialFile extends AS400File implements Serializable
   }
 
 
+  /**
+   *Reads all the records in the file, using several connections to the system at the same time.
+   *The records are divided into ranges of record numbers, and each range is read
+   *by its own thread, using a copy of the system object, so that the ranges are read over
+   *separate connections.  The records are returned in record number order.
+   *This can be faster than readAll() for large files when reading is limited by
+   *the network or by the system rather than by the client.
+   *Records written after this method starts might not be returned.
+   *The file must be closed when invoking this method.
+   *The record format for the file must have been set prior to invoking this method.
+   *@param numberOfConnections The number of connections to use.  If 1 is specified,
+   *this method is the same as readAll().
+   *@return The records read.  If no records are read, an array of size zero is returned.
+   *@exception AS400Exception If the system returns an error message.
+   *@exception AS400SecurityException If a security or authority error occurs.
+   *@exception ConnectionDroppedException If the connection is dropped unexpectedly.
+   *@exception InterruptedException If this thread is interrupted.
+   *@exception IOException If an error occurs while communicating with the system.
+   *@exception ServerStartupException If the host server cannot be started.
+   *@exception UnknownHostException If the system cannot be located.
+  **/
+  public Record[] readAll(int numberOfConnections)
+    throws AS400Exception,
+           AS400SecurityException,
+           InterruptedException,
+           IOException
+  {
+    if (numberOfConnections < 1)
+    {
+      throw new ExtendedIllegalArgumentException("numberOfConnections", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+    }
+    if (numberOfConnections == 1)
+    {
+      return readAll();
+    }
+    if (isOpen_)
+    {
+      throw new ExtendedIllegalStateException(ExtendedIllegalStateException.OBJECT_CAN_NOT_BE_OPEN);
+    }
+    if (recordFormat_ == null)
+    {
+      throw new ExtendedIllegalStateException("recordFormat", ExtendedIllegalStateException.PROPERTY_NOT_SET);
+    }
+
+    // Find the last record number, to divide the file into ranges.
+    int lastRecordNumber;
+    open(READ_ONLY, 1, COMMIT_LOCK_LEVEL_NONE);
+    try
+    {
+      Record last = readLast();
+      lastRecordNumber = (last == null) ? 0 : last.getRecordNumber();
+    }
+    finally
+    {
+      close();
+    }
+    if (lastRecordNumber == 0)
+    {
+      return new Record[0];
+    }
+
+    int ranges = Math.min(numberOfConnections, lastRecordNumber);
+    int rangeSize = (lastRecordNumber + ranges - 1) / ranges;
+    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Reading " + lastRecordNumber + " record numbers of file " + getPath() + " over " + ranges + " connections.");
+
+    final ArrayList<Record>[] results = new ArrayList[ranges];
+    final Exception[] errors = new Exception[ranges];
+    Thread[] threads = new Thread[ranges];
+    for (int i = 0; i < ranges; ++i)
+    {
+      final int index = i;
+      final int first = i * rangeSize + 1;
+      final int last = Math.min(first + rangeSize - 1, lastRecordNumber);
+      // Each connection initializes the text objects of its record format for its own
+      // system, so each one gets its own copy of the format.
+      final RecordFormat format = copyRecordFormat();
+      threads[i] = AS400ThreadedServer.newThread(new Runnable() {
+        public void run()
+        {
+          try {
+            results[index] = readRange(format, first, last);
+          }
+          catch (Exception e) {
+            errors[index] = e;
+          }
+        }
+      }, "SequentialFile readAll " + first + "-" + last, system_.isVirtualThreads());
+      threads[i].start();
+    }
+
+    try
+    {
+      for (int i = 0; i < threads.length; ++i)
+      {
+        threads[i].join();
+      }
+    }
+    catch (InterruptedException e)
+    {
+      for (int i = 0; i < threads.length; ++i)
+      {
+        threads[i].interrupt();
+      }
+      throw e;
+    }
+
+    int total = 0;
+    for (int i = 0; i < ranges; ++i)
+    {
+      Exception e = errors[i];
+      if (e != null)
+      {
+        if (e instanceof AS400Exception) throw (AS400Exception) e;
+        if (e instanceof AS400SecurityException) throw (AS400SecurityException) e;
+        if (e instanceof InterruptedException) throw (InterruptedException) e;
+        if (e instanceof IOException) throw (IOException) e;
+        throw (RuntimeException) e;
+      }
+      total += results[i].size();
+    }
+
+    Record[] recs = new Record[total];
+    int offset = 0;
+    for (int i = 0; i < ranges; ++i)
+    {
+      for (int j = 0; j < results[i].size(); ++j)
+      {
+        recs[offset++] = results[i].get(j);
+      }
+      results[i] = null;
+    }
+    return recs;
+  }
+
+
+  // Returns a copy of the record format, made by serializing it.
+  private RecordFormat copyRecordFormat() throws IOException
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(recordFormat_);
+    out.close();
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    try
+    {
+      return (RecordFormat) in.readObject();
+    }
+    catch (ClassNotFoundException e)
+    {
+      Trace.log(Trace.ERROR, "Unexpected exception while copying record format:", e);
+      throw new InternalErrorException(InternalErrorException.UNEXPECTED_EXCEPTION, e);
+    }
+  }
+
+
+  // Reads the records in a range of record numbers, over a new connection.
+  private ArrayList<Record> readRange(RecordFormat format, int firstRecordNumber, int lastRecordNumber)
+    throws AS400Exception,
+           AS400SecurityException,
+           InterruptedException,
+           IOException
+  {
+    AS400 system = new AS400(system_);
+    SequentialFile file = new SequentialFile(system, getPath());
+    try
+    {
+      try
+      {
+        file.setRecordFormat(format);
+      }
+      catch (PropertyVetoException e)
+      { // There are no listeners on the new file object.
+      }
+      ArrayList<Record> records = new ArrayList<Record>();
+      Enumeration<Record> e = file.enumerateRecords(firstRecordNumber, lastRecordNumber);
+      try
+      {
+        while (e.hasMoreElements())
+        {
+          records.add(e.nextElement());
+        }
+      }
+      catch (java.util.NoSuchElementException nsee)
+      {
+        Throwable cause = nsee.getCause();
+        if (cause instanceof AS400Exception) throw (AS400Exception) cause;
+        if (cause instanceof AS400SecurityException) throw (AS400SecurityException) cause;
+        if (cause instanceof InterruptedException) throw (InterruptedException) cause;
+        if (cause instanceof IOException) throw (IOException) cause;
+        throw nsee;
+      }
+      return records;
+    }
+    finally
+    {
+      if (file.isOpen())
+      {
+        try { file.close(); } catch (Exception e) { Trace.log(Trace.ERROR, "Exception while closing file:", e); }
+      }
+      system.disconnectAllServices();
+    }
+  }
+
+
+  /**
+   *Returns an enumeration of all the records in the file.  Unlike readAll(), the records are
+   *not all read into memory.  The file is opened for READ_ONLY with the same blocking factor
+   *that readAll() uses, and the records are read one block at a time as the enumeration is used.
+   *The file is closed when the last record has been returned.  To stop before the last record,
+   *call close().<br>
+   *If reading a block of records fails, nextElement() throws a NoSuchElementException
+   *whose cause is the exception, and the enumeration ends.<br>
+   *The file must be closed when invoking this method, and must not be used for other
+   *operations while the enumeration is in use.
+   *The record format for the file must have been set prior to invoking this method.
+   *@return The enumeration of records.
+   *@exception AS400Exception If the system returns an error message.
+   *@exception AS400SecurityException If a security or authority error occurs.
+   *@exception ConnectionDroppedException If the connection is dropped unexpectedly.
+   *@exception InterruptedException If this thread is interrupted.
+   *@exception IOException If an error occurs while communicating with the system.
+   *@exception ServerStartupException If the host server cannot be started.
+   *@exception UnknownHostException If the system cannot be located.
+  **/
+  public Enumeration<Record> enumerateRecords()
+    throws AS400Exception,
+           AS400SecurityException,
+           InterruptedException,
+           IOException
+  {
+    return enumerateRecords(1, Integer.MAX_VALUE);
+  }
+
+
+  /**
+   *Returns an enumeration of the records in a range of record numbers.
+   *The enumeration starts at the first active record whose record number is at least
+   *<i>firstRecordNumber</i>, and ends after the last active record whose record number
+   *is at most <i>lastRecordNumber</i>.  See {@link #enumerateRecords() enumerateRecords()}.
+   *@param firstRecordNumber The first record number.  It must be greater than zero.
+   *@param lastRecordNumber The last record number.  It must not be less than <i>firstRecordNumber</i>.
+   *@return The enumeration of records.
+   *@exception AS400Exception If the system returns an error message.
+   *@exception AS400SecurityException If a security or authority error occurs.
+   *@exception ConnectionDroppedException If the connection is dropped unexpectedly.
+   *@exception InterruptedException If this thread is interrupted.
+   *@exception IOException If an error occurs while communicating with the system.
+   *@exception ServerStartupException If the host server cannot be started.
+   *@exception UnknownHostException If the system cannot be located.
+  **/
+  public Enumeration<Record> enumerateRecords(int firstRecordNumber, int lastRecordNumber)
+    throws AS400Exception,
+           AS400SecurityException,
+           InterruptedException,
+           IOException
+  {
+    if (firstRecordNumber < 1)
+    {
+      throw new ExtendedIllegalArgumentException("firstRecordNumber", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+    if (lastRecordNumber < firstRecordNumber)
+    {
+      throw new ExtendedIllegalArgumentException("lastRecordNumber", ExtendedIllegalArgumentException.RANGE_NOT_VALID);
+    }
+    if (isOpen_)
+    {
+      throw new ExtendedIllegalStateException(ExtendedIllegalStateException.OBJECT_CAN_NOT_BE_OPEN);
+    }
+    if (recordFormat_ == null)
+    {
+      throw new ExtendedIllegalStateException("recordFormat", ExtendedIllegalStateException.PROPERTY_NOT_SET);
+    }
+
+    chooseImpl();
+    recordFormat_.initializeTextObjects(system_);
+    open(READ_ONLY, getReadAllBlockingFactor(), COMMIT_LOCK_LEVEL_NONE);
+    boolean opened = false;
+    try
+    {
+      Enumeration<Record> e = new SequentialFileEnumeration(this, firstRecordNumber, lastRecordNumber);
+      opened = true;
+      return e;
+    }
+    finally
+    {
+      if (!opened && isOpen_) close();
+    }
+  }
+
+
+  // Returns the blocking factor used to read all records: a calculated
+  // blocking factor, else a large blocking factor.
+  private int getReadAllBlockingFactor()
+  {
+    int bf = 2048/(recordFormat_.getNewRecord().getRecordLength() + 16); //@D0M
+    if (bf <= 1) bf = 100; //@D0M
+    return bf;
+  }
+
+
   /**
    *Reads the first record before the record with the specified record number.
    *The file must be open when invoking this method.
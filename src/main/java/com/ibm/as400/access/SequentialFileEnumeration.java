@@ -0,0 +1,146 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: SequentialFileEnumeration.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+// Helper class.  Used to read the records of an open SequentialFile one at a time.
+// The records are read in blocks through the record cache of the file, so only one
+// block of records is held in memory.  The file is closed when the last record has
+// been read or a read fails.
+// This class is used by SequentialFile.
+class SequentialFileEnumeration implements Enumeration<Record>
+{
+    private SequentialFile file_;
+    private final int lastRecordNumber_;
+    private Record next_;
+    private Exception failure_;
+
+    // The file must be open.  If the first record number is greater than one, the
+    // enumeration starts at the first active record at or after that record number.
+    SequentialFileEnumeration(SequentialFile file, int firstRecordNumber, int lastRecordNumber)
+      throws AS400Exception, AS400SecurityException, InterruptedException, java.io.IOException
+    {
+        file_ = file;
+        lastRecordNumber_ = lastRecordNumber;
+        Record record;
+        if (firstRecordNumber <= 1)
+        {
+            record = file.readNext();
+        }
+        else
+        {
+            record = readFrom(file, firstRecordNumber);
+        }
+        setNext(record);
+    }
+
+    // Returns the first active record at or after the record number, or null if there is none.
+    private static Record readFrom(SequentialFile file, int recordNumber)
+      throws AS400Exception, AS400SecurityException, InterruptedException, java.io.IOException
+    {
+        // readAfter() skips deleted records, but positioning to the record before the range fails
+        // with CPF5006 if that record is deleted, and with CPF5001 if it is past the end of the file.
+        try
+        {
+            return file.readAfter(recordNumber - 1);
+        }
+        catch (AS400Exception e)
+        {
+            String id = e.getAS400Message().getID();
+            if (id.equals("CPF5001"))
+            {
+                return null;
+            }
+            if (!id.equals("CPF5006"))
+            {
+                throw e;
+            }
+        }
+        // read(int) returns null if the record is deleted or past the end of the file.
+        Record record = file.read(recordNumber);
+        if (record != null)
+        {
+            return record;
+        }
+        // Both records are deleted, so read from the start of the file up to the range.  The
+        // records are read in blocks.
+        file.positionCursorBeforeFirst();
+        record = file.readNext();
+        while (record != null && record.getRecordNumber() < recordNumber)
+        {
+            record = file.readNext();
+        }
+        return record;
+    }
+
+    @Override
+    public final boolean hasMoreElements()
+    {
+        return next_ != null || failure_ != null;
+    }
+
+    @Override
+    public final Record nextElement()
+    {
+        if (failure_ != null)
+        {
+            // Report the failure once, then end the enumeration.
+            NoSuchElementException e = new NoSuchElementException(failure_.toString());
+            e.initCause(failure_);
+            failure_ = null;
+            throw e;
+        }
+        if (next_ == null)
+        {
+            throw new NoSuchElementException();
+        }
+
+        Record record = next_;
+        try
+        {
+            setNext(file_.readNext());
+        }
+        catch (Exception e)
+        {
+            Trace.log(Trace.ERROR, "Exception while reading next record in SequentialFileEnumeration:", e);
+            failure_ = e;
+            setNext(null);
+        }
+        return record;
+    }
+
+    // Sets the next record to return, closing the file at the end of the records.
+    private void setNext(Record record)
+    {
+        if (record != null && record.getRecordNumber() > lastRecordNumber_)
+        {
+            record = null;
+        }
+        next_ = record;
+        if (record == null && file_ != null)
+        {
+            try
+            {
+                file_.close();
+            }
+            catch (Exception e)
+            {
+                Trace.log(Trace.ERROR, "Exception while closing file in SequentialFileEnumeration:", e);
+            }
+            file_ = null;
+        }
+    }
+}
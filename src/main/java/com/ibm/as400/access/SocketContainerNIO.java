@@ -0,0 +1,354 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: SocketContainerNIO.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A socket container for a SocketChannel.
+// Requests are sent through a direct buffer.  A thread that sends a request while another thread is writing to the
+// channel queues the request and returns; the writing thread sends the queued requests with its own, so requests
+// from many threads are combined into one write.
+// Replies are read through a large direct buffer, so the header and the body of a reply (and often several replies)
+// are received with one read.
+class SocketContainerNIO extends SocketContainer
+{
+    // The size of the buffers used to send and receive data.
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    Socket socket_;
+    SocketChannel channel_;
+    private ChannelInputStream inStream_;
+    private ChannelOutputStream outStream_;
+
+    @Override
+    void setProperties(Socket socket, String serviceName, String systemName, int port, SSLOptions options) throws IOException
+    {
+        channel_ = socket.getChannel();
+        if (channel_ == null)
+        {
+            Trace.log(Trace.ERROR, "Socket was not created by a SocketChannel.");
+            throw new IOException("Socket was not created by a SocketChannel.");
+        }
+        socket_ = socket;
+        inStream_ = new ChannelInputStream();
+        outStream_ = new ChannelOutputStream();
+    }
+
+    @Override
+    void close() throws IOException
+    {
+        // Send the requests that are still queued, such as an end job request.
+        outStream_.writeLock_.lock();
+        try
+        {
+            outStream_.writeQueued();
+        }
+        catch (IOException e)
+        {
+            if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Queued requests not sent before close:", e);
+        }
+        finally
+        {
+            outStream_.writeLock_.unlock();
+        }
+        channel_.close();
+    }
+
+    @Override
+    InputStream getInputStream() throws IOException
+    {
+        return inStream_;
+    }
+
+    @Override
+    OutputStream getOutputStream() throws IOException
+    {
+        return outStream_;
+    }
+
+    @Override
+    int getSoTimeout() throws SocketException {
+      return socket_.getSoTimeout();
+    }
+
+    @Override
+    void setSoTimeout(int timeout) throws SocketException {
+      socket_.setSoTimeout(timeout);
+    }
+
+    @Override
+    String getLocalAddress() {
+        return socket_.getLocalAddress().getHostAddress();
+    }
+
+    // Input stream that reads from the channel through a direct buffer.
+    private final class ChannelInputStream extends InputStream
+    {
+        private final ByteBuffer buffer_ = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private byte[] timedBuffer_;  // Used for reads with a timeout.
+
+        ChannelInputStream()
+        {
+            buffer_.flip();  // Empty.
+        }
+
+        @Override
+        public synchronized int read() throws IOException
+        {
+            if (!buffer_.hasRemaining() && fill() < 0) return -1;
+            return buffer_.get() & 0xFF;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException
+        {
+            if (len == 0) return 0;
+            if (!buffer_.hasRemaining())
+            {
+                // Large reads go straight into the caller's array.
+                if (len >= BUFFER_SIZE) return read(ByteBuffer.wrap(b, off, len));
+                if (fill() < 0) return -1;
+            }
+            int bytes = Math.min(len, buffer_.remaining());
+            buffer_.get(b, off, bytes);
+            return bytes;
+        }
+
+        @Override
+        public synchronized int available() throws IOException
+        {
+            return buffer_.remaining();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            SocketContainerNIO.this.close();
+        }
+
+        // Reads as many bytes as are available into the empty buffer.
+        private int fill() throws IOException
+        {
+            buffer_.clear();
+            try
+            {
+                return read(buffer_);
+            }
+            finally
+            {
+                buffer_.flip();
+            }
+        }
+
+        private int read(ByteBuffer dst) throws IOException
+        {
+            int timeout = socket_.getSoTimeout();
+            if (timeout > 0)
+            {
+                // Reads from the channel don't time out, but reads from the socket's stream do.
+                if (timedBuffer_ == null) timedBuffer_ = new byte[BUFFER_SIZE];
+                int bytes = socket_.getInputStream().read(timedBuffer_, 0, Math.min(BUFFER_SIZE, dst.remaining()));
+                if (bytes > 0) dst.put(timedBuffer_, 0, bytes);
+                return bytes;
+            }
+            int bytes;
+            do
+            {
+                bytes = channel_.read(dst);
+            }
+            while (bytes == 0);
+            return bytes;
+        }
+    }
+
+    // Output stream that combines the requests of many threads into few writes.
+    final class ChannelOutputStream extends OutputStream
+    {
+        // Requests waiting to be written by the thread that holds writeLock_.
+        private final ArrayDeque<byte[]> queue_ = new ArrayDeque<byte[]>();
+        private final ReentrantLock writeLock_ = new ReentrantLock();
+        private final ByteBuffer buffer_ = ByteBuffer.allocateDirect(BUFFER_SIZE);  // Guarded by writeLock_.
+        // Bytes written with write() and not yet flushed.
+        private final ByteArrayOutputStream pending_ = new ByteArrayOutputStream();
+        private volatile IOException failure_;
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            synchronized (pending_)
+            {
+                pending_.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            synchronized (pending_)
+            {
+                pending_.write(b, off, len);
+            }
+        }
+
+        // Sends the bytes written since the last flush as one request.
+        @Override
+        public void flush() throws IOException
+        {
+            byte[] request;
+            synchronized (pending_)
+            {
+                if (pending_.size() == 0) return;
+                request = pending_.toByteArray();
+                pending_.reset();
+            }
+            writeRequest(request, 0, request.length);
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            flush();
+        }
+
+        // Sends a complete request.  If another thread is writing to the channel, the request is queued for that
+        // thread to write, and this method returns without waiting for it to be written.  An error writing a queued
+        // request closes the channel, so it is reported to the threads waiting for replies.
+        void writeRequest(byte[] b, int off, int len) throws IOException
+        {
+            if (writeLock_.tryLock())
+            {
+                try
+                {
+                    checkFailure();
+                    drainQueue();
+                    put(b, off, len);
+                    writeQueued();
+                }
+                finally
+                {
+                    writeLock_.unlock();
+                }
+            }
+            else
+            {
+                byte[] request = new byte[len];
+                System.arraycopy(b, off, request, 0, len);
+                synchronized (queue_)
+                {
+                    checkFailure();
+                    queue_.add(request);
+                }
+            }
+            // Requests queued after the last check of the writing thread are written here.
+            for (;;)
+            {
+                synchronized (queue_)
+                {
+                    if (queue_.isEmpty()) return;
+                }
+                if (!writeLock_.tryLock()) return;  // The thread writing will write them.
+                try
+                {
+                    writeQueued();
+                }
+                finally
+                {
+                    writeLock_.unlock();
+                }
+            }
+        }
+
+        // Writes the queued requests and the contents of the buffer.  Must hold writeLock_.
+        void writeQueued() throws IOException
+        {
+            checkFailure();
+            drainQueue();
+            send();
+        }
+
+        private void checkFailure() throws IOException
+        {
+            IOException failure = failure_;
+            if (failure != null) throw new IOException("Previous write to the socket failed: " + failure.getMessage(), failure);
+        }
+
+        // Moves the queued requests into the buffer.  Must hold writeLock_.
+        private void drainQueue() throws IOException
+        {
+            for (;;)
+            {
+                byte[] request;
+                synchronized (queue_)
+                {
+                    request = queue_.poll();
+                }
+                if (request == null) return;
+                put(request, 0, request.length);
+            }
+        }
+
+        // Copies bytes into the buffer, writing the buffer whenever it is full.  Must hold writeLock_.
+        private void put(byte[] b, int off, int len) throws IOException
+        {
+            while (len > 0)
+            {
+                int bytes = Math.min(len, buffer_.remaining());
+                buffer_.put(b, off, bytes);
+                off += bytes;
+                len -= bytes;
+                if (!buffer_.hasRemaining()) send();
+            }
+        }
+
+        // Writes the contents of the buffer.  Must hold writeLock_.
+        private void send() throws IOException
+        {
+            buffer_.flip();
+            try
+            {
+                while (buffer_.hasRemaining())
+                {
+                    channel_.write(buffer_);
+                }
+            }
+            catch (IOException e)
+            {
+                failure_ = e;
+                Trace.log(Trace.ERROR, "Error writing to socket channel:", e);
+                try
+                {
+                    channel_.close();
+                }
+                catch (IOException e2)
+                {
+                    if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Error closing socket channel:", e2);
+                }
+                throw e;
+            }
+            finally
+            {
+                buffer_.clear();
+            }
+        }
+    }
+}
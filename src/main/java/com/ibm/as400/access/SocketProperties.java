@@ -34,6 +34,7 @@ public class SocketProperties implements Serializable
     static final String SOCKET_TIMEOUT = "soTimeout"; // @F1A
     static final String SOCKET_TCP_NO_DELAY = "soTCPNoDelay"; // @F1A
     static final String SOCKET_LOGIN_TIMEOUT = "loginTimeout"; // @st3
+    static final String SOCKET_CHANNEL = "socketChannel";
     
     // @greenscreens
     static final String SOCK5_SERVER = "sock5server";
@@ -46,6 +47,7 @@ public class SocketProperties implements Serializable
                 || property.equals(SOCKET_TIMEOUT)
                 || property.equals(SOCKET_TCP_NO_DELAY)
                 || property.equals(SOCKET_LOGIN_TIMEOUT)
+                || property.equals(SOCKET_CHANNEL)
                 // @greenscreens
                 || property.equals(SOCK5_SERVER)
                 ;
@@ -65,6 +67,7 @@ public class SocketProperties implements Serializable
     boolean tcpNoDelay_ = false;
     boolean loginTimeoutSet_ = false; //@STIMEOUT
     int loginTimeout_ = 0; //@STIMEOUT this is an option in java.net.Socket.connect(SocketAddress endpoint, int timeout) (java 1.4)
+    boolean socketChannel_ = false; // Use a SocketChannel for non-secure connections
 
     // @greenscreens properties
     boolean sock5ServerSet_ = false;
@@ -87,6 +90,7 @@ public class SocketProperties implements Serializable
         loginTimeout_ = properties.loginTimeout_;        //@st3
         tcpNoDelaySet_ = properties.tcpNoDelaySet_;
         tcpNoDelay_ = properties.tcpNoDelay_;
+        socketChannel_ = properties.socketChannel_;
         
         // @greenscreens
         sock5ServerSet_ = properties.sock5ServerSet_;
@@ -119,6 +123,7 @@ public class SocketProperties implements Serializable
              loginTimeout_         == props.loginTimeout_ &&
              tcpNoDelaySet_        == props.tcpNoDelaySet_ &&
              tcpNoDelay_           == props.tcpNoDelay_ &&
+             socketChannel_        == props.socketChannel_ &&
              
              // @greenscreens
              sock5ServerSet_ == props.sock5ServerSet_ &&
@@ -164,6 +169,9 @@ public class SocketProperties implements Serializable
         if (tcpNoDelaySet_) {
             ref.add(new StringRefAddr(SOCKET_TCP_NO_DELAY, Boolean.toString(tcpNoDelay_)));
         }
+        if (socketChannel_) {
+            ref.add(new StringRefAddr(SOCKET_CHANNEL, Boolean.toString(socketChannel_)));
+        }
         
         if (sock5ServerSet_) {
             ref.add(new StringRefAddr(SOCK5_SERVER, sock5Server));
@@ -193,6 +201,9 @@ public class SocketProperties implements Serializable
             case SOCKET_TCP_NO_DELAY:
                 setTcpNoDelay(Boolean.parseBoolean(value));
                 break;
+            case SOCKET_CHANNEL:
+                setSocketChannel(Boolean.parseBoolean(value));
+                break;
             case SOCK5_SERVER:
                 setSock5Server(value);
                 break;
@@ -338,6 +349,16 @@ public class SocketProperties implements Serializable
         return soTimeoutSet_;
     }
 
+    /**
+     Indicates if connections that are not secure use a java.nio.channels.SocketChannel.
+     @return  true if a SocketChannel is used; false otherwise.
+     **/
+    public boolean isSocketChannel()
+    {
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Checking if socket channel:", socketChannel_);
+        return socketChannel_;
+    }
+
     /**
      Indicates the value to which the TCP_NODELAY socket option is set.
      @return  true if TCP_NODELAY is set; false otherwise.
@@ -425,6 +446,19 @@ public class SocketProperties implements Serializable
         soTimeout_ = soTimeout;
     }
 
+    /**
+     Indicates whether connections that are not secure should use a java.nio.channels.SocketChannel.
+     Requests sent on such a connection by many threads at the same time are combined into fewer
+     writes, and replies are read through a large buffer.
+     The default is false.  A SocketChannel is not used with a SOCKS5 server.
+     @param  socketChannel  true to use a SocketChannel; false otherwise.
+     **/
+    public void setSocketChannel(boolean socketChannel)
+    {
+        if (Trace.traceOn_) Trace.log(Trace.DIAGNOSTIC, "Setting socket channel:", socketChannel);
+        socketChannel_ = socketChannel;
+    }
+
     /**
      Indicates the value to which the TCP_NODELAY socket option should be set.
      @param  tcpNoDelay  true to set TCP_NODELAY; false otherwise.
@@ -179,6 +179,41 @@ public class SystemProperties
      **/
     public static final String TRACE_FILE = ACCESS_PREFIX + "Trace.file";
 
+    /**
+     Specifies whether the {@link Trace Trace} class logs asynchronously.  When this is true,
+     trace messages are recorded in a buffer and written by a background thread.
+     <ul>
+     <li>Property name: com.ibm.as400.access.Trace.async
+     <li>Values/syntax: <tt>true</tt> or <tt>false</tt>
+     <li>Default: false
+     <li>Overridden by: <tt>Trace.setTraceAsyncOn()</tt>
+     </ul>
+     **/
+    public static final String TRACE_ASYNC = ACCESS_PREFIX + "Trace.async";
+
+    /**
+     Specifies the file to which the {@link Trace Trace} class writes asynchronous trace output in a binary format.
+     Use the {@link TraceDecoder TraceDecoder} class to turn the file into text.
+     <ul>
+     <li>Property name: com.ibm.as400.access.Trace.binaryFile
+     <li>Values/syntax: A file name.
+     <li>Default: (no default)  Asynchronous trace output is written as text to the trace file.
+     <li>Overridden by: <tt>Trace.setBinaryFileName()</tt>
+     </ul>
+     **/
+    public static final String TRACE_BINARY_FILE = ACCESS_PREFIX + "Trace.binaryFile";
+
+    /**
+     Specifies the number of trace messages the {@link Trace Trace} class buffers when it logs asynchronously.
+     <ul>
+     <li>Property name: com.ibm.as400.access.Trace.bufferSize
+     <li>Values/syntax: <tt>16 or greater</tt>
+     <li>Default: 65536
+     <li>Overridden by: (none)
+     </ul>
+     **/
+    public static final String TRACE_BUFFER_SIZE = ACCESS_PREFIX + "Trace.bufferSize";
+
     /**
      Specifies which trace categories to start on the JDBC server job.
      <ul>
@@ -318,6 +353,18 @@ public class SystemProperties
      **/
     public static final String LIST_WAIT_TIMEOUT = ACCESS_PREFIX + "ListUtilities.listWaitTimeout";
 
+    /**
+     Specifies the maximum number of parsed SQL statements that the JDBC driver keeps in a cache shared by all connections in the JVM.
+     Preparing or executing an SQL statement that is in the cache does not parse the statement again.
+     <ul>
+     <li>Property name: com.ibm.as400.access.JDBC.parsedStatementCacheSize
+     <li>Values/syntax: <tt>0 or greater</tt> (0 means "do not cache parsed statements")
+     <li>Default: 256
+     <li>Overridden by: (none)
+     </ul>
+     **/
+    public static final String JDBC_PARSED_STATEMENT_CACHE_SIZE = ACCESS_PREFIX + "JDBC.parsedStatementCacheSize";
+
 
 
     //  *** Note: ***
@@ -187,6 +187,15 @@ import java.net.UnknownHostException;
   In addition, tracing can be set using the "com.ibm.as400.access.Trace.category"
   and "com.ibm.as400.access.Trace.file" <a href="doc-files/SystemProperties.html">system properties</a>.
 
+  <p>
+  Tracing can be made asynchronous with {@link #setTraceAsyncOn setTraceAsyncOn()}, so that it can be left on
+  in applications that are busy.  The thread that logs a message only records it in a buffer, and a
+  background thread formats the message and writes it to the trace destination.  The background thread
+  can instead write the messages to a file in a compact binary format (see {@link #setBinaryFileName setBinaryFileName()}),
+  which the {@link TraceDecoder TraceDecoder} class turns back into text.  If messages are logged faster
+  than they can be written, the buffer fills and messages are lost; the number lost is traced.
+  Messages for a specific component are always written by the thread that logs them.
+
   <p>
   Note: This class can exploit a standard Java Logger if one is defined in the JVM (per JSR 47, package <tt>java.util.logging</tt>, added in J2SE 1.4).
   See {@link #LOGGER_NAME LOGGER_NAME}.
@@ -222,7 +231,11 @@ public class Trace implements Runnable
 
   private static Hashtable printWriterHash_ = new Hashtable();      // @W1A
   private static Hashtable fileNameHash_    = new Hashtable();      // @W1A
-  private static SimpleDateFormat timeStampFormatter_ = new SimpleDateFormat( "EEE MMM d HH:mm:ss:SSS z yyyy" );
+  private static SimpleDateFormat timeStampFormatter_ = new SimpleDateFormat( TraceBuffer.TIME_STAMP_FORMAT );
+
+  private static final int DEFAULT_BUFFER_SIZE = 65536;
+  private static volatile TraceBuffer buffer_ = null;  // not null when asynchronous tracing is on
+  private static String binaryFileName_ = null;
 
 
   /**
@@ -337,6 +350,17 @@ public class Trace implements Runnable
     return fileName_;
   }
 
+  /**
+    Returns the binary trace file name.
+    @return  The file name to which asynchronous trace is written in the binary format,
+    or null if asynchronous trace is written as text to the trace destination.
+    @see #setBinaryFileName(String)
+   **/
+  public static String getBinaryFileName()
+  {
+    return binaryFileName_;
+  }
+
 
   /**
     Returns the trace file name for the specified component.  Null
@@ -383,6 +407,17 @@ public class Trace implements Runnable
 
 
 
+  /**
+    Indicates if asynchronous tracing is on.
+    @return  true if asynchronous tracing is on; false otherwise.
+    @see #setTraceAsyncOn(boolean)
+   **/
+  public static boolean isTraceAsyncOn()
+  {
+    return buffer_ != null;
+  }
+
+
   //@D2A
   /**
     Indicates if all of the tracing categories are enabled.
@@ -583,6 +618,12 @@ public class Trace implements Runnable
       }
     }
 
+    // Load and apply the asynchronous trace system properties.
+    String binaryFile = SystemProperties.getProperty (SystemProperties.TRACE_BINARY_FILE);
+    if (binaryFile != null) binaryFileName_ = binaryFile;
+    String async = SystemProperties.getProperty (SystemProperties.TRACE_ASYNC);
+    if (async != null) setTraceAsyncOn(Boolean.valueOf(async).booleanValue());
+
     // Load and apply the trace enabled system property.
     String enabled = SystemProperties.getProperty (SystemProperties.TRACE_ENABLED);
     if (enabled != null)
@@ -681,7 +722,7 @@ public class Trace implements Runnable
     buf.append("  ");
   }
 
-  private static void logSource(Object source, StringBuffer buffer) {           //@L8
+  static void logSource(Object source, StringBuffer buffer) {           //@L8
       if(source==null) return;
       buffer.append('[');
       String simpleName =source.getClass().getName(); 
@@ -734,6 +775,14 @@ public class Trace implements Runnable
 
       if (logger_ == null || userSpecifiedDestination_)  // traditional trace
       {
+        TraceBuffer buffer = buffer_;
+        if (buffer != null && component == null)
+        {
+          // Asynchronous trace.  The writer thread formats and writes the message.
+          buffer.record(category, source, message, e);
+          return;
+        }
+
         // First, write to the default log
         synchronized(destination_)
         {
@@ -1154,6 +1203,12 @@ public static final void log(int category, Object source, String message, byte[]
     {
       if (logger_ == null || userSpecifiedDestination_)  // traditional trace
       {  // log to destination_
+        TraceBuffer buffer = buffer_;
+        if (buffer != null)
+        {
+          buffer.record(category, null, message, data, offset, length);
+          return;
+        }
         synchronized(destination_)
         {
           logTimeStamp(null, destination_);
@@ -1198,6 +1253,12 @@ private static final void log(int category, Object source, String message, byte[
   {
     if (logger_ == null || userSpecifiedDestination_)  // traditional trace
     {  // log to destination_
+      TraceBuffer buffer = buffer_;
+      if (buffer != null)
+      {
+        buffer.record(category, source, message, data, offset, length);
+        return;
+      }
       synchronized(destination_)
       {
         logTimeStamp(null, destination_);
@@ -1284,10 +1345,18 @@ private static final void log(int category, Object source, String message, byte[
   // Output sixteen bytes per line, two hexadecimal digits per byte, one
   // space between bytes.
   static void printByteArray(PrintWriter pw, byte[] data, int offset, int length)
+  {
+    printByteArray(pw, data, offset, length, showChars_);
+  }
+
+
+  // Same as above, but the characters are shown according to showChars
+  // instead of the trace.showChars property.
+  static void printByteArray(PrintWriter pw, byte[] data, int offset, int length, boolean showChars)
   {
     StringBuffer ebcdicInfo = null;
     StringBuffer asciiInfo  = null; 
-    if (showChars_) {
+    if (showChars) {
       ebcdicInfo = new StringBuffer();
       asciiInfo  = new StringBuffer(); 
     }
@@ -1602,7 +1671,8 @@ private static final void log(int category, Object source, String message, byte[
    **/
   public static synchronized void setFileName(String fileName) throws IOException
   {
-    // Flush the current destination stream.
+    // Write the recorded messages and flush the current destination stream.
+    flushBuffer();
     destination_.flush();
 
     // If we created our PrintWriter internally (based on a file), close it.
@@ -1705,7 +1775,8 @@ private static final void log(int category, Object source, String message, byte[
    **/
   public static synchronized void setPrintWriter(PrintWriter obj) throws IOException
   {
-    // Flush the current destination stream.
+    // Write the recorded messages and flush the current destination stream.
+    flushBuffer();
     destination_.flush();
 
     if (fileName_ != null)
@@ -1805,6 +1876,77 @@ private static final void log(int category, Object source, String message, byte[
     }
   }
 
+  /**
+    Sets asynchronous tracing on or off.  When asynchronous tracing is on, the thread
+    that logs a message records it in a buffer and returns, and a background thread
+    formats the message and writes it to the trace destination, or writes it to the
+    binary trace file if one has been set.  Messages for a specific component, and
+    messages sent to a Java Logger, are still written by the thread that logs them.
+    If messages are logged faster than they can be written, the buffer fills and
+    messages are lost; the number lost is traced.  When asynchronous tracing is turned
+    off, the messages in the buffer are written before this method returns.
+    <p>
+    The size of the buffer is set by the "com.ibm.as400.access.Trace.bufferSize"
+    <a href="doc-files/SystemProperties.html">system property</a>.
+    @param  traceAsync  If true, asynchronous tracing is on; otherwise, messages
+            are written by the thread that logs them.
+    @see #setBinaryFileName(String)
+   **/
+  public static synchronized void setTraceAsyncOn(boolean traceAsync)
+  {
+    if (traceAsync == (buffer_ != null)) return;
+    if (traceAsync)
+    {
+      buffer_ = new TraceBuffer(getBufferSize(), binaryFileName_);
+    }
+    else
+    {
+      TraceBuffer buffer = buffer_;
+      buffer_ = null;
+      buffer.close();
+    }
+  }
+
+  /**
+    Sets the binary trace file name.  While asynchronous tracing is on, all further
+    trace output, except output for a specific component, is sent to the file in a
+    compact binary format.  Use the {@link TraceDecoder TraceDecoder} class to turn
+    the file into text.  If the file exists, it is replaced.
+    @param  fileName  The binary trace file name.  If this is null, asynchronous trace
+            output is sent as text to the trace file or PrintWriter.
+    @exception  IOException  If an error occurs while accessing the file.
+    @see #setTraceAsyncOn(boolean)
+   **/
+  public static synchronized void setBinaryFileName(String fileName) throws IOException
+  {
+    if (buffer_ != null) buffer_.setBinaryFileName(fileName);
+    binaryFileName_ = fileName;
+  }
+
+  // Writes the messages recorded by asynchronous trace.
+  private static void flushBuffer()
+  {
+    TraceBuffer buffer = buffer_;
+    if (buffer != null) buffer.flush();
+  }
+
+  // Returns the number of messages the asynchronous trace buffer holds.
+  private static int getBufferSize()
+  {
+    int bufferSize = DEFAULT_BUFFER_SIZE;
+    String propVal = SystemProperties.getProperty(SystemProperties.TRACE_BUFFER_SIZE);
+    if (propVal != null)
+    {
+      try {
+        bufferSize = Integer.parseInt(propVal);
+      }
+      catch (Exception e) {
+        System.err.println("Trace buffer size not valid: " + propVal);
+      }
+    }
+    return bufferSize;
+  }
+
   /**
    Obtains the (static) Toolbox logger from the JVM, if one exists.
    To activate a Toolbox logger, the application can simply call Logger.getLogger(Trace.LOGGER_NAME).
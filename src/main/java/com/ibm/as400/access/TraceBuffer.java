@@ -0,0 +1,478 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: TraceBuffer.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// The buffer of trace events used when asynchronous tracing is on.
+// A thread that logs copies the parts of the event (category, thread, time, message, and a copy of
+// the data bytes) into a slot of a ring buffer and returns; nothing is formatted or written on that
+// thread, and no lock is taken.  A slot is claimed with a compare-and-set of the sequence number of
+// the next event.  A single writer thread formats the events in sequence order and writes them to the
+// trace destination, or writes them in a compact binary format that TraceDecoder turns back into the
+// text that Trace writes.  If the writer falls so far behind that the buffer is full, new events are
+// dropped, and the number dropped is written in their place.
+// This class is used by Trace and TraceDecoder.
+class TraceBuffer implements Runnable
+{
+    // Binary format.  The file starts with a header:
+    //   int MAGIC, short VERSION, long base time (ms), long base nanoTime, string time zone, boolean showChars
+    // followed by records, each of which starts with a byte record type:
+    //   RECORD_EVENT: byte category, long nanoTime, byte flags, then the strings and data named by the flags,
+    //                 in the order thread, source, message, data (int length, bytes), stack trace.
+    //   RECORD_LOST:  long nanoTime, long number of events dropped.
+    // A string is an int length followed by that many bytes of UTF-8.
+    static final int MAGIC = 0x4A545442;  // "JTTB"
+    static final int VERSION = 1;
+    static final int RECORD_EVENT = 1;
+    static final int RECORD_LOST = 2;
+    static final int HAS_THREAD = 0x01;
+    static final int HAS_SOURCE = 0x02;
+    static final int HAS_MESSAGE = 0x04;
+    static final int HAS_DATA = 0x08;      // The event was logged with a byte array.
+    static final int NULL_DATA = 0x10;     // The byte array was null.
+    static final int HAS_STACK = 0x20;
+
+    static final String TIME_STAMP_FORMAT = "EEE MMM d HH:mm:ss:SSS z yyyy";
+
+    // How long the writer waits before looking for new events when the buffer is empty.
+    private static final long IDLE_WAIT = 1000000L;  // 1 millisecond.
+    // The most events written to the destination at once.
+    private static final int BATCH_SIZE = 1024;
+
+    // A slot of the ring buffer.
+    private static final class Event
+    {
+        // The sequence number of the event in the slot.  It is set after the other fields, so an
+        // event can be read once its sequence number is seen.
+        volatile long sequence_ = -1;
+        int category_;
+        long time_;
+        Thread thread_;
+        Object source_;
+        String message_;
+        int flags_;
+        byte[] data_;
+        Throwable throwable_;
+    }
+
+    private final Event[] events_;
+    private final int mask_;
+    private final AtomicLong next_ = new AtomicLong();  // Sequence number of the next event recorded.
+    private volatile long read_;                        // Sequence number of the next event written.  Set only by the writer.
+    private final AtomicLong lost_ = new AtomicLong();
+    private final long baseMillis_ = System.currentTimeMillis();
+    private final long baseNanos_ = System.nanoTime();
+
+    private final Thread writer_;
+    private final Thread shutdownHook_;
+    private volatile boolean stopped_;
+
+    // Used only by the writer thread.
+    private final SimpleDateFormat formatter_ = new SimpleDateFormat(TIME_STAMP_FORMAT);
+    private final StringWriter text_ = new StringWriter();
+    private final PrintWriter textWriter_ = new PrintWriter(text_);
+
+    private DataOutputStream binary_;  // Guarded by this.  Not null when writing the binary format.
+
+    // capacity is rounded up to a power of 2.  If binaryFileName is not null, the events are
+    // written to it in the binary format; otherwise, or if the file cannot be opened, they are
+    // written to Trace.getPrintWriter().
+    TraceBuffer(int capacity, String binaryFileName)
+    {
+        int size = 16;
+        while (size < capacity && size < (1 << 30)) size <<= 1;
+        events_ = new Event[size];
+        for (int i = 0; i < size; ++i)
+        {
+            events_[i] = new Event();
+        }
+        mask_ = size - 1;
+        if (binaryFileName != null)
+        {
+            try
+            {
+                binary_ = openBinary(binaryFileName);
+            }
+            catch (IOException e)
+            {
+                // Tracing the failure would record another event, so report it directly.
+                System.err.println("Binary trace file not valid: " + binaryFileName);
+                e.printStackTrace(System.err);
+            }
+        }
+
+        writer_ = new Thread(this, "Trace-writer");
+        writer_.setDaemon(true);
+        writer_.start();
+
+        // Write the events still in the buffer when the JVM ends.
+        shutdownHook_ = new Thread("Trace-writer-shutdown")
+        {
+            public void run()
+            {
+                close();
+            }
+        };
+        try
+        {
+            Runtime.getRuntime().addShutdownHook(shutdownHook_);
+        }
+        catch (Exception e)
+        {
+            // The JVM is already ending, or the hook is not allowed.
+        }
+    }
+
+    // Records an event logged without data.  A null message is recorded as "(null)".
+    void record(int category, Object source, String message, Throwable e)
+    {
+        if (e == null && category == Trace.ERROR) e = new Throwable();
+        record(category, source, message == null ? "(null)" : message, HAS_MESSAGE, null, e);
+    }
+
+    // Records an event logged with data.  The data is copied, since the caller may reuse the array.
+    void record(int category, Object source, String message, byte[] data, int offset, int length)
+    {
+        int flags = HAS_DATA;
+        if (message != null) flags |= HAS_MESSAGE;
+        byte[] copy = null;
+        if (data == null)
+        {
+            flags |= NULL_DATA;
+        }
+        else
+        {
+            copy = new byte[length];
+            System.arraycopy(data, offset, copy, 0, length);
+        }
+        record(category, source, message, flags, copy, category == Trace.ERROR ? new Throwable() : null);
+    }
+
+    // Everything is allocated before the slot is claimed, so a slot is always filled once claimed.
+    private void record(int category, Object source, String message, int flags, byte[] data, Throwable e)
+    {
+        long time = System.nanoTime();
+        Thread thread = Trace.traceThread_ ? Thread.currentThread() : null;
+        long sequence;
+        do
+        {
+            sequence = next_.get();
+            if (sequence - read_ >= events_.length)
+            {
+                lost_.incrementAndGet();
+                return;
+            }
+        }
+        while (!next_.compareAndSet(sequence, sequence + 1));
+
+        Event event = events_[(int)sequence & mask_];
+        event.category_ = category;
+        event.time_ = time;
+        event.thread_ = thread;
+        event.source_ = source;
+        event.message_ = message;
+        event.flags_ = flags;
+        event.data_ = data;
+        event.throwable_ = e;
+        event.sequence_ = sequence;
+    }
+
+    // Waits until the events recorded before this method was called have been written.
+    void flush()
+    {
+        long end = next_.get();
+        while (read_ < end && writer_.isAlive() && Thread.currentThread() != writer_)
+        {
+            LockSupport.unpark(writer_);
+            LockSupport.parkNanos(IDLE_WAIT);
+        }
+    }
+
+    // Writes the events in the buffer, then ends the writer thread.  Events recorded afterwards are not written.
+    void close()
+    {
+        stopped_ = true;
+        LockSupport.unpark(writer_);
+        if (Thread.currentThread() != writer_)
+        {
+            try
+            {
+                writer_.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (Thread.currentThread() != shutdownHook_)
+        {
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook_);
+            }
+            catch (Exception e)
+            {
+                // The JVM is already ending.
+            }
+        }
+    }
+
+    // Sends the events recorded from now on to a binary file, or to the trace destination if binaryFileName is null.
+    void setBinaryFileName(String binaryFileName) throws IOException
+    {
+        flush();
+        DataOutputStream binary = (binaryFileName == null) ? null : openBinary(binaryFileName);
+        synchronized (this)
+        {
+            closeBinary();
+            binary_ = binary;
+        }
+    }
+
+    private DataOutputStream openBinary(String binaryFileName) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(binaryFileName), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(baseMillis_);
+        out.writeLong(baseNanos_);
+        writeString(out, TimeZone.getDefault().getID());
+        out.writeBoolean(Trace.showChars_);
+        out.flush();
+        return out;
+    }
+
+    // Must hold this.
+    private void closeBinary()
+    {
+        if (binary_ != null)
+        {
+            try
+            {
+                binary_.close();
+            }
+            catch (IOException e)
+            {
+                System.err.println("Error closing binary trace file: " + e);
+            }
+            binary_ = null;
+        }
+    }
+
+    public void run()
+    {
+        for (;;)
+        {
+            // Read stopped_ first, so that the events recorded before close() are written.
+            boolean stopped = stopped_;
+            if (!write())
+            {
+                if (stopped) break;
+                LockSupport.parkNanos(IDLE_WAIT);
+            }
+        }
+        synchronized (this)
+        {
+            closeBinary();
+        }
+    }
+
+    // Writes the events that are ready, up to BATCH_SIZE.  Returns false if there were none.
+    private synchronized boolean write()
+    {
+        long read = read_;
+        Event event = events_[(int)read & mask_];
+        int count = 0;
+        try
+        {
+            while (count < BATCH_SIZE && event.sequence_ == read)
+            {
+                if (binary_ != null)
+                    writeEvent(binary_, event);
+                else
+                    printEvent(textWriter_, event);
+                event.thread_ = null;
+                event.source_ = null;
+                event.message_ = null;
+                event.data_ = null;
+                event.throwable_ = null;
+                read_ = ++read;
+                ++count;
+                event = events_[(int)read & mask_];
+            }
+
+            long lost = lost_.getAndSet(0);
+            if (lost > 0)
+            {
+                long time = System.nanoTime();
+                if (binary_ != null)
+                {
+                    binary_.writeByte(RECORD_LOST);
+                    binary_.writeLong(time);
+                    binary_.writeLong(lost);
+                }
+                else
+                {
+                    printLost(textWriter_, formatter_, toMillis(baseMillis_, baseNanos_, time), lost);
+                }
+            }
+            if (count == 0 && lost == 0) return false;
+
+            if (binary_ != null)
+            {
+                binary_.flush();
+            }
+            else
+            {
+                textWriter_.flush();
+                PrintWriter destination = Trace.getPrintWriter();
+                synchronized (destination)
+                {
+                    destination.print(text_.getBuffer());
+                    destination.flush();
+                }
+                text_.getBuffer().setLength(0);
+            }
+        }
+        catch (IOException e)
+        {
+            // Tracing the failure would record another event, so report it directly.
+            System.err.println("Error writing binary trace file, binary trace ended: " + e);
+            closeBinary();
+        }
+        return true;
+    }
+
+    private void printEvent(PrintWriter pw, Event event)
+    {
+        String stackTrace = null;
+        if (event.throwable_ != null)
+        {
+            StringWriter sw = new StringWriter();
+            event.throwable_.printStackTrace(new PrintWriter(sw));
+            stackTrace = sw.toString();
+        }
+        printEvent(pw, formatter_, toMillis(baseMillis_, baseNanos_, event.time_),
+                   event.thread_ == null ? null : event.thread_.toString(), sourceName(event.source_),
+                   event.message_, event.flags_, event.data_, stackTrace, Trace.showChars_);
+    }
+
+    private void writeEvent(DataOutputStream out, Event event) throws IOException
+    {
+        String thread = (event.thread_ == null) ? null : event.thread_.toString();
+        String source = sourceName(event.source_);
+        String stackTrace = null;
+        if (event.throwable_ != null)
+        {
+            StringWriter sw = new StringWriter();
+            event.throwable_.printStackTrace(new PrintWriter(sw));
+            stackTrace = sw.toString();
+        }
+        int flags = event.flags_;
+        if (thread != null) flags |= HAS_THREAD;
+        if (source != null) flags |= HAS_SOURCE;
+        if (stackTrace != null) flags |= HAS_STACK;
+
+        out.writeByte(RECORD_EVENT);
+        out.writeByte(event.category_);
+        out.writeLong(event.time_);
+        out.writeByte(flags);
+        if (thread != null) writeString(out, thread);
+        if (source != null) writeString(out, source);
+        if ((flags & HAS_MESSAGE) != 0) writeString(out, event.message_);
+        if ((flags & HAS_DATA) != 0 && (flags & NULL_DATA) == 0)
+        {
+            out.writeInt(event.data_.length);
+            out.write(event.data_);
+        }
+        if (stackTrace != null) writeString(out, stackTrace);
+    }
+
+    // The name Trace writes for the object that logged an event.
+    private static String sourceName(Object source)
+    {
+        if (source == null) return null;
+        StringBuffer buffer = new StringBuffer();
+        Trace.logSource(source, buffer);
+        return buffer.toString();
+    }
+
+    static long toMillis(long baseMillis, long baseNanos, long nanoTime)
+    {
+        return baseMillis + (nanoTime - baseNanos) / 1000000L;
+    }
+
+    // Formats an event the same way Trace does when it writes the event on the logging thread.
+    // Characters are shown next to the data bytes if showChars is true.
+    static void printEvent(PrintWriter pw, SimpleDateFormat formatter, long millis, String thread, String source,
+                           String message, int flags, byte[] data, String stackTrace, boolean showChars)
+    {
+        if (thread != null)
+        {
+            pw.print(thread);
+            pw.print("  ");
+        }
+        pw.print(formatter.format(new Date(millis)));
+        pw.print("  ");
+        if (source != null) pw.print(source);
+        if ((flags & HAS_DATA) != 0)
+        {
+            if (message != null) pw.println(message);
+            if (data == null)
+                pw.println("(null)");
+            else
+                Trace.printByteArray(pw, data, 0, data.length, showChars);
+        }
+        else
+        {
+            pw.println(message);
+        }
+        if (stackTrace != null) pw.print(stackTrace);
+    }
+
+    static void printLost(PrintWriter pw, SimpleDateFormat formatter, long millis, long lost)
+    {
+        pw.print(formatter.format(new Date(millis)));
+        pw.print("  ");
+        pw.print(lost);
+        pw.println(" trace events were lost because the trace buffer was full.");
+    }
+
+    static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,169 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: TraceDecoder.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.access;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+
+/**
+  Turns a binary trace file into the text that the {@link Trace Trace} class writes.
+  A binary trace file is written when asynchronous tracing is on and a binary trace
+  file name has been set.
+  See {@link Trace#setTraceAsyncOn Trace.setTraceAsyncOn()} and
+  {@link Trace#setBinaryFileName Trace.setBinaryFileName()}.
+  <p>
+  The decoder can be run from the command line:
+  <pre>
+  java com.ibm.as400.access.TraceDecoder <i>binaryFile</i> [<i>textFile</i>]
+  </pre>
+  If no text file is specified, the text is written to System.out.
+ **/
+public class TraceDecoder
+{
+  private final DataInputStream in_;
+  private final long baseMillis_;
+  private final long baseNanos_;
+  private final boolean showChars_;
+  private final SimpleDateFormat formatter_ = new SimpleDateFormat(TraceBuffer.TIME_STAMP_FORMAT);
+
+  /**
+    Constructs a TraceDecoder object, and reads the header of the binary trace.
+    @param  in  The binary trace.
+    @exception  IOException  If an error occurs while reading, or the data is not a binary trace.
+   **/
+  public TraceDecoder(InputStream in) throws IOException
+  {
+    if (in == null) throw new NullPointerException("in");
+    in_ = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+    if (in_.readInt() != TraceBuffer.MAGIC)
+    {
+      throw new IOException("Not a binary trace file.");
+    }
+    int version = in_.readShort();
+    if (version != TraceBuffer.VERSION)
+    {
+      throw new IOException("Binary trace file version " + version + " is not supported.");
+    }
+    baseMillis_ = in_.readLong();
+    baseNanos_ = in_.readLong();
+    formatter_.setTimeZone(TimeZone.getTimeZone(TraceBuffer.readString(in_)));
+    showChars_ = in_.readBoolean();
+  }
+
+  /**
+    Writes the text of all of the events in the binary trace.  The input stream
+    is read to the end, but is not closed.
+    @param  pw  The writer to which the text is written.
+    @exception  IOException  If an error occurs while reading, or the binary trace is not valid.
+   **/
+  public void decode(PrintWriter pw) throws IOException
+  {
+    if (pw == null) throw new NullPointerException("pw");
+    try
+    {
+      for (;;)
+      {
+        int type = in_.read();
+        if (type < 0) break;
+        switch (type)
+        {
+          case TraceBuffer.RECORD_EVENT:
+            decodeEvent(pw);
+            break;
+          case TraceBuffer.RECORD_LOST:
+            long millis = TraceBuffer.toMillis(baseMillis_, baseNanos_, in_.readLong());
+            TraceBuffer.printLost(pw, formatter_, millis, in_.readLong());
+            break;
+          default:
+            throw new IOException("Record type " + type + " is not valid.");
+        }
+      }
+    }
+    catch (EOFException e)
+    {
+      // The JVM ended while the last record was written.
+      pw.println("(binary trace ends in the middle of a record)");
+    }
+    finally
+    {
+      pw.flush();
+    }
+  }
+
+  private void decodeEvent(PrintWriter pw) throws IOException
+  {
+    in_.readByte();  // The category.
+    long millis = TraceBuffer.toMillis(baseMillis_, baseNanos_, in_.readLong());
+    int flags = in_.readByte();
+    String thread = ((flags & TraceBuffer.HAS_THREAD) != 0) ? TraceBuffer.readString(in_) : null;
+    String source = ((flags & TraceBuffer.HAS_SOURCE) != 0) ? TraceBuffer.readString(in_) : null;
+    String message = ((flags & TraceBuffer.HAS_MESSAGE) != 0) ? TraceBuffer.readString(in_) : null;
+    byte[] data = null;
+    if ((flags & TraceBuffer.HAS_DATA) != 0 && (flags & TraceBuffer.NULL_DATA) == 0)
+    {
+      data = new byte[in_.readInt()];
+      in_.readFully(data);
+    }
+    String stackTrace = ((flags & TraceBuffer.HAS_STACK) != 0) ? TraceBuffer.readString(in_) : null;
+    TraceBuffer.printEvent(pw, formatter_, millis, thread, source, message, flags, data, stackTrace, showChars_);
+  }
+
+  /**
+    Turns a binary trace file into text.
+    @param  args  The binary trace file name, and optionally the text file name.
+   **/
+  public static void main(String[] args)
+  {
+    if (args.length < 1 || args.length > 2)
+    {
+      System.err.println("Usage: java com.ibm.as400.access.TraceDecoder binaryFile [textFile]");
+      return;
+    }
+    try
+    {
+      InputStream in = new FileInputStream(args[0]);
+      try
+      {
+        PrintWriter pw = (args.length > 1) ? new PrintWriter(new OutputStreamWriter(new FileOutputStream(args[1])))
+                                           : new PrintWriter(System.out);
+        try
+        {
+          new TraceDecoder(in).decode(pw);
+        }
+        finally
+        {
+          if (args.length > 1) pw.close();
+        }
+      }
+      finally
+      {
+        in.close();
+      }
+    }
+    catch (IOException e)
+    {
+      System.err.println("Error decoding binary trace file " + args[0] + ": " + e.getMessage());
+      e.printStackTrace(System.err);
+    }
+  }
+}
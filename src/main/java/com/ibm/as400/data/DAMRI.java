@@ -102,6 +102,8 @@ public class DAMRI extends ListResourceBundle
 	public final static String    XML_SERIALIZED            = "XML_SERIALIZED"; // @C2A
 	public final static String    STRUCT_VALUE              = "STRUCT_VALUE"; // @C2A
 	public final static String    DUPLICATE_FIELD_NAME      = "DUPLICATE_FIELD_NAME"; // @C3A
+    public final static String    JAVA_GENERATED            = "JAVA_GENERATED";
+    public final static String    JAVA_NOT_GENERATED        = "JAVA_NOT_GENERATED";
 
     // Internal errors
     public final static String    BAD_DATA_TYPE             = "BAD_DATA_TYPE";
@@ -161,7 +163,7 @@ public class DAMRI extends ListResourceBundle
     { BAD_OFFSET_VALUE,            "Offset to data, {0}, is either negative or exceeds number of bytes available, {1}. Processing {2} element \"{3}\"." },
     { BAD_TOTAL_OFFSET,            "Offset to data, {0}, is either negative or exceeds number of bytes available, {1}. Offest is calculated as {2} bytes from document element {3}. Processing {4} element \"{5}\"." },
     { NOT_ENOUGH_DATA,             "Not enough output data available for this document element. Processing {0} element \"{1}\"." },
-	{ PCD_ARGUMENTS,               "Arguments are: [-serialize] <resource name>" },
+	{ PCD_ARGUMENTS,               "Arguments are: [-serialize] <resource name>  or  -generate <resource name> <package name> <output directory> [<CCSID>]" },
 
 	// The following are new in v4r5m0
 
@@ -191,6 +193,8 @@ public class DAMRI extends ListResourceBundle
 	{ XML_SERIALIZED,              "{0} document ''{1}'' saved." }, // @C2A
 	{ STRUCT_VALUE,                "Cannot set or get the value of a <data> with type=''struct''. Processing <data> element ''{0}''." }, // @C2A
 	{ DUPLICATE_FIELD_NAME,        "RecordFormat ''{0}'' has duplicate field name ''{1}''." }, // @C3A
+    { JAVA_GENERATED,              "Java source file ''{0}'' saved." },
+    { JAVA_NOT_GENERATED,          "No Java class generated for {0} element ''{1}''. Attribute {2} is not supported." },
 
 	// NOTE TO TRANSLATORS: The following four messages are trace messages used for debugging
     { READ_DATA,                   "Reading data -- Offset: {0}\tLength: {1}\tName: \"{2}\"\tByte data: {3}"},
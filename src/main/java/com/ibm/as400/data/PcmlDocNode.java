@@ -217,6 +217,14 @@ abstract class PcmlDocNode extends PcmlNode
         }
     }
 
+    // Set the fully qualified name of the document element.
+    // This is used when a document is cloned, so that the name
+    // does not have to be built again from the names of the ancestors.
+    void setQualifiedName(String qName)
+    {
+        m_QualName = qName;
+    }
+
     // Get the fully qualified name of the document element
     // for use in exceptions.
     // Whereas getQualifiedName() returns an empty string if
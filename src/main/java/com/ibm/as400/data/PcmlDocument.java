@@ -34,6 +34,7 @@ import com.ibm.as400.access.AS400Message;
 import com.ibm.as400.access.AS400SecurityException;
 import com.ibm.as400.access.ObjectDoesNotExistException;
 import com.ibm.as400.access.ErrorCompletingRequestException;
+import com.ibm.as400.access.ExtendedIllegalArgumentException;
 import com.ibm.as400.access.ProgramCall;
 
 
@@ -47,7 +48,9 @@ import com.ibm.as400.access.Trace;                                  //@E1A
 import java.net.UnknownHostException;
 
 
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.TimeZone;
 
@@ -119,6 +122,12 @@ class PcmlDocument extends PcmlDocRoot
     private transient PcmlProgram m_pcmlProgram;
     private transient Object correlationIDLock_ = new Object();
 
+    // The handles of the document elements.  The handle table is built once
+    // and is shared by all clones of the document, since a clone has the same
+    // tree.  Each document has its own array of nodes for the handles.
+    private transient volatile HandleTable m_handleTable;
+    private transient PcmlDocNode[] m_handleNodes;
+
 
     // @E1A -- String constant for use in XPCML
     private static final String XMLNS_STRING =  " xmlns:xsi=" + "\"" + "http://www.w3.org/2001/XMLSchema-instance" + "\"" +
@@ -146,14 +155,168 @@ class PcmlDocument extends PcmlDocRoot
     // clones its children.
     public Object clone()                                           // @C5A
     {                                                               // @C5A
+        HandleTable table = getHandleTable();
         PcmlDocument doc = (PcmlDocument) super.clone();            // @C5A
 
-        // Add the entire cloned tree of objects to the document hash table
-        doc.addToHashtable(doc);                                    // @C5A
+        // Add the entire cloned tree of objects to the document hash table.
+        // The clone has the same tree as this document, so the qualified
+        // names are taken from the handle table instead of being built again.
+        doc.m_handleTable = table;
+        doc.m_handleNodes = table.bind(doc);
 
         return doc;                                                 // @C5A
     }                                                               // @C5A
 
+    // Returns the handle table for the document, building it the first time.
+    private HandleTable getHandleTable()
+    {
+        HandleTable table = m_handleTable;
+        if (table == null)
+        {
+            synchronized (this)
+            {
+                table = m_handleTable;
+                if (table == null)
+                {
+                    ArrayList nodes = new ArrayList();
+                    collectNodes(this, nodes);
+                    m_handleNodes = (PcmlDocNode[]) nodes.toArray(new PcmlDocNode[nodes.size()]);
+                    table = new HandleTable(m_handleNodes);
+                    m_handleTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    // Adds the nodes of a subtree to a list, breadth first.
+    private static void collectNodes(PcmlDocNode root, ArrayList nodes)
+    {
+        LinkedList queue = new LinkedList();
+        queue.add(root);
+        while (!queue.isEmpty())
+        {
+            PcmlDocNode node = (PcmlDocNode) queue.removeFirst();
+            Enumeration children = node.getChildren();
+            if (children == null)
+                continue;
+            while (children.hasMoreElements())
+            {
+                PcmlDocNode child = (PcmlDocNode) children.nextElement();
+                nodes.add(child);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+    Returns the handle of a named element.  The handle can be used
+    with this document and with all clones of it.
+    */
+    int getHandle(String name) throws PcmlException
+    {
+        Integer handle = (Integer) getHandleTable().handles_.get(name);
+        if (handle == null)
+            throw new PcmlException(DAMRI.ELEMENT_NOT_FOUND, new Object[] {name, "<program>, <struct> or <data>"} );
+        return handle.intValue();
+    }
+
+    /**
+    */
+    synchronized boolean callProgram(int handle)
+						           throws AS400SecurityException,
+						                  ObjectDoesNotExistException,
+						                  InterruptedException,
+						                  ErrorCompletingRequestException,
+						                  IOException,
+						                  PcmlException
+    {
+        m_pcmlProgram = getProgramNode(handle);
+        return m_pcmlProgram.callProgram(m_as400);
+    }
+
+    /**
+    */
+    synchronized Object getValue(int handle, PcmlDimensions indices) throws PcmlException
+    {
+        return getDataNode(handle).getValue(indices);
+    }
+
+    /**
+    */
+    synchronized void setValue(int handle, Object value, PcmlDimensions indices) throws PcmlException
+    {
+        getDataNode(handle).setValue(value, indices);
+    }
+
+    // Returns the node for a handle.
+    private PcmlDocNode getHandleNode(int handle)
+    {
+        getHandleTable();
+        PcmlDocNode[] nodes = m_handleNodes;
+        if (handle < 0 || handle >= nodes.length || nodes[handle].getQualifiedName().length() == 0)
+            throw new ExtendedIllegalArgumentException("handle", ExtendedIllegalArgumentException.PARAMETER_VALUE_NOT_VALID);
+        return nodes[handle];
+    }
+
+    /**
+    */
+    private PcmlProgram getProgramNode(int handle) throws PcmlException
+    {
+        PcmlDocNode node = getHandleNode(handle);
+        if (node instanceof PcmlProgram)
+            return (PcmlProgram) node;
+        throw new PcmlException(DAMRI.WRONG_ELEMENT_TYPE, new Object[] {node.getQualifiedName(), "<program>"} );
+    }
+
+    /**
+    */
+    private PcmlData getDataNode(int handle) throws PcmlException
+    {
+        PcmlDocNode node = getHandleNode(handle);
+        if (node instanceof PcmlData)
+            return (PcmlData) node;
+        throw new PcmlException(DAMRI.WRONG_ELEMENT_TYPE, new Object[] {node.getQualifiedName(), "<data>"} );
+    }
+
+    // The qualified names of the nodes of a document, in the order in which
+    // the nodes are found by collectNodes().  A handle is an index into this table.
+    private static final class HandleTable
+    {
+        final String[] names_;
+        final HashMap handles_;
+
+        HandleTable(PcmlDocNode[] nodes)
+        {
+            names_ = new String[nodes.length];
+            handles_ = new HashMap(nodes.length * 2);
+            for (int i = 0; i < nodes.length; ++i)
+            {
+                names_[i] = nodes[i].getQualifiedName();
+                if (names_[i].length() > 0)
+                    handles_.put(names_[i], Integer.valueOf(i));
+            }
+        }
+
+        // Sets the qualified names of a cloned document and adds its
+        // nodes to its hash table.  Returns the nodes of the clone.
+        PcmlDocNode[] bind(PcmlDocument doc)
+        {
+            ArrayList nodes = new ArrayList(names_.length);
+            collectNodes(doc, nodes);
+            PcmlDocNode[] result = (PcmlDocNode[]) nodes.toArray(new PcmlDocNode[nodes.size()]);
+            for (int i = 0; i < result.length; ++i)
+            {
+                if (names_[i].length() > 0)
+                {
+                    result[i].setQualifiedName(names_[i]);
+                    doc.addElement(result[i]);
+                }
+            }
+            return result;
+        }
+    }
+
 	// Custom deserialization
 	private void readObject(ObjectInputStream in)
 		throws IOException, ClassNotFoundException                  // @C1A
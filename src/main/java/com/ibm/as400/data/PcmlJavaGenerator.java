@@ -0,0 +1,895 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: PcmlJavaGenerator.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.data;
+
+import com.ibm.as400.access.ProgramParameter;
+import com.ibm.as400.access.Trace;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ Generates Java source for classes that convert the data described by a
+ PCML or RFML document to and from IBM i data.
+ <p>
+ A class is generated for each &lt;struct&gt;, &lt;recordformat&gt; and
+ &lt;program&gt; element at the top of the document that has a fixed layout.
+ Each element becomes a public field of the Java type that
+ ProgramCallDocument.getValue() would return, and the conversion code
+ is generated for the layout, so no document is interpreted at run time.
+ Elements whose layout depends on other values (for example, <code>count=</code>
+ or <code>length=</code> referring to another element, <code>offset=</code>, or
+ <code>minvrm=</code>), and the types varchar, date, time and timestamp are not
+ supported; no class is generated for them.
+ <p>
+ Character data is converted with the CCSID of the element, the CCSID of the
+ RFML document, or else the default CCSID passed to the generator.
+**/
+class PcmlJavaGenerator
+{
+    private static final String[] JAVA_KEYWORDS = {
+        "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+        "continue", "default", "do", "double", "else", "enum", "extends", "false", "final", "finally",
+        "float", "for", "goto", "if", "implements", "import", "instanceof", "int", "interface", "long",
+        "native", "new", "null", "package", "private", "protected", "public", "return", "short", "static",
+        "strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient", "true", "try",
+        "void", "volatile", "while", "_"
+    };
+
+    private final PcmlDocument m_doc;
+    private final String m_packageName;
+    private final int m_defaultCcsid;
+
+    // Classes for the top-level elements, by element name.
+    private final HashMap m_models = new HashMap();
+    // Top-level elements that cannot be generated, by element name.
+    private final HashMap m_unsupported = new HashMap();
+    private final Set m_classNames = new HashSet();
+
+    /**
+     Constructs a PcmlJavaGenerator object.
+     @param doc  The parsed document.
+     @param packageName  The package of the generated classes, or "" for the default package.
+     @param defaultCcsid  The CCSID for character data that has none in the document.
+    **/
+    PcmlJavaGenerator(PcmlDocument doc, String packageName, int defaultCcsid)
+    {
+        m_doc = doc;
+        m_packageName = packageName;
+        if (doc instanceof RfmlDocument && ((RfmlDocument) doc).getCcsid() != null)
+            m_defaultCcsid = ((RfmlDocument) doc).getCcsidInt();
+        else
+            m_defaultCcsid = defaultCcsid;
+    }
+
+    /**
+     Generates a source file for each supported element at the top of the document.
+     @param outputDirectory  The root directory for the source files.  The files are
+                             written to the subdirectory for the package.
+     @param messages  Receives a message for each element for which no class was generated.
+     @return The generated files.
+     @exception IOException  If an error occurs while writing a file.
+    **/
+    List generate(File outputDirectory, List messages) throws IOException
+    {
+        Enumeration children = m_doc.getChildren();
+        while (children.hasMoreElements())
+        {
+            PcmlDocNode node = (PcmlDocNode) children.nextElement();
+            getModel(node);
+        }
+
+        File directory = outputDirectory;
+        if (m_packageName.length() > 0)
+            directory = new File(outputDirectory, m_packageName.replace('.', File.separatorChar));
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException(directory.getPath());
+
+        List files = new ArrayList();
+        children = m_doc.getChildren();
+        while (children.hasMoreElements())
+        {
+            PcmlDocNode node = (PcmlDocNode) children.nextElement();
+            ClassModel model = (ClassModel) m_models.get(node.getName());
+            if (model == null || model.node != node)
+            {
+                String[] reason = (String[]) m_unsupported.get(node.getName());
+                if (reason != null)
+                    messages.add(SystemResourceFinder.format(DAMRI.JAVA_NOT_GENERATED, new Object[] {node.getBracketedTagName(), node.getName(), reason[0]} ));
+                continue;
+            }
+
+            File file = new File(directory, model.className + ".java");
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+            try
+            {
+                writeClass(writer, model);
+            }
+            finally
+            {
+                writer.close();
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     Runs the -generate command of ProgramCallDocument and RecordFormatDocument.
+     @param doc  The parsed document.
+     @param args  The command arguments: -generate, the document name, the package name,
+                  the output directory and optionally the default CCSID.
+     @return true if successful, false if the arguments are not valid or an error occurred.
+    **/
+    static boolean runCommand(PcmlDocument doc, String[] args)
+    {
+        int ccsid = 37;
+        if (args.length > 4)
+        {
+            try
+            {
+                ccsid = Integer.parseInt(args[4]);
+            }
+            catch (NumberFormatException e)
+            {
+                System.out.println(SystemResourceFinder.format(DAMRI.PCD_ARGUMENTS));
+                return false;
+            }
+        }
+
+        try
+        {
+            List messages = new ArrayList();
+            List files = new PcmlJavaGenerator(doc, args[2], ccsid).generate(new File(args[3]), messages);
+            for (int i = 0; i < messages.size(); ++i)
+                System.out.println(messages.get(i));
+            for (int i = 0; i < files.size(); ++i)
+                Trace.log(Trace.PCML, SystemResourceFinder.format(DAMRI.JAVA_GENERATED, new Object[] {((File) files.get(i)).getPath()} ));
+            return true;
+        }
+        catch (IOException e)
+        {
+            System.out.println(e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    // Returns the class for a top-level element, or null if it cannot be generated.
+    private ClassModel getModel(PcmlDocNode node)
+    {
+        String name = node.getName();
+        ClassModel model = (ClassModel) m_models.get(name);
+        if (model != null || m_unsupported.containsKey(name))
+            return model;
+
+        int nodeType = node.getNodeType();
+        if (nodeType != PcmlNodeType.STRUCT && nodeType != PcmlNodeType.RECORDFORMAT && nodeType != PcmlNodeType.PROGRAM)
+            return null;
+
+        // Mark the element while it is built, so that a struct that refers to itself is rejected.
+        m_unsupported.put(name, new String[] { PcmlDocNode.makeQuotedAttr("struct", name) });
+        try
+        {
+            String className = uniqueName(toJavaName(name, true), m_classNames);
+            model = new ClassModel(node, className, null);
+            if (nodeType == PcmlNodeType.PROGRAM)
+            {
+                PcmlProgram program = (PcmlProgram) node;
+                if (program.getEntrypoint() != null)
+                    throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("entrypoint", program.getEntrypoint()));
+                model.path = program.getPath();
+            }
+            buildFields(model);
+            m_unsupported.remove(name);
+            m_models.put(name, model);
+            return model;
+        }
+        catch (UnsupportedException e)
+        {
+            m_unsupported.put(name, new String[] { e.getMessage() });
+            return null;
+        }
+    }
+
+    // Builds the fields of a class from the children of its element.
+    private void buildFields(ClassModel model) throws UnsupportedException
+    {
+        Set fieldNames = new HashSet();
+        Set nestedNames = new HashSet(m_classNames);
+        for (ClassModel outer = model; outer != null; outer = outer.outer)
+            nestedNames.add(outer.className);
+
+        int offset = 0;
+        Enumeration children = model.node.getChildren();
+        while (children.hasMoreElements())
+        {
+            PcmlDocNode child = (PcmlDocNode) children.nextElement();
+            Field field = new Field();
+            field.node = child;
+            field.name = uniqueName(toJavaName(child.getName().length() == 0 ? "field" : child.getName(), false), fieldNames);
+            field.usage = child.getUsage();
+            field.passby = ProgramParameter.PASS_BY_REFERENCE;
+
+            if (child.getNodeType() == PcmlNodeType.STRUCT)
+            {
+                PcmlStruct struct = (PcmlStruct) child;
+                checkFixed(struct.getCountId(), "count", struct.getOffsetId() != null || struct.getOffset() != 0, struct.getMinvrmString(), struct.getMaxvrmString());
+                if (struct.getOutputsizeId() != null)
+                    throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("outputsize", struct.getOutputsizeId()));
+                ClassModel nested = new ClassModel(child, uniqueName(toJavaName(field.name, true), nestedNames), model);
+                buildFields(nested);
+                model.nested.add(nested);
+                field.type = PcmlData.STRUCT;
+                field.javaType = nested.className;
+                field.length = nested.length;
+                field.count = struct.getCount();
+                field.outputsize = struct.getOutputsize();
+            }
+            else if (child.getNodeType() == PcmlNodeType.DATA)
+            {
+                buildDataField(model, field, (PcmlData) child);
+            }
+            else
+            {
+                continue;
+            }
+
+            field.offset = offset;
+            offset += field.getTotalLength();
+            model.fields.add(field);
+        }
+        model.length = offset;
+    }
+
+    private void buildDataField(ClassModel model, Field field, PcmlData data) throws UnsupportedException
+    {
+        checkFixed(data.getCountId(), "count", data.getOffsetId() != null || data.getOffset() != 0, data.getMinvrmString(), data.getMaxvrmString());
+        if (data.getLengthId() != null)
+            throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("length", data.getLengthId()));
+        if (data.getCcsidId() != null)
+            throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("ccsid", data.getCcsidId()));
+        if (data.getOutputsizeId() != null)
+            throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("outputsize", data.getOutputsizeId()));
+
+        field.type = data.getDataType();
+        field.count = data.getCount();
+        field.outputsize = data.getOutputsize();
+        field.passby = data.getPassby();
+        field.init = data.getInit();
+        int length = data.getLength();
+        int precision = data.getPrecision();
+        String constant = field.name.toUpperCase();
+
+        switch (field.type)
+        {
+            case PcmlData.CHAR:
+                if ("twobyte".equals(data.getCharType()))
+                    length = length * 2;
+                int ccsid = (data.getCcsid() != 0) ? data.getCcsid() : m_defaultCcsid;
+                field.javaType = "String";
+                field.converter = model.addConverter(constant + "_TEXT", "AS400Text", "new AS400Text(" + length + ", " + ccsid + ")");
+                String trim = data.getTrim();
+                field.trimLeft = "left".equals(trim) || "both".equals(trim);
+                field.trimRight = trim == null || "right".equals(trim) || "both".equals(trim);
+                if (field.trimLeft || field.trimRight)
+                    model.needsTrim = true;
+                break;
+
+            case PcmlData.INT:
+                if (length == 2)
+                    field.javaType = (precision == 16) ? "int" : "short";
+                else if (length == 4)
+                    field.javaType = (precision == 32) ? "long" : "int";
+                else if (precision == 64)
+                {
+                    field.javaType = "BigInteger";
+                    field.converter = model.addConverter("UNSIGNED_BIN8", "AS400UnsignedBin8", "new AS400UnsignedBin8()");
+                }
+                else
+                    field.javaType = "long";
+                field.precision = precision;
+                break;
+
+            case PcmlData.PACKED:
+            case PcmlData.ZONED:
+                field.javaType = "BigDecimal";
+                if (field.type == PcmlData.PACKED)
+                    field.converter = model.addConverter(constant + "_PACKED", "AS400PackedDecimal", "new AS400PackedDecimal(" + length + ", " + precision + ")");
+                else
+                    field.converter = model.addConverter(constant + "_ZONED", "AS400ZonedDecimal", "new AS400ZonedDecimal(" + length + ", " + precision + ")");
+                field.precision = precision;
+                if (field.type == PcmlData.PACKED)
+                    length = length / 2 + 1;
+                break;
+
+            case PcmlData.FLOAT:
+                field.javaType = (length == 4) ? "float" : "double";
+                break;
+
+            case PcmlData.BYTE:
+                field.javaType = "byte[]";
+                break;
+
+            case PcmlData.STRUCT:
+                PcmlDocNode struct = (PcmlDocNode) m_doc.getElement(data.getStruct());
+                ClassModel structModel = (struct == null) ? null : getModel(struct);
+                if (structModel == null)
+                    throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("struct", data.getStruct()));
+                field.javaType = structModel.className;
+                length = structModel.length;
+                break;
+
+            default:
+                throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("type", data.getDataTypeString()));
+        }
+        field.length = length;
+        field.initExpression = getInitExpression(field);
+    }
+
+    // Rejects elements whose layout is not known until the data is converted.
+    private static void checkFixed(String countId, String countAttr, boolean hasOffset, String minvrm, String maxvrm) throws UnsupportedException
+    {
+        if (countId != null)
+            throw new UnsupportedException(PcmlDocNode.makeQuotedAttr(countAttr, countId));
+        if (hasOffset)
+            throw new UnsupportedException("offset=");
+        if (minvrm != null)
+            throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("minvrm", minvrm));
+        if (maxvrm != null)
+            throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("maxvrm", maxvrm));
+    }
+
+    // Returns the Java expression for the init= value of a field, or null.
+    private static String getInitExpression(Field field) throws UnsupportedException
+    {
+        String init = field.init;
+        if (init == null)
+            return null;
+        try
+        {
+            switch (field.type)
+            {
+                case PcmlData.CHAR:
+                    return quote(init);
+                case PcmlData.INT:
+                    if (field.javaType.equals("short"))
+                        return "(short) " + Short.parseShort(init.trim());
+                    if (field.javaType.equals("int"))
+                        return Integer.toString(Integer.parseInt(init.trim()));
+                    if (field.javaType.equals("long"))
+                        return Long.parseLong(init.trim()) + "L";
+                    return "new BigInteger(" + quote(new java.math.BigInteger(init.trim()).toString()) + ")";
+                case PcmlData.PACKED:
+                case PcmlData.ZONED:
+                    return "new BigDecimal(" + quote(new BigDecimal(init.trim()).toString()) + ")";
+                case PcmlData.FLOAT:
+                    if (field.javaType.equals("float"))
+                        return Float.parseFloat(init.trim()) + "f";
+                    return Double.toString(Double.parseDouble(init.trim()));
+                default:
+                    return null;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            throw new UnsupportedException(PcmlDocNode.makeQuotedAttr("init", init));
+        }
+    }
+
+    // Returns the expression for the value a field has when it is not initialized.
+    private static String getDefaultExpression(Field field)
+    {
+        if (field.initExpression != null)
+            return field.initExpression;
+        switch (field.type)
+        {
+            case PcmlData.CHAR:
+                return "\"\"";
+            case PcmlData.PACKED:
+            case PcmlData.ZONED:
+                return "BigDecimal.ZERO";
+            case PcmlData.BYTE:
+                return "new byte[" + field.length + "]";
+            case PcmlData.STRUCT:
+                return "new " + field.javaType + "()";
+            case PcmlData.INT:
+                if (field.javaType.equals("BigInteger"))
+                    return "BigInteger.ZERO";
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private void writeClass(PrintWriter w, ClassModel model)
+    {
+        w.println("// Generated by the IBM Toolbox for Java from " + model.node.getBracketedTagName() + " element '" + model.node.getName() + "'");
+        w.println("// of document '" + m_doc.getDocName() + "'.  Do not edit.");
+        w.println();
+        if (m_packageName.length() > 0)
+        {
+            w.println("package " + m_packageName + ";");
+            w.println();
+        }
+        w.println("import com.ibm.as400.access.*;");
+        w.println("import java.math.BigDecimal;");
+        w.println("import java.math.BigInteger;");
+        w.println();
+        writeClassBody(w, model, "");
+    }
+
+    private void writeClassBody(PrintWriter w, ClassModel model, String indent)
+    {
+        String in = indent + "  ";
+        boolean program = (model.path != null);
+        w.println(indent + "/**");
+        w.println(indent + " Converts the data of " + model.node.getBracketedTagName() + " element '" + model.node.getName() + "'.");
+        w.println(indent + "**/");
+        w.println(indent + "public " + (model.outer != null ? "static " : "") + "class " + model.className);
+        w.println(indent + "{");
+        if (program)
+        {
+            w.println(in + "/** The path of the program. **/");
+            w.println(in + "public static final String PATH = " + quote(model.path) + ";");
+        }
+        else
+        {
+            w.println(in + "/** The number of bytes of IBM i data. **/");
+            w.println(in + "public static final int LENGTH = " + model.length + ";");
+        }
+        w.println();
+        for (int i = 0; i < model.converters.size(); ++i)
+            w.println(in + "private static final " + model.converters.get(i) + ";");
+        if (model.converters.size() > 0)
+            w.println();
+
+        for (int i = 0; i < model.fields.size(); ++i)
+        {
+            Field f = (Field) model.fields.get(i);
+            if (f.count > 0)
+            {
+                w.println(in + "public " + f.javaType + "[] " + f.name + " = new " + arrayType(f.javaType, f.count) + ";");
+            }
+            else
+            {
+                String value = getDefaultExpression(f);
+                w.println(in + "public " + f.javaType + " " + f.name + (value == null ? "" : " = " + value) + ";");
+            }
+        }
+        w.println();
+
+        // Constructor, to fill the arrays.
+        w.println(in + "/**");
+        w.println(in + " Constructs a " + model.className + " object.");
+        w.println(in + "**/");
+        w.println(in + "public " + model.className + "()");
+        w.println(in + "{");
+        for (int i = 0; i < model.fields.size(); ++i)
+        {
+            Field f = (Field) model.fields.get(i);
+            String value = getDefaultExpression(f);
+            if (f.count > 0 && value != null)
+                w.println(in + "  for (int i = 0; i < " + f.count + "; ++i) " + f.name + "[i] = " + value + ";");
+        }
+        w.println(in + "}");
+        w.println();
+
+        if (program)
+            writeParameterMethods(w, model, in);
+        else
+            writeByteMethods(w, model, in);
+
+        if (model.needsTrim)
+            writeTrim(w, in);
+        if (model.needsCopy)
+            writeCopy(w, in);
+
+        for (int i = 0; i < model.nested.size(); ++i)
+        {
+            w.println();
+            writeClassBody(w, (ClassModel) model.nested.get(i), in);
+        }
+        w.println(indent + "}");
+    }
+
+    private void writeByteMethods(PrintWriter w, ClassModel model, String in)
+    {
+        w.println(in + "/**");
+        w.println(in + " Converts the fields to IBM i data.");
+        w.println(in + " @param buffer  The buffer.");
+        w.println(in + " @param offset  The offset in the buffer.");
+        w.println(in + " @return The number of bytes written.");
+        w.println(in + "**/");
+        w.println(in + "public int toBytes(byte[] buffer, int offset)");
+        w.println(in + "{");
+        for (int i = 0; i < model.fields.size(); ++i)
+            writeToBytes(w, model, (Field) model.fields.get(i), in + "  ", "offset + " + ((Field) model.fields.get(i)).offset);
+        w.println(in + "  return LENGTH;");
+        w.println(in + "}");
+        w.println();
+
+        w.println(in + "/**");
+        w.println(in + " Converts the fields to IBM i data.");
+        w.println(in + " @return The IBM i data.");
+        w.println(in + "**/");
+        w.println(in + "public byte[] toBytes()");
+        w.println(in + "{");
+        w.println(in + "  byte[] buffer = new byte[LENGTH];");
+        w.println(in + "  toBytes(buffer, 0);");
+        w.println(in + "  return buffer;");
+        w.println(in + "}");
+        w.println();
+
+        w.println(in + "/**");
+        w.println(in + " Sets the fields from IBM i data.");
+        w.println(in + " @param buffer  The buffer.");
+        w.println(in + " @param offset  The offset in the buffer.");
+        w.println(in + " @return The number of bytes read.");
+        w.println(in + "**/");
+        w.println(in + "public int fromBytes(byte[] buffer, int offset)");
+        w.println(in + "{");
+        for (int i = 0; i < model.fields.size(); ++i)
+            writeFromBytes(w, model, (Field) model.fields.get(i), in + "  ", "offset + " + ((Field) model.fields.get(i)).offset);
+        w.println(in + "  return LENGTH;");
+        w.println(in + "}");
+    }
+
+    private void writeParameterMethods(PrintWriter w, ClassModel model, String in)
+    {
+        int n = model.fields.size();
+        w.println(in + "/**");
+        w.println(in + " Returns the parameters for a call to the program.");
+        w.println(in + " The input parameters contain the values of the fields.");
+        w.println(in + " @return The parameters.");
+        w.println(in + "**/");
+        w.println(in + "public ProgramParameter[] toParameters()");
+        w.println(in + "{");
+        w.println(in + "  ProgramParameter[] parameters = new ProgramParameter[" + n + "];");
+        if (n > 0)
+            w.println(in + "  byte[] data;");
+        for (int i = 0; i < n; ++i)
+        {
+            Field f = (Field) model.fields.get(i);
+            String passby = (f.passby == ProgramParameter.PASS_BY_VALUE) ? "ProgramParameter.PASS_BY_VALUE" : "ProgramParameter.PASS_BY_REFERENCE";
+            int outputLength = Math.max(f.getTotalLength(), f.outputsize);
+            switch (f.usage)
+            {
+                case PcmlDocNode.OUTPUT:
+                    w.println(in + "  parameters[" + i + "] = new ProgramParameter(" + passby + ", " + outputLength + ");");
+                    break;
+                default:
+                    w.println(in + "  data = new byte[" + f.getTotalLength() + "];");
+                    writeToBytes(w, model, f, in + "  ", "0");
+                    if (f.usage == PcmlDocNode.INPUT)
+                        w.println(in + "  parameters[" + i + "] = new ProgramParameter(" + passby + ", data);");
+                    else
+                        w.println(in + "  parameters[" + i + "] = new ProgramParameter(" + passby + ", data, " + outputLength + ");");
+                    break;
+            }
+        }
+        w.println(in + "  return parameters;");
+        w.println(in + "}");
+        w.println();
+
+        w.println(in + "/**");
+        w.println(in + " Sets the fields from the output parameters of a call to the program.");
+        w.println(in + " @param parameters  The parameters, as returned by ProgramCall.getParameterList().");
+        w.println(in + "**/");
+        w.println(in + "public void fromParameters(ProgramParameter[] parameters)");
+        w.println(in + "{");
+        if (n > 0)
+            w.println(in + "  byte[] data;");
+        for (int i = 0; i < n; ++i)
+        {
+            Field f = (Field) model.fields.get(i);
+            if (f.usage == PcmlDocNode.INPUT)
+                continue;
+            w.println(in + "  data = parameters[" + i + "].getOutputData();");
+            w.println(in + "  if (data != null && data.length >= " + f.getTotalLength() + ")");
+            w.println(in + "  {");
+            writeFromBytes(w, model, f, in + "    ", "0");
+            w.println(in + "  }");
+        }
+        w.println(in + "}");
+    }
+
+    // Writes the statements that convert a field to bytes.
+    private void writeToBytes(PrintWriter w, ClassModel model, Field f, String in, String offset)
+    {
+        String buffer = (model.path != null) ? "data" : "buffer";
+        if (f.count > 0)
+        {
+            w.println(in + "for (int i = 0; i < " + f.count + "; ++i)");
+            w.println(in + "{");
+            w.println(in + "  " + toBytesStatement(model, f, f.name + "[i]", buffer, offset + " + i * " + f.length));
+            w.println(in + "}");
+        }
+        else
+        {
+            w.println(in + toBytesStatement(model, f, f.name, buffer, offset));
+        }
+    }
+
+    private String toBytesStatement(ClassModel model, Field f, String value, String buffer, String offset)
+    {
+        switch (f.type)
+        {
+            case PcmlData.CHAR:
+            case PcmlData.PACKED:
+            case PcmlData.ZONED:
+                return f.converter + ".toBytes(" + value + ", " + buffer + ", " + offset + ");";
+            case PcmlData.INT:
+                if (f.javaType.equals("short"))
+                    return "BinaryConverter.shortToByteArray(" + value + ", " + buffer + ", " + offset + ");";
+                if (f.javaType.equals("BigInteger"))
+                    return f.converter + ".toBytes(" + value + ", " + buffer + ", " + offset + ");";
+                if (f.node instanceof PcmlData && ((PcmlData) f.node).getLength() == 2)
+                    return "BinaryConverter.unsignedShortToByteArray(" + value + ", " + buffer + ", " + offset + ");";
+                if (f.javaType.equals("int"))
+                    return "BinaryConverter.intToByteArray(" + value + ", " + buffer + ", " + offset + ");";
+                if (f.precision == 32)
+                    return "BinaryConverter.unsignedIntToByteArray(" + value + ", " + buffer + ", " + offset + ");";
+                return "BinaryConverter.longToByteArray(" + value + ", " + buffer + ", " + offset + ");";
+            case PcmlData.FLOAT:
+                if (f.javaType.equals("float"))
+                    return "BinaryConverter.floatToByteArray(" + value + ", " + buffer + ", " + offset + ");";
+                return "BinaryConverter.doubleToByteArray(" + value + ", " + buffer + ", " + offset + ");";
+            case PcmlData.BYTE:
+                model.needsCopy = true;
+                return "copy(" + value + ", " + buffer + ", " + offset + ", " + f.length + ");";
+            default:
+                return value + ".toBytes(" + buffer + ", " + offset + ");";
+        }
+    }
+
+    // Writes the statements that set a field from bytes.
+    private void writeFromBytes(PrintWriter w, ClassModel model, Field f, String in, String offset)
+    {
+        String buffer = (model.path != null) ? "data" : "buffer";
+        if (f.count > 0)
+        {
+            w.println(in + "for (int i = 0; i < " + f.count + "; ++i)");
+            w.println(in + "{");
+            writeFromBytesStatement(w, model, f, f.name + "[i]", buffer, offset + " + i * " + f.length, in + "  ");
+            w.println(in + "}");
+        }
+        else
+        {
+            writeFromBytesStatement(w, model, f, f.name, buffer, offset, in);
+        }
+    }
+
+    private void writeFromBytesStatement(PrintWriter w, ClassModel model, Field f, String value, String buffer, String offset, String in)
+    {
+        String args = "(" + buffer + ", " + offset + ")";
+        switch (f.type)
+        {
+            case PcmlData.CHAR:
+                if (f.trimLeft || f.trimRight)
+                    w.println(in + value + " = trim((String) " + f.converter + ".toObject" + args + ", " + f.trimLeft + ", " + f.trimRight + ");");
+                else
+                    w.println(in + value + " = (String) " + f.converter + ".toObject" + args + ";");
+                break;
+            case PcmlData.PACKED:
+            case PcmlData.ZONED:
+                w.println(in + value + " = (BigDecimal) " + f.converter + ".toObject" + args + ";");
+                break;
+            case PcmlData.INT:
+                if (f.javaType.equals("short"))
+                    w.println(in + value + " = BinaryConverter.byteArrayToShort" + args + ";");
+                else if (f.javaType.equals("BigInteger"))
+                    w.println(in + value + " = (BigInteger) " + f.converter + ".toObject" + args + ";");
+                else if (((PcmlData) f.node).getLength() == 2)
+                    w.println(in + value + " = BinaryConverter.byteArrayToUnsignedShort" + args + ";");
+                else if (f.javaType.equals("int"))
+                    w.println(in + value + " = BinaryConverter.byteArrayToInt" + args + ";");
+                else if (f.precision == 32)
+                    w.println(in + value + " = BinaryConverter.byteArrayToUnsignedInt" + args + ";");
+                else
+                    w.println(in + value + " = BinaryConverter.byteArrayToLong" + args + ";");
+                break;
+            case PcmlData.FLOAT:
+                if (f.javaType.equals("float"))
+                    w.println(in + value + " = BinaryConverter.byteArrayToFloat" + args + ";");
+                else
+                    w.println(in + value + " = BinaryConverter.byteArrayToDouble" + args + ";");
+                break;
+            case PcmlData.BYTE:
+                w.println(in + "if (" + value + " == null || " + value + ".length != " + f.length + ") " + value + " = new byte[" + f.length + "];");
+                w.println(in + "System.arraycopy(" + buffer + ", " + offset + ", " + value + ", 0, " + f.length + ");");
+                break;
+            default:
+                w.println(in + "if (" + value + " == null) " + value + " = new " + f.javaType + "();");
+                w.println(in + value + ".fromBytes" + args + ";");
+                break;
+        }
+    }
+
+    private static void writeTrim(PrintWriter w, String in)
+    {
+        w.println();
+        w.println(in + "// Removes blanks and nulls from the ends of a string.");
+        w.println(in + "private static String trim(String s, boolean left, boolean right)");
+        w.println(in + "{");
+        w.println(in + "  int start = 0;");
+        w.println(in + "  int end = s.length();");
+        w.println(in + "  if (right) while (end > 0 && (s.charAt(end - 1) == ' ' || s.charAt(end - 1) == '\\u0000')) --end;");
+        w.println(in + "  if (left) while (start < end && (s.charAt(start) == ' ' || s.charAt(start) == '\\u0000')) ++start;");
+        w.println(in + "  return (start == 0 && end == s.length()) ? s : s.substring(start, end);");
+        w.println(in + "}");
+    }
+
+    private static void writeCopy(PrintWriter w, String in)
+    {
+        w.println();
+        w.println(in + "// Copies a byte array field to a buffer, padding it with zeros.");
+        w.println(in + "private static void copy(byte[] value, byte[] buffer, int offset, int length)");
+        w.println(in + "{");
+        w.println(in + "  int n = Math.min(value.length, length);");
+        w.println(in + "  System.arraycopy(value, 0, buffer, offset, n);");
+        w.println(in + "  for (int i = n; i < length; ++i) buffer[offset + i] = 0;");
+        w.println(in + "}");
+    }
+
+    private static String arrayType(String javaType, int count)
+    {
+        // byte[] arrays become byte[count][]
+        if (javaType.endsWith("[]"))
+            return javaType.substring(0, javaType.length() - 2) + "[" + count + "][]";
+        return javaType + "[" + count + "]";
+    }
+
+    // Returns a Java string literal.
+    static String quote(String s)
+    {
+        StringBuilder buf = new StringBuilder(s.length() + 2);
+        buf.append('"');
+        for (int i = 0; i < s.length(); ++i)
+        {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\')
+                buf.append('\\').append(c);
+            else if (c < 0x20 || c > 0x7E)
+                buf.append(String.format("\\u%04x", Integer.valueOf(c)));
+            else
+                buf.append(c);
+        }
+        return buf.append('"').toString();
+    }
+
+    // Converts an element name to a Java identifier.
+    static String toJavaName(String name, boolean className)
+    {
+        StringBuilder buf = new StringBuilder(name.length() + 1);
+        boolean upper = className;
+        for (int i = 0; i < name.length(); ++i)
+        {
+            char c = name.charAt(i);
+            if (Character.isJavaIdentifierPart(c) && c != '$')
+            {
+                buf.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+            else if (className)
+            {
+                upper = true;
+            }
+            else
+            {
+                buf.append('_');
+            }
+        }
+        if (buf.length() == 0 || !Character.isJavaIdentifierStart(buf.charAt(0)))
+            buf.insert(0, '_');
+        String result = buf.toString();
+        for (int i = 0; i < JAVA_KEYWORDS.length; ++i)
+        {
+            if (JAVA_KEYWORDS[i].equals(result))
+                return result + "_";
+        }
+        return result;
+    }
+
+    // Returns a name that is not in a set of names, and adds it to the set.
+    private static String uniqueName(String name, Set names)
+    {
+        String result = name;
+        for (int i = 2; names.contains(result); ++i)
+            result = name + i;
+        names.add(result);
+        return result;
+    }
+
+
+    // A class to be generated.
+    private static final class ClassModel
+    {
+        final PcmlDocNode node;
+        final String className;
+        final ClassModel outer;
+        final List fields = new ArrayList();
+        final List nested = new ArrayList();
+        final List converters = new ArrayList();
+        final Set converterNames = new HashSet();
+        String path;           // for a <program>
+        int length;
+        boolean needsTrim;
+        boolean needsCopy;
+
+        ClassModel(PcmlDocNode node, String className, ClassModel outer)
+        {
+            this.node = node;
+            this.className = className;
+            this.outer = outer;
+        }
+
+        // Adds a static converter to the class and returns its name.
+        String addConverter(String name, String type, String expression)
+        {
+            if (type.equals("AS400UnsignedBin8") && converterNames.contains(name))
+                return name;
+            name = uniqueName(name, converterNames);
+            converters.add(type + " " + name + " = " + expression);
+            return name;
+        }
+    }
+
+    // A field of a generated class.
+    private static final class Field
+    {
+        PcmlDocNode node;
+        String name;
+        String javaType;       // of one element
+        int type;              // PcmlData type
+        int length;            // bytes in one element
+        int count;             // number of elements, or 0 if not an array
+        int offset;            // from the start of the class data
+        int precision;
+        int usage;
+        int passby;
+        int outputsize;
+        String converter;
+        String init;
+        String initExpression;
+        boolean trimLeft;
+        boolean trimRight;
+
+        int getTotalLength()
+        {
+            return (count > 0) ? length * count : length;
+        }
+    }
+
+    // Thrown when an element cannot be generated.
+    // The message is the attribute that is not supported.
+    private static final class UnsupportedException extends Exception
+    {
+        static final long serialVersionUID = 1L;
+
+        UnsupportedException(String attribute)
+        {
+            super(attribute);
+        }
+    }
+}
@@ -60,6 +60,26 @@ import org.xml.sax.SAXException;                                    //@E1A
  * This class parses a PCML document and allows the application to call
  * IBM i system programs described in the PCML document.
  *
+ * <h3>Calling Programs From Many Threads</h3>
+ * The data values of a ProgramCallDocument are kept in the document, so a
+ * document can only be used for one program call at a time.  To call programs
+ * from many threads, construct the document once and use it as a template:
+ * each thread calls {@link #clone clone()} to get its own document for a call.
+ * A clone does not parse the PCML source again, and shares the system of the template.
+ * <p>
+ * Element names can be resolved once with {@link #getHandle getHandle()}.
+ * The handle can then be used with the template and all of its clones instead
+ * of the name, which saves looking up the qualified name on each access.
+ * <pre>
+ * ProgramCallDocument template = new ProgramCallDocument(system, "qsyrusri");
+ * int program = template.getHandle("qsyrusri");
+ * int profile = template.getHandle("qsyrusri.profile");
+ * ...
+ * ProgramCallDocument call = (ProgramCallDocument) template.clone();
+ * call.setValue(profile, "JOHNDOE");
+ * call.callProgram(program);
+ * </pre>
+ *
  * <h3>Command Line Interface</h3>
  * The command line interface may be used to serialize
  * PCML document definitions. Note that XPCML documents cannot
@@ -79,6 +99,33 @@ import org.xml.sax.SAXException;                                    //@E1A
  * <dd>The fully-qualified resource name of the PCML document
  * which defines the program interface.
  * </dl>
+ * <p>
+ * The command line interface may also be used to generate Java source
+ * for classes that convert the data of a PCML document directly,
+ * without interpreting the document at run time.
+ * <pre>
+ * java com.ibm.as400.data.ProgramCallDocument
+ *     -generate
+ *     <i>PCML document name</i>
+ *     <i>package name</i>
+ *     <i>output directory</i>
+ *     [<i>CCSID</i>]
+ * </pre>
+ * A class is generated for each &lt;program&gt; and &lt;struct&gt; element at the top
+ * of the document whose layout is fixed, that is, that does not use
+ * <code>count=</code>, <code>length=</code> or <code>outputsize=</code> values
+ * from other elements, <code>offset=</code>, <code>minvrm=</code> or <code>maxvrm=</code>,
+ * or the types varchar, date, time and timestamp.
+ * Each &lt;data&gt; and &lt;struct&gt; element becomes a public field of the Java type
+ * that {@link #getValue(String) getValue()} returns.
+ * A class for a &lt;struct&gt; has methods <code>toBytes(byte[], int)</code> and
+ * <code>fromBytes(byte[], int)</code>.  A class for a &lt;program&gt; has the methods
+ * <code>toParameters()</code>, which returns the parameters for a
+ * {@link com.ibm.as400.access.ProgramCall ProgramCall}, and
+ * <code>fromParameters(ProgramParameter[])</code>, which sets the fields from the output parameters.
+ * Character data without a <code>ccsid=</code> attribute is converted using the given CCSID
+ * (default 37), since the job CCSID is not known when the class is generated.
+ * A message is written for each element for which no class can be generated.
  */
 public class ProgramCallDocument implements Serializable, Cloneable
 {                                                                   // @C1C @C3C
@@ -346,7 +393,9 @@ public class ProgramCallDocument implements Serializable, Cloneable
 
     /**
     Clones the ProgramCallDocument and the objects contained in it.
-    {@link #setSystem setSystem()} and {@link #setDocument setDocument()} must be called prior to using the object.
+    The clone uses the same system as this document, but has its own data values,
+    so it can be used to call programs at the same time as this document.
+    Handles returned by {@link #getHandle getHandle()} can be used with the clone.
     */
     public Object clone()
    	{                                                               // @C3A
@@ -393,6 +442,24 @@ public class ProgramCallDocument implements Serializable, Cloneable
         System.setErr(System.out);
         final String errMsg = SystemResourceFinder.format(DAMRI.PCD_ARGUMENTS);
 
+        if ((args.length == 4 || args.length == 5) && args[0].equalsIgnoreCase("-GENERATE"))
+        {
+            boolean generated = false;
+            try
+            {
+                generated = PcmlJavaGenerator.runCommand(loadSourcePcmlDocument(args[1], null, null), args);
+            }
+            catch (PcmlException e)
+            {
+                System.out.println(e.getLocalizedMessage());
+            }
+            if (!generated &&
+                (System.getProperty("com.ibm.as400.data.DisableExit") == null)  &&
+                (System.getenv("com.ibm.as400.data.DisableExit") == null))
+              System.exit(-1);
+            return;
+        }
+
 		if (args.length == 2)
         {
         	if (!args[0].equalsIgnoreCase("-SERIALIZE"))
@@ -503,6 +570,31 @@ public class ProgramCallDocument implements Serializable, Cloneable
 
     }
 
+    /**
+     Calls the program for a handle.
+
+     @param handle The handle of the &lt;program&gt; element in the PCML document.
+     * @return true if the call is successful
+     @exception PcmlException
+                If an error occurs.
+     @see #getHandle
+    */
+    public boolean callProgram(int handle)
+        throws PcmlException
+    {
+        try
+        {
+            m_pcmlDoc.setTimeOut(m_timeOut);
+            return m_pcmlDoc.callProgram(handle);
+        }
+        catch (AS400SecurityException | ObjectDoesNotExistException | InterruptedException | ErrorCompletingRequestException | IOException e)
+        {
+            if (Trace.isTraceErrorOn())
+               e.printStackTrace(Trace.getPrintWriter());
+            throw new PcmlException(e);
+        }
+    }
+
     /**
     Returns an "errno" value for the named service program element.
     <p>
@@ -973,6 +1065,60 @@ public class ProgramCallDocument implements Serializable, Cloneable
       return val;
     }
 
+    /**
+    Returns the handle of the named element.
+    A handle identifies an element without its name.
+    It is valid for this document and all clones of it,
+    so it only has to be looked up once.
+
+    @return The handle of the element.
+
+    @param name The name of the &lt;program&gt;, &lt;struct&gt; or &lt;data&gt; element in the PCML document.
+    @exception PcmlException
+               If the element is not found.
+    @see #clone
+    */
+    public int getHandle(String name)
+        throws PcmlException
+    {
+        return m_pcmlDoc.getHandle(name);
+    }
+
+    /**
+    Returns the Java object value for the element with the specified handle.
+    See {@link #getValue(String)} for the type of object that is returned.
+
+    @return The Java object value for the &lt;data&gt; element.
+
+    @param handle The handle of the &lt;data&gt; element in the PCML document.
+    @exception PcmlException
+               If an error occurs.
+    @see #getHandle
+    */
+    public Object getValue(int handle)
+        throws PcmlException
+    {
+        return m_pcmlDoc.getValue(handle, new PcmlDimensions());
+    }
+
+    /**
+    Returns the Java object value for the element with the specified handle given indices to the data element.
+    See {@link #getValue(String, int[])} for a description of the indices.
+
+    @return The Java object value for the &lt;data&gt; element.
+
+    @param handle The handle of the &lt;data&gt; element in the PCML document.
+    @param indices An array of indices for accessing the value of an element in an array.
+    @exception PcmlException
+               If an error occurs.
+    @see #getHandle
+    */
+    public Object getValue(int handle, int[] indices)
+        throws PcmlException
+    {
+        return m_pcmlDoc.getValue(handle, new PcmlDimensions(indices));
+    }
+
     /**
     Gets the system on which programs are to be called.
 
@@ -1341,6 +1487,40 @@ public class ProgramCallDocument implements Serializable, Cloneable
         m_pcmlDoc.setValue(name, value, new PcmlDimensions(indices));
     }
 
+    /**
+    Sets the Java object value for the element with the specified handle.
+    See {@link #setValue(String, Object)} for how the value is converted.
+
+    @param handle The handle of the &lt;data&gt; element in the PCML document.
+    @param value The java object value for the element.
+    @exception PcmlException
+               If an error occurs.
+    @see #getHandle
+    */
+    public void setValue(int handle, Object value)
+        throws PcmlException
+    {
+        m_pcmlDoc.setValue(handle, value, new PcmlDimensions());
+    }
+
+    /**
+    Sets the Java object value for the element with the specified handle
+    given indices to the data element.
+    See {@link #setValue(String, int[], Object)} for a description of the indices.
+
+    @param handle The handle of the &lt;data&gt; element in the PCML document.
+    @param indices An array of indices for setting the value of an element in an array.
+    @param value The java object value for the element.
+    @exception PcmlException
+               If an error occurs.
+    @see #getHandle
+    */
+    public void setValue(int handle, int[] indices, Object value)
+        throws PcmlException
+    {
+        m_pcmlDoc.setValue(handle, value, new PcmlDimensions(indices));
+    }
+
     /**
     Allows for dynamically specifying the program path of the program to be called.
 
@@ -59,6 +59,24 @@ import java.util.MissingResourceException;
  * which defines the record format(s).
  * </dl>
  *
+ * <p>The command line interface may also be used to generate Java source
+ * for classes that convert records directly, without interpreting the document at run time.
+ * <pre>
+ * java com.ibm.as400.data.RecordFormatDocument
+ *     -generate
+ *     <i>RFML document name</i>
+ *     <i>package name</i>
+ *     <i>output directory</i>
+ *     [<i>CCSID</i>]
+ * </pre>
+ * A class is generated for each &lt;recordformat&gt; and &lt;struct&gt; element whose
+ * layout is fixed.  Each field becomes a public field of the Java type that
+ * {@link #getValue(String) getValue()} returns, and the class has methods
+ * <code>toBytes(byte[], int)</code> and <code>fromBytes(byte[], int)</code>.
+ * Character fields are converted using the <code>ccsid=</code> of the field or the document,
+ * or else the given CCSID (default 37).
+ * See {@link ProgramCallDocument} for the elements that are not supported.
+ *
  * <p><b>Serialized RFML files</b>
  * <br>To increase run-time performance, you can use a serialized RFML file.
  * A serialized RFML file contains serialized Java objects representing the RFML.
@@ -873,6 +891,24 @@ public class RecordFormatDocument implements Serializable, Cloneable
     {
       final String errMsg = SystemResourceFinder.format(DAMRI.PCD_ARGUMENTS);
 
+      if ((args.length == 4 || args.length == 5) && args[0].equalsIgnoreCase("-GENERATE"))
+      {
+        boolean generated = false;
+        try
+        {
+          generated = PcmlJavaGenerator.runCommand(new RecordFormatDocument(args[1]).m_rfmlDoc_, args);
+        }
+        catch (XmlException e)
+        {
+          System.out.println(e.getLocalizedMessage());
+        }
+        if (!generated &&
+            (System.getProperty("com.ibm.as400.data.DisableExit") == null)  &&
+            (System.getenv("com.ibm.as400.data.DisableExit") == null))
+          System.exit(-1);
+        return;
+      }
+
       if (args.length == 2)
       {
         if (!args[0].equalsIgnoreCase("-SERIALIZE"))
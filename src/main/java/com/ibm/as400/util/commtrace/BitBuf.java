@@ -20,13 +20,17 @@ import java.io.StringWriter;
  * Its methods allow bit shifting, substring extraction, converting substrings
  * to bytes, shorts, longs, or floats, and representing a bit string as a 
  * sequence of binary or hexadecimal digits.<br>
- * A new BitBuf can be constructed from another BitBuf or from a byte array.
+ * A new BitBuf can be constructed from another BitBuf or from a byte array.<br>
+ * A BitBuf can be a view of a range of bytes of an array that is shared with
+ * other BitBufs, so that slicing whole bytes does not copy the data.  A BitBuf
+ * copies its bytes before it changes them if they might be shared.
  */
 class BitBuf implements Cloneable {
     private byte data[];
+    private int off; // The offset of the first byte in data
+    private int len; // The number of bytes
     private int bitlen; // used if not a byte-boundary;
-    private static StringBuffer binbyte = new StringBuffer("01234567");
-    private static StringBuffer hexbyte = new StringBuffer("FF");
+    private boolean shared; // true if data might be used by another BitBuf
     private final int masks[] = { 128, 64, 32, 16, 8, 4, 2, 1 };
     private final char hexchars[] =
         {
@@ -53,7 +57,23 @@ class BitBuf implements Cloneable {
 	 */
     public BitBuf(byte[] bytes) {
         data = (byte[]) bytes.clone();
-        bitlen = data.length * 8;
+        len = data.length;
+        bitlen = len * 8;
+    }
+
+    /**
+     * Constructs a BitBuf which is a view of a range of a byte array.  The
+     * bytes are not copied, so the array must not be changed afterwards.
+     * @param bytes     The byte array.
+     * @param offset    The offset of the first byte.
+     * @param length    The number of bytes.
+     */
+    BitBuf(byte[] bytes, int offset, int length) {
+        data = bytes;
+        off = offset;
+        len = length;
+        bitlen = len * 8;
+        shared = true;
     }
 
     /**
@@ -73,7 +93,8 @@ class BitBuf implements Cloneable {
         data = new byte[ints.length];
         for (int i = 0; i < ints.length; i++)
             data[i] = (byte) ints[i];
-        bitlen = data.length * 8;
+        len = data.length;
+        bitlen = len * 8;
     }
 
     /**
@@ -83,7 +104,8 @@ class BitBuf implements Cloneable {
     public BitBuf(byte b) {
         data = new byte[1];
         data[0] = b;
-        bitlen = data.length * 8;
+        len = 1;
+        bitlen = 8;
     }
 
     /**
@@ -92,7 +114,8 @@ class BitBuf implements Cloneable {
      */
     public BitBuf(int i) {
         data = new byte[i];
-        bitlen = data.length * 8;
+        len = i;
+        bitlen = len * 8;
     }
 
     /**
@@ -105,9 +128,19 @@ class BitBuf implements Cloneable {
         if (bitlength < 0)
             bitlength = 0;
         bitlen = bitlength;
-        int newlen = (bitlength + 7) / 8;
-        data = new byte[newlen];
-        for (int x = 0; x < newlen; x++)
+        if (bitstart >= 0 && bitstart % 8 == 0 && bitlength % 8 == 0
+            && bitstart + bitlength <= b.bitlen) {
+            // Whole bytes of the other BitBuf, so share its data.
+            data = b.data;
+            off = b.off + bitstart / 8;
+            len = bitlength / 8;
+            shared = true;
+            b.shared = true;
+            return;
+        }
+        len = (bitlength + 7) / 8;
+        data = new byte[len];
+        for (int x = 0; x < len; x++)
             data[x] = b.getOctet(bitstart + 8 * x);
         truncate();
     }
@@ -119,10 +152,10 @@ class BitBuf implements Cloneable {
      * @return	    String
      */
     public String byteAsBin(int i) {
-        int x;
-        for (x = 7; x >= 0; x--)
-            binbyte.setCharAt(x, ((data[i] & 0xFF & masks[x]) > 0) ? '1' : '0');
-        return binbyte.toString();
+        char[] binbyte = new char[8];
+        for (int x = 7; x >= 0; x--)
+            binbyte[x] = ((data[off + i] & 0xFF & masks[x]) > 0) ? '1' : '0';
+        return new String(binbyte);
     }
 
     /**
@@ -131,9 +164,8 @@ class BitBuf implements Cloneable {
      * @return	    String
      */
     public String byteAsHex(int i) {
-        hexbyte.setCharAt(0, hexchars[data[i] >>> 4 & 0xF]);
-        hexbyte.setCharAt(1, hexchars[data[i] & 0xF]);
-        return hexbyte.toString();
+        char[] hexbyte = { hexchars[data[off + i] >>> 4 & 0xF], hexchars[data[off + i] & 0xF] };
+        return new String(hexbyte);
     }
 
     /**
@@ -141,7 +173,8 @@ class BitBuf implements Cloneable {
      * @return	    Object a clone of this BitBuf.
      */
     public Object clone() {
-        BitBuf b = new BitBuf(data);
+        BitBuf b = new BitBuf(len);
+        System.arraycopy(data, off, b.data, 0, len);
         return b;
     }
 
@@ -153,7 +186,7 @@ class BitBuf implements Cloneable {
     public boolean getBitAsBool(int bit) {
         int byteloc = bit / 8;
         int bitloc = bit % 8;
-        if ((data[byteloc] & 0xFF & masks[bitloc]) > 0)
+        if ((data[off + byteloc] & 0xFF & masks[bitloc]) > 0)
             return true;
         else
             return false;
@@ -167,7 +200,7 @@ class BitBuf implements Cloneable {
     public byte getBitAsByte(int bit) {
         int byteloc = bit / 8;
         int bitloc = bit % 8;
-        if ((data[byteloc] & 0xFF & masks[bitloc]) > 0)
+        if ((data[off + byteloc] & 0xFF & masks[bitloc]) > 0)
             return (byte) 1;
         else
             return (byte) 0;
@@ -186,7 +219,9 @@ class BitBuf implements Cloneable {
      * @return	    byte[] clone of the data in this BitBuf.
      */
     public byte[] getBytes() {
-        return (byte[]) data.clone();
+        byte[] bytes = new byte[len];
+        System.arraycopy(data, off, bytes, 0, len);
+        return bytes;
     }
 
     /**
@@ -195,7 +230,7 @@ class BitBuf implements Cloneable {
      * @return	    length of this BitBuf in bytes
      */
     public int getByteSize() {
-        return data.length;
+        return len;
     }
 
     /**
@@ -210,9 +245,9 @@ class BitBuf implements Cloneable {
             b = 0;
         else
             if (startbit < 0)
-                b = (byte) ((data[0] & 0xFF) >>> (0 - startbit));
+                b = (byte) ((data[off] & 0xFF) >>> (0 - startbit));
             else {
-                int byteloc = startbit / 8;
+                int byteloc = off + startbit / 8;
                 int bitshift = startbit % 8;
                 b = data[byteloc];
                 b <<= bitshift;
@@ -248,6 +283,7 @@ class BitBuf implements Cloneable {
      * @param d	    length to shift left
      */
     public void shiftBufferLeft(int d) {
+        own();
         int byteshift = d / 8;
         int bitshift = d % 8;
         if (byteshift > 0)
@@ -272,6 +308,7 @@ class BitBuf implements Cloneable {
      * @param d	    length to shift right
      */
     public void shiftBufferRight(int d) {
+        own();
         int byteshift = d / 8;
         int bitshift = d % 8;
         if (byteshift > 0)
@@ -326,7 +363,7 @@ class BitBuf implements Cloneable {
      */
     public String toBinString(int groupsize, String separator) {
         StringWriter out = new StringWriter();
-        for (int x = 0; x < data.length; x++) {
+        for (int x = 0; x < len; x++) {
             out.write(byteAsBin(x));
             if ((groupsize != 0) && (x % groupsize == 0))
                 out.write(separator);
@@ -369,7 +406,7 @@ class BitBuf implements Cloneable {
      */
     public String toHexString(int groupsize, String separator) {
         StringWriter out = new StringWriter();
-        for (int x = 0; x < data.length; x++) {
+        for (int x = 0; x < len; x++) {
             if ((x != 0) && (groupsize > 0) && (x % groupsize == 0))
                 out.write(separator);
             out.write(byteAsHex(x));
@@ -441,8 +478,24 @@ class BitBuf implements Cloneable {
      */
     private void truncate() {
         int tailbits = bitlen % 8;
-        if (tailbits > 0)
-            data[data.length - 1] &= ~((1 << (8 - tailbits)) - 1);
+        if (tailbits > 0) {
+            own();
+            data[len - 1] &= ~((1 << (8 - tailbits)) - 1);
+        }
+    }
+
+    /**
+     * Copies the bytes of this BitBuf to a new array if they might be shared, 
+     * so that they can be changed.  Afterwards the bytes start at offset 0.
+     */
+    private void own() {
+        if (shared || off != 0 || len != data.length) {
+            byte[] bytes = new byte[len];
+            System.arraycopy(data, off, bytes, 0, len);
+            data = bytes;
+            off = 0;
+            shared = false;
+        }
     }
 
 }
@@ -24,14 +24,23 @@ import java.io.InputStream;
 import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
 import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Hashtable;
+import java.util.LinkedList;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.ibm.as400.access.AS400;
 import com.ibm.as400.access.AS400SecurityException;
@@ -111,6 +120,12 @@ public class Format {
 	private AS400 sys= null;
 	private boolean createdSys=false; // True if we created the system so we should close it
 	private InputStream file_= null;
+	private FileChannel channel_= null; // The trace file if it is memory mapped
+	private MappedByteBuffer map_= null; // The currently mapped region of channel_
+	private long mapStart_= 0, // The file position of the start of map_
+				position_= 0; // The file position of the next byte to read from channel_
+	private static final int MAP_SIZE= 64 * 1024 * 1024; // The size of each mapped region
+	private static final int FRAMES_PER_TASK= 256; // The number of frames formatted by each task in toLclBinFile(int)
 	private Progress progress= null;
 	// The progress dialog which display the format progress to the user
 	private byte[] data= null; // The raw data of a specific packet
@@ -156,6 +171,22 @@ public class Format {
 	* @param infile The name of the file to read from.
 	*/
 	public Format(FormatProperties prop, String outfile, String infile) {
+		this(prop, outfile, infile, false);
+	}
+
+   /** 
+	* Constructs a new <code>Format</code> object.<br>
+	* Initializes the MRI.<br>
+	* Formats the Prolog.<br>
+	* Sets up the Filters.<br>
+	* If memoryMapped is true the trace file is memory mapped instead of read through a stream,
+	* which avoids copying the raw data through the stream buffers for large traces.
+	* @param prop The FormatProperties object to filter by.
+	* @param outfile The file to write the formatted trace data to.
+	* @param infile The name of the file to read from.
+	* @param memoryMapped true to memory map the trace file.
+	*/
+	public Format(FormatProperties prop, String outfile, String infile, boolean memoryMapped) {
 		this.filter_= prop;
 		this.outfilePath_= outfile;
 		this.filename = infile;
@@ -167,7 +198,11 @@ public class Format {
 		}
 		// Attempt to open a stream on the file
 		try {
-			file_= new BufferedInputStream(new FileInputStream(infile));
+			if (memoryMapped) {
+				channel_= new RandomAccessFile(infile, "r").getChannel();
+			} else {
+				file_= new BufferedInputStream(new FileInputStream(infile));
+			}
 		} catch (IOException e) {
 			if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
 				Trace.log(Trace.ERROR,CLASS + ".Format()" + "Error opening:" + infile, e);
@@ -716,6 +751,17 @@ public class Format {
 	 * @return A error code if any.
 	 */
         public int toLclBinFile() {
+          return toLclBinFile(1);
+        }
+
+	/**
+	 * Format the trace and write the results to a binary file on the local PC.<br>
+	 * The records are read in order and formatted by the given number of threads.
+	 * The file written is the same as the one written by toLclBinFile().
+	 * @param threads The number of threads to format the records with.
+	 * @return A error code if any.
+	 */
+        public int toLclBinFile(int threads) {
           if(pro_==null) { // Constructed incorrectly
             if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
               Trace.log(Trace.ERROR,CLASS + ".toLclBinFile() " + "Error the prolog wasn't formatted");
@@ -760,7 +806,9 @@ public class Format {
               out.writeUTF(pro_.toString());
               out.writeInt(ifsrecs);
               Frame rec = null;
-              if (progress == null) {
+              if (threads > 1) {
+                writeRecords(out, threads);
+              } else if (progress == null) {
                 while ((rec= getNextRecord()) != null) {
                   String record= rec.toString(filter_);
                   if (record.length() != 0) {
@@ -787,6 +835,16 @@ public class Format {
                 Trace.log(Trace.ERROR,CLASS + ".toLclBinFile() " + "Error writing file " + outfilePath_, e);
               }
               return 1;
+            } catch (InterruptedException e) {
+              if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
+                Trace.log(Trace.ERROR,CLASS + ".toLclBinFile() " + "Interrupted formatting " + filename, e);
+              }
+              return 1;
+            } catch (ExecutionException e) {
+              if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
+                Trace.log(Trace.ERROR,CLASS + ".toLclBinFile() " + "Error formatting " + filename, e.getCause());
+              }
+              return 1;
             }
           }
           finally {
@@ -804,6 +862,62 @@ public class Format {
 
         }
 
+	/**
+	 * Reads the records and formats them with a pool of threads.<br>
+	 * The records are read in batches by this thread and each batch is formatted by one
+	 * of the pool threads.  The formatted records are written in the order they were read.
+	 * @param out The stream to write the formatted records to.
+	 * @param threads The number of threads to format the records with.
+	 */
+	private void writeRecords(ObjectOutputStream out, int threads) throws IOException, InterruptedException, ExecutionException {
+		ExecutorService executor= Executors.newFixedThreadPool(threads);
+		try {
+			// Limit the number of batches read ahead of the writer
+			LinkedList<Future<String[]>> pending= new LinkedList<Future<String[]>>();
+			boolean more= true;
+			while (more || !pending.isEmpty()) {
+				while (more && pending.size() < threads * 2) {
+					final BitBuf[] batch= new BitBuf[FRAMES_PER_TASK];
+					int count= 0;
+					while (count < batch.length && (batch[count]= getNextData()) != null) {
+						count++;
+					}
+					if (count < batch.length || (progress != null && progress.isCanceled())) {
+						more= false;
+					}
+					if (count > 0) {
+						pending.add(executor.submit(new Callable<String[]>() {
+							public String[] call() {
+								String[] records= new String[batch.length];
+								for (int i= 0; i < batch.length && batch[i] != null; i++) {
+									Frame rec= new Frame(pro_, batch[i]);
+									if (rec.isTCP()) { // Non TCP records are discarded
+										records[i]= rec.toString(filter_);
+									}
+									batch[i]= null;
+								}
+								return records;
+							}
+						}));
+					}
+				}
+				if (!pending.isEmpty()) {
+					String[] records= pending.removeFirst().get();
+					for (int i= 0; i < records.length; i++) {
+						if (records[i] != null) {
+							tcprecs++;
+							if (records[i].length() != 0) {
+								out.writeUTF(records[i]);
+							}
+						}
+					}
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 //	/**
 //	 * Formats the recs and writes them out.
 //	 * @return An error code if any.
@@ -926,6 +1040,10 @@ public class Format {
             if (file_ != null) {
               file_.close();
             }
+            if (channel_ != null) {
+              map_= null;
+              channel_.close();
+            }
           } catch (Throwable e) {
             if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
               Trace.log(Trace.ERROR,CLASS + ".close() " + "Error closing " + filename, e);
@@ -1002,7 +1120,7 @@ public class Format {
 	 * @return true if this trace contains invalid data.
 	 */
 	public boolean formatProlog() {
-		if(file_==null) {
+		if(file_==null && channel_==null) {
 			if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
 				Trace.log(Trace.ERROR,CLASS + ".formatProlog() " + "Input file not opened");
 			}
@@ -1010,7 +1128,7 @@ public class Format {
 		}
 
 		read(0, 258); // Read in the prolog plus the next record length
-		BitBuf bb= new BitBuf(data);
+		BitBuf bb= new BitBuf(data, 0, data.length);
 		nxtRecLen= new BitBuf(bb, 2048, 16); // Store the length of the next record
 		pro_= new Prolog(bb, filter_); // Create and parse the prolog
 		ifsrecs= pro_.getNumRecs(); // Store the total number of records
@@ -1051,6 +1169,18 @@ public class Format {
 	 * @return Frame 
 	 */
 	private Frame getNext() {
+		BitBuf bb= getNextData();
+		if (bb == null) {
+			return null;
+		}
+		return (new Frame(pro_, bb));
+	}
+
+	/**
+	 * Subroutine which reads the raw data of the next record
+	 * @return BitBuf The data of the next record, or null if there are no more records.
+	 */
+	private BitBuf getNextData() {
 		BitBuf bb;
 		int recLen= 0;
 		if (progress != null) { // Progress is being displayed
@@ -1061,16 +1191,17 @@ public class Format {
 			if (numrecs == ifsrecs) {
 				// If this is the last record we don't want to read past the end of the file.
 				read(0, nxtRecLen.toInt());
-				bb= new BitBuf(data);
+				bb= new BitBuf(data, 0, data.length);
 				recLen= (nxtRecLen.toInt() - 2) * 8;
 			} else {
 				read(0, nxtRecLen.toInt());
 				// Read in the next records plus the length of the following record
-				bb= new BitBuf(data);
+				bb= new BitBuf(data, 0, data.length);
 				recLen= (nxtRecLen.toInt() * 8) - 16;
 				nxtRecLen= new BitBuf(bb, recLen, 16);
 			}
-			return (new Frame(pro_, bb.slice(0, recLen)));
+			// data isn't reused, so the record can be a view of it
+			return bb.slice(0, recLen);
 		} else {
 			return null;
 		}
@@ -1085,7 +1216,11 @@ public class Format {
 		data= new byte[off + len];
 		int bytesRead = 0;
 		try {
-			bytesRead = file_.read(data, off, len); // Reads and stores the input in the data array
+			if (channel_ != null) {
+				bytesRead = readMapped(off, len);
+			} else {
+				bytesRead = file_.read(data, off, len); // Reads and stores the input in the data array
+			}
 		} catch (IOException e) {
 			if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
 				Trace.log(Trace.ERROR,CLASS + ".read() " + "Error reading file",e);
@@ -1098,6 +1233,30 @@ public class Format {
          }
 	}
 
+	/** 
+	 * Copies len bytes of the memory mapped file into the data array starting at off offset.<br>
+	 * The file is mapped in regions of MAP_SIZE bytes, so files larger than 2GB can be read.
+	 * @param off       the offset in the data array to start storing at.
+	 * @param len       the number of bytes to read.
+	 * @return          the number of bytes read.
+	 */
+	private int readMapped(int off, int len) throws IOException {
+		if (map_ == null || position_ + len > mapStart_ + map_.limit()) {
+			// Map the next region of the file, starting at this record
+			long size= Math.min(Math.max(MAP_SIZE, len), channel_.size() - position_);
+			if (size <= 0) {
+				return -1;
+			}
+			map_= channel_.map(FileChannel.MapMode.READ_ONLY, position_, size);
+			mapStart_= position_;
+		}
+		int bytesRead= (int) Math.min(len, mapStart_ + map_.limit() - position_);
+		map_.position((int) (position_ - mapStart_));
+		map_.get(data, off, bytesRead);
+		position_ += bytesRead;
+		return bytesRead;
+	}
+
 	/** 
 	 * Return a String containing the banner. 
 	 * @return	String containing the banner.
@@ -210,9 +210,9 @@ class FormatDisplay extends WindowAdapter implements Runnable {
 					    }
 					}
 
-					this.fmt = new Format(prop,outfile,filename); // Create the format
+					this.fmt = new Format(prop,outfile,filename,true); // Create the format on the memory mapped trace
 					long strtime = System.currentTimeMillis(); // Record start time of trace
-					this.fmt.toLclBinFile(); // Format and output to the file specified
+					this.fmt.toLclBinFile(Runtime.getRuntime().availableProcessors()); // Format and output to the file specified
 					long endtime = System.currentTimeMillis(); // Record end time of trace
 					if (Trace.isTraceOn() && Trace.isTraceInformationOn()) {
 						Trace.log(Trace.INFORMATION,CLASS + ".run() " + "Format Start/End/Total Time:" + strtime + "/" + endtime + "/" + (endtime - strtime)); 
@@ -0,0 +1,651 @@
+///////////////////////////////////////////////////////////////////////////////
+//
+// JTOpen (IBM Toolbox for Java - OSS version)
+//
+// Filename: FrameIndex.java
+//
+// The source code contained herein is licensed under the IBM Public License
+// Version 1.0, which has been approved by the Open Source Initiative.
+// Copyright (C) 2026 International Business Machines Corporation and
+// others. All rights reserved.
+//
+///////////////////////////////////////////////////////////////////////////////
+
+package com.ibm.as400.util.commtrace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.ibm.as400.access.Trace;
+
+/**
+ * An index of the frames in a raw communications trace which allows the frames of
+ * one connection or one time window to be read without parsing the rest of the trace.<br>
+ * The index is built in one pass over the trace. For each frame it records the offset
+ * and length of the frame in the trace, its timestamp and its connection. A connection is
+ * identified by its protocol and its two endpoints (address and port), so the frames
+ * sent in both directions belong to the same connection.<br>
+ * The index is saved in a sidecar file, so it only needs to be built once for a trace.
+ * A example program:<br>
+ *
+ * <pre>
+ * FrameIndex index = FrameIndex.open("/path/to/trace", "/path/to/trace.idx");
+ * FrameIndex.Connection[] conns = index.getConnections("10.1.1.1", 8471);
+ * for(int i=0; i&lt;conns.length; i++) {
+ *	 System.out.println(conns[i]);
+ *	 Frame[] frames = index.getFrames(conns[i]);
+ *	 for(int j=0; j&lt;frames.length; j++) {
+ *	 	System.out.println(frames[j].toString(fmtprop));
+ *	 }
+ * }
+ * index.close();
+ * </pre>
+ */
+public class FrameIndex {
+	private static final String CLASS="FrameIndex";
+	private static final int MAGIC= 0x43544958, // "CTIX"
+				VERSION= 1;
+	private static final int PROLOG_LENGTH= 256, // The length of the prolog at the start of the trace
+				IFS_HEADER_LENGTH= 22; // The length of the header at the start of each frame
+	private static final int HEADER_BYTES= 128; // Enough bytes of a frame to find its connection
+
+	/** The connection of frames which don't have an IPv4 or IPv6 TCP or UDP header. */
+	public static final int NO_CONNECTION= -1;
+
+	private final String traceFile_;
+	private FileChannel channel_; // The trace file
+	private final Prolog pro_;
+	// For each frame in the trace, its offset, length, timestamp and connection
+	private final long[] offsets_;
+	private final int[] lengths_;
+	private final long[] times_;
+	private final int[] connections_;
+	private final Connection[] connectionTable_;
+
+	private FrameIndex(String traceFile, long[] offsets, int[] lengths, long[] times, int[] connections, Connection[] connectionTable) throws IOException {
+		traceFile_= traceFile;
+		offsets_= offsets;
+		lengths_= lengths;
+		times_= times;
+		connections_= connections;
+		connectionTable_= connectionTable;
+		for (int i= 0; i < connections.length; i++) {
+			if (connections[i] != NO_CONNECTION) {
+				connectionTable[connections[i]].frames_++;
+			}
+		}
+		channel_= new RandomAccessFile(traceFile, "r").getChannel();
+		byte[] prolog= new byte[PROLOG_LENGTH];
+		readFully(0, prolog, PROLOG_LENGTH);
+		pro_= new Prolog(new BitBuf(prolog, 0, PROLOG_LENGTH), new FormatProperties());
+	}
+
+	/**
+	 * Opens the index of a trace.<br>
+	 * If the index file doesn't exist or is out of date the index is built and saved in it.
+	 * @param traceFile The name of the raw trace file.
+	 * @param indexFile The name of the index file.
+	 * @return The index.
+	 * @exception IOException If an error occurs reading the trace or the index.
+	 */
+	public static FrameIndex open(String traceFile, String indexFile) throws IOException {
+		File index= new File(indexFile);
+		if (index.exists()) {
+			FrameIndex result= load(traceFile, indexFile);
+			if (result != null) {
+				return result;
+			}
+		}
+		return build(traceFile, indexFile);
+	}
+
+	/**
+	 * Builds the index of a trace in one pass over the trace and saves it in the index file.
+	 * @param traceFile The name of the raw trace file.
+	 * @param indexFile The name of the index file, or null if the index shouldn't be saved.
+	 * @return The index.
+	 * @exception IOException If an error occurs reading the trace or writing the index.
+	 */
+	public static FrameIndex build(String traceFile, String indexFile) throws IOException {
+		File trace= new File(traceFile);
+		DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(trace), 1024 * 1024));
+		int count;
+		long[] offsets;
+		int[] lengths;
+		long[] times;
+		int[] connections;
+		ArrayList<Connection> connectionTable= new ArrayList<Connection>();
+		try {
+			byte[] prolog= new byte[PROLOG_LENGTH];
+			in.readFully(prolog);
+			Prolog pro= new Prolog(new BitBuf(prolog, 0, PROLOG_LENGTH), new FormatProperties());
+			if (pro.invalidData()) {
+				throw new IOException("Not a valid IBM i CommTrace: " + traceFile);
+			}
+			boolean tokenRing= pro.getProtocol().equals("E");
+			int numRecs= pro.getNumRecs();
+			offsets= new long[numRecs];
+			lengths= new int[numRecs];
+			times= new long[numRecs];
+			connections= new int[numRecs];
+
+			HashMap<Connection, Connection> known= new HashMap<Connection, Connection>();
+			byte[] data= new byte[HEADER_BYTES];
+			long offset= PROLOG_LENGTH + 2;
+			int recLen= in.readUnsignedShort(); // The length of the first record
+			for (count= 0; count < numRecs && recLen >= 2; count++) {
+				// Each record is followed by the length of the next record
+				int frameLen= recLen - 2;
+				int read= Math.min(frameLen, HEADER_BYTES);
+				in.readFully(data, 0, read);
+				skipFully(in, frameLen - read);
+				offsets[count]= offset;
+				lengths[count]= frameLen;
+				times[count]= Time.toMillis(getLong(data, 2, read));
+				Connection conn= getConnection(data, read, tokenRing);
+				if (conn == null) {
+					connections[count]= NO_CONNECTION;
+				} else {
+					Connection existing= known.get(conn);
+					if (existing == null) {
+						conn.id_= connectionTable.size();
+						connectionTable.add(conn);
+						known.put(conn, conn);
+						existing= conn;
+					}
+					connections[count]= existing.id_;
+				}
+				offset += recLen;
+				if (count + 1 < numRecs) {
+					recLen= in.readUnsignedShort();
+				}
+			}
+		} catch (EOFException e) {
+			throw new IOException("Trace ended before the last record: " + traceFile);
+		} finally {
+			in.close();
+		}
+		if (count < offsets.length) {
+			offsets= Arrays.copyOf(offsets, count);
+			lengths= Arrays.copyOf(lengths, count);
+			times= Arrays.copyOf(times, count);
+			connections= Arrays.copyOf(connections, count);
+		}
+		Connection[] table= connectionTable.toArray(new Connection[connectionTable.size()]);
+		if (indexFile != null) {
+			save(indexFile, trace, offsets, lengths, times, connections, table);
+		}
+		return new FrameIndex(traceFile, offsets, lengths, times, connections, table);
+	}
+
+	/**
+	 * Loads a saved index.
+	 * @return The index, or null if the index file isn't an index of this trace.
+	 */
+	private static FrameIndex load(String traceFile, String indexFile) throws IOException {
+		File trace= new File(traceFile);
+		DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), 1024 * 1024));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION
+				|| in.readLong() != trace.length() || in.readLong() != trace.lastModified()) {
+				if (Trace.isTraceOn() && Trace.isTraceInformationOn()) {
+					Trace.log(Trace.INFORMATION,CLASS + ".load() " + "Index out of date:" + indexFile);
+				}
+				return null;
+			}
+			Connection[] table= new Connection[in.readInt()];
+			for (int i= 0; i < table.length; i++) {
+				int protocol= in.readUnsignedByte();
+				byte[] addr1= new byte[in.readUnsignedByte()];
+				in.readFully(addr1);
+				int port1= in.readUnsignedShort();
+				byte[] addr2= new byte[in.readUnsignedByte()];
+				in.readFully(addr2);
+				int port2= in.readUnsignedShort();
+				table[i]= new Connection(protocol, addr1, port1, addr2, port2);
+				table[i].id_= i;
+			}
+			int count= in.readInt();
+			long[] offsets= new long[count];
+			int[] lengths= new int[count];
+			long[] times= new long[count];
+			int[] connections= new int[count];
+			for (int i= 0; i < count; i++) {
+				offsets[i]= in.readLong();
+				lengths[i]= in.readUnsignedShort();
+				times[i]= in.readLong();
+				connections[i]= in.readInt();
+			}
+			return new FrameIndex(traceFile, offsets, lengths, times, connections, table);
+		} catch (EOFException e) {
+			if (Trace.isTraceOn() && Trace.isTraceErrorOn()) {
+				Trace.log(Trace.ERROR,CLASS + ".load() " + "Index truncated:" + indexFile, e);
+			}
+			return null;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Saves an index in the index file.
+	 */
+	private static void save(String indexFile, File trace, long[] offsets, int[] lengths, long[] times, int[] connections, Connection[] table) throws IOException {
+		DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), 1024 * 1024));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(trace.length());
+			out.writeLong(trace.lastModified());
+			out.writeInt(table.length);
+			for (int i= 0; i < table.length; i++) {
+				Connection conn= table[i];
+				out.writeByte(conn.protocol_);
+				out.writeByte(conn.addr1_.length);
+				out.write(conn.addr1_);
+				out.writeShort(conn.port1_);
+				out.writeByte(conn.addr2_.length);
+				out.write(conn.addr2_);
+				out.writeShort(conn.port2_);
+			}
+			out.writeInt(offsets.length);
+			for (int i= 0; i < offsets.length; i++) {
+				out.writeLong(offsets[i]);
+				out.writeShort(lengths[i]);
+				out.writeLong(times[i]);
+				out.writeInt(connections[i]);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Returns the connection of a frame, or null if the frame doesn't have a TCP or UDP header.
+	 * The frame header is parsed the same way as by Frame and LanHeader.
+	 * @param data The first bytes of the frame.
+	 * @param len The number of bytes of the frame in data.
+	 * @param tokenRing true if the trace is of a token ring line.
+	 */
+	private static Connection getConnection(byte[] data, int len, boolean tokenRing) {
+		if (len < IFS_HEADER_LENGTH || (data[21] & 0xFF) != 0xE8) { // Not a TCP frame ('Y' in EBCDIC)
+			return null;
+		}
+		int routeLen= data[20] & 0xFF;
+		int start, typeOffset;
+		if ((data[19] & 0xFF) == 0xFF) {
+			if (tokenRing) {
+				start= IFS_HEADER_LENGTH + routeLen + 22;
+				typeOffset= 36 + routeLen + 6;
+			} else { // 802.3 Ethernet
+				start= IFS_HEADER_LENGTH + 22;
+				typeOffset= 42;
+			}
+		} else { // Ethernet V2
+			start= IFS_HEADER_LENGTH + 14;
+			typeOffset= 34;
+		}
+		if (typeOffset + 2 > len) {
+			return null;
+		}
+		int frameType= getShort(data, typeOffset);
+		int protocol, portsOffset;
+		byte[] addr1, addr2;
+		if (frameType == 0x0800) { // IPv4
+			if (start + 20 > len) {
+				return null;
+			}
+			protocol= data[start + 9] & 0xFF;
+			addr1= Arrays.copyOfRange(data, start + 12, start + 16);
+			addr2= Arrays.copyOfRange(data, start + 16, start + 20);
+			portsOffset= start + (data[start] & 0xF) * 4;
+		} else if (frameType == 0x86DD) { // IPv6
+			if (start + 40 > len) {
+				return null;
+			}
+			protocol= data[start + 6] & 0xFF;
+			addr1= Arrays.copyOfRange(data, start + 8, start + 24);
+			addr2= Arrays.copyOfRange(data, start + 24, start + 40);
+			portsOffset= start + 40;
+		} else {
+			return null;
+		}
+		if ((protocol != Connection.TCP && protocol != Connection.UDP) || portsOffset + 4 > len) {
+			return null;
+		}
+		return new Connection(protocol, addr1, getShort(data, portsOffset), addr2, getShort(data, portsOffset + 2));
+	}
+
+	/**
+	 * Returns the number of frames in the trace.
+	 * @return The number of frames.
+	 */
+	public int getNumberOfFrames() {
+		return offsets_.length;
+	}
+
+	/**
+	 * Returns the prolog of the trace.
+	 * @return The prolog.
+	 */
+	public Prolog getProlog() {
+		return pro_;
+	}
+
+	/**
+	 * Returns all of the connections in the trace.
+	 * @return The connections, in the order of their first frame.
+	 */
+	public Connection[] getConnections() {
+		return connectionTable_.clone();
+	}
+
+	/**
+	 * Returns the connections with an endpoint with the given address and port.
+	 * @param address The IP address of the endpoint, or null for any address.
+	 * @param port The port of the endpoint, or -1 for any port.
+	 * @return The connections.
+	 * @exception IOException If the address isn't a valid IP address.
+	 */
+	public Connection[] getConnections(String address, int port) throws IOException {
+		byte[] addr= (address == null ? null : InetAddress.getByName(address).getAddress());
+		ArrayList<Connection> result= new ArrayList<Connection>();
+		for (int i= 0; i < connectionTable_.length; i++) {
+			Connection conn= connectionTable_[i];
+			if (conn.hasEndpoint(addr, port)) {
+				result.add(conn);
+			}
+		}
+		return result.toArray(new Connection[result.size()]);
+	}
+
+	/**
+	 * Returns the timestamp of a frame.
+	 * @param frame The index of the frame, starting at 0.
+	 * @return The timestamp in milliseconds since the epoch.
+	 */
+	public long getTimeStamp(int frame) {
+		return times_[frame];
+	}
+
+	/**
+	 * Returns the connection of a frame.
+	 * @param frame The index of the frame, starting at 0.
+	 * @return The connection, or null if the frame doesn't have a TCP or UDP header.
+	 */
+	public Connection getConnection(int frame) {
+		return (connections_[frame] == NO_CONNECTION ? null : connectionTable_[connections_[frame]]);
+	}
+
+	/**
+	 * Reads and parses one frame.
+	 * @param frame The index of the frame, starting at 0.
+	 * @return The frame.
+	 * @exception IOException If an error occurs reading the trace.
+	 */
+	public Frame getFrame(int frame) throws IOException {
+		byte[] data= new byte[lengths_[frame]];
+		readFully(offsets_[frame], data, data.length);
+		return new Frame(pro_, new BitBuf(data, 0, data.length));
+	}
+
+	/**
+	 * Reads and parses the frames of one connection.
+	 * @param conn The connection.
+	 * @return The frames, in the order they are in the trace.
+	 * @exception IOException If an error occurs reading the trace.
+	 */
+	public Frame[] getFrames(Connection conn) throws IOException {
+		return getFrames(conn, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Reads and parses the frames in a time window.
+	 * @param startTime The start of the window in milliseconds since the epoch.
+	 * @param endTime The end of the window in milliseconds since the epoch.
+	 * @return The frames, in the order they are in the trace.
+	 * @exception IOException If an error occurs reading the trace.
+	 */
+	public Frame[] getFrames(long startTime, long endTime) throws IOException {
+		return getFrames(null, startTime, endTime);
+	}
+
+	/**
+	 * Reads and parses the frames of one connection in a time window.
+	 * Only the frames selected are read from the trace.
+	 * @param conn The connection, or null for the frames of all connections.
+	 * @param startTime The start of the window in milliseconds since the epoch.
+	 * @param endTime The end of the window in milliseconds since the epoch.
+	 * @return The frames, in the order they are in the trace.
+	 * @exception IOException If an error occurs reading the trace.
+	 */
+	public Frame[] getFrames(Connection conn, long startTime, long endTime) throws IOException {
+		int[] frames= findFrames(conn, startTime, endTime);
+		Frame[] result= new Frame[frames.length];
+		for (int i= 0; i < frames.length; i++) {
+			result[i]= getFrame(frames[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the indexes of the frames of one connection in a time window, without reading them.
+	 * @param conn The connection, or null for the frames of all connections.
+	 * @param startTime The start of the window in milliseconds since the epoch.
+	 * @param endTime The end of the window in milliseconds since the epoch.
+	 * @return The indexes of the frames, starting at 0.
+	 */
+	public int[] findFrames(Connection conn, long startTime, long endTime) {
+		if (conn != null && (conn.id_ >= connectionTable_.length || connectionTable_[conn.id_] != conn)) {
+			conn= findConnection(conn);
+			if (conn == null) {
+				return new int[0];
+			}
+		}
+		int[] result= new int[conn == null ? offsets_.length : conn.frames_];
+		int count= 0;
+		for (int i= 0; i < offsets_.length; i++) {
+			if ((conn == null || connections_[i] == conn.id_) && times_[i] >= startTime && times_[i] <= endTime) {
+				result[count++]= i;
+			}
+		}
+		return (count == result.length ? result : Arrays.copyOf(result, count));
+	}
+
+	/**
+	 * Closes the trace file.
+	 * @exception IOException If an error occurs closing the trace.
+	 */
+	public void close() throws IOException {
+		if (channel_ != null) {
+			channel_.close();
+			channel_= null;
+		}
+	}
+
+	// Returns the connection of this index equal to one from another index of the same trace.
+	private Connection findConnection(Connection conn) {
+		for (int i= 0; i < connectionTable_.length; i++) {
+			if (connectionTable_[i].equals(conn)) {
+				return connectionTable_[i];
+			}
+		}
+		return null;
+	}
+
+	// Reads len bytes of the trace starting at the given offset.
+	private void readFully(long offset, byte[] data, int len) throws IOException {
+		if (channel_ == null) {
+			throw new IOException("Index closed: " + traceFile_);
+		}
+		ByteBuffer buf= ByteBuffer.wrap(data, 0, len);
+		while (buf.hasRemaining()) {
+			if (channel_.read(buf, offset + buf.position()) < 0) {
+				throw new EOFException(traceFile_);
+			}
+		}
+	}
+
+	private static void skipFully(DataInputStream in, int len) throws IOException {
+		while (len > 0) {
+			int skipped= in.skipBytes(len);
+			if (skipped <= 0) {
+				throw new EOFException();
+			}
+			len -= skipped;
+		}
+	}
+
+	private static int getShort(byte[] data, int off) {
+		return ((data[off] & 0xFF) << 8) | (data[off + 1] & 0xFF);
+	}
+
+	private static long getLong(byte[] data, int off, int len) {
+		if (off + 8 > len) {
+			return 0;
+		}
+		long l= 0;
+		for (int i= off; i < off + 8; i++) {
+			l= (l << 8) | (data[i] & 0xFF);
+		}
+		return l;
+	}
+
+	/**
+	 * A TCP or UDP connection in a trace, identified by its protocol and its two endpoints.
+	 * The endpoints are kept in a fixed order, so the frames sent in both directions have the same connection.
+	 */
+	public static class Connection {
+		/** The IP protocol number of TCP. */
+		public static final int TCP= 6;
+		/** The IP protocol number of UDP. */
+		public static final int UDP= 17;
+
+		private final int protocol_;
+		private final byte[] addr1_, addr2_;
+		private final int port1_, port2_;
+		private int id_; // The index of this connection in the connection table
+		private int frames_; // The number of frames of this connection
+
+		Connection(int protocol, byte[] srcAddr, int srcPort, byte[] dstAddr, int dstPort) {
+			protocol_= protocol;
+			if (compare(srcAddr, srcPort, dstAddr, dstPort) <= 0) {
+				addr1_= srcAddr;
+				port1_= srcPort;
+				addr2_= dstAddr;
+				port2_= dstPort;
+			} else {
+				addr1_= dstAddr;
+				port1_= dstPort;
+				addr2_= srcAddr;
+				port2_= srcPort;
+			}
+		}
+
+		private static int compare(byte[] addr1, int port1, byte[] addr2, int port2) {
+			if (addr1.length != addr2.length) {
+				return addr1.length - addr2.length;
+			}
+			for (int i= 0; i < addr1.length; i++) {
+				if (addr1[i] != addr2[i]) {
+					return (addr1[i] & 0xFF) - (addr2[i] & 0xFF);
+				}
+			}
+			return port1 - port2;
+		}
+
+		boolean hasEndpoint(byte[] addr, int port) {
+			return ((addr == null || Arrays.equals(addr, addr1_)) && (port < 0 || port == port1_))
+				|| ((addr == null || Arrays.equals(addr, addr2_)) && (port < 0 || port == port2_));
+		}
+
+		/**
+		 * Returns the IP protocol number of this connection.
+		 * @return TCP or UDP.
+		 */
+		public int getProtocol() {
+			return protocol_;
+		}
+
+		/**
+		 * Returns the address of the first endpoint.
+		 * @return The address in the same format as in the formatted trace.
+		 */
+		public String getAddress1() {
+			return toString(addr1_);
+		}
+
+		/**
+		 * Returns the port of the first endpoint.
+		 * @return The port.
+		 */
+		public int getPort1() {
+			return port1_;
+		}
+
+		/**
+		 * Returns the address of the second endpoint.
+		 * @return The address in the same format as in the formatted trace.
+		 */
+		public String getAddress2() {
+			return toString(addr2_);
+		}
+
+		/**
+		 * Returns the port of the second endpoint.
+		 * @return The port.
+		 */
+		public int getPort2() {
+			return port2_;
+		}
+
+		/**
+		 * Returns the number of frames of this connection in the trace.
+		 * @return The number of frames.
+		 */
+		public int getNumberOfFrames() {
+			return frames_;
+		}
+
+		private static String toString(byte[] addr) {
+			BitBuf data= new BitBuf(addr, 0, addr.length);
+			return (addr.length == 4 ? new IP4Address(data).toString() : new IP6Address(data).toString());
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof Connection)) {
+				return false;
+			}
+			Connection conn= (Connection) o;
+			return protocol_ == conn.protocol_ && port1_ == conn.port1_ && port2_ == conn.port2_
+				&& Arrays.equals(addr1_, conn.addr1_) && Arrays.equals(addr2_, conn.addr2_);
+		}
+
+		public int hashCode() {
+			return ((protocol_ * 31 + Arrays.hashCode(addr1_)) * 31 + port1_) * 31 + Arrays.hashCode(addr2_) * 17 + port2_;
+		}
+
+		/**
+		 * Returns a printable representation of this connection.
+		 * @return The protocol and the two endpoints.
+		 */
+		public String toString() {
+			return (protocol_ == TCP ? "TCP " : "UDP ") + getAddress1() + ":" + port1_ + " <-> " + getAddress2() + ":" + port2_
+				+ " (" + frames_ + " frames)";
+		}
+	}
+}
@@ -23,7 +23,7 @@ import java.util.Date;
 class Time {
 	long mask= 0xFFFFFFFFFFC00000L; // Mask to and out uneeded bits
 	// Mask to and with if date is in 21st Century
-	long mask2= 0x7FFFFFFFFFC00000L;
+	static final long mask2= 0x7FFFFFFFFFC00000L;
 	long timestamp;
 	Calendar cal;
 
@@ -42,13 +42,7 @@ class Time {
 	 * Modifies the timestamp to remove unneeded bits and sets the time of the calendar. 
 	 */
 	private void createCal() {
-		timestamp= (timestamp & mask2);
-
-		// Remove unneeded bits
-		timestamp= timestamp >>> 16;
-		timestamp= ((timestamp / 64) * 1024);
-		timestamp += 946702800000000L;
-		timestamp /= 1000;
+		timestamp= toMillis(timestamp);
 
 		// Used if you don't want milliseconds to be calculated
 		//    	timestamp /= 1000000;
@@ -118,6 +112,24 @@ class Time {
 		}
 	}
 
+	/**
+	 * Converts a 64 bit timestamp to milliseconds since the epoch(January 1, 1970, 00:00:00 GMT). 
+	 * @param timestamp	    The 64 bit timestamp        
+	 * @return long
+	 */
+	static long toMillis(long timestamp) {
+		if (timestamp == 0) {
+			return 0;
+		}
+		timestamp= (timestamp & mask2);
+
+		// Remove unneeded bits
+		timestamp= timestamp >>> 16;
+		timestamp= ((timestamp / 64) * 1024);
+		timestamp += 946702800000000L;
+		return timestamp / 1000;
+	}
+
 	/**
 	 * Returns the timestamp in milliseconds since the epoch(January 1, 1970, 00:00:00 GMT). 
 	 * @return long
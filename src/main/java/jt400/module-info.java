@@ -22,6 +22,8 @@ module jt400 {
 
     provides java.sql.Driver with
         com.ibm.as400.access.AS400JDBCDriver;
+    provides java.nio.charset.spi.CharsetProvider with
+        com.ibm.as400.access.ConvTableCharsetProvider;
 
 }
 